@@ -0,0 +1,404 @@
+package polynomial;
+
+/**
+ * The AbstractModularPolynomial class defines the common behavior of polynomials whose
+ * coefficients are residues modulo a number, the dense {@link DenseModularPolynomial} and
+ * the sparse {@link SparseModularPolynomial}. Coefficients are stored as ints in
+ * [0, modulus), and all arithmetic on them goes through the shared {@link ModularContext}.
+ * Int polynomials passed to add or multiply are first reduced into the ring, so mixing
+ * the two kinds gives a modular result, in either order. Modular polynomials are only
+ * equal to modular polynomials with the same modulus and the same residues.
+ */
+abstract class AbstractModularPolynomial extends AbstractPolynomial {
+
+  private final ModularContext context;
+
+  /**
+   * Constructor for subclasses.
+   *
+   * @param context the ring of the coefficients.
+   * @throws IllegalArgumentException if the context is null.
+   */
+  AbstractModularPolynomial(ModularContext context) throws IllegalArgumentException {
+    if (context == null) {
+      throw new IllegalArgumentException("Context cannot be null.");
+    }
+    this.context = context;
+  }
+
+  /**
+   * Returns the ring of the coefficients.
+   *
+   * @return the context holding the modulus.
+   */
+  public ModularContext getContext() {
+    return context;
+  }
+
+  /**
+   * Returns the terms of this polynomial in the sparse representation. The result may
+   * share its arrays with this polynomial and must not be modified.
+   *
+   * @return the sparse view of the terms.
+   */
+  abstract SparseModularPolynomial toSparseModular();
+
+  /**
+   * Adds a polynomial over the same ring to this one.
+   *
+   * @param other the other polynomial, with the same modulus.
+   * @return the sum.
+   */
+  abstract AbstractModularPolynomial addModular(AbstractModularPolynomial other);
+
+  /**
+   * Multiplies this polynomial with a polynomial over the same ring.
+   *
+   * @param other the other polynomial, with the same modulus.
+   * @return the product.
+   */
+  abstract AbstractModularPolynomial multiplyModular(AbstractModularPolynomial other);
+
+  /**
+   * Returns the constant polynomial 1 in the representation of this polynomial.
+   *
+   * @return the polynomial 1.
+   */
+  abstract AbstractModularPolynomial one();
+
+  /**
+   * Evaluates the polynomial at a residue of the ring.
+   *
+   * @param x the value at which the polynomial is to be evaluated, reduced first.
+   * @return the value of the polynomial, in [0, modulus).
+   */
+  public abstract long evaluateModular(long x);
+
+  /**
+   * Brings another polynomial into the ring of this one. Modular polynomials must have the
+   * same modulus, and int polynomials are reduced.
+   *
+   * @param other the other polynomial.
+   * @return the other polynomial as a modular polynomial over the same ring.
+   * @throws IllegalArgumentException if the other polynomial is null or has another modulus.
+   */
+  AbstractModularPolynomial coerce(Polynomial other) throws IllegalArgumentException {
+    if (other == null) {
+      throw new IllegalArgumentException("Polynomial cannot be null.");
+    }
+    if (other instanceof ImmutablePolynomial) {
+      other = ((ImmutablePolynomial) other).getTerms();
+    }
+    if (other instanceof AbstractModularPolynomial) {
+      AbstractModularPolynomial modular = (AbstractModularPolynomial) other;
+      if (!modular.context.equals(context)) {
+        throw new IllegalArgumentException("Polynomials have different moduli.");
+      }
+      return modular;
+    }
+    if (other instanceof SparsePolynomial) {
+      SparsePolynomial sparse = (SparsePolynomial) other;
+      int[] powers = sparse.getPowerArray();
+      int[] coefficients = sparse.getCoefficientArray();
+      int size = sparse.getTermCount();
+      int[] reducedPowers = new int[size];
+      int[] reduced = new int[size];
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        int residue = (int) context.reduce(coefficients[i]);
+        if (residue != 0) {
+          reducedPowers[count] = powers[i];
+          reduced[count] = residue;
+          count++;
+        }
+      }
+      return new SparseModularPolynomial(context, reducedPowers, reduced, count);
+    }
+    int degree = other.getDegree();
+    int[] reduced = new int[degree + 1];
+    for (int power = 0; power <= degree; power++) {
+      reduced[power] = (int) context.reduce(other.getCoefficient(power));
+    }
+    return new DenseModularPolynomial(context, reduced, degree);
+  }
+
+  /**
+   * Adds another polynomial to this polynomial in the ring of this polynomial.
+   *
+   * @param other the other polynomial to be added.
+   * @return the sum as a modular polynomial.
+   * @throws IllegalArgumentException if the other polynomial is null or has another modulus.
+   */
+  @Override
+  public Polynomial add(Polynomial other) throws IllegalArgumentException {
+    return addModular(coerce(other));
+  }
+
+  /**
+   * Multiplies this polynomial with another polynomial in the ring of this polynomial.
+   *
+   * @param other the other polynomial to be multiplied.
+   * @return the product as a modular polynomial.
+   * @throws IllegalArgumentException if the other polynomial is null or has another modulus.
+   */
+  @Override
+  public Polynomial multiply(Polynomial other) throws IllegalArgumentException {
+    return multiplyModular(coerce(other));
+  }
+
+  /**
+   * Raises this polynomial to a non-negative integer power by repeated squaring.
+   *
+   * @param n the exponent.
+   * @return the power as a modular polynomial.
+   * @throws IllegalArgumentException if the exponent is negative or the degree of the
+   *                                  result does not fit in an int.
+   */
+  @Override
+  public Polynomial pow(int n) throws IllegalArgumentException {
+    if (n < 0) {
+      throw new IllegalArgumentException("Exponent cannot be negative.");
+    }
+    if ((long) getDegree() * n > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Power of the result exceeds the int range.");
+    }
+    AbstractModularPolynomial result = one();
+    for (int bit = Integer.highestOneBit(n); bit > 0; bit >>>= 1) {
+      result = result.multiplyModular(result);
+      if ((n & bit) != 0) {
+        result = result.multiplyModular(this);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Divides this polynomial by another in the ring of this polynomial with the kernels of
+   * {@link ModularKernels}, which use long division for short quotients and a Newton
+   * reciprocal for long ones. The results keep the representation of this polynomial.
+   *
+   * @param divisor the polynomial to divide by, reduced first if it is an int polynomial.
+   * @return the quotient at index 0 and the remainder at index 1.
+   * @throws IllegalArgumentException if the divisor is null, zero, has another modulus or
+   *                                  its leading coefficient is not invertible.
+   */
+  @Override
+  public Polynomial[] divideAndRemainder(Polynomial divisor) throws IllegalArgumentException {
+    long modulus = context.getModulus();
+    long[] b = ModularKernels.reduce(coerce(divisor), modulus);
+    long[][] result;
+    try {
+      result = ModularKernels.divideAndRemainder(ModularKernels.reduce(this, modulus), b,
+              modulus);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException(e.getMessage());
+    }
+    return new Polynomial[]{fromResidues(result[0]), fromResidues(result[1])};
+  }
+
+  /**
+   * Substitutes another polynomial into this one in the ring of this polynomial with
+   * {@link PolynomialComposition}. The result keeps the representation of this polynomial.
+   *
+   * @param inner the polynomial substituted for x, reduced first if it is an int
+   *              polynomial.
+   * @return the composition.
+   * @throws IllegalArgumentException if the inner polynomial is null, has another modulus
+   *                                  or the degree of the result does not fit in an int.
+   */
+  @Override
+  public Polynomial compose(Polynomial inner) throws IllegalArgumentException {
+    AbstractModularPolynomial other = coerce(inner);
+    PolynomialComposition.checkDegree(getDegree(), other.getDegree(),
+            PolynomialComposition.ALL);
+    long modulus = context.getModulus();
+    return fromResidues(PolynomialComposition.composeModulo(
+            ModularKernels.reduce(this, modulus), ModularKernels.reduce(other, modulus), modulus));
+  }
+
+  /**
+   * Substitutes another polynomial into this one in the ring of this polynomial and keeps
+   * the powers below the given length.
+   *
+   * @param inner  the polynomial substituted for x, reduced first if it is an int
+   *               polynomial.
+   * @param length the number of low powers to keep.
+   * @return the truncated composition.
+   * @throws IllegalArgumentException if the inner polynomial is null, has another modulus
+   *                                  or the length is negative.
+   */
+  @Override
+  public Polynomial compose(Polynomial inner, int length) throws IllegalArgumentException {
+    AbstractModularPolynomial other = coerce(inner);
+    PolynomialComposition.checkLength(length);
+    long modulus = context.getModulus();
+    return fromResidues(PolynomialComposition.composeTruncatedModulo(
+            ModularKernels.reduce(this, modulus), ModularKernels.reduce(other, modulus), length,
+            modulus));
+  }
+
+  /**
+   * Builds a polynomial over the ring of this one from dense residues, in the
+   * representation of this polynomial.
+   *
+   * @param residues the residues, indexed by power.
+   * @return the polynomial.
+   */
+  private AbstractModularPolynomial fromResidues(long[] residues) {
+    int[] coefficients = new int[Math.max(residues.length, 1)];
+    for (int power = 0; power < residues.length; power++) {
+      coefficients[power] = (int) residues[power];
+    }
+    DenseModularPolynomial dense = new DenseModularPolynomial(context, coefficients,
+            residues.length - 1);
+    return this instanceof DenseModularPolynomial ? dense : dense.toSparseModular();
+  }
+
+  /**
+   * Adds an int polynomial to this polynomial after reducing it.
+   *
+   * @param other the SimplePolynomial to be added.
+   * @return the sum as a modular polynomial.
+   */
+  @Override
+  protected Polynomial addSimple(SimplePolynomial other) {
+    return addModular(coerce(other));
+  }
+
+  /**
+   * Adds an int polynomial to this polynomial after reducing it.
+   *
+   * @param other the SparsePolynomial to be added.
+   * @return the sum as a modular polynomial.
+   */
+  @Override
+  protected Polynomial addSparse(SparsePolynomial other) {
+    return addModular(coerce(other));
+  }
+
+  /**
+   * Multiplies this polynomial by an int polynomial after reducing it.
+   *
+   * @param other the SimplePolynomial to multiply.
+   * @return the product as a modular polynomial.
+   */
+  @Override
+  protected Polynomial multiplySimple(SimplePolynomial other) {
+    return multiplyModular(coerce(other));
+  }
+
+  /**
+   * Multiplies this polynomial by an int polynomial after reducing it.
+   *
+   * @param other the SparsePolynomial to multiply.
+   * @return the product as a modular polynomial.
+   */
+  @Override
+  protected Polynomial multiplySparse(SparsePolynomial other) {
+    return multiplyModular(coerce(other));
+  }
+
+  /**
+   * A modular polynomial is never equal to an int polynomial.
+   *
+   * @param other the SimplePolynomial to compare.
+   * @return false.
+   */
+  @Override
+  protected boolean compareSimple(SimplePolynomial other) {
+    return false;
+  }
+
+  /**
+   * A modular polynomial is never equal to an int polynomial.
+   *
+   * @param other the SparsePolynomial to compare.
+   * @return false.
+   */
+  @Override
+  protected boolean compareSparse(SparsePolynomial other) {
+    return false;
+  }
+
+  /**
+   * Compares the terms of this polynomial with another modular polynomial over the same
+   * ring, whatever their representations.
+   *
+   * @param other the other polynomial to compare the terms.
+   * @return true if both have the same modulus and the same terms, false otherwise.
+   */
+  @Override
+  protected boolean compareTerms(Polynomial other) {
+    if (other instanceof ImmutablePolynomial) {
+      other = ((ImmutablePolynomial) other).getTerms();
+    }
+    if (!(other instanceof AbstractModularPolynomial)) {
+      return false;
+    }
+    AbstractModularPolynomial modular = (AbstractModularPolynomial) other;
+    if (!modular.context.equals(context)) {
+      return false;
+    }
+    SparseModularPolynomial first = this.toSparseModular();
+    SparseModularPolynomial second = modular.toSparseModular();
+    int size = first.getTermCount();
+    if (size != second.getTermCount()) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (first.getPowerArray()[i] != second.getPowerArray()[i]
+              || first.getCoefficientArray()[i] != second.getCoefficientArray()[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Generates the fingerprint of the terms and the modulus, so that it is the same for
+   * both representations and differs from that of an int polynomial with the same terms.
+   *
+   * @return the generated fingerprint.
+   */
+  @Override
+  protected long generateFingerprint() {
+    SparseModularPolynomial sparse = toSparseModular();
+    int size = sparse.getTermCount();
+    long sum = mixTerm((int) context.getModulus(), -1);
+    for (int i = 0; i < size; i++) {
+      sum += mixTerm(sparse.getCoefficientArray()[i], sparse.getPowerArray()[i]);
+    }
+    return finishFingerprint(sum, size + 1);
+  }
+
+  /**
+   * Returns an immutable copy of this polynomial.
+   *
+   * @return the immutable polynomial.
+   */
+  @Override
+  public Polynomial freeze() {
+    return new ImmutablePolynomial(copyOnWrite());
+  }
+
+  /**
+   * Returns a mutable copy of this polynomial.
+   *
+   * @return the copy.
+   */
+  @Override
+  public Polynomial toMutable() {
+    return copyOnWrite();
+  }
+
+  /**
+   * Checks whether this polynomial can change, which it can.
+   *
+   * @return false.
+   */
+  @Override
+  public boolean isImmutable() {
+    return false;
+  }
+
+}
@@ -1,5 +1,9 @@
 package polynomial;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.DoubleBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.Objects;
 
 /**
@@ -11,6 +15,13 @@ import java.util.Objects;
  */
 abstract class AbstractPolynomial implements Polynomial {
 
+  private static final int BUFFER_CHUNK = 4096;
+
+  /**
+   * The cached fingerprint, or 0 if it has not been computed since the last change.
+   */
+  private volatile long fingerprint;
+
   /**
    * Adds the given SimplePolynomial to the current polynomial.
    * Must be implemented by subclasses.
@@ -75,17 +86,235 @@ abstract class AbstractPolynomial implements Polynomial {
   protected abstract boolean compareTerms(Polynomial other);
 
   /**
-   * Generates the hash code for the polynomial.
-   * Must be implemented by subclasses to provide a unique hash code
-   * based on the polynomial's terms.
+   * Generates the 64-bit fingerprint of the polynomial. Must be implemented by subclasses
+   * by adding up {@link #mixTerm(int, int)} over the non-zero terms and passing the sum
+   * to {@link #finishFingerprint(long, int)}, so that equal polynomials get the same
+   * fingerprint whatever their representation.
    *
-   * @return the generated hash code.
+   * @return the generated fingerprint.
+   */
+  protected abstract long generateFingerprint();
+
+  /**
+   * Evaluates the polynomial at the points in the given index range.
+   * Must be implemented by subclasses with a kernel suited to their representation.
+   *
+   * @param xs   the points.
+   * @param out  the array receiving the values, at the same indices as the points.
+   * @param from the index of the first point to evaluate.
+   * @param to   the index after the last point to evaluate.
+   */
+  protected abstract void evaluateRange(double[] xs, double[] out, int from, int to);
+
+  /**
+   * Estimates the number of multiply-add steps needed to evaluate the polynomial at one
+   * point. Must be implemented by subclasses to size the tasks of parallel evaluation.
+   *
+   * @return the estimated number of steps per point.
+   */
+  protected abstract long evaluationSteps();
+
+  /**
+   * Counts the non-zero terms of the polynomial.
+   * Must be implemented by subclasses.
+   *
+   * @return the number of non-zero terms.
+   */
+  protected abstract int termCount();
+
+  /**
+   * Returns a new mutable polynomial with the same terms that shares the arrays of this
+   * polynomial and copies them before it is first modified. Must be implemented by
+   * subclasses for freeze and toMutable.
+   *
+   * @return the copy-on-write copy.
+   */
+  protected abstract AbstractPolynomial copyOnWrite();
+
+  /**
+   * Writes the non-zero terms of the polynomial in decreasing order of power.
+   * Must be implemented by subclasses for toString and writeTo.
+   *
+   * @param writer the writer receiving the terms.
+   * @throws IOException if the destination of the writer fails.
+   */
+  protected abstract void writeTerms(TermWriter writer) throws IOException;
+
+  /**
+   * Writes the polynomial in the toString format to an Appendable, in chunks of at most
+   * TermWriter.CHUNK characters, or term by term if it is a StringBuilder.
+   *
+   * @param out the Appendable receiving the text.
+   * @throws IOException              if appending fails.
+   * @throws IllegalArgumentException if out is null.
    */
-  protected abstract int generateHash();
+  @Override
+  public void writeTo(Appendable out) throws IOException, IllegalArgumentException {
+    if (out == null) {
+      throw new IllegalArgumentException("Appendable cannot be null.");
+    }
+    TermWriter writer = new TermWriter(out);
+    this.writeTerms(writer);
+    writer.finish();
+  }
+
+  /**
+   * Writes the polynomial in the toString format, encoded as ASCII, to a channel through
+   * a buffer of TermWriter.CHUNK bytes.
+   *
+   * @param channel the channel receiving the bytes.
+   * @throws IOException              if writing fails.
+   * @throws IllegalArgumentException if channel is null.
+   */
+  @Override
+  public void writeTo(WritableByteChannel channel)
+          throws IOException, IllegalArgumentException {
+    if (channel == null) {
+      throw new IllegalArgumentException("Channel cannot be null.");
+    }
+    TermWriter writer = new TermWriter(channel);
+    this.writeTerms(writer);
+    writer.finish();
+  }
+
+  /**
+   * Converts the polynomial into a string representation. Each term is represented in the
+   * form of `ax^b`, where `a` is the coefficient and `b` is the power, in decreasing order
+   * of power, and the zero polynomial is represented as 0.
+   *
+   * @return the string representation of the polynomial.
+   */
+  @Override
+  public String toString() {
+    StringBuilder stringPolynomial = new StringBuilder();
+    try {
+      this.writeTo(stringPolynomial);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return stringPolynomial.toString();
+  }
+
+  /**
+   * Evaluates the polynomial at many points at once. The points and the values may share
+   * the same array. Large batches are split across the threads of the pool returned by
+   * Parallelism.getPool(), with ranges sized from the cost of the polynomial, and give the
+   * same values as a sequential evaluation.
+   *
+   * @param xs  the points at which the polynomial is to be evaluated.
+   * @param out the array receiving the values, at the same indices as the points.
+   * @throws IllegalArgumentException if out is shorter than xs.
+   */
+  @Override
+  public void evaluate(double[] xs, double[] out) throws IllegalArgumentException {
+    if (out.length < xs.length) {
+      throw new IllegalArgumentException("Output array is shorter than the input array.");
+    }
+    double[] points = xs == out ? xs.clone() : xs;
+    long steps = this.evaluationSteps();
+    int grain = Parallelism.evaluationGrain(steps);
+    if (xs.length <= grain || steps * xs.length < Parallelism.getEvaluationThreshold()) {
+      this.evaluateRange(points, out, 0, xs.length);
+      return;
+    }
+    Parallelism.getPool().invoke(new EvaluationTask(this, points, out, 0, xs.length, grain));
+  }
+
+  /**
+   * Evaluates the polynomial at all the points remaining in a buffer. The points are copied
+   * through a bounded scratch array, so buffers of any kind and size can be used. The same
+   * buffer may be passed as both arguments, in which case every point is replaced by its
+   * value.
+   *
+   * @param xs  the buffer of points.
+   * @param out the buffer receiving the values.
+   * @throws IllegalArgumentException if out has less space remaining than xs has points.
+   */
+  @Override
+  public void evaluate(DoubleBuffer xs, DoubleBuffer out) throws IllegalArgumentException {
+    if (out.remaining() < xs.remaining()) {
+      throw new IllegalArgumentException("Output buffer has less space than the input.");
+    }
+    DoubleBuffer source = xs == out ? xs.duplicate() : xs;
+    double[] points = new double[Math.min(source.remaining(), BUFFER_CHUNK)];
+    double[] values = new double[points.length];
+    while (source.hasRemaining()) {
+      int length = Math.min(points.length, source.remaining());
+      source.get(points, 0, length);
+      this.evaluateRange(points, values, 0, length);
+      out.put(values, 0, length);
+    }
+  }
+
+  /**
+   * Returns a well mixed 64-bit fingerprint of the terms of the polynomial. Equal
+   * polynomials have equal fingerprints, whatever their representation, and different
+   * ones have different fingerprints except with a probability of about 2^-64. The
+   * fingerprint is computed once and cached until the polynomial is next modified.
+   *
+   * @return the fingerprint, never 0.
+   */
+  @Override
+  public long fingerprint() {
+    long cached = fingerprint;
+    if (cached == 0) {
+      cached = this.generateFingerprint();
+      fingerprint = cached;
+    }
+    return cached;
+  }
+
+  /**
+   * Drops the cached fingerprint. Must be called by subclasses whenever the terms change.
+   */
+  protected final void invalidateFingerprint() {
+    if (fingerprint != 0) {
+      fingerprint = 0;
+    }
+  }
+
+  /**
+   * Mixes a single term into a 64-bit value with the finalizer of the SplitMix64
+   * generator, so that every bit of the coefficient and the power affects every bit of
+   * the result.
+   *
+   * @param coefficient the coefficient of the term, not zero.
+   * @param power       the power of the term.
+   * @return the mixed value of the term.
+   */
+  protected static long mixTerm(int coefficient, int power) {
+    return mix(((long) power << 32 | (coefficient & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L);
+  }
+
+  /**
+   * Turns the sum of the mixed terms into a fingerprint.
+   *
+   * @param sum       the sum of {@link #mixTerm(int, int)} over the non-zero terms.
+   * @param termCount the number of non-zero terms.
+   * @return the fingerprint, never 0.
+   */
+  protected static long finishFingerprint(long sum, int termCount) {
+    long mixed = mix(sum + termCount * 0xBF58476D1CE4E5B9L);
+    return mixed == 0 ? 1 : mixed;
+  }
+
+  /**
+   * Applies the SplitMix64 finalizer to a value.
+   *
+   * @param z the value.
+   * @return the mixed value.
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
 
   /**
    * Compares the current polynomial with another object for equality.
-   * The comparison checks if the other object is a Polynomial and has the same degree and terms.
+   * The comparison checks if the other object is a Polynomial and has the same degree and
+   * terms. Polynomials whose fingerprints are both cached and differ are rejected without
+   * looking at their terms.
    *
    * @param o the object to compare.
    * @return true if the polynomials are equal, false otherwise.
@@ -98,6 +327,13 @@ abstract class AbstractPolynomial implements Polynomial {
     if (!(o instanceof Polynomial)) {
       return false;
     }
+    if (o instanceof AbstractPolynomial) {
+      long thisFingerprint = this.fingerprint;
+      long otherFingerprint = ((AbstractPolynomial) o).fingerprint;
+      if (thisFingerprint != 0 && otherFingerprint != 0 && thisFingerprint != otherFingerprint) {
+        return false;
+      }
+    }
     Polynomial other = (Polynomial) o;
     if (!Objects.equals(other.getDegree(), this.getDegree())) {
       return false;
@@ -106,13 +342,13 @@ abstract class AbstractPolynomial implements Polynomial {
   }
 
   /**
-   * Generates a hash code for the current polynomial.
-   * The hash code is based on the terms of the polynomial.
+   * Generates a hash code for the current polynomial by folding its fingerprint.
    *
    * @return the generated hash code.
    */
   @Override
   public int hashCode() {
-    return this.generateHash();
+    long value = this.fingerprint();
+    return (int) (value ^ (value >>> 32));
   }
 }
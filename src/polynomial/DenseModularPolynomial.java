@@ -0,0 +1,363 @@
+package polynomial;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The DenseModularPolynomial class is a polynomial over Z/pZ that stores the residue of
+ * every power up to its degree in an int array, like {@link SimplePolynomial} does for
+ * int coefficients. Sums and short products reduce every value with the Barrett reduction
+ * of its {@link ModularContext}. Long products use the number theoretic transform of
+ * {@link NttMultiplier}, which works modulo the prime directly when it is one of the
+ * transform primes.
+ */
+public class DenseModularPolynomial extends AbstractModularPolynomial {
+
+  private int[] coefficients;
+  private int degree;
+
+  /**
+   * Constructs the zero polynomial over the given ring.
+   *
+   * @param context the ring of the coefficients.
+   * @throws IllegalArgumentException if the context is null.
+   */
+  public DenseModularPolynomial(ModularContext context) throws IllegalArgumentException {
+    this(context, new int[1], -1);
+  }
+
+  /**
+   * Constructor that takes ownership of an array of residues. Slots above the given degree
+   * must be zero, and leading zeros at or below it are trimmed.
+   *
+   * @param context      the ring of the coefficients.
+   * @param coefficients the residues, indexed by power.
+   * @param degree       the highest power that may have a non-zero residue.
+   */
+  DenseModularPolynomial(ModularContext context, int[] coefficients, int degree) {
+    super(context);
+    this.coefficients = coefficients;
+    this.degree = degree;
+    while (this.degree >= 0 && coefficients[this.degree] == 0) {
+      this.degree--;
+    }
+  }
+
+  /**
+   * Returns the array backing this polynomial, where the residue of power i is stored at
+   * index i. The array is shared, not copied, and must not be modified by the caller.
+   *
+   * @return the backing residue array.
+   */
+  int[] getCoefficientArray() {
+    return coefficients;
+  }
+
+  /**
+   * Returns the highest power with a non-zero residue, or -1 for the zero polynomial.
+   *
+   * @return the index of the highest non-zero slot of the backing array.
+   */
+  int getHighestPower() {
+    return degree;
+  }
+
+  /**
+   * Returns the terms of this polynomial in the sparse representation.
+   *
+   * @return a new SparseModularPolynomial with the same terms.
+   */
+  @Override
+  SparseModularPolynomial toSparseModular() {
+    int count = termCount();
+    int[] powers = new int[count];
+    int[] residues = new int[count];
+    int index = 0;
+    for (int power = degree; power >= 0; power--) {
+      if (coefficients[power] != 0) {
+        powers[index] = power;
+        residues[index] = coefficients[power];
+        index++;
+      }
+    }
+    return new SparseModularPolynomial(getContext(), powers, residues, count);
+  }
+
+  /**
+   * Adds a polynomial over the same ring. Two dense polynomials give a dense sum, and a
+   * sparse operand gives a sparse one.
+   *
+   * @param other the other polynomial, with the same modulus.
+   * @return the sum.
+   */
+  @Override
+  AbstractModularPolynomial addModular(AbstractModularPolynomial other) {
+    if (!(other instanceof DenseModularPolynomial)) {
+      return toSparseModular().addModular(other);
+    }
+    DenseModularPolynomial dense = (DenseModularPolynomial) other;
+    ModularContext context = getContext();
+    int length = Math.max(this.degree, dense.degree) + 1;
+    int[] sum = new int[Math.max(length, 1)];
+    for (int power = 0; power < length; power++) {
+      long a = power <= this.degree ? this.coefficients[power] : 0;
+      long b = power <= dense.degree ? dense.coefficients[power] : 0;
+      sum[power] = (int) context.add(a, b);
+    }
+    return new DenseModularPolynomial(context, sum, length - 1);
+  }
+
+  /**
+   * Multiplies with a polynomial over the same ring. Two dense polynomials give a dense
+   * product, computed with Barrett reductions below the transform threshold of
+   * {@link ModularKernels} and with the transform above it. A sparse operand gives a
+   * sparse product.
+   *
+   * @param other the other polynomial, with the same modulus.
+   * @return the product.
+   */
+  @Override
+  AbstractModularPolynomial multiplyModular(AbstractModularPolynomial other) {
+    if (!(other instanceof DenseModularPolynomial)) {
+      return toSparseModular().multiplyModular(other);
+    }
+    DenseModularPolynomial dense = (DenseModularPolynomial) other;
+    ModularContext context = getContext();
+    if (this.degree < 0 || dense.degree < 0) {
+      return new DenseModularPolynomial(context);
+    }
+    if ((long) this.degree + dense.degree > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Power of the product is too large.");
+    }
+    int aLength = this.degree + 1;
+    int bLength = dense.degree + 1;
+    int[] product = new int[aLength + bLength - 1];
+    if (Math.min(aLength, bLength) < ModularKernels.TRANSFORM_THRESHOLD) {
+      long[] sums = new long[product.length];
+      for (int i = 0; i < aLength; i++) {
+        long coefficient = this.coefficients[i];
+        if (coefficient == 0) {
+          continue;
+        }
+        for (int j = 0; j < bLength; j++) {
+          sums[i + j] = context.reduce(sums[i + j] + coefficient * dense.coefficients[j]);
+        }
+      }
+      for (int i = 0; i < product.length; i++) {
+        product[i] = (int) sums[i];
+      }
+    } else {
+      long[] residues = ModularKernels.multiply(widen(this.coefficients, aLength),
+              widen(dense.coefficients, bLength), context.getModulus());
+      for (int i = 0; i < residues.length; i++) {
+        product[i] = (int) residues[i];
+      }
+    }
+    return new DenseModularPolynomial(context, product, product.length - 1);
+  }
+
+  /**
+   * Copies the first residues of an int array into a long array.
+   *
+   * @param residues the residues.
+   * @param length   the number of residues to copy.
+   * @return the widened residues.
+   */
+  private static long[] widen(int[] residues, int length) {
+    long[] wide = new long[length];
+    for (int i = 0; i < length; i++) {
+      wide[i] = residues[i];
+    }
+    return wide;
+  }
+
+  /**
+   * Returns the constant polynomial 1.
+   *
+   * @return the dense polynomial 1.
+   */
+  @Override
+  AbstractModularPolynomial one() {
+    return new DenseModularPolynomial(getContext(), new int[]{1}, 0);
+  }
+
+  /**
+   * Computes the derivative of this polynomial in the ring.
+   *
+   * @return a new DenseModularPolynomial representing the derivative.
+   */
+  @Override
+  public Polynomial derivative() {
+    ModularContext context = getContext();
+    if (this.degree < 1) {
+      return new DenseModularPolynomial(context);
+    }
+    int[] derivativeCoefficients = new int[this.degree];
+    for (int power = 1; power <= this.degree; power++) {
+      derivativeCoefficients[power - 1] = (int) context.multiply(this.coefficients[power],
+              context.reduce(power));
+    }
+    return new DenseModularPolynomial(context, derivativeCoefficients, this.degree - 1);
+  }
+
+  /**
+   * Evaluates the polynomial at a residue of the ring with Horner's scheme.
+   *
+   * @param x the value at which the polynomial is to be evaluated, reduced first.
+   * @return the value of the polynomial, in [0, modulus).
+   */
+  @Override
+  public long evaluateModular(long x) {
+    ModularContext context = getContext();
+    long point = context.reduce(x);
+    long value = 0;
+    for (int power = this.degree; power >= 0; power--) {
+      value = context.reduce(value * point + this.coefficients[power]);
+    }
+    return value;
+  }
+
+  /**
+   * Adds a term to the polynomial after reducing its coefficient.
+   *
+   * @param coefficient the coefficient of the term to be added.
+   * @param power       the power of the term to be added.
+   * @throws IllegalArgumentException if the power is negative.
+   */
+  @Override
+  public void addTerm(int coefficient, int power) throws IllegalArgumentException {
+    if (power < 0) {
+      throw new IllegalArgumentException("Power cannot be negative.");
+    }
+    ModularContext context = getContext();
+    long residue = context.reduce(coefficient);
+    if (residue == 0) {
+      return;
+    }
+    invalidateFingerprint();
+    if (power >= coefficients.length) {
+      coefficients = Arrays.copyOf(coefficients, Math.max(power + 1, coefficients.length * 2));
+    }
+    coefficients[power] = (int) context.add(coefficients[power], residue);
+    if (power > degree) {
+      degree = power;
+    }
+    while (degree >= 0 && coefficients[degree] == 0) {
+      degree--;
+    }
+  }
+
+  /**
+   * Returns the degree of the polynomial.
+   *
+   * @return the highest power with a non-zero residue, or 0 for the zero polynomial.
+   */
+  @Override
+  public int getDegree() {
+    return Math.max(0, degree);
+  }
+
+  /**
+   * Evaluates the polynomial at a real value, with the residues as coefficients.
+   *
+   * @param x the value at which the polynomial is to be evaluated.
+   * @return the result of the evaluation.
+   */
+  @Override
+  public double evaluate(double x) {
+    return HornerEvaluator.evaluateDense(coefficients, degree, x);
+  }
+
+  /**
+   * Evaluates the polynomial at a real value with compensated arithmetic, with the
+   * residues as coefficients.
+   *
+   * @param x the value at which the polynomial is to be evaluated.
+   * @return the result of the evaluation and a bound on its error.
+   */
+  @Override
+  public EvaluationResult evaluateCompensated(double x) {
+    return HornerEvaluator.evaluateDenseCompensated(coefficients, degree, x);
+  }
+
+  /**
+   * Evaluates the polynomial at the points in the given index range.
+   *
+   * @param xs   the points.
+   * @param out  the array receiving the values, at the same indices as the points.
+   * @param from the index of the first point to evaluate.
+   * @param to   the index after the last point to evaluate.
+   */
+  @Override
+  protected void evaluateRange(double[] xs, double[] out, int from, int to) {
+    HornerEvaluator.evaluateDense(coefficients, degree, xs, out, from, to);
+  }
+
+  /**
+   * Estimates the number of multiply-add steps needed to evaluate the polynomial at one
+   * point.
+   *
+   * @return the number of coefficients.
+   */
+  @Override
+  protected long evaluationSteps() {
+    return degree + 1L;
+  }
+
+  /**
+   * Counts the non-zero terms of the polynomial.
+   *
+   * @return the number of non-zero residues.
+   */
+  @Override
+  protected int termCount() {
+    int count = 0;
+    for (int power = 0; power <= degree; power++) {
+      if (coefficients[power] != 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns a mutable copy of this polynomial.
+   *
+   * @return the copy.
+   */
+  @Override
+  protected AbstractPolynomial copyOnWrite() {
+    return new DenseModularPolynomial(getContext(),
+            Arrays.copyOf(coefficients, Math.max(degree + 1, 1)), degree);
+  }
+
+  /**
+   * Writes the non-zero terms of the polynomial in decreasing order of power, with the
+   * residues as coefficients.
+   *
+   * @param writer the writer receiving the terms.
+   * @throws IOException if the destination of the writer fails.
+   */
+  @Override
+  protected void writeTerms(TermWriter writer) throws IOException {
+    for (int power = degree; power >= 0; power--) {
+      if (coefficients[power] != 0) {
+        writer.writeResidue(coefficients[power], power);
+      }
+    }
+  }
+
+  /**
+   * Returns the residue of the given power.
+   *
+   * @param power the power whose coefficient is sought.
+   * @return the residue, in [0, modulus), or 0 if the power is not present.
+   */
+  @Override
+  public int getCoefficient(int power) {
+    if (power < 0 || power > degree) {
+      return 0;
+    }
+    return coefficients[power];
+  }
+}
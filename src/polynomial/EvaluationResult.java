@@ -0,0 +1,51 @@
+package polynomial;
+
+/**
+ * The EvaluationResult class holds the value of a polynomial evaluated with compensated
+ * arithmetic, together with a bound on the absolute error of that value. The exact value
+ * of the polynomial at the evaluation point lies within the error bound of the value.
+ */
+public final class EvaluationResult {
+
+  private final double value;
+  private final double errorBound;
+
+  /**
+   * Constructs a new EvaluationResult with the given value and error bound.
+   *
+   * @param value      the computed value of the polynomial.
+   * @param errorBound the bound on the absolute error of the value.
+   */
+  public EvaluationResult(double value, double errorBound) {
+    this.value = value;
+    this.errorBound = errorBound;
+  }
+
+  /**
+   * Returns the computed value of the polynomial.
+   *
+   * @return the value.
+   */
+  public double getValue() {
+    return value;
+  }
+
+  /**
+   * Returns the bound on the absolute error of the computed value.
+   *
+   * @return the error bound.
+   */
+  public double getErrorBound() {
+    return errorBound;
+  }
+
+  /**
+   * Returns the value and its error bound in the form `value +/- bound`.
+   *
+   * @return the string representation of the result.
+   */
+  @Override
+  public String toString() {
+    return value + " +/- " + errorBound;
+  }
+}
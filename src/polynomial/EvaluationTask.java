@@ -0,0 +1,56 @@
+package polynomial;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The EvaluationTask class evaluates a polynomial at a range of points in a ForkJoinPool.
+ * A range longer than the grain is split in two halves that run as separate tasks, and a
+ * shorter one is evaluated directly. Every point is evaluated by the same kernel whichever
+ * task it ends up in, and tasks write disjoint parts of the output, so the values do not
+ * depend on the number of threads or on the order in which tasks run.
+ */
+final class EvaluationTask extends RecursiveAction {
+
+  private static final long serialVersionUID = 1L;
+
+  private final AbstractPolynomial polynomial;
+  private final double[] xs;
+  private final double[] out;
+  private final int from;
+  private final int to;
+  private final int grain;
+
+  /**
+   * Constructs a new EvaluationTask for the given range of points.
+   *
+   * @param polynomial the polynomial to evaluate.
+   * @param xs         the points, which must not share an array with out.
+   * @param out        the array receiving the values, at the same indices as the points.
+   * @param from       the index of the first point to evaluate.
+   * @param to         the index after the last point to evaluate.
+   * @param grain      the number of points from which a range is split.
+   */
+  EvaluationTask(AbstractPolynomial polynomial, double[] xs, double[] out, int from, int to,
+                 int grain) {
+    this.polynomial = polynomial;
+    this.xs = xs;
+    this.out = out;
+    this.from = from;
+    this.to = to;
+    this.grain = grain;
+  }
+
+  /**
+   * Evaluates the range directly or splits it in two halves at a multiple of the grain.
+   */
+  @Override
+  protected void compute() {
+    if (to - from <= grain) {
+      polynomial.evaluateRange(xs, out, from, to);
+      return;
+    }
+    int middle = from + ((to - from) / grain + 1) / 2 * grain;
+    invokeAll(new EvaluationTask(polynomial, xs, out, from, middle, grain),
+            new EvaluationTask(polynomial, xs, out, middle, to, grain));
+  }
+}
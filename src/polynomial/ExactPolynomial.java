@@ -0,0 +1,622 @@
+package polynomial;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * The ExactPolynomial class is an immutable polynomial whose coefficients never overflow.
+ * The int polynomials of this package wrap their coefficients like int arithmetic does,
+ * which is fast but silently wrong once a coefficient leaves the int range. An
+ * ExactPolynomial keeps its coefficients in the narrowest of two tiers that holds all of
+ * them: a long array while every coefficient fits in a long, and a BigInteger array
+ * otherwise. Operations on long coefficients first bound the size of the result from the
+ * bit lengths of the operands, and use plain long arithmetic without any checks when the
+ * bound fits. Otherwise they use checked long arithmetic, and only when that overflows is
+ * the operation repeated with BigInteger coefficients. Results whose coefficients all fit
+ * in a long again are stored in the long tier, so one large intermediate value does not
+ * slow down the rest of a computation. Terms are kept in decreasing order of power, like
+ * those of a {@link SparsePolynomial}.
+ */
+public final class ExactPolynomial {
+
+  private static final ExactPolynomial ZERO = new ExactPolynomial(new int[0], new long[0], null);
+
+  private final int[] powers;
+  private final long[] small;
+  private final BigInteger[] large;
+
+  /**
+   * Private constructor that takes ownership of the term arrays. Exactly one of the
+   * coefficient arrays is not null, and it has the same length as the powers.
+   *
+   * @param powers the powers, in decreasing order.
+   * @param small  the coefficients in the long tier, or null.
+   * @param large  the coefficients in the BigInteger tier, or null.
+   */
+  private ExactPolynomial(int[] powers, long[] small, BigInteger[] large) {
+    this.powers = powers;
+    this.small = small;
+    this.large = large;
+  }
+
+  /**
+   * Returns the exact polynomial with the same terms as the given int polynomial.
+   *
+   * @param polynomial the polynomial to convert.
+   * @return the exact polynomial.
+   * @throws IllegalArgumentException if the polynomial is null.
+   */
+  public static ExactPolynomial of(Polynomial polynomial) throws IllegalArgumentException {
+    if (polynomial == null) {
+      throw new IllegalArgumentException("Polynomial cannot be null.");
+    }
+    if (polynomial instanceof ImmutablePolynomial) {
+      polynomial = ((ImmutablePolynomial) polynomial).getTerms();
+    }
+    if (polynomial instanceof SparsePolynomial) {
+      SparsePolynomial sparse = (SparsePolynomial) polynomial;
+      int size = sparse.getTermCount();
+      int[] coefficients = sparse.getCoefficientArray();
+      long[] small = new long[size];
+      for (int i = 0; i < size; i++) {
+        small[i] = coefficients[i];
+      }
+      return new ExactPolynomial(Arrays.copyOf(sparse.getPowerArray(), size), small, null);
+    }
+    int degree = polynomial.getDegree();
+    int count = 0;
+    for (int power = degree; power >= 0; power--) {
+      if (polynomial.getCoefficient(power) != 0) {
+        count++;
+      }
+    }
+    int[] powers = new int[count];
+    long[] small = new long[count];
+    int index = 0;
+    for (int power = degree; power >= 0; power--) {
+      int coefficient = polynomial.getCoefficient(power);
+      if (coefficient != 0) {
+        powers[index] = power;
+        small[index] = coefficient;
+        index++;
+      }
+    }
+    return new ExactPolynomial(powers, small, null);
+  }
+
+  /**
+   * Returns the polynomial with a single term.
+   *
+   * @param coefficient the coefficient of the term.
+   * @param power       the power of the term.
+   * @return the exact polynomial.
+   * @throws IllegalArgumentException if the power is negative.
+   */
+  public static ExactPolynomial of(long coefficient, int power) throws IllegalArgumentException {
+    return of(BigInteger.valueOf(coefficient), power);
+  }
+
+  /**
+   * Returns the polynomial with a single term.
+   *
+   * @param coefficient the coefficient of the term.
+   * @param power       the power of the term.
+   * @return the exact polynomial.
+   * @throws IllegalArgumentException if the coefficient is null or the power is negative.
+   */
+  public static ExactPolynomial of(BigInteger coefficient, int power)
+          throws IllegalArgumentException {
+    if (coefficient == null) {
+      throw new IllegalArgumentException("Coefficient cannot be null.");
+    }
+    if (power < 0) {
+      throw new IllegalArgumentException("Power cannot be negative.");
+    }
+    if (coefficient.signum() == 0) {
+      return ZERO;
+    }
+    return normalize(new int[]{power}, new BigInteger[]{coefficient}, 1);
+  }
+
+  /**
+   * Adds another exact polynomial to this one.
+   *
+   * @param other the other polynomial.
+   * @return the exact sum.
+   * @throws IllegalArgumentException if the other polynomial is null.
+   */
+  public ExactPolynomial add(ExactPolynomial other) throws IllegalArgumentException {
+    if (other == null) {
+      throw new IllegalArgumentException("Polynomial cannot be null.");
+    }
+    if (small != null && other.small != null) {
+      try {
+        return addSmall(other);
+      } catch (ArithmeticException e) {
+        // A sum left the long range, so the sum is formed again with BigIntegers.
+      }
+    }
+    return addLarge(other);
+  }
+
+  /**
+   * Multiplies this exact polynomial with another one.
+   *
+   * @param other the other polynomial.
+   * @return the exact product.
+   * @throws IllegalArgumentException if the other polynomial is null or a power of the
+   *                                  product does not fit in an int.
+   */
+  public ExactPolynomial multiply(ExactPolynomial other) throws IllegalArgumentException {
+    if (other == null) {
+      throw new IllegalArgumentException("Polynomial cannot be null.");
+    }
+    if (powers.length == 0 || other.powers.length == 0) {
+      return ZERO;
+    }
+    ExactPolynomial outer = powers.length <= other.powers.length ? this : other;
+    ExactPolynomial inner = outer == this ? other : this;
+    if (small != null && other.small != null) {
+      int bits = bitBound(small) + bitBound(other.small)
+              + Integer.SIZE - Integer.numberOfLeadingZeros(outer.powers.length - 1);
+      try {
+        return new Product(outer, inner, bits <= Long.SIZE - 2 ? Product.UNCHECKED
+                : Product.CHECKED).run();
+      } catch (ArithmeticException e) {
+        // A product or sum left the long range, so the product is formed with BigIntegers.
+      }
+    }
+    return new Product(outer, inner, Product.LARGE).run();
+  }
+
+  /**
+   * Computes the exact derivative of this polynomial.
+   *
+   * @return the derivative.
+   */
+  public ExactPolynomial derivative() {
+    int count = powers.length;
+    if (count > 0 && powers[count - 1] == 0) {
+      count--;
+    }
+    int[] derivativePowers = new int[count];
+    for (int i = 0; i < count; i++) {
+      derivativePowers[i] = powers[i] - 1;
+    }
+    if (small != null) {
+      try {
+        long[] coefficients = new long[count];
+        for (int i = 0; i < count; i++) {
+          coefficients[i] = Math.multiplyExact(small[i], powers[i]);
+        }
+        return new ExactPolynomial(derivativePowers, coefficients, null);
+      } catch (ArithmeticException e) {
+        // A coefficient left the long range, so the derivative is formed with BigIntegers.
+      }
+    }
+    BigInteger[] coefficients = new BigInteger[count];
+    for (int i = 0; i < count; i++) {
+      coefficients[i] = coefficient(i).multiply(BigInteger.valueOf(powers[i]));
+    }
+    return normalize(derivativePowers, coefficients, count);
+  }
+
+  /**
+   * Raises this polynomial to a non-negative integer power by repeated squaring.
+   *
+   * @param n the exponent.
+   * @return the exact power, or 1 if n is 0.
+   * @throws IllegalArgumentException if the exponent is negative or the degree of the
+   *                                  result does not fit in an int.
+   */
+  public ExactPolynomial pow(int n) throws IllegalArgumentException {
+    if (n < 0) {
+      throw new IllegalArgumentException("Exponent cannot be negative.");
+    }
+    if (powers.length > 0 && (long) powers[0] * n > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Power of the result exceeds the int range.");
+    }
+    ExactPolynomial result = of(1, 0);
+    for (int bit = Integer.highestOneBit(n); bit > 0; bit >>>= 1) {
+      result = result.multiply(result);
+      if ((n & bit) != 0) {
+        result = result.multiply(this);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the degree of this polynomial.
+   *
+   * @return the highest power with a non-zero coefficient, or 0 for the zero polynomial.
+   */
+  public int getDegree() {
+    return powers.length == 0 ? 0 : powers[0];
+  }
+
+  /**
+   * Returns the coefficient of the given power.
+   *
+   * @param power the power whose coefficient is sought.
+   * @return the coefficient, or zero if there is no term with that power.
+   */
+  public BigInteger getCoefficient(int power) {
+    int low = 0;
+    int high = powers.length - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (powers[middle] == power) {
+        return coefficient(middle);
+      } else if (powers[middle] > power) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return BigInteger.ZERO;
+  }
+
+  /**
+   * Checks whether every coefficient fits in a long, in which case operations on this
+   * polynomial use long arithmetic.
+   *
+   * @return true if the coefficients are stored as longs, false otherwise.
+   */
+  public boolean fitsInLong() {
+    return small != null;
+  }
+
+  /**
+   * Converts this polynomial to an int polynomial, stored as chosen by the current
+   * {@link RepresentationPolicy}.
+   *
+   * @return the int polynomial with the same terms.
+   * @throws ArithmeticException if a coefficient does not fit in an int.
+   */
+  public Polynomial toPolynomial() throws ArithmeticException {
+    int[] coefficients = new int[powers.length];
+    for (int i = 0; i < powers.length; i++) {
+      coefficients[i] = small != null ? Math.toIntExact(small[i]) : large[i].intValueExact();
+    }
+    return RepresentationPolicy.getCurrent().apply(
+            new SparsePolynomial(powers.clone(), coefficients, powers.length));
+  }
+
+  /**
+   * Compares this polynomial with another object for equality.
+   *
+   * @param o the object to compare.
+   * @return true if the other object is an ExactPolynomial with the same terms.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ExactPolynomial)) {
+      return false;
+    }
+    ExactPolynomial other = (ExactPolynomial) o;
+    return Arrays.equals(powers, other.powers) && Arrays.equals(small, other.small)
+            && Arrays.equals(large, other.large);
+  }
+
+  /**
+   * Generates a hash code from the terms of this polynomial.
+   *
+   * @return the hash code.
+   */
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(powers)
+            + (small != null ? Arrays.hashCode(small) : Arrays.hashCode(large));
+  }
+
+  /**
+   * Returns the polynomial in the same string form as the int polynomials.
+   *
+   * @return the string representation of the polynomial.
+   */
+  @Override
+  public String toString() {
+    if (powers.length == 0) {
+      return "0";
+    }
+    StringBuilder stringPolynomial = new StringBuilder();
+    for (int i = 0; i < powers.length; i++) {
+      String coefficient = small != null ? Long.toString(small[i]) : large[i].toString();
+      if (coefficient.charAt(0) == '-') {
+        stringPolynomial.append(coefficient);
+      } else {
+        if (stringPolynomial.length() > 0) {
+          stringPolynomial.append("+");
+        }
+        stringPolynomial.append(coefficient);
+      }
+      if (powers[i] != 0) {
+        stringPolynomial.append("x^").append(powers[i]);
+      }
+    }
+    return stringPolynomial.toString();
+  }
+
+  /**
+   * Returns the coefficient at the given index as a BigInteger.
+   *
+   * @param index the index of the term.
+   * @return the coefficient.
+   */
+  private BigInteger coefficient(int index) {
+    return small != null ? BigInteger.valueOf(small[index]) : large[index];
+  }
+
+  /**
+   * Bounds the bit length of the coefficients, so that every coefficient c satisfies
+   * |c| &lt;= 2^bound.
+   *
+   * @param coefficients the coefficients.
+   * @return the bound.
+   */
+  private static int bitBound(long[] coefficients) {
+    long bits = 0;
+    for (long coefficient : coefficients) {
+      bits |= coefficient ^ (coefficient >> 63);
+    }
+    return Long.SIZE - Long.numberOfLeadingZeros(bits);
+  }
+
+  /**
+   * Stores exact coefficients in the narrowest tier that holds them, dropping zeros.
+   *
+   * @param powers       the powers, in decreasing order.
+   * @param coefficients the coefficients.
+   * @param count        the number of terms to keep.
+   * @return the exact polynomial.
+   */
+  private static ExactPolynomial normalize(int[] powers, BigInteger[] coefficients, int count) {
+    int kept = 0;
+    boolean fitsInLong = true;
+    for (int i = 0; i < count; i++) {
+      if (coefficients[i].signum() != 0) {
+        fitsInLong &= coefficients[i].bitLength() < Long.SIZE;
+        powers[kept] = powers[i];
+        coefficients[kept] = coefficients[i];
+        kept++;
+      }
+    }
+    int[] keptPowers = Arrays.copyOf(powers, kept);
+    if (!fitsInLong) {
+      return new ExactPolynomial(keptPowers, null, Arrays.copyOf(coefficients, kept));
+    }
+    long[] small = new long[kept];
+    for (int i = 0; i < kept; i++) {
+      small[i] = coefficients[i].longValue();
+    }
+    return new ExactPolynomial(keptPowers, small, null);
+  }
+
+  /**
+   * Merges the terms of two polynomials in the long tier with checked additions.
+   *
+   * @param other the other polynomial.
+   * @return the sum.
+   * @throws ArithmeticException if a coefficient of the sum does not fit in a long.
+   */
+  private ExactPolynomial addSmall(ExactPolynomial other) throws ArithmeticException {
+    int[] sumPowers = new int[powers.length + other.powers.length];
+    long[] sumCoefficients = new long[sumPowers.length];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < powers.length || j < other.powers.length) {
+      long coefficient;
+      int power;
+      if (j == other.powers.length || (i < powers.length && powers[i] > other.powers[j])) {
+        power = powers[i];
+        coefficient = small[i++];
+      } else if (i == powers.length || other.powers[j] > powers[i]) {
+        power = other.powers[j];
+        coefficient = other.small[j++];
+      } else {
+        power = powers[i];
+        coefficient = Math.addExact(small[i++], other.small[j++]);
+      }
+      if (coefficient != 0) {
+        sumPowers[count] = power;
+        sumCoefficients[count] = coefficient;
+        count++;
+      }
+    }
+    return new ExactPolynomial(Arrays.copyOf(sumPowers, count),
+            Arrays.copyOf(sumCoefficients, count), null);
+  }
+
+  /**
+   * Merges the terms of two polynomials with BigInteger additions.
+   *
+   * @param other the other polynomial.
+   * @return the sum.
+   */
+  private ExactPolynomial addLarge(ExactPolynomial other) {
+    int[] sumPowers = new int[powers.length + other.powers.length];
+    BigInteger[] sumCoefficients = new BigInteger[sumPowers.length];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < powers.length || j < other.powers.length) {
+      if (j == other.powers.length || (i < powers.length && powers[i] > other.powers[j])) {
+        sumPowers[count] = powers[i];
+        sumCoefficients[count] = coefficient(i++);
+      } else if (i == powers.length || other.powers[j] > powers[i]) {
+        sumPowers[count] = other.powers[j];
+        sumCoefficients[count] = other.coefficient(j++);
+      } else {
+        sumPowers[count] = powers[i];
+        sumCoefficients[count] = coefficient(i++).add(other.coefficient(j++));
+      }
+      count++;
+    }
+    return normalize(sumPowers, sumCoefficients, count);
+  }
+
+  /**
+   * The Product class multiplies two exact polynomials with Johnson's heap algorithm, like
+   * {@link JohnsonMultiplier}, in one of three arithmetic modes: unchecked long arithmetic
+   * when the bit bound guarantees that nothing overflows, checked long arithmetic, and
+   * BigInteger arithmetic.
+   */
+  private static final class Product {
+
+    static final int UNCHECKED = 0;
+    static final int CHECKED = 1;
+    static final int LARGE = 2;
+
+    private final ExactPolynomial outer;
+    private final ExactPolynomial inner;
+    private final int mode;
+
+    private final int[] cursor;
+    private final long[] heapPowers;
+    private final int[] heapTerms;
+    private int heapSize;
+
+    /**
+     * Sets up the cursors and the heap for one product.
+     *
+     * @param outer the operand whose terms own the cursors.
+     * @param inner the operand the cursors walk through.
+     * @param mode  the arithmetic mode.
+     */
+    Product(ExactPolynomial outer, ExactPolynomial inner, int mode) {
+      this.outer = outer;
+      this.inner = inner;
+      this.mode = mode;
+      this.cursor = new int[outer.powers.length];
+      this.heapPowers = new long[outer.powers.length];
+      this.heapTerms = new int[outer.powers.length];
+    }
+
+    /**
+     * Runs the heap merge.
+     *
+     * @return the product.
+     * @throws ArithmeticException      if a value overflows in the checked mode.
+     * @throws IllegalArgumentException if a power of the product does not fit in an int.
+     */
+    ExactPolynomial run() throws ArithmeticException, IllegalArgumentException {
+      int[] outerPowers = outer.powers;
+      int[] innerPowers = inner.powers;
+      int outerSize = outerPowers.length;
+      int innerSize = innerPowers.length;
+      int capacity = Math.max(outerSize, innerSize);
+      int[] productPowers = new int[capacity];
+      long[] smallCoefficients = mode == LARGE ? null : new long[capacity];
+      BigInteger[] largeCoefficients = mode == LARGE ? new BigInteger[capacity] : null;
+      int count = 0;
+      push(0);
+      while (heapSize > 0) {
+        long power = heapPowers[0];
+        if (power > Integer.MAX_VALUE) {
+          throw new IllegalArgumentException("Power of the product is too large.");
+        }
+        long smallSum = 0;
+        BigInteger largeSum = BigInteger.ZERO;
+        while (heapSize > 0 && heapPowers[0] == power) {
+          int term = heapTerms[0];
+          int index = cursor[term];
+          if (mode == UNCHECKED) {
+            smallSum += outer.small[term] * inner.small[index];
+          } else if (mode == CHECKED) {
+            smallSum = Math.addExact(smallSum,
+                    Math.multiplyExact(outer.small[term], inner.small[index]));
+          } else {
+            largeSum = largeSum.add(outer.coefficient(term).multiply(inner.coefficient(index)));
+          }
+          boolean startNext = index == 0 && term + 1 < outerSize;
+          cursor[term]++;
+          if (cursor[term] < innerSize) {
+            siftDown((long) outerPowers[term] + innerPowers[cursor[term]], term);
+          } else {
+            heapSize--;
+            siftDown(heapPowers[heapSize], heapTerms[heapSize]);
+          }
+          if (startNext) {
+            push(term + 1);
+          }
+        }
+        if (mode == LARGE ? largeSum.signum() != 0 : smallSum != 0) {
+          if (count == productPowers.length) {
+            int newLength = (int) Math.min((long) outerSize * innerSize,
+                    productPowers.length * 2L);
+            productPowers = Arrays.copyOf(productPowers, newLength);
+            if (mode == LARGE) {
+              largeCoefficients = Arrays.copyOf(largeCoefficients, newLength);
+            } else {
+              smallCoefficients = Arrays.copyOf(smallCoefficients, newLength);
+            }
+          }
+          productPowers[count] = (int) power;
+          if (mode == LARGE) {
+            largeCoefficients[count] = largeSum;
+          } else {
+            smallCoefficients[count] = smallSum;
+          }
+          count++;
+        }
+      }
+      if (mode == LARGE) {
+        return normalize(productPowers, largeCoefficients, count);
+      }
+      return new ExactPolynomial(Arrays.copyOf(productPowers, count),
+              Arrays.copyOf(smallCoefficients, count), null);
+    }
+
+    /**
+     * Pushes the current cursor of the given outer term onto the heap.
+     *
+     * @param term the index of the outer term.
+     */
+    private void push(int term) {
+      long power = (long) outer.powers[term] + inner.powers[cursor[term]];
+      int child = heapSize++;
+      while (child > 0) {
+        int parent = (child - 1) >>> 1;
+        if (heapPowers[parent] >= power) {
+          break;
+        }
+        heapPowers[child] = heapPowers[parent];
+        heapTerms[child] = heapTerms[parent];
+        child = parent;
+      }
+      heapPowers[child] = power;
+      heapTerms[child] = term;
+    }
+
+    /**
+     * Replaces the cursor at the top of the heap with the given one and moves it down
+     * until the heap is ordered again.
+     *
+     * @param power the power of the product the new cursor points at.
+     * @param term  the index of the outer term that owns the new cursor.
+     */
+    private void siftDown(long power, int term) {
+      int parent = 0;
+      int child = 1;
+      while (child < heapSize) {
+        if (child + 1 < heapSize && heapPowers[child + 1] > heapPowers[child]) {
+          child++;
+        }
+        if (power >= heapPowers[child]) {
+          break;
+        }
+        heapPowers[parent] = heapPowers[child];
+        heapTerms[parent] = heapTerms[child];
+        parent = child;
+        child = 2 * parent + 1;
+      }
+      heapPowers[parent] = power;
+      heapTerms[parent] = term;
+    }
+  }
+}
@@ -0,0 +1,351 @@
+package polynomial;
+
+/**
+ * The HornerEvaluator class evaluates polynomials with Horner's scheme. Dense coefficients
+ * are folded from the highest power down with one multiplication and one addition per
+ * power. Sparse terms are folded the same way, but between two consecutive terms the
+ * running value is multiplied by x raised to the gap between their powers, which is
+ * computed by repeated squaring. The compensated variants additionally track the rounding
+ * error of every step with error-free transformations (Math.fma for products and Knuth's
+ * two-sum for sums), which makes the result as accurate as if it had been computed in
+ * twice the working precision, and report an a posteriori bound on the remaining error.
+ */
+final class HornerEvaluator {
+
+  private static final double UNIT_ROUNDOFF = Math.ulp(1.0) / 2;
+
+  /**
+   * The number of points evaluated together by the batch kernels. It keeps the working
+   * values of a block in the first level cache while the terms are walked.
+   */
+  static final int BLOCK = 256;
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private HornerEvaluator() {
+  }
+
+  /**
+   * Evaluates dense coefficients, where the coefficient of power i is stored at index i.
+   *
+   * @param coefficients the coefficients.
+   * @param degree       the highest power to include, or -1 for the zero polynomial.
+   * @param x            the value at which to evaluate.
+   * @return the value of the polynomial at x.
+   */
+  static double evaluateDense(int[] coefficients, int degree, double x) {
+    double ans = 0;
+    for (int power = degree; power >= 0; power--) {
+      ans = ans * x + coefficients[power];
+    }
+    return ans;
+  }
+
+  /**
+   * Evaluates sparse terms whose powers are sorted in decreasing order.
+   *
+   * @param powers       the powers of the terms.
+   * @param coefficients the coefficients of the terms.
+   * @param size         the number of terms.
+   * @param x            the value at which to evaluate.
+   * @return the value of the polynomial at x.
+   */
+  static double evaluateSparse(int[] powers, int[] coefficients, int size, double x) {
+    if (size == 0) {
+      return 0;
+    }
+    double ans = coefficients[0];
+    for (int i = 1; i < size; i++) {
+      ans = ans * power(x, powers[i - 1] - powers[i]) + coefficients[i];
+    }
+    return ans * power(x, powers[size - 1]);
+  }
+
+  /**
+   * Evaluates dense coefficients at a range of points. Four points are folded together in
+   * every step, so the four independent multiply-add chains can run side by side in the
+   * processor instead of waiting on each other.
+   *
+   * @param coefficients the coefficients.
+   * @param degree       the highest power to include, or -1 for the zero polynomial.
+   * @param xs           the points.
+   * @param out          the array receiving the values, at the same indices as the points.
+   * @param from         the index of the first point to evaluate.
+   * @param to           the index after the last point to evaluate.
+   */
+  static void evaluateDense(int[] coefficients, int degree, double[] xs, double[] out,
+                            int from, int to) {
+    int i = from;
+    for (; i + 4 <= to; i += 4) {
+      double x0 = xs[i];
+      double x1 = xs[i + 1];
+      double x2 = xs[i + 2];
+      double x3 = xs[i + 3];
+      double a0 = 0;
+      double a1 = 0;
+      double a2 = 0;
+      double a3 = 0;
+      for (int power = degree; power >= 0; power--) {
+        double coefficient = coefficients[power];
+        a0 = a0 * x0 + coefficient;
+        a1 = a1 * x1 + coefficient;
+        a2 = a2 * x2 + coefficient;
+        a3 = a3 * x3 + coefficient;
+      }
+      out[i] = a0;
+      out[i + 1] = a1;
+      out[i + 2] = a2;
+      out[i + 3] = a3;
+    }
+    for (; i < to; i++) {
+      out[i] = evaluateDense(coefficients, degree, xs[i]);
+    }
+  }
+
+  /**
+   * Evaluates sparse terms at a range of points. The points are processed in blocks, and
+   * within a block every term is applied to all points before moving on to the next term,
+   * so the terms are walked once per block and the inner loops run over plain arrays of
+   * points. The points must not share an array with the output.
+   *
+   * @param powers       the powers of the terms, sorted in decreasing order.
+   * @param coefficients the coefficients of the terms.
+   * @param size         the number of terms.
+   * @param xs           the points.
+   * @param out          the array receiving the values, at the same indices as the points.
+   * @param from         the index of the first point to evaluate.
+   * @param to           the index after the last point to evaluate.
+   */
+  static void evaluateSparse(int[] powers, int[] coefficients, int size, double[] xs,
+                             double[] out, int from, int to) {
+    if (size == 0) {
+      for (int i = from; i < to; i++) {
+        out[i] = 0;
+      }
+      return;
+    }
+    double[] gap = new double[Math.min(BLOCK, to - from)];
+    double[] base = new double[gap.length];
+    for (int start = from; start < to; start += BLOCK) {
+      int end = Math.min(to, start + BLOCK);
+      int length = end - start;
+      for (int j = 0; j < length; j++) {
+        out[start + j] = coefficients[0];
+      }
+      for (int i = 1; i < size; i++) {
+        double coefficient = coefficients[i];
+        power(xs, start, length, powers[i - 1] - powers[i], gap, base);
+        for (int j = 0; j < length; j++) {
+          out[start + j] = out[start + j] * gap[j] + coefficient;
+        }
+      }
+      power(xs, start, length, powers[size - 1], gap, base);
+      for (int j = 0; j < length; j++) {
+        out[start + j] *= gap[j];
+      }
+    }
+  }
+
+  /**
+   * Raises a block of points to the same non-negative integer power by repeated squaring.
+   *
+   * @param xs       the points.
+   * @param start    the index of the first point of the block.
+   * @param length   the number of points in the block.
+   * @param exponent the exponent, not negative.
+   * @param result   the array receiving the powers, from index 0.
+   * @param base     a scratch array of at least length slots.
+   */
+  private static void power(double[] xs, int start, int length, int exponent,
+                            double[] result, double[] base) {
+    for (int j = 0; j < length; j++) {
+      result[j] = 1;
+      base[j] = xs[start + j];
+    }
+    while (exponent > 0) {
+      if ((exponent & 1) != 0) {
+        for (int j = 0; j < length; j++) {
+          result[j] *= base[j];
+        }
+      }
+      exponent >>>= 1;
+      if (exponent > 0) {
+        for (int j = 0; j < length; j++) {
+          base[j] *= base[j];
+        }
+      }
+    }
+  }
+
+  /**
+   * Raises x to a non-negative integer power by repeated squaring.
+   *
+   * @param x        the base.
+   * @param exponent the exponent, not negative.
+   * @return x raised to the exponent.
+   */
+  static double power(double x, int exponent) {
+    double result = 1;
+    double base = x;
+    while (exponent > 0) {
+      if ((exponent & 1) != 0) {
+        result *= base;
+      }
+      exponent >>>= 1;
+      if (exponent > 0) {
+        base *= base;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Evaluates dense coefficients with the compensated Horner scheme.
+   *
+   * @param coefficients the coefficients.
+   * @param degree       the highest power to include, or -1 for the zero polynomial.
+   * @param x            the value at which to evaluate.
+   * @return the value of the polynomial at x and a bound on its error.
+   */
+  static EvaluationResult evaluateDenseCompensated(int[] coefficients, int degree, double x) {
+    if (degree < 0) {
+      return new EvaluationResult(0, 0);
+    }
+    double absX = Math.abs(x);
+    double sum = coefficients[degree];
+    double correction = 0;
+    double absolute = Math.abs(sum);
+    for (int power = degree - 1; power >= 0; power--) {
+      double product = sum * x;
+      double productError = Math.fma(sum, x, -product);
+      double coefficient = coefficients[power];
+      sum = product + coefficient;
+      double sumError = twoSumError(product, coefficient, sum);
+      correction = correction * x + (productError + sumError);
+      absolute = absolute * absX + Math.abs(coefficient);
+    }
+    return finish(sum, correction, absolute, degree);
+  }
+
+  /**
+   * Evaluates sparse terms with the compensated Horner scheme. The powers of x used for
+   * the gaps between terms are computed in double-double precision, so that they do not
+   * add more error than a dense step would.
+   *
+   * @param powers       the powers of the terms, sorted in decreasing order.
+   * @param coefficients the coefficients of the terms.
+   * @param size         the number of terms.
+   * @param x            the value at which to evaluate.
+   * @return the value of the polynomial at x and a bound on its error.
+   */
+  static EvaluationResult evaluateSparseCompensated(int[] powers, int[] coefficients, int size,
+                                                    double x) {
+    if (size == 0) {
+      return new EvaluationResult(0, 0);
+    }
+    double absX = Math.abs(x);
+    double sum = coefficients[0];
+    double correction = 0;
+    double absolute = Math.abs(sum);
+    int steps = 0;
+    double[] gap = new double[2];
+    for (int i = 1; i <= size; i++) {
+      int exponent = i < size ? powers[i - 1] - powers[i] : powers[size - 1];
+      if (exponent == 0) {
+        continue;
+      }
+      steps += powerCompensated(x, exponent, gap);
+      double coefficient = i < size ? coefficients[i] : 0;
+      double product = sum * gap[0];
+      double productError = Math.fma(sum, gap[0], -product) + sum * gap[1];
+      sum = product + coefficient;
+      double sumError = twoSumError(product, coefficient, sum);
+      correction = correction * (gap[0] + gap[1]) + (productError + sumError);
+      absolute = absolute * power(absX, exponent) + Math.abs(coefficient);
+      steps++;
+    }
+    return finish(sum, correction, absolute, steps);
+  }
+
+  /**
+   * Raises x to a positive integer power in double-double precision by repeated squaring.
+   *
+   * @param x        the base.
+   * @param exponent the exponent, at least 1.
+   * @param result   the array receiving the high and the low part of the power.
+   * @return the number of multiplications performed.
+   */
+  private static int powerCompensated(double x, int exponent, double[] result) {
+    double resultHigh = 1;
+    double resultLow = 0;
+    double baseHigh = x;
+    double baseLow = 0;
+    int multiplications = 0;
+    while (exponent > 0) {
+      if ((exponent & 1) != 0) {
+        double high = resultHigh * baseHigh;
+        double low = Math.fma(resultHigh, baseHigh, -high)
+                + (resultHigh * baseLow + resultLow * baseHigh);
+        resultHigh = high + low;
+        resultLow = low - (resultHigh - high);
+        multiplications++;
+      }
+      exponent >>>= 1;
+      if (exponent > 0) {
+        double high = baseHigh * baseHigh;
+        double low = Math.fma(baseHigh, baseHigh, -high) + 2 * baseHigh * baseLow;
+        baseHigh = high + low;
+        baseLow = low - (baseHigh - high);
+        multiplications++;
+      }
+    }
+    result[0] = resultHigh;
+    result[1] = resultLow;
+    return multiplications;
+  }
+
+  /**
+   * Returns the rounding error of a floating point sum, so that a + b = sum + error exactly.
+   *
+   * @param a   the first operand.
+   * @param b   the second operand.
+   * @param sum the rounded sum of a and b.
+   * @return the rounding error of the sum.
+   */
+  private static double twoSumError(double a, double b, double sum) {
+    double bVirtual = sum - a;
+    double aVirtual = sum - bVirtual;
+    return (a - aVirtual) + (b - bVirtual);
+  }
+
+  /**
+   * Adds the accumulated correction to the value and computes the error bound
+   * u|r| + gamma(4n + 2) * gamma(2n) * p~(|x|) of the compensated Horner scheme, where p~
+   * is the polynomial with the absolute values of the coefficients.
+   *
+   * @param sum        the value computed in working precision.
+   * @param correction the accumulated rounding errors.
+   * @param absolute   the value of p~ at |x|.
+   * @param steps      the number of Horner steps performed.
+   * @return the compensated result.
+   */
+  private static EvaluationResult finish(double sum, double correction, double absolute,
+                                         int steps) {
+    double value = sum + correction;
+    double bound = UNIT_ROUNDOFF * Math.abs(value)
+            + gamma(4 * (long) steps + 2) * gamma(2 * (long) steps) * absolute;
+    return new EvaluationResult(value, bound / (1 - 2 * UNIT_ROUNDOFF));
+  }
+
+  /**
+   * Returns the constant gamma(n) = n u / (1 - n u) of floating point error analysis.
+   *
+   * @param n the number of rounding errors.
+   * @return gamma(n), or infinity if n u is not less than 1.
+   */
+  private static double gamma(long n) {
+    double nu = n * UNIT_ROUNDOFF;
+    return nu < 1 ? nu / (1 - nu) : Double.POSITIVE_INFINITY;
+  }
+}
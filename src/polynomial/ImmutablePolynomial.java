@@ -0,0 +1,424 @@
+package polynomial;
+
+import java.io.IOException;
+
+/**
+ * The ImmutablePolynomial class is a polynomial whose terms never change after it has been
+ * created. It holds a SimplePolynomial or SparsePolynomial that no other object can reach
+ * or modify, in a final field, so an instance can be handed to other threads without any
+ * copying or locking and all of its methods can be called from many threads at once.
+ * Instances are obtained with {@link Polynomial#freeze()}, and {@link #toMutable()} turns
+ * them back into an ordinary polynomial. Both conversions share the term arrays instead
+ * of copying them, and the mutable side copies them only when it is first modified.
+ * Operations on an immutable polynomial return immutable results, which take over the
+ * freshly computed terms without copying them.
+ */
+public final class ImmutablePolynomial extends AbstractPolynomial {
+
+  private final AbstractPolynomial terms;
+
+  /**
+   * The interner for which this is the canonical instance, or null if there is none.
+   */
+  private volatile PolynomialInterner interner;
+
+  /**
+   * Constructor that takes ownership of a polynomial. The polynomial must not be reachable
+   * from anywhere else, or must copy its terms before it is modified.
+   *
+   * @param terms the SimplePolynomial or SparsePolynomial holding the terms.
+   */
+  ImmutablePolynomial(AbstractPolynomial terms) {
+    this.terms = terms;
+  }
+
+  /**
+   * Returns the polynomial holding the terms. It is shared, not copied, and must not be
+   * modified by the caller.
+   *
+   * @return the SimplePolynomial or SparsePolynomial holding the terms.
+   */
+  AbstractPolynomial getTerms() {
+    return terms;
+  }
+
+  /**
+   * Returns the interner for which this is the canonical instance.
+   *
+   * @return the interner, or null if this instance has not been interned.
+   */
+  PolynomialInterner getInterner() {
+    return interner;
+  }
+
+  /**
+   * Records the interner for which this becomes the canonical instance. Only the first
+   * interner is recorded.
+   *
+   * @param owner the interner.
+   */
+  void setInterner(PolynomialInterner owner) {
+    if (interner == null) {
+      interner = owner;
+    }
+  }
+
+  /**
+   * Wraps the result of an operation, which is always a new polynomial owned by nobody
+   * else, without copying it.
+   *
+   * @param result the result of an operation.
+   * @return the result as an immutable polynomial.
+   */
+  private static Polynomial wrap(Polynomial result) {
+    if (result instanceof ImmutablePolynomial || !(result instanceof AbstractPolynomial)) {
+      return result;
+    }
+    return new ImmutablePolynomial((AbstractPolynomial) result);
+  }
+
+  /**
+   * Adds the given SimplePolynomial to this polynomial.
+   *
+   * @param other the SimplePolynomial to be added.
+   * @return the sum, in the representation of the terms.
+   */
+  @Override
+  protected Polynomial addSimple(SimplePolynomial other) {
+    return terms.addSimple(other);
+  }
+
+  /**
+   * Adds the given SparsePolynomial to this polynomial.
+   *
+   * @param other the SparsePolynomial to be added.
+   * @return the sum, in the representation of the terms.
+   */
+  @Override
+  protected Polynomial addSparse(SparsePolynomial other) {
+    return terms.addSparse(other);
+  }
+
+  /**
+   * Multiplies this polynomial by the given SimplePolynomial.
+   *
+   * @param other the SimplePolynomial to multiply.
+   * @return the product, in the representation of the terms.
+   */
+  @Override
+  protected Polynomial multiplySimple(SimplePolynomial other) {
+    return terms.multiplySimple(other);
+  }
+
+  /**
+   * Multiplies this polynomial by the given SparsePolynomial.
+   *
+   * @param other the SparsePolynomial to multiply.
+   * @return the product, in the representation of the terms.
+   */
+  @Override
+  protected Polynomial multiplySparse(SparsePolynomial other) {
+    return terms.multiplySparse(other);
+  }
+
+  /**
+   * Compares this polynomial with the given SimplePolynomial.
+   *
+   * @param other the SimplePolynomial to compare.
+   * @return true if the polynomials are equal, false otherwise.
+   */
+  @Override
+  protected boolean compareSimple(SimplePolynomial other) {
+    return terms.compareSimple(other);
+  }
+
+  /**
+   * Compares this polynomial with the given SparsePolynomial.
+   *
+   * @param other the SparsePolynomial to compare.
+   * @return true if the polynomials are equal, false otherwise.
+   */
+  @Override
+  protected boolean compareSparse(SparsePolynomial other) {
+    return terms.compareSparse(other);
+  }
+
+  /**
+   * Compares the terms of this polynomial with another polynomial.
+   *
+   * @param other the other polynomial to compare the terms.
+   * @return true if the terms are equivalent, false otherwise.
+   */
+  @Override
+  protected boolean compareTerms(Polynomial other) {
+    return terms.compareTerms(other);
+  }
+
+  /**
+   * Generates the fingerprint of the terms, which is the same as for a mutable polynomial
+   * with the same terms.
+   *
+   * @return the generated fingerprint.
+   */
+  @Override
+  protected long generateFingerprint() {
+    return terms.fingerprint();
+  }
+
+  /**
+   * Evaluates the polynomial at the points in the given index range.
+   *
+   * @param xs   the points.
+   * @param out  the array receiving the values, at the same indices as the points.
+   * @param from the index of the first point to evaluate.
+   * @param to   the index after the last point to evaluate.
+   */
+  @Override
+  protected void evaluateRange(double[] xs, double[] out, int from, int to) {
+    terms.evaluateRange(xs, out, from, to);
+  }
+
+  /**
+   * Estimates the number of multiply-add steps needed to evaluate the polynomial at one
+   * point.
+   *
+   * @return the estimated number of steps per point.
+   */
+  @Override
+  protected long evaluationSteps() {
+    return terms.evaluationSteps();
+  }
+
+  /**
+   * Counts the non-zero terms of the polynomial.
+   *
+   * @return the number of non-zero terms.
+   */
+  @Override
+  protected int termCount() {
+    return terms.termCount();
+  }
+
+  /**
+   * Returns a mutable copy of the terms that shares their arrays until it is modified.
+   *
+   * @return the mutable copy.
+   */
+  @Override
+  protected AbstractPolynomial copyOnWrite() {
+    return terms.copyOnWrite();
+  }
+
+  /**
+   * Writes the non-zero terms of the polynomial in decreasing order of power.
+   *
+   * @param writer the writer receiving the terms.
+   * @throws IOException if the destination of the writer fails.
+   */
+  @Override
+  protected void writeTerms(TermWriter writer) throws IOException {
+    terms.writeTerms(writer);
+  }
+
+  /**
+   * Adds another polynomial to this polynomial.
+   *
+   * @param other the other polynomial to be added.
+   * @return the sum as an immutable polynomial.
+   */
+  @Override
+  public Polynomial add(Polynomial other) {
+    return wrap(terms.add(other));
+  }
+
+  /**
+   * Multiplies this polynomial with another polynomial.
+   *
+   * @param other the other polynomial to be multiplied.
+   * @return the product as an immutable polynomial.
+   */
+  @Override
+  public Polynomial multiply(Polynomial other) {
+    return wrap(terms.multiply(other));
+  }
+
+  /**
+   * Computes the derivative of this polynomial.
+   *
+   * @return the derivative as an immutable polynomial.
+   */
+  @Override
+  public Polynomial derivative() {
+    return wrap(terms.derivative());
+  }
+
+  /**
+   * Raises this polynomial to a non-negative integer power.
+   *
+   * @param n the exponent.
+   * @return the power as an immutable polynomial.
+   * @throws IllegalArgumentException if the exponent is negative or the degree of the
+   *                                  result does not fit in an int.
+   */
+  @Override
+  public Polynomial pow(int n) throws IllegalArgumentException {
+    return wrap(terms.pow(n));
+  }
+
+  /**
+   * Divides this polynomial by another with remainder.
+   *
+   * @param divisor the polynomial to divide by.
+   * @return the quotient and the remainder as immutable polynomials.
+   * @throws IllegalArgumentException if the divisor is null or zero, or its leading
+   *                                  coefficient is not invertible.
+   */
+  @Override
+  public Polynomial[] divideAndRemainder(Polynomial divisor) throws IllegalArgumentException {
+    Polynomial[] result = terms.divideAndRemainder(divisor);
+    return new Polynomial[]{wrap(result[0]), wrap(result[1])};
+  }
+
+  /**
+   * Substitutes another polynomial into this one.
+   *
+   * @param inner the polynomial substituted for x.
+   * @return the composition as an immutable polynomial.
+   * @throws IllegalArgumentException if the inner polynomial is null or the degree of the
+   *                                  result does not fit in an int.
+   */
+  @Override
+  public Polynomial compose(Polynomial inner) throws IllegalArgumentException {
+    return wrap(terms.compose(inner));
+  }
+
+  /**
+   * Substitutes another polynomial into this one and keeps the powers below the given
+   * length.
+   *
+   * @param inner  the polynomial substituted for x.
+   * @param length the number of low powers to keep.
+   * @return the truncated composition as an immutable polynomial.
+   * @throws IllegalArgumentException if the inner polynomial is null or the length is
+   *                                  negative.
+   */
+  @Override
+  public Polynomial compose(Polynomial inner, int length) throws IllegalArgumentException {
+    return wrap(terms.compose(inner, length));
+  }
+
+  /**
+   * Always fails, because the terms of an immutable polynomial cannot change.
+   *
+   * @param coefficient the coefficient of the term to be added.
+   * @param power       the power of the term to be added.
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public void addTerm(int coefficient, int power) throws UnsupportedOperationException {
+    throw new UnsupportedOperationException("Immutable polynomials cannot be modified.");
+  }
+
+  /**
+   * Returns the degree of the polynomial.
+   *
+   * @return the degree of the polynomial.
+   */
+  @Override
+  public int getDegree() {
+    return terms.getDegree();
+  }
+
+  /**
+   * Compares this polynomial with another object for equality. Two canonical instances of
+   * the same interner are equal only if they are the same object, so their terms are not
+   * compared.
+   *
+   * @param o the object to compare.
+   * @return true if the polynomials are equal, false otherwise.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof ImmutablePolynomial) {
+      PolynomialInterner owner = this.interner;
+      if (owner != null && owner == ((ImmutablePolynomial) o).interner) {
+        return this == o;
+      }
+    }
+    return super.equals(o);
+  }
+
+  /**
+   * Generates a hash code for this polynomial from its fingerprint.
+   *
+   * @return the generated hash code.
+   */
+  @Override
+  public int hashCode() {
+    return super.hashCode();
+  }
+
+  /**
+   * Evaluates the polynomial at the given value.
+   *
+   * @param x the value at which the polynomial is to be evaluated.
+   * @return the result of the evaluation.
+   */
+  @Override
+  public double evaluate(double x) {
+    return terms.evaluate(x);
+  }
+
+  /**
+   * Evaluates the polynomial at the given value with compensated arithmetic.
+   *
+   * @param x the value at which the polynomial is to be evaluated.
+   * @return the result of the evaluation and a bound on its error.
+   */
+  @Override
+  public EvaluationResult evaluateCompensated(double x) {
+    return terms.evaluateCompensated(x);
+  }
+
+  /**
+   * Returns the coefficient of the given power.
+   *
+   * @param power the power whose coefficient is sought.
+   * @return the coefficient at the given power.
+   */
+  @Override
+  public int getCoefficient(int power) {
+    return terms.getCoefficient(power);
+  }
+
+  /**
+   * Returns this polynomial, which is already immutable.
+   *
+   * @return this polynomial.
+   */
+  @Override
+  public Polynomial freeze() {
+    return this;
+  }
+
+  /**
+   * Returns a mutable polynomial with the same terms and representation. The terms are
+   * shared until the mutable polynomial is first modified.
+   *
+   * @return the mutable polynomial.
+   */
+  @Override
+  public Polynomial toMutable() {
+    return terms.copyOnWrite();
+  }
+
+  /**
+   * Checks whether this polynomial can change, which it cannot.
+   *
+   * @return true.
+   */
+  @Override
+  public boolean isImmutable() {
+    return true;
+  }
+}
@@ -0,0 +1,161 @@
+package polynomial;
+
+import java.util.Arrays;
+
+/**
+ * The JohnsonMultiplier class multiplies two sparse polynomials with Johnson's heap
+ * algorithm. Every term of the shorter operand owns a cursor into the longer operand,
+ * and a max-heap of the cursors yields the products in decreasing order of power, so
+ * like terms meet one after another and are combined before they are written out.
+ * The heap never holds more than one cursor per term of the shorter operand, which
+ * keeps the working memory linear in its size no matter how large the product is.
+ */
+final class JohnsonMultiplier {
+
+  private final int[] outerPowers;
+  private final int[] outerCoefficients;
+  private final int outerSize;
+  private final int[] innerPowers;
+  private final int[] innerCoefficients;
+  private final int innerSize;
+
+  private final int[] cursor;
+  private final long[] heapPowers;
+  private final int[] heapTerms;
+  private int heapSize;
+
+  /**
+   * Private constructor that sets up the cursors and the heap for one product.
+   *
+   * @param outer the operand whose terms own the cursors.
+   * @param inner the operand the cursors walk through.
+   */
+  private JohnsonMultiplier(SparsePolynomial outer, SparsePolynomial inner) {
+    this.outerPowers = outer.getPowerArray();
+    this.outerCoefficients = outer.getCoefficientArray();
+    this.outerSize = outer.getTermCount();
+    this.innerPowers = inner.getPowerArray();
+    this.innerCoefficients = inner.getCoefficientArray();
+    this.innerSize = inner.getTermCount();
+    this.cursor = new int[outerSize];
+    this.heapPowers = new long[outerSize];
+    this.heapTerms = new int[outerSize];
+    this.heapSize = 0;
+  }
+
+  /**
+   * Multiplies two sparse polynomials, producing the terms of the product in decreasing
+   * order of power straight into the term arrays of the result.
+   *
+   * @param first  the first operand.
+   * @param second the second operand.
+   * @return a new SparsePolynomial representing the product.
+   * @throws IllegalArgumentException if a power of the product does not fit in an int.
+   */
+  static SparsePolynomial multiply(SparsePolynomial first, SparsePolynomial second)
+          throws IllegalArgumentException {
+    if (first.getTermCount() == 0 || second.getTermCount() == 0) {
+      return new SparsePolynomial();
+    }
+    if (first.getTermCount() <= second.getTermCount()) {
+      return new JohnsonMultiplier(first, second).run();
+    }
+    return new JohnsonMultiplier(second, first).run();
+  }
+
+  /**
+   * Runs the heap merge. The cursor of outer term i + 1 only enters the heap once the
+   * cursor of outer term i has left the first inner term, because until then none of
+   * its products can be the largest one remaining.
+   *
+   * @return the product of the two operands.
+   */
+  private SparsePolynomial run() {
+    int capacity = Math.max(outerSize, innerSize);
+    int[] productPowers = new int[capacity];
+    int[] productCoefficients = new int[capacity];
+    int count = 0;
+    push(0);
+    while (heapSize > 0) {
+      long power = heapPowers[0];
+      if (power > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Power of the product is too large.");
+      }
+      int coefficient = 0;
+      while (heapSize > 0 && heapPowers[0] == power) {
+        int term = heapTerms[0];
+        coefficient += outerCoefficients[term] * innerCoefficients[cursor[term]];
+        boolean startNext = cursor[term] == 0 && term + 1 < outerSize;
+        cursor[term]++;
+        if (cursor[term] < innerSize) {
+          siftDown((long) outerPowers[term] + innerPowers[cursor[term]], term);
+        } else {
+          heapSize--;
+          siftDown(heapPowers[heapSize], heapTerms[heapSize]);
+        }
+        if (startNext) {
+          push(term + 1);
+        }
+      }
+      if (coefficient != 0) {
+        if (count == productPowers.length) {
+          int newLength = (int) Math.min((long) outerSize * innerSize,
+                  productPowers.length * 2L);
+          productPowers = Arrays.copyOf(productPowers, newLength);
+          productCoefficients = Arrays.copyOf(productCoefficients, newLength);
+        }
+        productPowers[count] = (int) power;
+        productCoefficients[count] = coefficient;
+        count++;
+      }
+    }
+    return new SparsePolynomial(productPowers, productCoefficients, count);
+  }
+
+  /**
+   * Pushes the current cursor of the given outer term onto the heap.
+   *
+   * @param term the index of the outer term.
+   */
+  private void push(int term) {
+    long power = (long) outerPowers[term] + innerPowers[cursor[term]];
+    int child = heapSize++;
+    while (child > 0) {
+      int parent = (child - 1) >>> 1;
+      if (heapPowers[parent] >= power) {
+        break;
+      }
+      heapPowers[child] = heapPowers[parent];
+      heapTerms[child] = heapTerms[parent];
+      child = parent;
+    }
+    heapPowers[child] = power;
+    heapTerms[child] = term;
+  }
+
+  /**
+   * Replaces the cursor at the top of the heap with the given one and moves it down
+   * until the heap is ordered again.
+   *
+   * @param power the power of the product the new cursor points at.
+   * @param term  the index of the outer term that owns the new cursor.
+   */
+  private void siftDown(long power, int term) {
+    int parent = 0;
+    int child = 1;
+    while (child < heapSize) {
+      if (child + 1 < heapSize && heapPowers[child + 1] > heapPowers[child]) {
+        child++;
+      }
+      if (power >= heapPowers[child]) {
+        break;
+      }
+      heapPowers[parent] = heapPowers[child];
+      heapTerms[parent] = heapTerms[child];
+      parent = child;
+      child = 2 * parent + 1;
+    }
+    heapPowers[parent] = power;
+    heapTerms[parent] = term;
+  }
+}
@@ -0,0 +1,298 @@
+package polynomial;
+
+import java.util.Arrays;
+
+/**
+ * The KaratsubaMultiplier class multiplies dense coefficient arrays with Karatsuba's
+ * algorithm. Each level of the recursion splits both operands into a low and a high half
+ * and replaces four half-size products by three, which brings the cost down from
+ * O(n^2) to O(n^1.585). Below a tunable cutoff the recursion falls back to the schoolbook
+ * product, which is faster for short operands. Coefficients use the same wrapping int
+ * arithmetic as the schoolbook product, so both give identical results.
+ */
+public final class KaratsubaMultiplier {
+
+  /**
+   * The default operand length at or below which the schoolbook product is used.
+   */
+  public static final int DEFAULT_CUTOFF = 32;
+
+  private static volatile int cutoff = DEFAULT_CUTOFF;
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private KaratsubaMultiplier() {
+  }
+
+  /**
+   * Returns the operand length at or below which the schoolbook product is used.
+   *
+   * @return the current cutoff.
+   */
+  public static int getCutoff() {
+    return cutoff;
+  }
+
+  /**
+   * Sets the operand length at or below which the schoolbook product is used.
+   *
+   * @param newCutoff the new cutoff.
+   * @throws IllegalArgumentException if the cutoff is less than 1.
+   */
+  public static void setCutoff(int newCutoff) throws IllegalArgumentException {
+    if (newCutoff < 1) {
+      throw new IllegalArgumentException("Cutoff must be at least 1.");
+    }
+    cutoff = newCutoff;
+  }
+
+  /**
+   * Multiplies two dense coefficient arrays, where the coefficient of power i is stored at
+   * index i. Operands of very different lengths are handled by cutting the longer one into
+   * blocks as long as the shorter one.
+   *
+   * @param a       the coefficients of the first operand.
+   * @param aLength the number of coefficients of the first operand, at least 1.
+   * @param b       the coefficients of the second operand.
+   * @param bLength the number of coefficients of the second operand, at least 1.
+   * @return the aLength + bLength - 1 coefficients of the product.
+   */
+  static int[] multiply(int[] a, int aLength, int[] b, int bLength) {
+    return multiply(a, aLength, b, bLength, cutoff);
+  }
+
+  /**
+   * Multiplies two dense coefficient arrays with the given cutoff.
+   *
+   * @param a           the coefficients of the first operand.
+   * @param aLength     the number of coefficients of the first operand, at least 1.
+   * @param b           the coefficients of the second operand.
+   * @param bLength     the number of coefficients of the second operand, at least 1.
+   * @param localCutoff the operand length at or below which the schoolbook product is used.
+   * @return the aLength + bLength - 1 coefficients of the product.
+   */
+  static int[] multiply(int[] a, int aLength, int[] b, int bLength, int localCutoff) {
+    if (aLength < bLength) {
+      return multiply(b, bLength, a, aLength, localCutoff);
+    }
+    int[] product = new int[aLength + bLength - 1];
+    if (bLength <= localCutoff) {
+      schoolbook(a, 0, aLength, b, 0, bLength, product, 0);
+      return product;
+    }
+    int[] block = new int[2 * bLength];
+    int[] padded = new int[bLength];
+    int[] scratch = new int[scratchSize(bLength, localCutoff)];
+    for (int offset = 0; offset < aLength; offset += bLength) {
+      int length = Math.min(bLength, aLength - offset);
+      int[] source = a;
+      int sourceOffset = offset;
+      if (length < bLength) {
+        System.arraycopy(a, offset, padded, 0, length);
+        source = padded;
+        sourceOffset = 0;
+      }
+      karatsuba(source, sourceOffset, b, 0, bLength, block, 0, scratch, 0, localCutoff);
+      int end = Math.min(2 * bLength - 1, product.length - offset);
+      for (int i = 0; i < end; i++) {
+        product[offset + i] += block[i];
+      }
+    }
+    return product;
+  }
+
+  /**
+   * Squares a dense coefficient array. Squaring needs only three half-size squares per
+   * level of the recursion, and the schoolbook square computes every cross product
+   * a[i] a[j] once and doubles it, so squaring costs about half as much as multiplying two
+   * different operands of the same length.
+   *
+   * @param a       the coefficients of the operand.
+   * @param aLength the number of coefficients of the operand, at least 1.
+   * @return the 2 aLength - 1 coefficients of the square.
+   */
+  static int[] square(int[] a, int aLength) {
+    int localCutoff = cutoff;
+    int[] square = new int[2 * aLength];
+    if (aLength <= localCutoff) {
+      schoolbookSquare(a, 0, aLength, square, 0);
+    } else {
+      int[] scratch = new int[scratchSize(aLength, localCutoff)];
+      karatsubaSquare(a, 0, aLength, square, 0, scratch, 0, localCutoff);
+    }
+    return Arrays.copyOf(square, 2 * aLength - 1);
+  }
+
+  /**
+   * Adds the schoolbook square of a coefficient range into the result, using every cross
+   * product twice.
+   *
+   * @param a       the operand.
+   * @param aOffset the index of the first coefficient of the operand.
+   * @param n       the number of coefficients of the operand.
+   * @param r       the array the square is added into.
+   * @param rOffset the index where the constant term of the square goes.
+   */
+  static void schoolbookSquare(int[] a, int aOffset, int n, int[] r, int rOffset) {
+    for (int i = 0; i < n; i++) {
+      int coefficient = a[aOffset + i];
+      if (coefficient == 0) {
+        continue;
+      }
+      r[rOffset + 2 * i] += coefficient * coefficient;
+      int doubled = 2 * coefficient;
+      int base = rOffset + i;
+      for (int j = i + 1; j < n; j++) {
+        r[base + j] += doubled * a[aOffset + j];
+      }
+    }
+  }
+
+  /**
+   * Writes the square of a coefficient range of length n into the 2n slots of the result
+   * starting at rOffset, the last of which is always zero.
+   *
+   * @param a             the operand.
+   * @param aOffset       the index of the first coefficient of the operand.
+   * @param n             the length of the operand.
+   * @param r             the array the square is written to.
+   * @param rOffset       the index where the constant term of the square goes.
+   * @param scratch       the scratch space, of at least scratchSize(n) slots.
+   * @param scratchOffset the index of the first scratch slot that may be used.
+   * @param localCutoff   the operand length at or below which the schoolbook square is used.
+   */
+  private static void karatsubaSquare(int[] a, int aOffset, int n, int[] r, int rOffset,
+                                      int[] scratch, int scratchOffset, int localCutoff) {
+    if (n <= localCutoff) {
+      for (int i = 0; i < 2 * n; i++) {
+        r[rOffset + i] = 0;
+      }
+      schoolbookSquare(a, aOffset, n, r, rOffset);
+      return;
+    }
+    int low = n / 2;
+    int high = n - low;
+    karatsubaSquare(a, aOffset, low, r, rOffset, scratch, scratchOffset, localCutoff);
+    karatsubaSquare(a, aOffset + low, high, r, rOffset + 2 * low, scratch, scratchOffset,
+            localCutoff);
+
+    int sum = scratchOffset;
+    int middle = sum + high;
+    for (int i = 0; i < high; i++) {
+      scratch[sum + i] = a[aOffset + low + i];
+    }
+    for (int i = 0; i < low; i++) {
+      scratch[sum + i] += a[aOffset + i];
+    }
+    karatsubaSquare(scratch, sum, high, scratch, middle, scratch, middle + 2 * high,
+            localCutoff);
+    for (int i = 0; i < 2 * low; i++) {
+      scratch[middle + i] -= r[rOffset + i];
+    }
+    for (int i = 0; i < 2 * high; i++) {
+      scratch[middle + i] -= r[rOffset + 2 * low + i];
+    }
+    for (int i = 0; i < 2 * high; i++) {
+      r[rOffset + low + i] += scratch[middle + i];
+    }
+  }
+
+  /**
+   * Adds the schoolbook product of two coefficient ranges into the result.
+   *
+   * @param a       the first operand.
+   * @param aOffset the index of the first coefficient of the first operand.
+   * @param aLength the number of coefficients of the first operand.
+   * @param b       the second operand.
+   * @param bOffset the index of the first coefficient of the second operand.
+   * @param bLength the number of coefficients of the second operand.
+   * @param r       the array the product is added into.
+   * @param rOffset the index where the constant term of the product goes.
+   */
+  static void schoolbook(int[] a, int aOffset, int aLength, int[] b, int bOffset, int bLength,
+                         int[] r, int rOffset) {
+    for (int i = 0; i < aLength; i++) {
+      int coefficient = a[aOffset + i];
+      if (coefficient == 0) {
+        continue;
+      }
+      int base = rOffset + i;
+      for (int j = 0; j < bLength; j++) {
+        r[base + j] += coefficient * b[bOffset + j];
+      }
+    }
+  }
+
+  /**
+   * Returns the scratch space needed by one Karatsuba product of two operands of length n.
+   *
+   * @param n           the length of both operands.
+   * @param localCutoff the operand length at or below which the schoolbook product is used.
+   * @return the number of scratch slots needed.
+   */
+  private static int scratchSize(int n, int localCutoff) {
+    int size = 0;
+    while (n > localCutoff) {
+      int high = n - n / 2;
+      size += 4 * high;
+      n = high;
+    }
+    return size;
+  }
+
+  /**
+   * Writes the product of two coefficient ranges of the same length n into the 2n slots of
+   * the result starting at rOffset, the last of which is always zero.
+   *
+   * @param a             the first operand.
+   * @param aOffset       the index of the first coefficient of the first operand.
+   * @param b             the second operand.
+   * @param bOffset       the index of the first coefficient of the second operand.
+   * @param n             the length of both operands.
+   * @param r             the array the product is written to.
+   * @param rOffset       the index where the constant term of the product goes.
+   * @param scratch       the scratch space, of at least scratchSize(n) slots.
+   * @param scratchOffset the index of the first scratch slot that may be used.
+   * @param localCutoff   the operand length at or below which the schoolbook product is used.
+   */
+  private static void karatsuba(int[] a, int aOffset, int[] b, int bOffset, int n,
+                                int[] r, int rOffset, int[] scratch, int scratchOffset,
+                                int localCutoff) {
+    if (n <= localCutoff) {
+      for (int i = 0; i < 2 * n; i++) {
+        r[rOffset + i] = 0;
+      }
+      schoolbook(a, aOffset, n, b, bOffset, n, r, rOffset);
+      return;
+    }
+    int low = n / 2;
+    int high = n - low;
+    karatsuba(a, aOffset, b, bOffset, low, r, rOffset, scratch, scratchOffset, localCutoff);
+    karatsuba(a, aOffset + low, b, bOffset + low, high, r, rOffset + 2 * low,
+            scratch, scratchOffset, localCutoff);
+
+    int sumA = scratchOffset;
+    int sumB = sumA + high;
+    int middle = sumB + high;
+    for (int i = 0; i < high; i++) {
+      scratch[sumA + i] = a[aOffset + low + i];
+      scratch[sumB + i] = b[bOffset + low + i];
+    }
+    for (int i = 0; i < low; i++) {
+      scratch[sumA + i] += a[aOffset + i];
+      scratch[sumB + i] += b[bOffset + i];
+    }
+    karatsuba(scratch, sumA, scratch, sumB, high, scratch, middle,
+            scratch, middle + 2 * high, localCutoff);
+    for (int i = 0; i < 2 * low; i++) {
+      scratch[middle + i] -= r[rOffset + i];
+    }
+    for (int i = 0; i < 2 * high; i++) {
+      scratch[middle + i] -= r[rOffset + 2 * low + i];
+    }
+    for (int i = 0; i < 2 * high; i++) {
+      r[rOffset + low + i] += scratch[middle + i];
+    }
+  }
+}
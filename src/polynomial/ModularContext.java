@@ -0,0 +1,192 @@
+package polynomial;
+
+/**
+ * The ModularContext class holds a modulus together with the precomputed constant of
+ * Barrett's reduction, so that the residue of a product modulo the modulus is found with
+ * two multiplications and a shift instead of a hardware division. One context is shared
+ * by all the polynomials of {@link DenseModularPolynomial} and
+ * {@link SparseModularPolynomial} that live in the same ring Z/pZ, and can be reused for
+ * any number of them. Residues are always kept in [0, modulus).
+ */
+public final class ModularContext {
+
+  /**
+   * The largest supported modulus, so that every residue fits in an int and every product
+   * of two residues fits in 62 bits.
+   */
+  public static final long MAXIMUM_MODULUS = Integer.MAX_VALUE;
+
+  private static final long BARRETT_LIMIT = 1L << 62;
+
+  private final long modulus;
+
+  /**
+   * The constant floor(2^62 / modulus) of Barrett's reduction.
+   */
+  private final long barrett;
+
+  /**
+   * Constructs a new ModularContext for the given modulus.
+   *
+   * @param modulus the modulus, at least 2 and at most {@link #MAXIMUM_MODULUS}.
+   * @throws IllegalArgumentException if the modulus is out of range.
+   */
+  public ModularContext(long modulus) throws IllegalArgumentException {
+    if (modulus < 2 || modulus > MAXIMUM_MODULUS) {
+      throw new IllegalArgumentException("Modulus must be between 2 and 2^31 - 1.");
+    }
+    this.modulus = modulus;
+    this.barrett = BARRETT_LIMIT / modulus;
+  }
+
+  /**
+   * Returns the modulus.
+   *
+   * @return the modulus.
+   */
+  public long getModulus() {
+    return modulus;
+  }
+
+  /**
+   * Checks whether the modulus is prime, in which case every non-zero residue has an
+   * inverse.
+   *
+   * @return true if the modulus is prime, false otherwise.
+   */
+  public boolean isPrime() {
+    return ModularKernels.isPrime(modulus);
+  }
+
+  /**
+   * Returns the residue of any value. Non-negative values below 2^62 are reduced with
+   * Barrett's method, which needs no division.
+   *
+   * @param value the value to reduce.
+   * @return the residue, in [0, modulus).
+   */
+  public long reduce(long value) {
+    if (value >= 0 && value < BARRETT_LIMIT) {
+      long quotient = (Math.multiplyHigh(value, barrett) << 2) | ((value * barrett) >>> 62);
+      long remainder = value - quotient * modulus;
+      if (remainder >= modulus) {
+        remainder -= modulus;
+        if (remainder >= modulus) {
+          remainder -= modulus;
+        }
+      }
+      return remainder;
+    }
+    return Math.floorMod(value, modulus);
+  }
+
+  /**
+   * Adds two residues.
+   *
+   * @param a the first residue.
+   * @param b the second residue.
+   * @return the residue of the sum.
+   */
+  public long add(long a, long b) {
+    long sum = a + b;
+    return sum >= modulus ? sum - modulus : sum;
+  }
+
+  /**
+   * Subtracts two residues.
+   *
+   * @param a the first residue.
+   * @param b the residue to subtract.
+   * @return the residue of the difference.
+   */
+  public long subtract(long a, long b) {
+    long difference = a - b;
+    return difference < 0 ? difference + modulus : difference;
+  }
+
+  /**
+   * Negates a residue.
+   *
+   * @param a the residue.
+   * @return the residue of the negation.
+   */
+  public long negate(long a) {
+    return a == 0 ? 0 : modulus - a;
+  }
+
+  /**
+   * Multiplies two residues.
+   *
+   * @param a the first residue.
+   * @param b the second residue.
+   * @return the residue of the product.
+   */
+  public long multiply(long a, long b) {
+    return reduce(a * b);
+  }
+
+  /**
+   * Raises a residue to a non-negative power by repeated squaring.
+   *
+   * @param base     the residue.
+   * @param exponent the exponent, not negative.
+   * @return the residue of the power.
+   * @throws IllegalArgumentException if the exponent is negative.
+   */
+  public long pow(long base, long exponent) throws IllegalArgumentException {
+    if (exponent < 0) {
+      throw new IllegalArgumentException("Exponent cannot be negative.");
+    }
+    long result = 1 % modulus;
+    while (exponent > 0) {
+      if ((exponent & 1) != 0) {
+        result = multiply(result, base);
+      }
+      base = multiply(base, base);
+      exponent >>>= 1;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the inverse of a residue.
+   *
+   * @param a the residue.
+   * @return the residue whose product with a is 1.
+   * @throws ArithmeticException if the residue is not invertible.
+   */
+  public long inverse(long a) throws ArithmeticException {
+    return ModularKernels.inverse(a, modulus);
+  }
+
+  /**
+   * Compares this context with another object for equality.
+   *
+   * @param o the object to compare.
+   * @return true if the other object is a context with the same modulus.
+   */
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof ModularContext && ((ModularContext) o).modulus == modulus;
+  }
+
+  /**
+   * Generates a hash code from the modulus.
+   *
+   * @return the hash code.
+   */
+  @Override
+  public int hashCode() {
+    return Long.hashCode(modulus);
+  }
+
+  /**
+   * Returns a description of the ring.
+   *
+   * @return the string representation of the context.
+   */
+  @Override
+  public String toString() {
+    return "Z/" + modulus + "Z";
+  }
+}
@@ -0,0 +1,429 @@
+package polynomial;
+
+import java.util.Arrays;
+
+/**
+ * The ModularKernels class holds the arithmetic on dense polynomials with coefficients
+ * modulo an integer below 2^31. A polynomial is a long array where the coefficient of
+ * power i is stored at index i, every coefficient is in [0, modulus), and the array has no
+ * leading zeros, so the zero polynomial is the empty array. Products use the schoolbook
+ * method for short operands and the number theoretic transform otherwise, and division
+ * uses a Newton iteration for the reciprocal of the divisor, so that dividing costs a
+ * constant number of multiplications.
+ */
+final class ModularKernels {
+
+  /**
+   * The operand length from which products use the number theoretic transform.
+   */
+  static final int TRANSFORM_THRESHOLD = 64;
+
+  /**
+   * The quotient length from which division uses the Newton reciprocal.
+   */
+  static final int NEWTON_THRESHOLD = 64;
+
+  static final long[] ZERO = new long[0];
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private ModularKernels() {
+  }
+
+  /**
+   * Reduces the coefficients of a polynomial modulo the given modulus.
+   *
+   * @param polynomial the polynomial to reduce.
+   * @param modulus    the modulus.
+   * @return the reduced coefficients, without leading zeros.
+   */
+  static long[] reduce(Polynomial polynomial, long modulus) {
+    if (polynomial instanceof ImmutablePolynomial) {
+      polynomial = ((ImmutablePolynomial) polynomial).getTerms();
+    }
+    long[] reduced;
+    if (polynomial instanceof SimplePolynomial) {
+      SimplePolynomial simple = (SimplePolynomial) polynomial;
+      int[] coefficients = simple.getCoefficientArray();
+      reduced = new long[simple.getHighestPower() + 1];
+      for (int power = 0; power < reduced.length; power++) {
+        reduced[power] = Math.floorMod(coefficients[power], modulus);
+      }
+    } else if (polynomial instanceof SparsePolynomial) {
+      SparsePolynomial sparse = (SparsePolynomial) polynomial;
+      int[] powers = sparse.getPowerArray();
+      int[] coefficients = sparse.getCoefficientArray();
+      int size = sparse.getTermCount();
+      reduced = new long[size == 0 ? 0 : powers[0] + 1];
+      for (int i = 0; i < size; i++) {
+        reduced[powers[i]] = Math.floorMod(coefficients[i], modulus);
+      }
+    } else {
+      reduced = new long[polynomial.getDegree() + 1];
+      for (int power = 0; power < reduced.length; power++) {
+        reduced[power] = Math.floorMod(polynomial.getCoefficient(power), modulus);
+      }
+    }
+    return trim(reduced, reduced.length);
+  }
+
+  /**
+   * Drops the leading zeros of the first length coefficients.
+   *
+   * @param a      the coefficients.
+   * @param length the number of coefficients to consider.
+   * @return the coefficients without leading zeros, the same array if nothing was dropped.
+   */
+  static long[] trim(long[] a, int length) {
+    while (length > 0 && a[length - 1] == 0) {
+      length--;
+    }
+    if (length == a.length) {
+      return a;
+    }
+    return length == 0 ? ZERO : Arrays.copyOf(a, length);
+  }
+
+  /**
+   * Adds two polynomials.
+   *
+   * @param a       the first operand.
+   * @param b       the second operand.
+   * @param modulus the modulus.
+   * @return the sum.
+   */
+  static long[] add(long[] a, long[] b, long modulus) {
+    if (a.length < b.length) {
+      long[] swap = a;
+      a = b;
+      b = swap;
+    }
+    long[] sum = a.clone();
+    for (int i = 0; i < b.length; i++) {
+      long value = sum[i] + b[i];
+      sum[i] = value >= modulus ? value - modulus : value;
+    }
+    return trim(sum, sum.length);
+  }
+
+  /**
+   * Subtracts one polynomial from another.
+   *
+   * @param a       the minuend.
+   * @param b       the subtrahend.
+   * @param modulus the modulus.
+   * @return the difference.
+   */
+  static long[] subtract(long[] a, long[] b, long modulus) {
+    long[] difference = Arrays.copyOf(a, Math.max(a.length, b.length));
+    for (int i = 0; i < b.length; i++) {
+      long value = difference[i] - b[i];
+      difference[i] = value < 0 ? value + modulus : value;
+    }
+    return trim(difference, difference.length);
+  }
+
+  /**
+   * Multiplies a polynomial by a constant.
+   *
+   * @param a       the polynomial.
+   * @param factor  the constant, in [0, modulus).
+   * @param modulus the modulus.
+   * @return the scaled polynomial.
+   */
+  static long[] scale(long[] a, long factor, long modulus) {
+    long[] scaled = new long[a.length];
+    for (int i = 0; i < a.length; i++) {
+      scaled[i] = a[i] * factor % modulus;
+    }
+    return trim(scaled, scaled.length);
+  }
+
+  /**
+   * Multiplies two polynomials.
+   *
+   * @param a       the first operand.
+   * @param b       the second operand.
+   * @param modulus the modulus.
+   * @return the product.
+   */
+  static long[] multiply(long[] a, long[] b, long modulus) {
+    if (a.length == 0 || b.length == 0) {
+      return ZERO;
+    }
+    if (Math.min(a.length, b.length) < TRANSFORM_THRESHOLD) {
+      long[] product = new long[a.length + b.length - 1];
+      for (int i = 0; i < a.length; i++) {
+        long coefficient = a[i];
+        if (coefficient == 0) {
+          continue;
+        }
+        for (int j = 0; j < b.length; j++) {
+          product[i + j] = (product[i + j] + coefficient * b[j]) % modulus;
+        }
+      }
+      return trim(product, product.length);
+    }
+    if ((long) a.length + b.length - 1 > NttMultiplier.MAX_LENGTH) {
+      int half = a.length / 2;
+      long[] low = multiply(trim(Arrays.copyOf(a, half), half), b, modulus);
+      long[] high = multiply(Arrays.copyOfRange(a, half, a.length), b, modulus);
+      return add(low, shift(high, half), modulus);
+    }
+    long[] product = NttMultiplier.multiplyMod(a, a.length, b, b.length, modulus);
+    return trim(product, product.length);
+  }
+
+  /**
+   * Multiplies a polynomial by x raised to the given power.
+   *
+   * @param a     the polynomial.
+   * @param count the power of x.
+   * @return the shifted polynomial.
+   */
+  static long[] shift(long[] a, int count) {
+    if (a.length == 0) {
+      return a;
+    }
+    long[] shifted = new long[a.length + count];
+    System.arraycopy(a, 0, shifted, count, a.length);
+    return shifted;
+  }
+
+  /**
+   * Drops every power from the given one upwards.
+   *
+   * @param a      the polynomial.
+   * @param length the number of low powers to keep.
+   * @return the truncated polynomial.
+   */
+  static long[] truncate(long[] a, int length) {
+    if (a.length <= length) {
+      return a;
+    }
+    return trim(Arrays.copyOf(a, length), length);
+  }
+
+  /**
+   * Reverses the first length coefficients, which maps p(x) to x^(length - 1) p(1 / x).
+   *
+   * @param a      the polynomial.
+   * @param length the number of coefficients to reverse, at least the length of a.
+   * @return the reversed polynomial.
+   */
+  static long[] reverse(long[] a, int length) {
+    long[] reversed = new long[length];
+    for (int i = 0; i < a.length; i++) {
+      reversed[length - 1 - i] = a[i];
+    }
+    return trim(reversed, length);
+  }
+
+  /**
+   * Computes the power series reciprocal of a polynomial with a Newton iteration, which
+   * doubles the number of correct coefficients with every step.
+   *
+   * @param f       the polynomial, whose constant term must be invertible.
+   * @param length  the number of coefficients of the reciprocal to compute.
+   * @param modulus the modulus.
+   * @return g such that f g = 1 modulo x^length.
+   * @throws ArithmeticException if the constant term is not invertible.
+   */
+  static long[] inverseSeries(long[] f, int length, long modulus) throws ArithmeticException {
+    if (f.length == 0) {
+      throw new ArithmeticException("Zero has no reciprocal.");
+    }
+    long[] g = {inverse(f[0], modulus)};
+    int known = 1;
+    while (known < length) {
+      known = Math.min(2 * known, length);
+      long[] error = truncate(multiply(truncate(f, known), g, modulus), known);
+      long[] correction = negate(error, modulus);
+      correction = add(correction, new long[]{2 % modulus}, modulus);
+      g = truncate(multiply(g, correction, modulus), known);
+    }
+    return g;
+  }
+
+  /**
+   * Negates a polynomial.
+   *
+   * @param a       the polynomial.
+   * @param modulus the modulus.
+   * @return the negated polynomial.
+   */
+  static long[] negate(long[] a, long modulus) {
+    long[] negated = new long[a.length];
+    for (int i = 0; i < a.length; i++) {
+      negated[i] = a[i] == 0 ? 0 : modulus - a[i];
+    }
+    return negated;
+  }
+
+  /**
+   * Divides one polynomial by another. Short quotients are computed by long division,
+   * longer ones from the reversed dividend times the power series reciprocal of the
+   * reversed divisor.
+   *
+   * @param a       the dividend.
+   * @param b       the divisor, whose leading coefficient must be invertible.
+   * @param modulus the modulus.
+   * @return the quotient and the remainder.
+   * @throws ArithmeticException if the divisor is zero or its leading coefficient is not
+   *                             invertible.
+   */
+  static long[][] divideAndRemainder(long[] a, long[] b, long modulus)
+          throws ArithmeticException {
+    if (b.length == 0) {
+      throw new ArithmeticException("Division by the zero polynomial.");
+    }
+    if (a.length < b.length) {
+      return new long[][]{ZERO, a};
+    }
+    int quotientLength = a.length - b.length + 1;
+    if (quotientLength < NEWTON_THRESHOLD || b.length < NEWTON_THRESHOLD) {
+      return longDivision(a, b, modulus);
+    }
+    long[] reciprocal = inverseSeries(reverse(b, b.length), quotientLength, modulus);
+    long[] reversedQuotient = truncate(multiply(truncate(reverse(a, a.length),
+            quotientLength), reciprocal, modulus), quotientLength);
+    long[] quotient = reverse(reversedQuotient, quotientLength);
+    long[] remainder = subtract(a, multiply(quotient, b, modulus), modulus);
+    return new long[][]{quotient, remainder};
+  }
+
+  /**
+   * Divides one polynomial by another with schoolbook long division.
+   *
+   * @param a       the dividend, at least as long as the divisor.
+   * @param b       the divisor, whose leading coefficient must be invertible.
+   * @param modulus the modulus.
+   * @return the quotient and the remainder.
+   * @throws ArithmeticException if the leading coefficient of b is not invertible.
+   */
+  private static long[][] longDivision(long[] a, long[] b, long modulus)
+          throws ArithmeticException {
+    long leadInverse = inverse(b[b.length - 1], modulus);
+    long[] remainder = a.clone();
+    long[] quotient = new long[a.length - b.length + 1];
+    for (int i = quotient.length - 1; i >= 0; i--) {
+      long factor = remainder[i + b.length - 1] * leadInverse % modulus;
+      quotient[i] = factor;
+      if (factor == 0) {
+        continue;
+      }
+      for (int j = 0; j < b.length; j++) {
+        long value = (remainder[i + j] - factor * b[j]) % modulus;
+        remainder[i + j] = value < 0 ? value + modulus : value;
+      }
+    }
+    return new long[][]{trim(quotient, quotient.length), trim(remainder, b.length - 1)};
+  }
+
+  /**
+   * Evaluates a polynomial at a point with Horner's scheme.
+   *
+   * @param a       the polynomial.
+   * @param x       the point, in [0, modulus).
+   * @param modulus the modulus.
+   * @return the value of the polynomial at x.
+   */
+  static long evaluate(long[] a, long x, long modulus) {
+    long value = 0;
+    for (int i = a.length - 1; i >= 0; i--) {
+      value = (value * x + a[i]) % modulus;
+    }
+    return value;
+  }
+
+  /**
+   * Computes the inverse of a value modulo the modulus with the extended Euclidean
+   * algorithm.
+   *
+   * @param value   the value, in [0, modulus).
+   * @param modulus the modulus.
+   * @return the inverse of the value.
+   * @throws ArithmeticException if the value is not invertible.
+   */
+  static long inverse(long value, long modulus) throws ArithmeticException {
+    long oldR = value;
+    long r = modulus;
+    long oldS = 1;
+    long s = 0;
+    while (r != 0) {
+      long q = oldR / r;
+      long t = oldR - q * r;
+      oldR = r;
+      r = t;
+      t = oldS - q * s;
+      oldS = s;
+      s = t;
+    }
+    if (oldR != 1) {
+      throw new ArithmeticException(value + " is not invertible modulo " + modulus + ".");
+    }
+    return Math.floorMod(oldS, modulus);
+  }
+
+  /**
+   * Checks whether a value below 2^31 is prime, with a Miller-Rabin test on the bases
+   * 2, 3, 5 and 7, which is deterministic in that range.
+   *
+   * @param n the value to check.
+   * @return true if the value is prime.
+   */
+  static boolean isPrime(long n) {
+    if (n < 2) {
+      return false;
+    }
+    for (long p : new long[]{2, 3, 5, 7}) {
+      if (n % p == 0) {
+        return n == p;
+      }
+    }
+    long d = n - 1;
+    int s = 0;
+    while ((d & 1) == 0) {
+      d >>= 1;
+      s++;
+    }
+    for (long a : new long[]{2, 3, 5, 7}) {
+      long x = NttMultiplier.modPow(a, d, n);
+      if (x == 1 || x == n - 1) {
+        continue;
+      }
+      boolean composite = true;
+      for (int i = 1; i < s && composite; i++) {
+        x = x * x % n;
+        composite = x != n - 1;
+      }
+      if (composite) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the first primes to use for multi-modular computations: the three transform
+   * primes, which multiply with a single transform, followed by the largest primes below
+   * 2^31.
+   *
+   * @param count the number of primes.
+   * @return the primes.
+   */
+  static long[] primes(int count) {
+    long[] primes = new long[count];
+    int found = 0;
+    for (; found < Math.min(count, NttMultiplier.PRIMES.length); found++) {
+      primes[found] = NttMultiplier.PRIMES[found];
+    }
+    for (long candidate = Integer.MAX_VALUE; found < count; candidate -= 2) {
+      if (isPrime(candidate)) {
+        primes[found++] = candidate;
+      }
+    }
+    return primes;
+  }
+}
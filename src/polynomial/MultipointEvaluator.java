@@ -0,0 +1,256 @@
+package polynomial;
+
+import java.math.BigInteger;
+
+/**
+ * The MultipointEvaluator class evaluates a polynomial exactly at many integer points at
+ * once. The points are arranged in a subproduct tree, whose leaves are the linear factors
+ * x - a for every point a and whose inner nodes are the products of their children. The
+ * polynomial is reduced modulo the root and the remainders are pushed down the tree, so
+ * that at every node only the remainder modulo that node's product is kept. The value at a
+ * point is the remainder left at its leaf. With fast multiplication and division this
+ * costs O(M(n) log n) for n points and a polynomial of degree n, instead of the O(n^2) of
+ * evaluating at every point separately.
+ *
+ * <p>Values modulo a modulus below 2^31 are computed directly. Exact integer values are
+ * computed modulo as many primes as their size requires and combined with Garner's form of
+ * the Chinese remainder theorem, whose mixed radix digits only need word arithmetic.
+ */
+public final class MultipointEvaluator {
+
+  /**
+   * The number of points at or below which a node evaluates its remainder directly.
+   */
+  private static final int LEAF_SIZE = 32;
+
+  /**
+   * The number of powers per term from which a sparse polynomial is evaluated term by term
+   * instead of being expanded into the tree.
+   */
+  private static final int SPARSE_RATIO = 64;
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private MultipointEvaluator() {
+  }
+
+  /**
+   * Evaluates a polynomial at every point, modulo the given modulus.
+   *
+   * @param polynomial the polynomial to evaluate.
+   * @param points     the points.
+   * @param modulus    the modulus, at least 2 and below 2^31.
+   * @return the values of the polynomial at the points, in [0, modulus).
+   * @throws IllegalArgumentException if the modulus is out of range.
+   */
+  public static long[] evaluateModulo(Polynomial polynomial, long[] points, long modulus)
+          throws IllegalArgumentException {
+    if (modulus < 2 || modulus > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Modulus must be at least 2 and below 2^31.");
+    }
+    if (polynomial instanceof ImmutablePolynomial) {
+      polynomial = ((ImmutablePolynomial) polynomial).getTerms();
+    }
+    if (polynomial instanceof SparsePolynomial) {
+      SparsePolynomial sparse = (SparsePolynomial) polynomial;
+      if ((long) sparse.getTermCount() * SPARSE_RATIO <= sparse.getDegree()) {
+        return evaluateSparse(sparse, points, modulus);
+      }
+    }
+    return evaluate(ModularKernels.reduce(polynomial, modulus), points, modulus);
+  }
+
+  /**
+   * Evaluates a polynomial exactly at every point.
+   *
+   * @param polynomial the polynomial to evaluate.
+   * @param points     the points.
+   * @return the exact values of the polynomial at the points.
+   */
+  public static BigInteger[] evaluateExact(Polynomial polynomial, long[] points) {
+    long coefficientSum = 0;
+    for (int power = 0; power <= polynomial.getDegree(); power++) {
+      coefficientSum += Math.abs((long) polynomial.getCoefficient(power));
+    }
+    long largestPoint = 1;
+    for (long point : points) {
+      largestPoint = Math.max(largestPoint, point == Long.MIN_VALUE ? Long.MAX_VALUE
+              : Math.abs(point));
+    }
+    double bits = log2(coefficientSum) + polynomial.getDegree() * log2(largestPoint) + 2;
+    int count = 0;
+    double covered = 0;
+    long[] primes = ModularKernels.primes((int) Math.ceil(bits / 27) + 1);
+    while (covered < bits) {
+      covered += log2(primes[count]);
+      count++;
+    }
+
+    long[][] residues = new long[count][];
+    for (int k = 0; k < count; k++) {
+      residues[k] = evaluateModulo(polynomial, points, primes[k]);
+    }
+    long[] inverses = new long[count];
+    inverses[0] = 1;
+    for (int k = 1; k < count; k++) {
+      long product = 1;
+      for (int j = 0; j < k; j++) {
+        product = product * (primes[j] % primes[k]) % primes[k];
+      }
+      inverses[k] = ModularKernels.inverse(product, primes[k]);
+    }
+    BigInteger modulusProduct = BigInteger.ONE;
+    for (int k = 0; k < count; k++) {
+      modulusProduct = modulusProduct.multiply(BigInteger.valueOf(primes[k]));
+    }
+    BigInteger[] values = new BigInteger[points.length];
+    long[] digits = new long[count];
+    for (int i = 0; i < points.length; i++) {
+      for (int k = 0; k < count; k++) {
+        long prime = primes[k];
+        long prefix = 0;
+        for (int j = k - 1; j >= 0; j--) {
+          prefix = (prefix * (primes[j] % prime) + digits[j]) % prime;
+        }
+        digits[k] = Math.floorMod(residues[k][i] - prefix, prime) * inverses[k] % prime;
+      }
+      BigInteger value = BigInteger.valueOf(digits[count - 1]);
+      for (int k = count - 2; k >= 0; k--) {
+        value = value.multiply(BigInteger.valueOf(primes[k])).add(BigInteger.valueOf(digits[k]));
+      }
+      if (value.shiftLeft(1).compareTo(modulusProduct) > 0) {
+        value = value.subtract(modulusProduct);
+      }
+      values[i] = value;
+    }
+    return values;
+  }
+
+  /**
+   * Returns the base 2 logarithm of a positive value.
+   *
+   * @param value the value.
+   * @return the logarithm, or 0 for values below 1.
+   */
+  private static double log2(long value) {
+    return value <= 1 ? 0 : Math.log(value) / Math.log(2);
+  }
+
+  /**
+   * Evaluates the terms of a sparse polynomial at every point, raising the point to the gap
+   * between consecutive powers by repeated squaring.
+   *
+   * @param sparse  the polynomial.
+   * @param points  the points.
+   * @param modulus the modulus.
+   * @return the values at the points.
+   */
+  private static long[] evaluateSparse(SparsePolynomial sparse, long[] points, long modulus) {
+    int[] powers = sparse.getPowerArray();
+    int[] coefficients = sparse.getCoefficientArray();
+    int size = sparse.getTermCount();
+    long[] values = new long[points.length];
+    for (int i = 0; i < points.length && size > 0; i++) {
+      long x = Math.floorMod(points[i], modulus);
+      long value = Math.floorMod(coefficients[0], modulus);
+      for (int j = 1; j <= size; j++) {
+        int gap = j < size ? powers[j - 1] - powers[j] : powers[size - 1];
+        long coefficient = j < size ? Math.floorMod(coefficients[j], modulus) : 0;
+        value = (value * NttMultiplier.modPow(x, gap, modulus) + coefficient) % modulus;
+      }
+      values[i] = value;
+    }
+    return values;
+  }
+
+  /**
+   * Evaluates reduced coefficients at every point.
+   *
+   * @param f       the coefficients, reduced modulo the modulus.
+   * @param points  the points.
+   * @param modulus the modulus.
+   * @return the values at the points.
+   */
+  private static long[] evaluate(long[] f, long[] points, long modulus) {
+    int n = points.length;
+    long[] reduced = new long[n];
+    for (int i = 0; i < n; i++) {
+      reduced[i] = Math.floorMod(points[i], modulus);
+    }
+    long[] values = new long[n];
+    if (n <= LEAF_SIZE) {
+      for (int i = 0; i < n; i++) {
+        values[i] = ModularKernels.evaluate(f, reduced[i], modulus);
+      }
+      return values;
+    }
+    long[][][] tree = buildTree(reduced, modulus);
+    int top = tree.length - 1;
+    long[] remainder = ModularKernels.divideAndRemainder(f, tree[top][0], modulus)[1];
+    descend(tree, top, 0, remainder, reduced, values, modulus);
+    return values;
+  }
+
+  /**
+   * Builds the subproduct tree of the points. Level 0 holds one linear factor per point and
+   * node j of level k is the product of nodes 2j and 2j + 1 of level k - 1, or a copy of
+   * node 2j if there is no node 2j + 1, so that node j of level k covers the points from
+   * j 2^k up to (j + 1) 2^k.
+   *
+   * @param points  the points, reduced modulo the modulus.
+   * @param modulus the modulus.
+   * @return the levels of the tree, the last one holding only the root.
+   */
+  private static long[][][] buildTree(long[] points, long modulus) {
+    int levels = 1;
+    while ((1 << (levels - 1)) < points.length) {
+      levels++;
+    }
+    long[][][] tree = new long[levels][][];
+    tree[0] = new long[points.length][];
+    for (int i = 0; i < points.length; i++) {
+      tree[0][i] = new long[]{points[i] == 0 ? 0 : modulus - points[i], 1};
+    }
+    for (int level = 1; level < levels; level++) {
+      long[][] below = tree[level - 1];
+      long[][] nodes = new long[(below.length + 1) / 2][];
+      for (int j = 0; j < nodes.length; j++) {
+        nodes[j] = 2 * j + 1 < below.length
+                ? ModularKernels.multiply(below[2 * j], below[2 * j + 1], modulus)
+                : below[2 * j];
+      }
+      tree[level] = nodes;
+    }
+    return tree;
+  }
+
+  /**
+   * Pushes a remainder down the tree, writing the values of all points below a node.
+   *
+   * @param tree      the subproduct tree.
+   * @param level     the level of the node.
+   * @param index     the index of the node within its level.
+   * @param remainder the polynomial reduced modulo the node.
+   * @param points    the points, reduced modulo the modulus.
+   * @param values    the array receiving the values.
+   * @param modulus   the modulus.
+   */
+  private static void descend(long[][][] tree, int level, int index, long[] remainder,
+                              long[] points, long[] values, long modulus) {
+    int from = index << level;
+    int to = Math.min(points.length, (index + 1) << level);
+    if (to - from <= LEAF_SIZE) {
+      for (int i = from; i < to; i++) {
+        values[i] = ModularKernels.evaluate(remainder, points[i], modulus);
+      }
+      return;
+    }
+    long[][] below = tree[level - 1];
+    for (int child = 2 * index; child <= 2 * index + 1 && child < below.length; child++) {
+      long[] childRemainder = ModularKernels.divideAndRemainder(remainder, below[child],
+              modulus)[1];
+      descend(tree, level - 1, child, childRemainder, points, values, modulus);
+    }
+  }
+}
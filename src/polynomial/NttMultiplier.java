@@ -0,0 +1,403 @@
+package polynomial;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * The NttMultiplier class multiplies dense coefficient arrays with the number theoretic
+ * transform. The convolution is computed modulo three primes of the form c * 2^k + 1, for
+ * which the transform is exact, and the three residues of every coefficient are combined
+ * with the Chinese remainder theorem. The product of the primes is larger than twice any
+ * coefficient the convolution of int arrays can produce, so the combined result is the
+ * exact integer product and no floating point rounding is involved. Multiplying costs
+ * O(n log n), which beats Karatsuba's algorithm for very long operands.
+ */
+public final class NttMultiplier {
+
+  /**
+   * The default operand length from which dense products use the transform.
+   */
+  public static final int DEFAULT_THRESHOLD = 8192;
+
+  /**
+   * The longest product, in coefficients, the transform supports.
+   */
+  static final int MAX_LENGTH = 1 << 23;
+
+  /**
+   * The primes the convolution is computed modulo. All of them have 3 as a primitive root
+   * and support transforms of length up to MAX_LENGTH.
+   */
+  static final long[] PRIMES = {998244353L, 167772161L, 469762049L};
+
+  private static final long GENERATOR = 3;
+
+  private static final long INVERSE_0_MOD_1 = modPow(PRIMES[0] % PRIMES[1], PRIMES[1] - 2,
+          PRIMES[1]);
+  private static final long INVERSE_01_MOD_2 = modPow(PRIMES[0] * PRIMES[1] % PRIMES[2],
+          PRIMES[2] - 2, PRIMES[2]);
+  private static final long[] HALF_DIGITS = halfDigits();
+
+  private static volatile int threshold = DEFAULT_THRESHOLD;
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private NttMultiplier() {
+  }
+
+  /**
+   * Returns the operand length from which dense products use the transform.
+   *
+   * @return the current threshold.
+   */
+  public static int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Sets the operand length from which dense products use the transform. Shorter products
+   * use Karatsuba's algorithm instead.
+   *
+   * @param newThreshold the new threshold.
+   * @throws IllegalArgumentException if the threshold is less than 1.
+   */
+  public static void setThreshold(int newThreshold) throws IllegalArgumentException {
+    if (newThreshold < 1) {
+      throw new IllegalArgumentException("Threshold must be at least 1.");
+    }
+    threshold = newThreshold;
+  }
+
+  /**
+   * Checks whether a product of the given operand lengths should use the transform.
+   *
+   * @param aLength the number of coefficients of the first operand.
+   * @param bLength the number of coefficients of the second operand.
+   * @return true if the shorter operand reaches the threshold and the product fits.
+   */
+  static boolean isWorthwhile(int aLength, int bLength) {
+    return Math.min(aLength, bLength) >= threshold
+            && (long) aLength + bLength - 1 <= MAX_LENGTH;
+  }
+
+  /**
+   * Multiplies two dense coefficient arrays, where the coefficient of power i is stored at
+   * index i. The exact product coefficients are wrapped to int the same way the schoolbook
+   * product wraps them, so both give identical results.
+   *
+   * @param a       the coefficients of the first operand.
+   * @param aLength the number of coefficients of the first operand, at least 1.
+   * @param b       the coefficients of the second operand.
+   * @param bLength the number of coefficients of the second operand, at least 1.
+   * @return the aLength + bLength - 1 coefficients of the product.
+   * @throws IllegalArgumentException if the product is longer than the transform supports.
+   */
+  static int[] multiply(int[] a, int aLength, int[] b, int bLength)
+          throws IllegalArgumentException {
+    int productLength = checkLength(aLength, bLength);
+    long[][] residues = new long[PRIMES.length][];
+    for (int k = 0; k < PRIMES.length; k++) {
+      long prime = PRIMES[k];
+      int size = transformSize(productLength);
+      long[] fa = new long[size];
+      long[] fb = new long[size];
+      for (int i = 0; i < aLength; i++) {
+        fa[i] = Math.floorMod(a[i], prime);
+      }
+      for (int i = 0; i < bLength; i++) {
+        fb[i] = Math.floorMod(b[i], prime);
+      }
+      residues[k] = convolve(fa, fb, prime);
+    }
+    int[] product = new int[productLength];
+    for (int i = 0; i < productLength; i++) {
+      product[i] = (int) combineSigned(residues[0][i], residues[1][i], residues[2][i]);
+    }
+    return product;
+  }
+
+  /**
+   * Squares a dense coefficient array with one forward transform per prime instead of
+   * two. The exact coefficients are wrapped to int like those of multiply.
+   *
+   * @param a       the coefficients of the operand.
+   * @param aLength the number of coefficients of the operand, at least 1.
+   * @return the 2 aLength - 1 coefficients of the square.
+   * @throws IllegalArgumentException if the square is longer than the transform supports.
+   */
+  static int[] square(int[] a, int aLength) throws IllegalArgumentException {
+    int productLength = checkLength(aLength, aLength);
+    long[][] residues = new long[PRIMES.length][];
+    for (int k = 0; k < PRIMES.length; k++) {
+      long prime = PRIMES[k];
+      long[] fa = new long[transformSize(productLength)];
+      for (int i = 0; i < aLength; i++) {
+        fa[i] = Math.floorMod(a[i], prime);
+      }
+      transform(fa, false, prime);
+      for (int i = 0; i < fa.length; i++) {
+        fa[i] = fa[i] * fa[i] % prime;
+      }
+      transform(fa, true, prime);
+      residues[k] = fa;
+    }
+    int[] square = new int[productLength];
+    for (int i = 0; i < productLength; i++) {
+      square[i] = (int) combineSigned(residues[0][i], residues[1][i], residues[2][i]);
+    }
+    return square;
+  }
+
+  /**
+   * Multiplies two coefficient arrays modulo a prime below 2^31, where every coefficient is
+   * already reduced into [0, modulus). When the modulus is one of the transform primes a
+   * single transform is used, otherwise the exact product is rebuilt from all three.
+   *
+   * @param a       the coefficients of the first operand.
+   * @param aLength the number of coefficients of the first operand, at least 1.
+   * @param b       the coefficients of the second operand.
+   * @param bLength the number of coefficients of the second operand, at least 1.
+   * @param modulus the modulus, below 2^31.
+   * @return the aLength + bLength - 1 coefficients of the product, reduced modulo modulus.
+   * @throws IllegalArgumentException if the product is longer than the transform supports.
+   */
+  static long[] multiplyMod(long[] a, int aLength, long[] b, int bLength, long modulus)
+          throws IllegalArgumentException {
+    int productLength = checkLength(aLength, bLength);
+    int size = transformSize(productLength);
+    for (long prime : PRIMES) {
+      if (prime == modulus) {
+        long[] fa = new long[size];
+        long[] fb = new long[size];
+        System.arraycopy(a, 0, fa, 0, aLength);
+        System.arraycopy(b, 0, fb, 0, bLength);
+        long[] product = convolve(fa, fb, prime);
+        return Arrays.copyOf(product, productLength);
+      }
+    }
+    long[][] residues = new long[PRIMES.length][];
+    for (int k = 0; k < PRIMES.length; k++) {
+      long prime = PRIMES[k];
+      long[] fa = new long[size];
+      long[] fb = new long[size];
+      for (int i = 0; i < aLength; i++) {
+        fa[i] = a[i] % prime;
+      }
+      for (int i = 0; i < bLength; i++) {
+        fb[i] = b[i] % prime;
+      }
+      residues[k] = convolve(fa, fb, prime);
+    }
+    long[] product = new long[productLength];
+    for (int i = 0; i < productLength; i++) {
+      product[i] = combineMod(residues[0][i], residues[1][i], residues[2][i], modulus);
+    }
+    return product;
+  }
+
+  /**
+   * Checks that a product of the given operand lengths fits in one transform.
+   *
+   * @param aLength the number of coefficients of the first operand.
+   * @param bLength the number of coefficients of the second operand.
+   * @return the number of coefficients of the product.
+   * @throws IllegalArgumentException if the product is longer than the transform supports.
+   */
+  private static int checkLength(int aLength, int bLength) throws IllegalArgumentException {
+    long productLength = (long) aLength + bLength - 1;
+    if (productLength > MAX_LENGTH) {
+      throw new IllegalArgumentException("Product is too long for the transform.");
+    }
+    return (int) productLength;
+  }
+
+  /**
+   * Returns the smallest power of two that is at least the given length.
+   *
+   * @param length the number of coefficients that must fit.
+   * @return the transform size.
+   */
+  static int transformSize(int length) {
+    int size = 1;
+    while (size < length) {
+      size <<= 1;
+    }
+    return size;
+  }
+
+  /**
+   * Computes the cyclic convolution of two arrays of the same power of two length modulo
+   * one of the transform primes. Both arrays are overwritten.
+   *
+   * @param fa    the first operand, reduced modulo prime.
+   * @param fb    the second operand, reduced modulo prime.
+   * @param prime the transform prime.
+   * @return the convolution, stored in fa.
+   */
+  static long[] convolve(long[] fa, long[] fb, long prime) {
+    transform(fa, false, prime);
+    transform(fb, false, prime);
+    for (int i = 0; i < fa.length; i++) {
+      fa[i] = fa[i] * fb[i] % prime;
+    }
+    transform(fa, true, prime);
+    return fa;
+  }
+
+  /**
+   * Applies the forward or inverse transform in place.
+   *
+   * @param values  the values to transform, of a power of two length.
+   * @param inverse true for the inverse transform, which also divides by the length.
+   * @param prime   the transform prime.
+   */
+  static void transform(long[] values, boolean inverse, long prime) {
+    int n = values.length;
+    for (int i = 1, j = 0; i < n; i++) {
+      int bit = n >> 1;
+      for (; (j & bit) != 0; bit >>= 1) {
+        j ^= bit;
+      }
+      j ^= bit;
+      if (i < j) {
+        long swap = values[i];
+        values[i] = values[j];
+        values[j] = swap;
+      }
+    }
+    long[] roots = new long[Math.max(1, n / 2)];
+    for (int length = 2; length <= n; length <<= 1) {
+      long root = modPow(GENERATOR, (prime - 1) / length, prime);
+      if (inverse) {
+        root = modPow(root, prime - 2, prime);
+      }
+      int half = length >> 1;
+      roots[0] = 1;
+      for (int k = 1; k < half; k++) {
+        roots[k] = roots[k - 1] * root % prime;
+      }
+      for (int start = 0; start < n; start += length) {
+        for (int k = 0; k < half; k++) {
+          long u = values[start + k];
+          long v = values[start + k + half] * roots[k] % prime;
+          long sum = u + v;
+          values[start + k] = sum >= prime ? sum - prime : sum;
+          long difference = u - v;
+          values[start + k + half] = difference < 0 ? difference + prime : difference;
+        }
+      }
+    }
+    if (inverse) {
+      long scale = modPow(n, prime - 2, prime);
+      for (int i = 0; i < n; i++) {
+        values[i] = values[i] * scale % prime;
+      }
+    }
+  }
+
+  /**
+   * Computes base^exponent modulo a modulus below 2^31.
+   *
+   * @param base     the base, reduced modulo modulus.
+   * @param exponent the exponent, not negative.
+   * @param modulus  the modulus.
+   * @return the power, reduced modulo modulus.
+   */
+  static long modPow(long base, long exponent, long modulus) {
+    long result = 1 % modulus;
+    base %= modulus;
+    while (exponent > 0) {
+      if ((exponent & 1) != 0) {
+        result = result * base % modulus;
+      }
+      base = base * base % modulus;
+      exponent >>= 1;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the second mixed radix digit of the value with the given residues, so that the
+   * value is congruent to r0 + d1 * p0 modulo p0 * p1.
+   *
+   * @param r0 the residue modulo the first prime.
+   * @param r1 the residue modulo the second prime.
+   * @return the digit d1, in [0, p1).
+   */
+  private static long secondDigit(long r0, long r1) {
+    return Math.floorMod(r1 - r0, PRIMES[1]) * INVERSE_0_MOD_1 % PRIMES[1];
+  }
+
+  /**
+   * Returns the third mixed radix digit of the value with the given residues, so that the
+   * value is r0 + d1 * p0 + d2 * p0 * p1.
+   *
+   * @param r0 the residue modulo the first prime.
+   * @param d1 the second digit.
+   * @param r2 the residue modulo the third prime.
+   * @return the digit d2, in [0, p2).
+   */
+  private static long thirdDigit(long r0, long d1, long r2) {
+    long p2 = PRIMES[2];
+    long partial = (r0 % p2 + d1 % p2 * (PRIMES[0] % p2)) % p2;
+    return Math.floorMod(r2 - partial, p2) * INVERSE_01_MOD_2 % p2;
+  }
+
+  /**
+   * Combines three residues into the value of smallest magnitude with those residues,
+   * wrapped to 64 bits.
+   *
+   * @param r0 the residue modulo the first prime.
+   * @param r1 the residue modulo the second prime.
+   * @param r2 the residue modulo the third prime.
+   * @return the low 64 bits of the signed value.
+   */
+  static long combineSigned(long r0, long r1, long r2) {
+    long p0 = PRIMES[0];
+    long p1 = PRIMES[1];
+    long d1 = secondDigit(r0, r1);
+    long d2 = thirdDigit(r0, d1, r2);
+    long value = r0 + d1 * p0 + d2 * (p0 * p1);
+    boolean negative = d2 != HALF_DIGITS[2] ? d2 > HALF_DIGITS[2]
+            : d1 != HALF_DIGITS[1] ? d1 > HALF_DIGITS[1] : r0 > HALF_DIGITS[0];
+    if (negative) {
+      value -= p0 * p1 * PRIMES[2];
+    }
+    return value;
+  }
+
+  /**
+   * Combines three residues of a non-negative value below p0 * p1 * p2 into its residue
+   * modulo another modulus below 2^31.
+   *
+   * @param r0      the residue modulo the first prime.
+   * @param r1      the residue modulo the second prime.
+   * @param r2      the residue modulo the third prime.
+   * @param modulus the target modulus.
+   * @return the value reduced modulo modulus.
+   */
+  static long combineMod(long r0, long r1, long r2, long modulus) {
+    long d1 = secondDigit(r0, r1);
+    long d2 = thirdDigit(r0, d1, r2);
+    long p0 = PRIMES[0] % modulus;
+    long p01 = PRIMES[0] * PRIMES[1] % modulus;
+    return (r0 % modulus + d1 % modulus * p0 % modulus + d2 % modulus * p01) % modulus;
+  }
+
+  /**
+   * Computes the mixed radix digits of (p0 * p1 * p2 - 1) / 2, the largest value that is
+   * treated as non-negative when combining residues.
+   *
+   * @return the digits of the half modulus.
+   */
+  private static long[] halfDigits() {
+    BigInteger p0 = BigInteger.valueOf(PRIMES[0]);
+    BigInteger p1 = BigInteger.valueOf(PRIMES[1]);
+    BigInteger p2 = BigInteger.valueOf(PRIMES[2]);
+    BigInteger half = p0.multiply(p1).multiply(p2).subtract(BigInteger.ONE).shiftRight(1);
+    BigInteger[] first = half.divideAndRemainder(p0);
+    BigInteger[] second = first[0].divideAndRemainder(p1);
+    return new long[]{first[1].longValue(), second[1].longValue(), second[0].longValue()};
+  }
+}
@@ -0,0 +1,338 @@
+package polynomial;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The OperationCache class remembers the results of add, multiply and derivative, so that
+ * repeating an operation on equal operands returns the earlier result instead of computing
+ * it again. Entries are found by the fingerprints of the operands and confirmed by
+ * comparing the operands themselves, so a fingerprint collision can never return a wrong
+ * result. Lookups use the operands as they are, with their cached fingerprints, and only
+ * an operation that is stored takes immutable snapshots of its operands, which later
+ * changes to the polynomials passed in cannot affect. The cache returns immutable results.
+ * Every entry weighs the number of terms of its operands and result, and the least
+ * recently used entries are evicted once the total weight exceeds the maximum. The cache
+ * can be used from many threads at once. Operations are computed outside of its lock, so
+ * a slow product never blocks lookups of other entries.
+ */
+public final class OperationCache {
+
+  private static final int ADD = 0;
+  private static final int MULTIPLY = 1;
+  private static final int DERIVATIVE = 2;
+
+  private final long maximumWeight;
+  private final LinkedHashMap<Key, Value> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final ReentrantLock lock = new ReentrantLock();
+  private long weight;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Constructs a new, empty OperationCache holding at most the given total weight.
+   *
+   * @param maximumWeight the maximum total number of terms of all entries.
+   * @throws IllegalArgumentException if the maximum weight is less than 1.
+   */
+  public OperationCache(long maximumWeight) throws IllegalArgumentException {
+    if (maximumWeight < 1) {
+      throw new IllegalArgumentException("Maximum weight must be at least 1.");
+    }
+    this.maximumWeight = maximumWeight;
+  }
+
+  /**
+   * Adds two polynomials, reusing an earlier result for equal operands.
+   *
+   * @param first  the first operand.
+   * @param second the second operand.
+   * @return the sum as an immutable polynomial.
+   * @throws IllegalArgumentException if an operand is null or not one of the
+   *                                  implementations of this package.
+   */
+  public Polynomial add(Polynomial first, Polynomial second) throws IllegalArgumentException {
+    return compute(ADD, first, second);
+  }
+
+  /**
+   * Multiplies two polynomials, reusing an earlier result for equal operands.
+   *
+   * @param first  the first operand.
+   * @param second the second operand.
+   * @return the product as an immutable polynomial.
+   * @throws IllegalArgumentException if an operand is null or not one of the
+   *                                  implementations of this package.
+   */
+  public Polynomial multiply(Polynomial first, Polynomial second)
+          throws IllegalArgumentException {
+    return compute(MULTIPLY, first, second);
+  }
+
+  /**
+   * Computes the derivative of a polynomial, reusing an earlier result for an equal
+   * polynomial.
+   *
+   * @param polynomial the polynomial.
+   * @return the derivative as an immutable polynomial.
+   * @throws IllegalArgumentException if the polynomial is null or not one of the
+   *                                  implementations of this package.
+   */
+  public Polynomial derivative(Polynomial polynomial) throws IllegalArgumentException {
+    return compute(DERIVATIVE, polynomial, null);
+  }
+
+  /**
+   * Returns the number of operations answered from the cache.
+   *
+   * @return the number of hits.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of operations that had to be computed.
+   *
+   * @return the number of misses.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of entries evicted to stay within the maximum weight.
+   *
+   * @return the number of evictions.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Returns the number of entries in the cache.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the total weight of the entries in the cache.
+   *
+   * @return the total number of terms of all entries.
+   */
+  public long getWeight() {
+    lock.lock();
+    try {
+      return weight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes all entries. The statistics are kept.
+   */
+  public void clear() {
+    lock.lock();
+    try {
+      entries.clear();
+      weight = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Looks up an operation and computes and stores it on a miss.
+   *
+   * @param operation the operation.
+   * @param first     the first operand.
+   * @param second    the second operand, or null for derivative.
+   * @return the result as an immutable polynomial.
+   * @throws IllegalArgumentException if an operand is null or not supported.
+   */
+  private Polynomial compute(int operation, Polynomial first, Polynomial second)
+          throws IllegalArgumentException {
+    Key lookup = new Key(operation, check(first),
+            operation == DERIVATIVE ? null : check(second));
+    lock.lock();
+    try {
+      Value cached = entries.get(lookup);
+      if (cached != null) {
+        hits.increment();
+        return cached.result;
+      }
+    } finally {
+      lock.unlock();
+    }
+    misses.increment();
+    Polynomial result;
+    if (operation == ADD) {
+      result = first.add(second);
+    } else if (operation == MULTIPLY) {
+      result = first.multiply(second);
+    } else {
+      result = first.derivative();
+    }
+    ImmutablePolynomial frozen = (ImmutablePolynomial) result.freeze();
+    long entryWeight = 1L + lookup.first.termCount() + frozen.termCount()
+            + (lookup.second == null ? 0 : lookup.second.termCount());
+    if (entryWeight > maximumWeight) {
+      return frozen;
+    }
+    Key key = lookup.snapshot();
+    lock.lock();
+    try {
+      Value previous = entries.put(key, new Value(frozen, entryWeight));
+      weight += entryWeight - (previous == null ? 0 : previous.weight);
+      Iterator<Map.Entry<Key, Value>> eldest = entries.entrySet().iterator();
+      while (weight > maximumWeight) {
+        Value evicted = eldest.next().getValue();
+        eldest.remove();
+        weight -= evicted.weight;
+        evictions.increment();
+      }
+    } finally {
+      lock.unlock();
+    }
+    return frozen;
+  }
+
+  /**
+   * Checks that an operand can be cached.
+   *
+   * @param operand the operand.
+   * @return the operand.
+   * @throws IllegalArgumentException if the operand is null or not supported.
+   */
+  private static AbstractPolynomial check(Polynomial operand) throws IllegalArgumentException {
+    if (operand == null) {
+      throw new IllegalArgumentException("Polynomial cannot be null.");
+    }
+    if (!(operand instanceof AbstractPolynomial)) {
+      throw new IllegalArgumentException("Unsupported polynomial implementation.");
+    }
+    return (AbstractPolynomial) operand;
+  }
+
+  /**
+   * The Key class identifies an operation by its kind and operands. Keys used for lookups
+   * hold the operands passed in, whose cached fingerprints are reused, and keys stored in
+   * the cache hold immutable snapshots of them.
+   */
+  private static final class Key {
+
+    private final int operation;
+    private final AbstractPolynomial first;
+    private final AbstractPolynomial second;
+    private final long firstFingerprint;
+    private final long secondFingerprint;
+
+    /**
+     * Constructs a new Key from the fingerprints of its operands.
+     *
+     * @param operation the operation.
+     * @param first     the first operand.
+     * @param second    the second operand, or null for derivative.
+     */
+    Key(int operation, AbstractPolynomial first, AbstractPolynomial second) {
+      this(operation, first, second, first.fingerprint(),
+              second == null ? 0 : second.fingerprint());
+    }
+
+    /**
+     * Constructs a new Key with known fingerprints.
+     *
+     * @param operation         the operation.
+     * @param first             the first operand.
+     * @param second            the second operand, or null for derivative.
+     * @param firstFingerprint  the fingerprint of the first operand.
+     * @param secondFingerprint the fingerprint of the second operand, or 0.
+     */
+    private Key(int operation, AbstractPolynomial first, AbstractPolynomial second,
+                long firstFingerprint, long secondFingerprint) {
+      this.operation = operation;
+      this.first = first;
+      this.second = second;
+      this.firstFingerprint = firstFingerprint;
+      this.secondFingerprint = secondFingerprint;
+    }
+
+    /**
+     * Returns a key for the same operation that holds immutable snapshots of the operands,
+     * which later changes to the operands cannot affect. The fingerprints are carried over
+     * instead of being computed again.
+     *
+     * @return the key to store in the cache.
+     */
+    Key snapshot() {
+      return new Key(operation, (AbstractPolynomial) first.freeze(),
+              second == null ? null : (AbstractPolynomial) second.freeze(),
+              firstFingerprint, secondFingerprint);
+    }
+
+    /**
+     * Compares the kind, fingerprints and operands of two keys.
+     *
+     * @param o the object to compare.
+     * @return true if both keys stand for the same operation on equal operands.
+     */
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return operation == other.operation && firstFingerprint == other.firstFingerprint
+              && secondFingerprint == other.secondFingerprint && first.equals(other.first)
+              && (second == null ? other.second == null : second.equals(other.second));
+    }
+
+    /**
+     * Mixes the kind and the fingerprints of the key.
+     *
+     * @return the hash code.
+     */
+    @Override
+    public int hashCode() {
+      long value = firstFingerprint * 31 + secondFingerprint * 17 + operation;
+      return (int) (value ^ (value >>> 32));
+    }
+  }
+
+  /**
+   * The Value class holds a cached result and its weight.
+   */
+  private static final class Value {
+
+    private final ImmutablePolynomial result;
+    private final long weight;
+
+    /**
+     * Constructs a new Value.
+     *
+     * @param result the result.
+     * @param weight the weight of the entry.
+     */
+    Value(ImmutablePolynomial result, long weight) {
+      this.result = result;
+      this.weight = weight;
+    }
+  }
+}
@@ -0,0 +1,277 @@
+package polynomial;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The ParallelMultiplier class multiplies large polynomials on the threads of the pool
+ * returned by Parallelism.getPool(). The terms of one operand are cut into as many
+ * contiguous parts as the pool has threads, every part is multiplied by the whole other
+ * operand in its own task with the usual sequential kernel, and each task keeps its
+ * partial product in a buffer of its own, so no two threads ever write the same memory.
+ * The partial products are added up at the end. Coefficients use the same wrapping int
+ * arithmetic as the sequential kernels, and wrapping addition does not depend on the order
+ * of its operands, so the products are identical to the sequential ones.
+ */
+final class ParallelMultiplier {
+
+  /**
+   * The smallest number of terms a part is cut down to.
+   */
+  static final int MIN_PART_SIZE = 64;
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private ParallelMultiplier() {
+  }
+
+  /**
+   * Returns the number of parts to cut an operand with the given number of terms into,
+   * for a product needing the given number of term multiplications.
+   *
+   * @param terms    the number of terms of the operand that is cut.
+   * @param products the number of term multiplications of the whole product.
+   * @return the number of parts, 1 if the product should stay sequential.
+   */
+  static int parts(int terms, long products) {
+    if (products < Parallelism.getMultiplicationThreshold()) {
+      return 1;
+    }
+    int threads = Parallelism.getPool().getParallelism();
+    return Math.max(1, Math.min(threads, terms / MIN_PART_SIZE));
+  }
+
+  /**
+   * Multiplies two dense coefficient arrays, cutting the longer one into the given number
+   * of parts.
+   *
+   * @param a       the coefficients of the first operand.
+   * @param aLength the number of coefficients of the first operand, at least 1.
+   * @param b       the coefficients of the second operand.
+   * @param bLength the number of coefficients of the second operand, at least 1.
+   * @param parts   the number of parts, at least 2.
+   * @return the aLength + bLength - 1 coefficients of the product.
+   */
+  static int[] multiplyDense(int[] a, int aLength, int[] b, int bLength, int parts) {
+    if (aLength < bLength) {
+      return multiplyDense(b, bLength, a, aLength, parts);
+    }
+    ForkJoinPool pool = Parallelism.getPool();
+    DenseTask[] tasks = new DenseTask[parts];
+    for (int part = 0; part < parts; part++) {
+      int from = (int) ((long) aLength * part / parts);
+      int to = (int) ((long) aLength * (part + 1) / parts);
+      tasks[part] = new DenseTask(a, from, to, b, bLength);
+      pool.execute(tasks[part]);
+    }
+    int[] product = new int[aLength + bLength - 1];
+    for (DenseTask task : tasks) {
+      int[] partial = task.join();
+      for (int i = 0; i < partial.length; i++) {
+        product[task.from + i] += partial[i];
+      }
+    }
+    return product;
+  }
+
+  /**
+   * Multiplies a sparse polynomial by a dense one into a dense coefficient array, cutting
+   * the terms of the sparse polynomial into the given number of parts. Every part is
+   * multiplied into a buffer that only spans the powers its products can reach.
+   *
+   * @param sparse the sparse operand, not zero.
+   * @param dense  the dense operand, not zero.
+   * @param parts  the number of parts, at least 2.
+   * @return the deg(sparse) + deg(dense) + 1 coefficients of the product.
+   */
+  static int[] multiplyMixed(SparsePolynomial sparse, SimplePolynomial dense, int parts) {
+    ForkJoinPool pool = Parallelism.getPool();
+    int size = sparse.getTermCount();
+    int denseLength = dense.getHighestPower() + 1;
+    MixedTask[] tasks = new MixedTask[parts];
+    for (int part = 0; part < parts; part++) {
+      int from = (int) ((long) size * part / parts);
+      int to = (int) ((long) size * (part + 1) / parts);
+      tasks[part] = new MixedTask(sparse, from, to, dense.getCoefficientArray(), denseLength);
+      pool.execute(tasks[part]);
+    }
+    int[] product = new int[sparse.getDegree() + denseLength];
+    for (MixedTask task : tasks) {
+      int[] partial = task.join();
+      for (int i = 0; i < partial.length; i++) {
+        product[task.offset + i] += partial[i];
+      }
+    }
+    return product;
+  }
+
+  /**
+   * Multiplies two sparse polynomials, cutting the shorter one into the given number of
+   * parts. The partial products are merged pairwise in the tasks that computed them.
+   *
+   * @param first  the first operand.
+   * @param second the second operand.
+   * @param parts  the number of parts, at least 2.
+   * @return the product.
+   * @throws IllegalArgumentException if a power of the product does not fit in an int.
+   */
+  static SparsePolynomial multiplySparse(SparsePolynomial first, SparsePolynomial second,
+                                         int parts) throws IllegalArgumentException {
+    if (first.getTermCount() > second.getTermCount()) {
+      return multiplySparse(second, first, parts);
+    }
+    return Parallelism.getPool().invoke(new SparseTask(first, second, 0, parts, parts));
+  }
+
+  /**
+   * The DenseTask class multiplies one part of a dense operand by the other operand into a
+   * buffer of its own.
+   */
+  private static final class DenseTask extends RecursiveTask<int[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[] a;
+    private final int from;
+    private final int to;
+    private final int[] b;
+    private final int bLength;
+
+    /**
+     * Constructs a new DenseTask for the coefficients of a from index from up to index to.
+     *
+     * @param a       the coefficients of the operand that is cut.
+     * @param from    the first power of the part.
+     * @param to      the power after the last one of the part.
+     * @param b       the coefficients of the other operand.
+     * @param bLength the number of coefficients of the other operand.
+     */
+    DenseTask(int[] a, int from, int to, int[] b, int bLength) {
+      this.a = a;
+      this.from = from;
+      this.to = to;
+      this.b = b;
+      this.bLength = bLength;
+    }
+
+    /**
+     * Multiplies the part by the other operand.
+     *
+     * @return the product, whose power 0 stands for power from of the whole product.
+     */
+    @Override
+    protected int[] compute() {
+      int[] part = Arrays.copyOfRange(a, from, to);
+      if (NttMultiplier.isWorthwhile(part.length, bLength)) {
+        return NttMultiplier.multiply(part, part.length, b, bLength);
+      }
+      return KaratsubaMultiplier.multiply(part, part.length, b, bLength);
+    }
+  }
+
+  /**
+   * The MixedTask class multiplies a range of terms of a sparse operand by a dense operand
+   * into a buffer of its own.
+   */
+  private static final class MixedTask extends RecursiveTask<int[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SparsePolynomial sparse;
+    private final int from;
+    private final int to;
+    private final int[] dense;
+    private final int denseLength;
+    private final int offset;
+
+    /**
+     * Constructs a new MixedTask for the terms of sparse from index from up to index to.
+     *
+     * @param sparse      the operand that is cut.
+     * @param from        the index of the first term of the part.
+     * @param to          the index after the last term of the part.
+     * @param dense       the coefficients of the other operand.
+     * @param denseLength the number of coefficients of the other operand.
+     */
+    MixedTask(SparsePolynomial sparse, int from, int to, int[] dense, int denseLength) {
+      this.sparse = sparse;
+      this.from = from;
+      this.to = to;
+      this.dense = dense;
+      this.denseLength = denseLength;
+      this.offset = sparse.getPowerArray()[to - 1];
+    }
+
+    /**
+     * Multiplies the part by the other operand.
+     *
+     * @return the product, whose power 0 stands for power offset of the whole product.
+     */
+    @Override
+    protected int[] compute() {
+      int[] partial = new int[sparse.getPowerArray()[from] - offset + denseLength];
+      SparsePolynomial.accumulate(sparse.getPowerArray(), sparse.getCoefficientArray(), from,
+              to, dense, denseLength, partial, offset);
+      return partial;
+    }
+  }
+
+  /**
+   * The SparseTask class multiplies a range of parts of a sparse operand by the other
+   * operand, splitting the range in two halves until it holds a single part.
+   */
+  private static final class SparseTask extends RecursiveTask<SparsePolynomial> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SparsePolynomial outer;
+    private final SparsePolynomial inner;
+    private final int fromPart;
+    private final int toPart;
+    private final int parts;
+
+    /**
+     * Constructs a new SparseTask for the parts from fromPart up to toPart.
+     *
+     * @param outer    the operand that is cut.
+     * @param inner    the other operand.
+     * @param fromPart the first part.
+     * @param toPart   the part after the last one.
+     * @param parts    the total number of parts.
+     */
+    SparseTask(SparsePolynomial outer, SparsePolynomial inner, int fromPart, int toPart,
+               int parts) {
+      this.outer = outer;
+      this.inner = inner;
+      this.fromPart = fromPart;
+      this.toPart = toPart;
+      this.parts = parts;
+    }
+
+    /**
+     * Multiplies a single part with Johnson's algorithm, or merges the products of the two
+     * halves of the range.
+     *
+     * @return the product of the parts in the range and the other operand.
+     */
+    @Override
+    protected SparsePolynomial compute() {
+      if (toPart - fromPart == 1) {
+        int size = outer.getTermCount();
+        int from = (int) ((long) size * fromPart / parts);
+        int to = (int) ((long) size * toPart / parts);
+        SparsePolynomial part = new SparsePolynomial(
+                Arrays.copyOfRange(outer.getPowerArray(), from, to),
+                Arrays.copyOfRange(outer.getCoefficientArray(), from, to), to - from);
+        return JohnsonMultiplier.multiply(part, inner);
+      }
+      int middle = (fromPart + toPart) >>> 1;
+      SparseTask high = new SparseTask(outer, inner, fromPart, middle, parts);
+      SparseTask low = new SparseTask(outer, inner, middle, toPart, parts);
+      invokeAll(high, low);
+      return (SparsePolynomial) high.join().addSparse(low.join());
+    }
+  }
+}
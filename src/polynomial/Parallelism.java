@@ -0,0 +1,126 @@
+package polynomial;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The Parallelism class holds the settings that decide when polynomial operations are
+ * split across the threads of a ForkJoinPool, and which pool they run in. Work is measured
+ * in multiply-add steps, and an operation only runs in parallel when it needs at least the
+ * threshold number of steps, so small operations never pay for task creation. Every
+ * parallel operation splits its work the same way regardless of the number of threads and
+ * combines the partial results in a fixed order, so its results are identical to the
+ * sequential ones.
+ */
+public final class Parallelism {
+
+  /**
+   * The default number of multiply-add steps from which evaluation runs in parallel.
+   */
+  public static final long DEFAULT_EVALUATION_THRESHOLD = 1 << 20;
+
+  /**
+   * The default number of term multiplications from which products run in parallel.
+   */
+  public static final long DEFAULT_MULTIPLICATION_THRESHOLD = 1 << 22;
+
+  /**
+   * The number of multiply-add steps each evaluation task aims for.
+   */
+  static final long TASK_WORK = 1 << 16;
+
+  private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+  private static volatile long evaluationThreshold = DEFAULT_EVALUATION_THRESHOLD;
+  private static volatile long multiplicationThreshold = DEFAULT_MULTIPLICATION_THRESHOLD;
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private Parallelism() {
+  }
+
+  /**
+   * Returns the pool in which parallel operations run.
+   *
+   * @return the current pool.
+   */
+  public static ForkJoinPool getPool() {
+    return pool;
+  }
+
+  /**
+   * Sets the pool in which parallel operations run.
+   *
+   * @param newPool the new pool.
+   * @throws IllegalArgumentException if the pool is null.
+   */
+  public static void setPool(ForkJoinPool newPool) throws IllegalArgumentException {
+    if (newPool == null) {
+      throw new IllegalArgumentException("Pool cannot be null.");
+    }
+    pool = newPool;
+  }
+
+  /**
+   * Returns the number of multiply-add steps from which evaluation runs in parallel.
+   *
+   * @return the current threshold.
+   */
+  public static long getEvaluationThreshold() {
+    return evaluationThreshold;
+  }
+
+  /**
+   * Sets the number of multiply-add steps from which evaluation runs in parallel. A
+   * threshold of Long.MAX_VALUE keeps evaluation sequential.
+   *
+   * @param newThreshold the new threshold.
+   * @throws IllegalArgumentException if the threshold is less than 1.
+   */
+  public static void setEvaluationThreshold(long newThreshold)
+          throws IllegalArgumentException {
+    if (newThreshold < 1) {
+      throw new IllegalArgumentException("Threshold must be at least 1.");
+    }
+    evaluationThreshold = newThreshold;
+  }
+
+  /**
+   * Returns the number of term multiplications, the product of the term counts of the
+   * operands, from which products run in parallel.
+   *
+   * @return the current threshold.
+   */
+  public static long getMultiplicationThreshold() {
+    return multiplicationThreshold;
+  }
+
+  /**
+   * Sets the number of term multiplications from which products run in parallel. A
+   * threshold of Long.MAX_VALUE keeps products sequential.
+   *
+   * @param newThreshold the new threshold.
+   * @throws IllegalArgumentException if the threshold is less than 1.
+   */
+  public static void setMultiplicationThreshold(long newThreshold)
+          throws IllegalArgumentException {
+    if (newThreshold < 1) {
+      throw new IllegalArgumentException("Threshold must be at least 1.");
+    }
+    multiplicationThreshold = newThreshold;
+  }
+
+  /**
+   * Returns the number of points each evaluation task handles for a polynomial that needs
+   * the given number of steps per point. Cheap polynomials get long ranges, so that tasks
+   * are not dominated by their overhead, and expensive ones get short ranges, so that all
+   * threads stay busy. Ranges are a whole number of evaluation blocks.
+   *
+   * @param stepsPerPoint the multiply-add steps needed to evaluate one point.
+   * @return the number of points per task.
+   */
+  static int evaluationGrain(long stepsPerPoint) {
+    long blocks = TASK_WORK / (Math.max(1, stepsPerPoint) * HornerEvaluator.BLOCK);
+    return (int) Math.max(1, Math.min(blocks, Integer.MAX_VALUE / HornerEvaluator.BLOCK))
+            * HornerEvaluator.BLOCK;
+  }
+}
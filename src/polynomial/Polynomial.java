@@ -1,5 +1,9 @@
 package polynomial;
 
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.channels.WritableByteChannel;
+
 /**
  * This interface represents all the operations offered by a polynomial. A
  * polynomial is defined here as a function of one variable. The polynomial is a
@@ -31,6 +35,51 @@ public interface Polynomial {
    */
   Polynomial derivative();
 
+  /**
+   * This method is for raising the referred polynomial to a non-negative integer power.
+   *
+   * @param n the exponent
+   * @return the polynomial multiplied by itself n times, or 1 if n is 0
+   * @throws IllegalArgumentException if the exponent is negative or the degree of the
+   *                                  result does not fit in an int
+   */
+  Polynomial pow(int n) throws IllegalArgumentException;
+
+  /**
+   * This method is for dividing the referred polynomial by another polynomial with
+   * remainder. Over the integers the leading coefficient of the divisor must be 1 or -1,
+   * and over Z/pZ it must be invertible modulo p.
+   *
+   * @param divisor the polynomial to divide by
+   * @return an array holding the quotient at index 0 and the remainder at index 1, whose
+   *         degree is less than that of the divisor
+   * @throws IllegalArgumentException if the divisor is null or zero, or its leading
+   *                                  coefficient is not invertible
+   */
+  Polynomial[] divideAndRemainder(Polynomial divisor) throws IllegalArgumentException;
+
+  /**
+   * This method is for substituting another polynomial into the referred polynomial.
+   *
+   * @param inner the polynomial substituted for x
+   * @return the composition p(inner(x)) of the referred polynomial p
+   * @throws IllegalArgumentException if the inner polynomial is null or the degree of the
+   *                                  result does not fit in an int
+   */
+  Polynomial compose(Polynomial inner) throws IllegalArgumentException;
+
+  /**
+   * This method is for substituting another polynomial into the referred polynomial and
+   * keeping only the powers below the given length.
+   *
+   * @param inner  the polynomial substituted for x
+   * @param length the number of low powers to keep
+   * @return the composition p(inner(x)) modulo x^length
+   * @throws IllegalArgumentException if the inner polynomial is null or the length is
+   *                                  negative
+   */
+  Polynomial compose(Polynomial inner, int length) throws IllegalArgumentException;
+
   /**
    * This method is to add a term in the referred polynomial.
    *
@@ -54,6 +103,28 @@ public interface Polynomial {
    */
   String toString();
 
+  /**
+   * This method is for writing the referred polynomial in the same format as toString to
+   * an Appendable. The text is produced and appended in bounded chunks, so the whole string
+   * is never built.
+   *
+   * @param out the Appendable receiving the text
+   * @throws IOException              if appending fails
+   * @throws IllegalArgumentException if out is null
+   */
+  void writeTo(Appendable out) throws IOException, IllegalArgumentException;
+
+  /**
+   * This method is for writing the referred polynomial in the same format as toString,
+   * encoded as ASCII, to a channel. The text is produced and written in bounded chunks, so
+   * the whole string is never built.
+   *
+   * @param channel the channel receiving the bytes
+   * @throws IOException              if writing fails
+   * @throws IllegalArgumentException if channel is null
+   */
+  void writeTo(WritableByteChannel channel) throws IOException, IllegalArgumentException;
+
   /**
    * This method is for evaluating the referred polynomial with the passed value.
    *
@@ -62,6 +133,37 @@ public interface Polynomial {
    */
   double evaluate(double x);
 
+  /**
+   * This method is for evaluating the referred polynomial at many values at once. The
+   * value at xs[i] is stored in out[i].
+   *
+   * @param xs  the values at which the polynomial is to be evaluated
+   * @param out the array receiving the values of the polynomial
+   * @throws IllegalArgumentException if out is shorter than xs
+   */
+  void evaluate(double[] xs, double[] out) throws IllegalArgumentException;
+
+  /**
+   * This method is for evaluating the referred polynomial at all the values remaining in a
+   * buffer. The values of the polynomial are put into the output buffer in the same order,
+   * and the positions of both buffers are advanced past the values read and written.
+   *
+   * @param xs  the buffer of values at which the polynomial is to be evaluated
+   * @param out the buffer receiving the values of the polynomial
+   * @throws IllegalArgumentException if out has less space remaining than xs has values
+   */
+  void evaluate(DoubleBuffer xs, DoubleBuffer out) throws IllegalArgumentException;
+
+  /**
+   * This method is for evaluating the referred polynomial with the passed value using
+   * compensated arithmetic, which is more accurate than evaluate and also reports how
+   * far the computed value can be from the exact one.
+   *
+   * @param x the value at which the polynomial is to be evaluated.
+   * @return the value of the polynomial at x together with a bound on its error
+   */
+  EvaluationResult evaluateCompensated(double x);
+
   /**
    * This method is to fetch the coefficient of the referred polynomial.
    *
@@ -70,4 +172,37 @@ public interface Polynomial {
    */
   int getCoefficient(int power);
 
+  /**
+   * This method is for obtaining an immutable polynomial with the same terms as the
+   * referred polynomial. Later changes to the referred polynomial do not affect it, and it
+   * can be shared between threads without copying.
+   *
+   * @return an immutable polynomial with the same terms, or this polynomial if it is
+   *         already immutable
+   */
+  Polynomial freeze();
+
+  /**
+   * This method is for obtaining a mutable polynomial with the same terms as the referred
+   * polynomial. Changes to either polynomial do not affect the other one.
+   *
+   * @return a new mutable polynomial with the same terms
+   */
+  Polynomial toMutable();
+
+  /**
+   * This method is to check whether the terms of the referred polynomial can change.
+   *
+   * @return true if the polynomial is immutable, false otherwise
+   */
+  boolean isImmutable();
+
+  /**
+   * This method is to fetch a 64-bit fingerprint of the terms of the referred polynomial.
+   * Equal polynomials have equal fingerprints.
+   *
+   * @return the fingerprint of this polynomial
+   */
+  long fingerprint();
+
 }
@@ -0,0 +1,201 @@
+package polynomial;
+
+import java.util.Arrays;
+
+/**
+ * The PolynomialBuilder class collects terms in any order and turns them into a polynomial
+ * in one step. Terms are only appended while building, and are sorted and combined once
+ * when the polynomial is built, which makes building a polynomial of n terms O(n log n)
+ * instead of O(n^2) for repeated calls to addTerm. The expected number of terms can be
+ * given up front so that the term storage is allocated only once.
+ */
+public class PolynomialBuilder {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private int[] coefficients;
+  private int[] powers;
+  private int count;
+  private int maxPower;
+  private boolean descending;
+
+  /**
+   * Default constructor that creates an empty builder.
+   */
+  public PolynomialBuilder() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructor that creates an empty builder with room for the given number of terms.
+   *
+   * @param expectedTerms the number of terms that are expected to be added.
+   * @throws IllegalArgumentException if the expected number of terms is negative.
+   */
+  public PolynomialBuilder(int expectedTerms) throws IllegalArgumentException {
+    if (expectedTerms < 0) {
+      throw new IllegalArgumentException("Expected number of terms cannot be negative.");
+    }
+    this.coefficients = new int[expectedTerms];
+    this.powers = new int[expectedTerms];
+    this.count = 0;
+    this.maxPower = -1;
+    this.descending = true;
+  }
+
+  /**
+   * Private helper method to make sure the builder can hold the given number of terms.
+   *
+   * @param capacity the number of terms that must fit.
+   */
+  private void ensureCapacity(int capacity) {
+    if (capacity <= powers.length) {
+      return;
+    }
+    int newLength = Math.max(capacity, Math.max(DEFAULT_CAPACITY, powers.length * 2));
+    coefficients = Arrays.copyOf(coefficients, newLength);
+    powers = Arrays.copyOf(powers, newLength);
+  }
+
+  /**
+   * Adds a term to the builder. Terms with a zero coefficient are ignored, and terms
+   * with the same power are combined when the polynomial is built.
+   *
+   * @param coefficient the coefficient of the term.
+   * @param power       the power of the term.
+   * @return this builder.
+   * @throws IllegalArgumentException if the power is negative.
+   */
+  public PolynomialBuilder addTerm(int coefficient, int power) throws IllegalArgumentException {
+    if (power < 0) {
+      throw new IllegalArgumentException("Power cannot be negative.");
+    }
+    if (coefficient == 0) {
+      return this;
+    }
+    ensureCapacity(count + 1);
+    if (count > 0 && powers[count - 1] <= power) {
+      descending = false;
+    }
+    coefficients[count] = coefficient;
+    powers[count] = power;
+    maxPower = Math.max(maxPower, power);
+    count++;
+    return this;
+  }
+
+  /**
+   * Adds the terms given by two parallel arrays to the builder. No term is added
+   * if any of the powers is negative.
+   *
+   * @param coefficients the coefficients of the terms.
+   * @param powers       the powers of the terms.
+   * @return this builder.
+   * @throws IllegalArgumentException if the arrays differ in length or a power is negative.
+   */
+  public PolynomialBuilder addTerms(int[] coefficients, int[] powers)
+          throws IllegalArgumentException {
+    checkTerms(coefficients, powers);
+    ensureCapacity(count + powers.length);
+    for (int i = 0; i < powers.length; i++) {
+      addTerm(coefficients[i], powers[i]);
+    }
+    return this;
+  }
+
+  /**
+   * Returns the number of terms added to the builder so far, before like terms are combined.
+   *
+   * @return the number of terms added.
+   */
+  public int getTermCount() {
+    return count;
+  }
+
+  /**
+   * Builds a polynomial from the collected terms. Under an adaptive
+   * {@link RepresentationPolicy} the representation is chosen from the number of terms
+   * and the highest power, otherwise a SparsePolynomial is built.
+   *
+   * @return a new Polynomial holding the sum of all terms added to this builder.
+   */
+  public Polynomial build() {
+    RepresentationPolicy policy = RepresentationPolicy.getCurrent();
+    if (policy.isAdaptive() && policy.prefersDense(count, Math.max(0, maxPower))) {
+      return buildSimple();
+    }
+    return buildSparse();
+  }
+
+  /**
+   * Builds a SparsePolynomial from the collected terms. The terms are sorted by decreasing
+   * power and like terms are combined, after which the term arrays of the polynomial are
+   * allocated at their exact final size.
+   *
+   * @return a new SparsePolynomial holding the sum of all terms added to this builder.
+   */
+  public SparsePolynomial buildSparse() {
+    if (descending) {
+      return new SparsePolynomial(Arrays.copyOf(powers, count),
+              Arrays.copyOf(coefficients, count), count);
+    }
+    long[] keys = new long[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = ((long) powers[i] << 32) | (coefficients[i] & 0xFFFFFFFFL);
+    }
+    Arrays.sort(keys);
+    int size = 0;
+    int read = 0;
+    while (read < count) {
+      int power = (int) (keys[read] >>> 32);
+      int coefficient = 0;
+      while (read < count && (int) (keys[read] >>> 32) == power) {
+        coefficient += (int) keys[read];
+        read++;
+      }
+      if (coefficient != 0) {
+        keys[size++] = ((long) power << 32) | (coefficient & 0xFFFFFFFFL);
+      }
+    }
+    int[] sortedPowers = new int[size];
+    int[] sortedCoefficients = new int[size];
+    for (int i = 0; i < size; i++) {
+      long key = keys[size - 1 - i];
+      sortedPowers[i] = (int) (key >>> 32);
+      sortedCoefficients[i] = (int) key;
+    }
+    return new SparsePolynomial(sortedPowers, sortedCoefficients, size);
+  }
+
+  /**
+   * Builds a SimplePolynomial from the collected terms. The coefficient array is allocated
+   * once at the size of the highest power added, and like terms are summed in place.
+   *
+   * @return a new SimplePolynomial holding the sum of all terms added to this builder.
+   */
+  public SimplePolynomial buildSimple() {
+    int[] dense = new int[maxPower + 1];
+    for (int i = 0; i < count; i++) {
+      dense[powers[i]] += coefficients[i];
+    }
+    return new SimplePolynomial(dense, maxPower);
+  }
+
+  /**
+   * Checks that two parallel term arrays describe valid terms.
+   *
+   * @param coefficients the coefficients of the terms.
+   * @param powers       the powers of the terms.
+   * @throws IllegalArgumentException if the arrays differ in length or a power is negative.
+   */
+  static void checkTerms(int[] coefficients, int[] powers) throws IllegalArgumentException {
+    if (coefficients.length != powers.length) {
+      throw new IllegalArgumentException("Coefficients and powers must have the same length.");
+    }
+    for (int power : powers) {
+      if (power < 0) {
+        throw new IllegalArgumentException("Power cannot be negative.");
+      }
+    }
+  }
+}
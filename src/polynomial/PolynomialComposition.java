@@ -0,0 +1,519 @@
+package polynomial;
+
+import java.util.Arrays;
+
+/**
+ * The PolynomialComposition class substitutes one polynomial into another. A full
+ * composition p(q) is computed by divide and conquer: the coefficients of p are split into
+ * a low and a high half of 2^k coefficients each, both halves are composed with q
+ * recursively, and p(q) = low(q) + q^(2^k) high(q). The powers q^(2^k) are squared once
+ * into a table that every level of the recursion shares, so with the fast multipliers of
+ * this package the composition costs O(M(mn) log n) for p of degree n and q of degree m,
+ * where Horner's scheme needs n growing products. A composition truncated to the powers
+ * below a given length uses the baby-step giant-step method of Brent and Kung: the
+ * truncated powers q^0, ..., q^(k - 1) and q^k for k about the square root of the degree
+ * of p are computed once, every block of k coefficients of p is combined from the small
+ * powers, and the blocks are joined by Horner's scheme in q^k, so only about 2 sqrt(n)
+ * truncated products are needed. Substituting a monomial c x^k only scales and spreads
+ * the terms, so it is done term by term and keeps sparse polynomials sparse.
+ *
+ * <p>Int coefficients use the same wrapping arithmetic as the multipliers, and modular
+ * coefficients the kernels of {@link ModularKernels}.
+ */
+final class PolynomialComposition {
+
+  /**
+   * The number of coefficients of p from which a block is split instead of being composed
+   * with Horner's scheme.
+   */
+  static final int HORNER_BLOCK = 8;
+
+  /**
+   * The length that stands for keeping every power of the composition.
+   */
+  static final int ALL = -1;
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private PolynomialComposition() {
+  }
+
+  /**
+   * Composes a SimplePolynomial or SparsePolynomial with an inner polynomial.
+   *
+   * @param outer the outer polynomial.
+   * @param inner the inner polynomial.
+   * @return the composition, in the representation of the outer polynomial.
+   * @throws IllegalArgumentException if the inner polynomial is null or the degree of the
+   *                                  composition does not fit in an int.
+   */
+  static Polynomial compose(AbstractPolynomial outer, Polynomial inner)
+          throws IllegalArgumentException {
+    return compose(outer, inner, ALL);
+  }
+
+  /**
+   * Composes a SimplePolynomial or SparsePolynomial with an inner polynomial and keeps the
+   * powers below the given length.
+   *
+   * @param outer  the outer polynomial.
+   * @param inner  the inner polynomial.
+   * @param length the number of low powers of the result to keep.
+   * @return the truncated composition, in the representation of the outer polynomial.
+   * @throws IllegalArgumentException if the inner polynomial is null or the length is
+   *                                  negative.
+   */
+  static Polynomial composeTruncated(AbstractPolynomial outer, Polynomial inner, int length)
+          throws IllegalArgumentException {
+    checkLength(length);
+    return compose(outer, inner, length);
+  }
+
+  /**
+   * Checks that the length of a truncated composition is not negative.
+   *
+   * @param length the number of low powers to keep.
+   * @throws IllegalArgumentException if the length is negative.
+   */
+  static void checkLength(int length) throws IllegalArgumentException {
+    if (length < 0) {
+      throw new IllegalArgumentException("Length cannot be negative.");
+    }
+  }
+
+  /**
+   * Composes a SimplePolynomial or SparsePolynomial with an inner polynomial. A modular
+   * inner polynomial brings the outer one into its ring first, like add and multiply do.
+   *
+   * @param outer  the outer polynomial.
+   * @param inner  the inner polynomial.
+   * @param length the number of low powers of the result to keep, or ALL.
+   * @return the composition, in the representation of the outer polynomial.
+   * @throws IllegalArgumentException if the inner polynomial is null or the degree of the
+   *                                  composition does not fit in an int.
+   */
+  private static Polynomial compose(AbstractPolynomial outer, Polynomial inner, int length)
+          throws IllegalArgumentException {
+    if (inner == null) {
+      throw new IllegalArgumentException("Inner polynomial cannot be null.");
+    }
+    if (inner instanceof ImmutablePolynomial) {
+      inner = ((ImmutablePolynomial) inner).getTerms();
+    }
+    if (inner instanceof AbstractModularPolynomial) {
+      AbstractModularPolynomial modular = ((AbstractModularPolynomial) inner).coerce(outer);
+      return length == ALL ? modular.compose(inner) : modular.compose(inner, length);
+    }
+    SparsePolynomial sparseInner = toSparse(inner);
+    checkDegree(outer.getDegree(), sparseInner.getDegree(), length);
+    RepresentationPolicy policy = RepresentationPolicy.getCurrent();
+    if (sparseInner.getTermCount() == 1 && sparseInner.getDegree() > 0) {
+      SparsePolynomial result = substituteMonomial(toSparse(outer),
+              sparseInner.getCoefficientArray()[0], sparseInner.getDegree(), length);
+      return policy.apply(outer instanceof SparsePolynomial ? result : result.toSimple());
+    }
+    int[] p = toDense(outer);
+    int[] q = toDense(sparseInner);
+    int[] result;
+    if (p.length == 0) {
+      result = p;
+    } else if (length != ALL) {
+      result = composeTruncated(p, q, length);
+    } else if (q.length <= 1) {
+      result = new int[]{evaluate(p, q.length == 0 ? 0 : q[0])};
+    } else {
+      result = compose(p, q);
+    }
+    SimplePolynomial simple = new SimplePolynomial(result.length == 0 ? new int[1] : result,
+            result.length - 1);
+    if (outer instanceof SparsePolynomial) {
+      return policy.apply(simple.toSparse(simple.countTerms()));
+    }
+    return policy.apply(simple);
+  }
+
+  /**
+   * Checks that the degree of a composition fits in an int.
+   *
+   * @param outerDegree the degree of the outer polynomial.
+   * @param innerDegree the degree of the inner polynomial.
+   * @param length      the number of low powers kept, or ALL.
+   * @throws IllegalArgumentException if the degree is too large.
+   */
+  static void checkDegree(int outerDegree, int innerDegree, int length)
+          throws IllegalArgumentException {
+    if (length == ALL && (long) outerDegree * innerDegree > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Power of the result exceeds the int range.");
+    }
+  }
+
+  /**
+   * Returns the terms of an int polynomial in the sparse representation.
+   *
+   * @param polynomial the polynomial.
+   * @return the sparse terms, shared when the polynomial is already sparse.
+   */
+  private static SparsePolynomial toSparse(Polynomial polynomial) {
+    if (polynomial instanceof SparsePolynomial) {
+      return (SparsePolynomial) polynomial;
+    }
+    SimplePolynomial simple = (SimplePolynomial) polynomial;
+    return simple.toSparse(simple.countTerms());
+  }
+
+  /**
+   * Returns the coefficients of an int polynomial as a dense array without leading zeros.
+   *
+   * @param polynomial the SimplePolynomial or SparsePolynomial.
+   * @return the coefficients, indexed by power.
+   */
+  private static int[] toDense(AbstractPolynomial polynomial) {
+    if (polynomial instanceof SimplePolynomial) {
+      SimplePolynomial simple = (SimplePolynomial) polynomial;
+      return Arrays.copyOf(simple.getCoefficientArray(), simple.getHighestPower() + 1);
+    }
+    SparsePolynomial sparse = (SparsePolynomial) polynomial;
+    int size = sparse.getTermCount();
+    int[] powers = sparse.getPowerArray();
+    int[] coefficients = sparse.getCoefficientArray();
+    int[] dense = new int[size == 0 ? 0 : powers[0] + 1];
+    for (int i = 0; i < size; i++) {
+      dense[powers[i]] = coefficients[i];
+    }
+    return dense;
+  }
+
+  /**
+   * Substitutes c x^k into a sparse polynomial, which maps every term a x^i to
+   * a c^i x^(ik).
+   *
+   * @param outer       the outer polynomial.
+   * @param coefficient the coefficient c.
+   * @param power       the power k, at least 1.
+   * @param length      the number of low powers to keep, or ALL.
+   * @return the composition.
+   */
+  private static SparsePolynomial substituteMonomial(SparsePolynomial outer, int coefficient,
+                                                     int power, int length) {
+    int[] powers = outer.getPowerArray();
+    int[] coefficients = outer.getCoefficientArray();
+    int size = outer.getTermCount();
+    int[] resultPowers = new int[size];
+    int[] resultCoefficients = new int[size];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      long resultPower = (long) powers[i] * power;
+      if (length != ALL && resultPower >= length) {
+        continue;
+      }
+      int value = coefficients[i] * pow(coefficient, powers[i]);
+      if (value != 0) {
+        resultPowers[count] = (int) resultPower;
+        resultCoefficients[count] = value;
+        count++;
+      }
+    }
+    return new SparsePolynomial(resultPowers, resultCoefficients, count);
+  }
+
+  /**
+   * Raises an int to a power with wrapping arithmetic.
+   *
+   * @param base     the base.
+   * @param exponent the exponent, not negative.
+   * @return the wrapped power.
+   */
+  private static int pow(int base, int exponent) {
+    int result = 1;
+    while (exponent > 0) {
+      if ((exponent & 1) != 0) {
+        result *= base;
+      }
+      base *= base;
+      exponent >>>= 1;
+    }
+    return result;
+  }
+
+  /**
+   * Evaluates dense coefficients at a point with Horner's scheme and wrapping arithmetic.
+   *
+   * @param p the coefficients.
+   * @param x the point.
+   * @return the wrapped value.
+   */
+  private static int evaluate(int[] p, int x) {
+    int value = 0;
+    for (int i = p.length - 1; i >= 0; i--) {
+      value = value * x + p[i];
+    }
+    return value;
+  }
+
+  /**
+   * Composes dense coefficients by divide and conquer.
+   *
+   * @param p the coefficients of the outer polynomial, at least one.
+   * @param q the coefficients of the inner polynomial, at least two.
+   * @return the coefficients of p(q), without leading zeros.
+   */
+  static int[] compose(int[] p, int[] q) {
+    int levels = 0;
+    while ((HORNER_BLOCK << levels) < p.length) {
+      levels++;
+    }
+    int[][] powers = new int[levels][];
+    for (int level = 0; level < levels; level++) {
+      if (level == 0) {
+        int[] power = q;
+        for (int i = 1; i < HORNER_BLOCK; i++) {
+          power = multiply(power, q);
+        }
+        powers[0] = power;
+      } else {
+        powers[level] = square(powers[level - 1]);
+      }
+    }
+    return trim(composeRange(p, 0, p.length, levels, q, powers));
+  }
+
+  /**
+   * Composes the coefficients of p from index from up to index to with q.
+   *
+   * @param p      the coefficients of the outer polynomial.
+   * @param from   the first coefficient of the block.
+   * @param to     the index after the last coefficient of the block.
+   * @param level  the level of the block, which spans at most HORNER_BLOCK 2^level
+   *               coefficients.
+   * @param q      the coefficients of the inner polynomial.
+   * @param powers the table of q^(HORNER_BLOCK 2^i).
+   * @return the coefficients of the composition, possibly with leading zeros.
+   */
+  private static int[] composeRange(int[] p, int from, int to, int level, int[] q,
+                                    int[][] powers) {
+    if (level == 0) {
+      int[] result = {p[to - 1]};
+      for (int i = to - 2; i >= from; i--) {
+        result = multiply(result, q);
+        result[0] += p[i];
+      }
+      return result;
+    }
+    int middle = from + (HORNER_BLOCK << (level - 1));
+    if (middle >= to) {
+      return composeRange(p, from, to, level - 1, q, powers);
+    }
+    int[] low = composeRange(p, from, middle, level - 1, q, powers);
+    int[] high = multiply(composeRange(p, middle, to, level - 1, q, powers),
+            powers[level - 1]);
+    for (int i = 0; i < low.length; i++) {
+      high[i] += low[i];
+    }
+    return high;
+  }
+
+  /**
+   * Composes dense coefficients and keeps the powers below the given length, with the
+   * baby-step giant-step method of Brent and Kung.
+   *
+   * @param p      the coefficients of the outer polynomial, at least one.
+   * @param q      the coefficients of the inner polynomial.
+   * @param length the number of low powers to keep.
+   * @return the coefficients of p(q) modulo x^length, without leading zeros.
+   */
+  static int[] composeTruncated(int[] p, int[] q, int length) {
+    if (length == 0) {
+      return new int[0];
+    }
+    int pLength = p.length;
+    if (q.length == 0 || q[0] == 0) {
+      pLength = Math.min(pLength, length);
+    }
+    q = Arrays.copyOf(q, Math.max(1, Math.min(q.length, length)));
+    int step = Math.max(1, (int) Math.ceil(Math.sqrt(pLength)));
+    int[][] baby = new int[step + 1][];
+    baby[0] = new int[]{1};
+    for (int i = 1; i <= step; i++) {
+      int[] power = multiply(baby[i - 1], q);
+      baby[i] = Arrays.copyOf(power, Math.min(power.length, length));
+    }
+    int blocks = (pLength + step - 1) / step;
+    int[] result = new int[length];
+    for (int block = blocks - 1; block >= 0; block--) {
+      if (block < blocks - 1) {
+        int[] product = multiply(result, baby[step]);
+        result = Arrays.copyOf(product, length);
+      }
+      int end = Math.min(pLength, (block + 1) * step);
+      for (int i = block * step; i < end; i++) {
+        int coefficient = p[i];
+        if (coefficient == 0) {
+          continue;
+        }
+        int[] power = baby[i - block * step];
+        for (int j = 0; j < power.length; j++) {
+          result[j] += coefficient * power[j];
+        }
+      }
+    }
+    return trim(result);
+  }
+
+  /**
+   * Composes polynomials modulo a modulus by divide and conquer.
+   *
+   * @param p       the outer polynomial.
+   * @param q       the inner polynomial.
+   * @param modulus the modulus.
+   * @return p(q), without leading zeros.
+   */
+  static long[] composeModulo(long[] p, long[] q, long modulus) {
+    if (p.length == 0) {
+      return p;
+    }
+    if (q.length <= 1) {
+      return ModularKernels.trim(new long[]{ModularKernels.evaluate(p,
+              q.length == 0 ? 0 : q[0], modulus)}, 1);
+    }
+    int levels = 0;
+    while ((HORNER_BLOCK << levels) < p.length) {
+      levels++;
+    }
+    long[][] powers = new long[levels][];
+    for (int level = 0; level < levels; level++) {
+      if (level == 0) {
+        long[] power = q;
+        for (int i = 1; i < HORNER_BLOCK; i++) {
+          power = ModularKernels.multiply(power, q, modulus);
+        }
+        powers[0] = power;
+      } else {
+        powers[level] = ModularKernels.multiply(powers[level - 1], powers[level - 1],
+                modulus);
+      }
+    }
+    return composeRangeModulo(p, 0, p.length, levels, q, powers, modulus);
+  }
+
+  /**
+   * Composes the coefficients of p from index from up to index to with q modulo a modulus.
+   *
+   * @param p       the outer polynomial.
+   * @param from    the first coefficient of the block.
+   * @param to      the index after the last coefficient of the block.
+   * @param level   the level of the block.
+   * @param q       the inner polynomial.
+   * @param powers  the table of q^(HORNER_BLOCK 2^i).
+   * @param modulus the modulus.
+   * @return the composition of the block.
+   */
+  private static long[] composeRangeModulo(long[] p, int from, int to, int level, long[] q,
+                                           long[][] powers, long modulus) {
+    if (level == 0) {
+      long[] result = ModularKernels.ZERO;
+      for (int i = to - 1; i >= from; i--) {
+        result = ModularKernels.add(ModularKernels.multiply(result, q, modulus),
+                ModularKernels.trim(new long[]{p[i]}, 1), modulus);
+      }
+      return result;
+    }
+    int middle = from + (HORNER_BLOCK << (level - 1));
+    if (middle >= to) {
+      return composeRangeModulo(p, from, to, level - 1, q, powers, modulus);
+    }
+    long[] low = composeRangeModulo(p, from, middle, level - 1, q, powers, modulus);
+    long[] high = composeRangeModulo(p, middle, to, level - 1, q, powers, modulus);
+    return ModularKernels.add(low, ModularKernels.multiply(high, powers[level - 1], modulus),
+            modulus);
+  }
+
+  /**
+   * Composes polynomials modulo a modulus and keeps the powers below the given length,
+   * with the baby-step giant-step method of Brent and Kung.
+   *
+   * @param p       the outer polynomial.
+   * @param q       the inner polynomial.
+   * @param length  the number of low powers to keep.
+   * @param modulus the modulus.
+   * @return p(q) modulo x^length, without leading zeros.
+   */
+  static long[] composeTruncatedModulo(long[] p, long[] q, int length, long modulus) {
+    if (length == 0 || p.length == 0) {
+      return ModularKernels.ZERO;
+    }
+    int pLength = p.length;
+    if (q.length == 0 || q[0] == 0) {
+      pLength = Math.min(pLength, length);
+    }
+    q = ModularKernels.truncate(q, length);
+    int step = Math.max(1, (int) Math.ceil(Math.sqrt(pLength)));
+    long[][] baby = new long[step + 1][];
+    baby[0] = new long[]{1 % modulus};
+    for (int i = 1; i <= step; i++) {
+      baby[i] = ModularKernels.truncate(ModularKernels.multiply(baby[i - 1], q, modulus),
+              length);
+    }
+    int blocks = (pLength + step - 1) / step;
+    long[] result = ModularKernels.ZERO;
+    for (int block = blocks - 1; block >= 0; block--) {
+      result = ModularKernels.truncate(ModularKernels.multiply(result, baby[step], modulus),
+              length);
+      long[] sums = Arrays.copyOf(result, length);
+      int end = Math.min(pLength, (block + 1) * step);
+      for (int i = block * step; i < end; i++) {
+        long coefficient = p[i];
+        if (coefficient == 0) {
+          continue;
+        }
+        long[] power = baby[i - block * step];
+        for (int j = 0; j < power.length; j++) {
+          sums[j] = (sums[j] + coefficient * power[j]) % modulus;
+        }
+      }
+      result = ModularKernels.trim(sums, length);
+    }
+    return result;
+  }
+
+  /**
+   * Squares dense coefficients with the transform or with Karatsuba's algorithm.
+   *
+   * @param a the coefficients.
+   * @return the coefficients of the square.
+   */
+  private static int[] square(int[] a) {
+    if (NttMultiplier.isWorthwhile(a.length, a.length)) {
+      return NttMultiplier.square(a, a.length);
+    }
+    return KaratsubaMultiplier.square(a, a.length);
+  }
+
+  /**
+   * Multiplies dense coefficients with the transform or with Karatsuba's algorithm.
+   *
+   * @param a the coefficients of the first operand, at least one.
+   * @param b the coefficients of the second operand, at least one.
+   * @return the coefficients of the product.
+   */
+  private static int[] multiply(int[] a, int[] b) {
+    if (NttMultiplier.isWorthwhile(a.length, b.length)) {
+      return NttMultiplier.multiply(a, a.length, b, b.length);
+    }
+    return KaratsubaMultiplier.multiply(a, a.length, b, b.length);
+  }
+
+  /**
+   * Drops the leading zeros of a coefficient array.
+   *
+   * @param a the coefficients.
+   * @return the coefficients without leading zeros, possibly the same array.
+   */
+  private static int[] trim(int[] a) {
+    int length = a.length;
+    while (length > 0 && a[length - 1] == 0) {
+      length--;
+    }
+    return length == a.length ? a : Arrays.copyOf(a, length);
+  }
+}
@@ -0,0 +1,311 @@
+package polynomial;
+
+import java.util.Arrays;
+
+/**
+ * The PolynomialDivision class divides int polynomials with remainder. Division is exact
+ * when the leading coefficient of the divisor is a unit, which over the integers means 1
+ * or -1. The quotient and remainder are then integer polynomials, and computing them with
+ * wrapping int arithmetic gives exactly their wrapped coefficients, because 1 and -1 stay
+ * units modulo 2^32. Short quotients are found by schoolbook long division. Longer ones
+ * are found by reversing the dividend and multiplying it with the power series reciprocal
+ * of the reversed divisor, computed by a Newton iteration that doubles the number of
+ * correct coefficients with every step. With the fast multipliers of this package this
+ * costs a constant number of multiplications of the size of the quotient. Sparse dividends
+ * whose terms would fill only a small part of a dense array are divided term by term
+ * without ever expanding them.
+ */
+final class PolynomialDivision {
+
+  /**
+   * The quotient and divisor length from which the Newton iteration is used.
+   */
+  static final int NEWTON_THRESHOLD = 64;
+
+  /**
+   * How many times longer than the total number of terms a sparse dividend may be to still
+   * be divided densely.
+   */
+  static final int DENSE_RATIO = 8;
+
+  private static final int[] EMPTY = new int[0];
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private PolynomialDivision() {
+  }
+
+  /**
+   * Divides a SimplePolynomial or SparsePolynomial by another polynomial. A modular
+   * divisor brings the dividend into its ring first, like add and multiply do.
+   *
+   * @param dividend the dividend.
+   * @param divisor  the divisor.
+   * @return the quotient and the remainder, in the representation of the dividend.
+   * @throws IllegalArgumentException if the divisor is null or zero, or its leading
+   *                                  coefficient is not 1 or -1.
+   */
+  static Polynomial[] divide(AbstractPolynomial dividend, Polynomial divisor)
+          throws IllegalArgumentException {
+    if (divisor == null) {
+      throw new IllegalArgumentException("Divisor cannot be null.");
+    }
+    if (divisor instanceof ImmutablePolynomial) {
+      divisor = ((ImmutablePolynomial) divisor).getTerms();
+    }
+    if (divisor instanceof AbstractModularPolynomial) {
+      return ((AbstractModularPolynomial) divisor).coerce(dividend).divideAndRemainder(divisor);
+    }
+    SparsePolynomial sparseDivisor = toSparse(divisor);
+    if (sparseDivisor.getTermCount() == 0) {
+      throw new IllegalArgumentException("Division by the zero polynomial.");
+    }
+    int lead = sparseDivisor.getCoefficientArray()[0];
+    if (lead != 1 && lead != -1) {
+      throw new IllegalArgumentException("Leading coefficient of the divisor must be 1 or -1.");
+    }
+    RepresentationPolicy policy = RepresentationPolicy.getCurrent();
+    if (dividend instanceof SparsePolynomial) {
+      SparsePolynomial sparse = (SparsePolynomial) dividend;
+      long terms = (long) sparse.getTermCount() + sparseDivisor.getTermCount();
+      if (sparse.getDegree() + 1L > DENSE_RATIO * terms) {
+        SparsePolynomial[] result = divideSparse(sparse, sparseDivisor);
+        return new Polynomial[]{policy.apply(result[0]), policy.apply(result[1])};
+      }
+    }
+    int[] a = toDense(dividend);
+    int[] b = toDense(sparseDivisor);
+    int[][] result = divideDense(a, a.length, b, b.length);
+    SimplePolynomial quotient = new SimplePolynomial(result[0], result[0].length - 1);
+    SimplePolynomial remainder = new SimplePolynomial(result[1], result[1].length - 1);
+    if (dividend instanceof SparsePolynomial) {
+      return new Polynomial[]{policy.apply(quotient.toSparse(quotient.countTerms())),
+          policy.apply(remainder.toSparse(remainder.countTerms()))};
+    }
+    return new Polynomial[]{policy.apply(quotient), policy.apply(remainder)};
+  }
+
+  /**
+   * Returns the terms of an int polynomial in the sparse representation.
+   *
+   * @param polynomial the polynomial.
+   * @return the sparse terms, shared when the polynomial is already sparse.
+   */
+  private static SparsePolynomial toSparse(Polynomial polynomial) {
+    if (polynomial instanceof SparsePolynomial) {
+      return (SparsePolynomial) polynomial;
+    }
+    if (polynomial instanceof SimplePolynomial) {
+      SimplePolynomial simple = (SimplePolynomial) polynomial;
+      return simple.toSparse(simple.countTerms());
+    }
+    SparsePolynomial sparse = new SparsePolynomial();
+    for (int power = polynomial.getDegree(); power >= 0; power--) {
+      sparse.addTerm(polynomial.getCoefficient(power), power);
+    }
+    return sparse;
+  }
+
+  /**
+   * Returns the coefficients of an int polynomial as a dense array without leading zeros.
+   *
+   * @param polynomial the SimplePolynomial or SparsePolynomial.
+   * @return the coefficients, indexed by power.
+   */
+  private static int[] toDense(AbstractPolynomial polynomial) {
+    if (polynomial instanceof SimplePolynomial) {
+      SimplePolynomial simple = (SimplePolynomial) polynomial;
+      return Arrays.copyOf(simple.getCoefficientArray(), simple.getHighestPower() + 1);
+    }
+    SparsePolynomial sparse = (SparsePolynomial) polynomial;
+    int size = sparse.getTermCount();
+    int[] powers = sparse.getPowerArray();
+    int[] coefficients = sparse.getCoefficientArray();
+    int[] dense = new int[size == 0 ? 0 : powers[0] + 1];
+    for (int i = 0; i < size; i++) {
+      dense[powers[i]] = coefficients[i];
+    }
+    return dense;
+  }
+
+  /**
+   * Divides dense coefficient arrays.
+   *
+   * @param a       the dividend.
+   * @param aLength the number of coefficients of the dividend.
+   * @param b       the divisor, whose leading coefficient is 1 or -1.
+   * @param bLength the number of coefficients of the divisor, at least 1.
+   * @return the quotient and the remainder, without leading zeros.
+   */
+  static int[][] divideDense(int[] a, int aLength, int[] b, int bLength) {
+    if (aLength < bLength) {
+      return new int[][]{EMPTY, trim(Arrays.copyOf(a, aLength))};
+    }
+    int quotientLength = aLength - bLength + 1;
+    if (quotientLength < NEWTON_THRESHOLD || bLength < NEWTON_THRESHOLD) {
+      return longDivision(a, aLength, b, bLength);
+    }
+    int[] reversedDivisor = reverse(b, bLength, Math.min(bLength, quotientLength));
+    int[] reciprocal = inverseSeries(reversedDivisor, quotientLength);
+    int[] reversedQuotient = multiply(reverse(a, aLength, quotientLength), reciprocal);
+    int[] quotient = new int[quotientLength];
+    for (int i = 0; i < quotientLength; i++) {
+      quotient[i] = reversedQuotient[quotientLength - 1 - i];
+    }
+    // Only the powers below the degree of the divisor survive in the remainder.
+    int[] product = multiply(Arrays.copyOf(quotient, Math.min(quotientLength, bLength - 1)),
+            Arrays.copyOf(b, bLength - 1));
+    int[] remainder = new int[bLength - 1];
+    for (int i = 0; i < remainder.length; i++) {
+      remainder[i] = a[i] - (i < product.length ? product[i] : 0);
+    }
+    return new int[][]{trim(quotient), trim(remainder)};
+  }
+
+  /**
+   * Divides dense coefficient arrays with schoolbook long division.
+   *
+   * @param a       the dividend, at least as long as the divisor.
+   * @param aLength the number of coefficients of the dividend.
+   * @param b       the divisor, whose leading coefficient is 1 or -1.
+   * @param bLength the number of coefficients of the divisor.
+   * @return the quotient and the remainder, without leading zeros.
+   */
+  private static int[][] longDivision(int[] a, int aLength, int[] b, int bLength) {
+    int lead = b[bLength - 1];
+    int[] remainder = Arrays.copyOf(a, aLength);
+    int[] quotient = new int[aLength - bLength + 1];
+    for (int i = quotient.length - 1; i >= 0; i--) {
+      int factor = remainder[i + bLength - 1] * lead;
+      quotient[i] = factor;
+      if (factor == 0) {
+        continue;
+      }
+      for (int j = 0; j < bLength; j++) {
+        remainder[i + j] -= factor * b[j];
+      }
+    }
+    return new int[][]{trim(quotient), trim(Arrays.copyOf(remainder, bLength - 1))};
+  }
+
+  /**
+   * Computes the power series reciprocal of a polynomial whose constant term is 1 or -1
+   * with a Newton iteration, g' = g (2 - f g), truncated to twice as many coefficients
+   * each step.
+   *
+   * @param f      the polynomial.
+   * @param length the number of coefficients of the reciprocal to compute.
+   * @return g such that f g = 1 modulo x^length.
+   */
+  private static int[] inverseSeries(int[] f, int length) {
+    int[] g = {f[0]};
+    int known = 1;
+    while (known < length) {
+      known = Math.min(2 * known, length);
+      int[] error = multiply(Arrays.copyOf(f, Math.min(f.length, known)), g);
+      int[] correction = new int[known];
+      for (int i = 0; i < known && i < error.length; i++) {
+        correction[i] = -error[i];
+      }
+      correction[0] += 2;
+      g = Arrays.copyOf(multiply(g, correction), known);
+    }
+    return g;
+  }
+
+  /**
+   * Reverses the coefficients, which maps p(x) to x^(length - 1) p(1 / x), and keeps the
+   * lowest count of the reversed coefficients.
+   *
+   * @param a      the coefficients.
+   * @param length the number of coefficients to reverse.
+   * @param count  the number of reversed coefficients to keep, at most length.
+   * @return the reversed coefficients.
+   */
+  private static int[] reverse(int[] a, int length, int count) {
+    int[] reversed = new int[count];
+    for (int i = 0; i < count; i++) {
+      reversed[i] = a[length - 1 - i];
+    }
+    return reversed;
+  }
+
+  /**
+   * Multiplies dense coefficients with the transform or with Karatsuba's algorithm.
+   *
+   * @param a the coefficients of the first operand, at least one.
+   * @param b the coefficients of the second operand, at least one.
+   * @return the coefficients of the product.
+   */
+  private static int[] multiply(int[] a, int[] b) {
+    if (NttMultiplier.isWorthwhile(a.length, b.length)) {
+      return NttMultiplier.multiply(a, a.length, b, b.length);
+    }
+    return KaratsubaMultiplier.multiply(a, a.length, b, b.length);
+  }
+
+  /**
+   * Drops the leading zeros of a coefficient array.
+   *
+   * @param a the coefficients.
+   * @return the coefficients without leading zeros, possibly the same array.
+   */
+  private static int[] trim(int[] a) {
+    int length = a.length;
+    while (length > 0 && a[length - 1] == 0) {
+      length--;
+    }
+    return length == a.length ? a : Arrays.copyOf(a, length);
+  }
+
+  /**
+   * Divides sparse polynomials term by term. Every step cancels the leading term of the
+   * remainder with a multiple of the divisor, so the cost depends on the number of terms
+   * and not on the degree.
+   *
+   * @param a the dividend.
+   * @param b the divisor, whose leading coefficient is 1 or -1.
+   * @return the quotient and the remainder.
+   */
+  private static SparsePolynomial[] divideSparse(SparsePolynomial a, SparsePolynomial b) {
+    int[] divisorPowers = b.getPowerArray();
+    int[] divisorCoefficients = b.getCoefficientArray();
+    int divisorSize = b.getTermCount();
+    int lead = divisorCoefficients[0];
+    int degree = divisorPowers[0];
+    SparsePolynomial remainder = a;
+    int[] quotientPowers = new int[4];
+    int[] quotientCoefficients = new int[4];
+    int count = 0;
+    while (remainder.getTermCount() > 0 && remainder.getPowerArray()[0] >= degree) {
+      int factor = remainder.getCoefficientArray()[0] * lead;
+      int shift = remainder.getPowerArray()[0] - degree;
+      if (count == quotientPowers.length) {
+        quotientPowers = Arrays.copyOf(quotientPowers, count * 2);
+        quotientCoefficients = Arrays.copyOf(quotientCoefficients, count * 2);
+      }
+      quotientPowers[count] = shift;
+      quotientCoefficients[count] = factor;
+      count++;
+      int[] powers = new int[divisorSize];
+      int[] coefficients = new int[divisorSize];
+      int size = 0;
+      for (int i = 0; i < divisorSize; i++) {
+        int coefficient = -factor * divisorCoefficients[i];
+        if (coefficient != 0) {
+          powers[size] = divisorPowers[i] + shift;
+          coefficients[size] = coefficient;
+          size++;
+        }
+      }
+      remainder = (SparsePolynomial) remainder.addSparse(
+              new SparsePolynomial(powers, coefficients, size));
+    }
+    if (remainder == a) {
+      remainder = (SparsePolynomial) a.copyOnWrite();
+    }
+    return new SparsePolynomial[]{
+        new SparsePolynomial(quotientPowers, quotientCoefficients, count), remainder};
+  }
+}
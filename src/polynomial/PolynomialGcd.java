@@ -0,0 +1,623 @@
+package polynomial;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The PolynomialGcd class computes greatest common divisors of polynomials without the
+ * coefficient growth of Euclid's algorithm over the integers. Int polynomials are split
+ * into their content and primitive part, and the primitive parts are reduced modulo
+ * several word sized primes, in parallel on the pool returned by Parallelism.getPool()
+ * when the inputs are large. The GCD modulo every prime is computed with the half-GCD
+ * algorithm, which finds the quotients of Euclid's algorithm from the high halves of the
+ * operands and so costs O(M(n) log n) instead of O(n^2). Primes whose image has a larger
+ * degree than another are unlucky and are discarded. The images of the GCD and of both
+ * cofactors are combined with the Chinese remainder theorem until the modulus is large
+ * enough to prove that the lifted GCD times each lifted cofactor equals the scaled input,
+ * which is the trial division showing that the result divides both inputs.
+ *
+ * <p>The GCD of int polynomials is primitive times the GCD of the contents, with a
+ * positive leading coefficient. Over Z/pZ the GCD is monic, and the modulus must be prime.
+ * The GCD has the representation of the first operand, and the GCD of two zero
+ * polynomials is zero.
+ */
+public final class PolynomialGcd {
+
+  /**
+   * The degree from which the GCD modulo a prime uses the half-GCD algorithm instead of
+   * Euclid's algorithm.
+   */
+  static final int HALF_GCD_THRESHOLD = 128;
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private PolynomialGcd() {
+  }
+
+  /**
+   * Computes the greatest common divisor of two polynomials.
+   *
+   * @param a the first polynomial.
+   * @param b the second polynomial.
+   * @return the GCD, in the representation of the first polynomial.
+   * @throws IllegalArgumentException if a polynomial is null, the polynomials have
+   *                                  different moduli or the modulus is not prime.
+   * @throws ArithmeticException      if a coefficient of the GCD does not fit in an int.
+   */
+  public static Polynomial gcd(Polynomial a, Polynomial b)
+          throws IllegalArgumentException, ArithmeticException {
+    if (a == null || b == null) {
+      throw new IllegalArgumentException("Polynomial cannot be null.");
+    }
+    boolean immutable = a instanceof ImmutablePolynomial;
+    if (immutable) {
+      a = ((ImmutablePolynomial) a).getTerms();
+    }
+    if (b instanceof ImmutablePolynomial) {
+      b = ((ImmutablePolynomial) b).getTerms();
+    }
+    AbstractPolynomial result;
+    if (a instanceof AbstractModularPolynomial || b instanceof AbstractModularPolynomial) {
+      result = gcdModular(a, b);
+    } else {
+      int[] coefficients = gcdInteger(exact(a), exact(b));
+      SimplePolynomial simple = new SimplePolynomial(coefficients.length == 0 ? new int[1]
+              : coefficients, coefficients.length - 1);
+      result = a instanceof SparsePolynomial ? simple.toSparse(simple.countTerms()) : simple;
+      result = (AbstractPolynomial) RepresentationPolicy.getCurrent().apply(result);
+    }
+    return immutable ? new ImmutablePolynomial(result) : result;
+  }
+
+  /**
+   * Computes the monic GCD of two polynomials over the ring of the modular one.
+   *
+   * @param a the first polynomial.
+   * @param b the second polynomial, one of them modular.
+   * @return the GCD, dense if the first polynomial is dense and sparse otherwise.
+   * @throws IllegalArgumentException if the moduli differ or are not prime.
+   */
+  private static AbstractModularPolynomial gcdModular(Polynomial a, Polynomial b)
+          throws IllegalArgumentException {
+    AbstractModularPolynomial ring = a instanceof AbstractModularPolynomial
+            ? (AbstractModularPolynomial) a : (AbstractModularPolynomial) b;
+    ModularContext context = ring.getContext();
+    if (!context.isPrime()) {
+      throw new IllegalArgumentException("Modulus must be prime.");
+    }
+    long modulus = context.getModulus();
+    AbstractModularPolynomial first = ring.coerce(a);
+    long[] g = gcdModulo(ModularKernels.reduce(first, modulus),
+            ModularKernels.reduce(ring.coerce(b), modulus), modulus);
+    int[] residues = new int[Math.max(g.length, 1)];
+    for (int i = 0; i < g.length; i++) {
+      residues[i] = (int) g[i];
+    }
+    DenseModularPolynomial dense = new DenseModularPolynomial(context, residues, g.length - 1);
+    return first instanceof DenseModularPolynomial ? dense : dense.toSparseModular();
+  }
+
+  /**
+   * Returns the coefficients of an int polynomial as longs.
+   *
+   * @param polynomial the SimplePolynomial or SparsePolynomial.
+   * @return the coefficients, indexed by power, without leading zeros.
+   */
+  private static long[] exact(Polynomial polynomial) {
+    if (polynomial instanceof SparsePolynomial) {
+      SparsePolynomial sparse = (SparsePolynomial) polynomial;
+      int[] powers = sparse.getPowerArray();
+      int[] coefficients = sparse.getCoefficientArray();
+      int size = sparse.getTermCount();
+      long[] exact = new long[size == 0 ? 0 : powers[0] + 1];
+      for (int i = 0; i < size; i++) {
+        exact[powers[i]] = coefficients[i];
+      }
+      return exact;
+    }
+    long[] exact = new long[polynomial.getDegree() + 1];
+    for (int power = 0; power < exact.length; power++) {
+      exact[power] = polynomial.getCoefficient(power);
+    }
+    return ModularKernels.trim(exact, exact.length);
+  }
+
+  /**
+   * Computes the GCD of two integer polynomials with the modular algorithm.
+   *
+   * @param a the coefficients of the first polynomial, without leading zeros.
+   * @param b the coefficients of the second polynomial, without leading zeros.
+   * @return the coefficients of the GCD, with a positive leading coefficient.
+   * @throws ArithmeticException if a coefficient of the GCD does not fit in an int.
+   */
+  static int[] gcdInteger(long[] a, long[] b) throws ArithmeticException {
+    if (a.length == 0 || b.length == 0) {
+      long[] other = a.length == 0 ? b : a;
+      long sign = other.length > 0 && other[other.length - 1] < 0 ? -1 : 1;
+      int[] result = new int[other.length];
+      for (int i = 0; i < other.length; i++) {
+        result[i] = toInt(BigInteger.valueOf(sign * other[i]));
+      }
+      return result;
+    }
+    long content = gcd(content(a), content(b));
+    long[] primitiveA = divide(a, content(a));
+    long[] primitiveB = divide(b, content(b));
+    if (primitiveA.length == 1 || primitiveB.length == 1) {
+      return new int[]{toInt(BigInteger.valueOf(content))};
+    }
+    long leadA = primitiveA[primitiveA.length - 1];
+    long leadB = primitiveB[primitiveB.length - 1];
+    long scale = gcd(Math.abs(leadA), Math.abs(leadB));
+    long maxA = maxAbs(primitiveA);
+    long maxB = maxAbs(primitiveB);
+
+    int parallelism = (long) primitiveA.length * primitiveB.length
+            < Parallelism.getMultiplicationThreshold()
+            ? 1 : Parallelism.getPool().getParallelism();
+    int used = 0;
+    int degree = Integer.MAX_VALUE;
+    BigInteger modulus = BigInteger.ONE;
+    BigInteger[][] lifted = null;
+    while (true) {
+      long[] primes = ModularKernels.primes(used + parallelism);
+      ImageTask[] tasks = new ImageTask[parallelism];
+      for (int i = 0; i < parallelism; i++) {
+        tasks[i] = new ImageTask(primitiveA, primitiveB, scale, primes[used + i]);
+      }
+      used += parallelism;
+      if (parallelism == 1) {
+        tasks[0].invoke();
+      } else {
+        ForkJoinPool pool = Parallelism.getPool();
+        for (ImageTask task : tasks) {
+          pool.execute(task);
+        }
+      }
+      for (ImageTask task : tasks) {
+        long[][] image = task.join();
+        if (image == null) {
+          continue;
+        }
+        int imageDegree = image[0].length - 1;
+        if (imageDegree == 0) {
+          return new int[]{toInt(BigInteger.valueOf(content))};
+        }
+        if (imageDegree > degree) {
+          continue;
+        }
+        if (imageDegree < degree) {
+          degree = imageDegree;
+          modulus = BigInteger.ONE;
+          lifted = new BigInteger[3][];
+          for (int k = 0; k < 3; k++) {
+            lifted[k] = new BigInteger[image[k].length];
+            Arrays.fill(lifted[k], BigInteger.ZERO);
+          }
+        }
+        modulus = combine(lifted, modulus, image, task.prime);
+      }
+      if (lifted == null) {
+        continue;
+      }
+      BigInteger[] gcd = symmetric(lifted[0], modulus);
+      BigInteger[] cofactorA = symmetric(lifted[1], modulus);
+      BigInteger[] cofactorB = symmetric(lifted[2], modulus);
+      if (provesProduct(gcd, cofactorA, scale, maxA, modulus)
+              && provesProduct(gcd, cofactorB, scale, maxB, modulus)) {
+        return primitive(gcd, content);
+      }
+    }
+  }
+
+  /**
+   * Adds the images modulo a prime to the lifted values modulo the product of the earlier
+   * primes with Garner's step of the Chinese remainder theorem.
+   *
+   * @param lifted  the lifted GCD and cofactors, in [0, modulus), updated in place.
+   * @param modulus the product of the earlier primes.
+   * @param image   the GCD and cofactors modulo the prime.
+   * @param prime   the prime.
+   * @return the product of the earlier primes and this prime.
+   */
+  private static BigInteger combine(BigInteger[][] lifted, BigInteger modulus, long[][] image,
+                                    long prime) {
+    BigInteger bigPrime = BigInteger.valueOf(prime);
+    long inverse = ModularKernels.inverse(modulus.mod(bigPrime).longValue(), prime);
+    for (int k = 0; k < lifted.length; k++) {
+      for (int i = 0; i < lifted[k].length; i++) {
+        long residue = i < image[k].length ? image[k][i] : 0;
+        long current = lifted[k][i].mod(bigPrime).longValue();
+        long digit = Math.floorMod(residue - current, prime) * inverse % prime;
+        if (digit != 0) {
+          lifted[k][i] = lifted[k][i].add(modulus.multiply(BigInteger.valueOf(digit)));
+        }
+      }
+    }
+    return modulus.multiply(bigPrime);
+  }
+
+  /**
+   * Maps values in [0, modulus) to the symmetric range (-modulus / 2, modulus / 2].
+   *
+   * @param values  the values.
+   * @param modulus the modulus.
+   * @return the symmetric values.
+   */
+  private static BigInteger[] symmetric(BigInteger[] values, BigInteger modulus) {
+    BigInteger half = modulus.shiftRight(1);
+    BigInteger[] result = new BigInteger[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = values[i].compareTo(half) > 0 ? values[i].subtract(modulus) : values[i];
+    }
+    return result;
+  }
+
+  /**
+   * Checks that the modulus is large enough to prove that the product of the lifted GCD
+   * and cofactor equals the scaled input over the integers, and not only modulo the
+   * modulus. This holds when both sides have all coefficients below half the modulus.
+   *
+   * @param gcd      the lifted GCD, in the symmetric range.
+   * @param cofactor the lifted cofactor, in the symmetric range.
+   * @param scale    the factor the input was scaled by.
+   * @param maxInput the largest absolute coefficient of the input.
+   * @param modulus  the product of the primes.
+   * @return true if the product is proven.
+   */
+  private static boolean provesProduct(BigInteger[] gcd, BigInteger[] cofactor, long scale,
+                                       long maxInput, BigInteger modulus) {
+    BigInteger bound = maxAbs(gcd).multiply(maxAbs(cofactor))
+            .multiply(BigInteger.valueOf(Math.min(gcd.length, cofactor.length)))
+            .max(BigInteger.valueOf(scale).multiply(BigInteger.valueOf(maxInput)));
+    return bound.shiftLeft(1).compareTo(modulus) < 0;
+  }
+
+  /**
+   * Returns the primitive part of the lifted GCD with a positive leading coefficient,
+   * multiplied by the content.
+   *
+   * @param gcd     the lifted GCD.
+   * @param content the GCD of the contents of the inputs.
+   * @return the coefficients of the GCD.
+   * @throws ArithmeticException if a coefficient does not fit in an int.
+   */
+  private static int[] primitive(BigInteger[] gcd, long content) throws ArithmeticException {
+    BigInteger divisor = BigInteger.ZERO;
+    for (BigInteger coefficient : gcd) {
+      divisor = divisor.gcd(coefficient);
+    }
+    if (gcd[gcd.length - 1].signum() < 0) {
+      divisor = divisor.negate();
+    }
+    BigInteger factor = BigInteger.valueOf(content);
+    int[] result = new int[gcd.length];
+    for (int i = 0; i < gcd.length; i++) {
+      result[i] = toInt(gcd[i].divide(divisor).multiply(factor));
+    }
+    return result;
+  }
+
+  /**
+   * Converts a coefficient of the GCD to an int.
+   *
+   * @param value the coefficient.
+   * @return the coefficient as an int.
+   * @throws ArithmeticException if the coefficient does not fit in an int.
+   */
+  private static int toInt(BigInteger value) throws ArithmeticException {
+    if (value.bitLength() > 31) {
+      throw new ArithmeticException("Coefficient of the GCD does not fit in an int.");
+    }
+    return value.intValue();
+  }
+
+  /**
+   * Computes the GCD of two non-negative longs.
+   *
+   * @param a the first value.
+   * @param b the second value.
+   * @return the GCD, 0 if both are 0.
+   */
+  private static long gcd(long a, long b) {
+    while (b != 0) {
+      long t = a % b;
+      a = b;
+      b = t;
+    }
+    return a;
+  }
+
+  /**
+   * Returns the content of a polynomial, the GCD of its coefficients.
+   *
+   * @param a the coefficients, not all zero.
+   * @return the content, positive.
+   */
+  private static long content(long[] a) {
+    long content = 0;
+    for (long coefficient : a) {
+      content = gcd(content, Math.abs(coefficient));
+    }
+    return content;
+  }
+
+  /**
+   * Divides every coefficient exactly by a value.
+   *
+   * @param a       the coefficients.
+   * @param divisor the value, which divides every coefficient.
+   * @return the quotients.
+   */
+  private static long[] divide(long[] a, long divisor) {
+    long[] result = new long[a.length];
+    for (int i = 0; i < a.length; i++) {
+      result[i] = a[i] / divisor;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the largest absolute coefficient.
+   *
+   * @param a the coefficients.
+   * @return the largest absolute value.
+   */
+  private static long maxAbs(long[] a) {
+    long max = 0;
+    for (long coefficient : a) {
+      max = Math.max(max, Math.abs(coefficient));
+    }
+    return max;
+  }
+
+  /**
+   * Returns the largest absolute coefficient.
+   *
+   * @param a the coefficients.
+   * @return the largest absolute value.
+   */
+  private static BigInteger maxAbs(BigInteger[] a) {
+    BigInteger max = BigInteger.ZERO;
+    for (BigInteger coefficient : a) {
+      max = max.max(coefficient.abs());
+    }
+    return max;
+  }
+
+  /**
+   * Computes the monic GCD of two polynomials modulo a prime. Euclid's algorithm is
+   * accelerated by half-GCD steps while the operands are long.
+   *
+   * @param a       the first polynomial, without leading zeros.
+   * @param b       the second polynomial, without leading zeros.
+   * @param modulus the prime.
+   * @return the monic GCD, empty if both polynomials are zero.
+   */
+  static long[] gcdModulo(long[] a, long[] b, long modulus) {
+    if (a.length < b.length) {
+      long[] swap = a;
+      a = b;
+      b = swap;
+    }
+    while (b.length > 0) {
+      if (b.length > HALF_GCD_THRESHOLD) {
+        long[][] reduced = apply(halfGcd(a, b, modulus), a, b, modulus);
+        a = reduced[0];
+        b = reduced[1];
+        if (b.length == 0) {
+          break;
+        }
+      }
+      long[] remainder = ModularKernels.divideAndRemainder(a, b, modulus)[1];
+      a = b;
+      b = remainder;
+    }
+    if (a.length == 0) {
+      return a;
+    }
+    return ModularKernels.scale(a, ModularKernels.inverse(a[a.length - 1], modulus), modulus);
+  }
+
+  /**
+   * Computes the matrix of the first steps of Euclid's algorithm on a and b, those whose
+   * remainders have at least half the degree of a. Following the half-GCD algorithm, the
+   * first half of these steps is found recursively from the high halves of a and b, one
+   * division step is taken, and the second half is again found recursively from the high
+   * halves of the reduced pair.
+   *
+   * @param a       the first polynomial.
+   * @param b       the second polynomial, whose degree is at most that of a.
+   * @param modulus the prime.
+   * @return the matrix {m00, m01, m10, m11} mapping (a, b) to the pair of consecutive
+   *         remainders whose degrees enclose (deg a + 1) / 2.
+   */
+  private static long[][] halfGcd(long[] a, long[] b, long modulus) {
+    int half = a.length / 2;
+    if (b.length - 1 < half) {
+      return identity();
+    }
+    if (a.length <= HALF_GCD_THRESHOLD) {
+      return euclid(a, b, half, modulus);
+    }
+    long[][] first = halfGcd(high(a, half), high(b, half), modulus);
+    long[][] reduced = apply(first, a, b, modulus);
+    a = reduced[0];
+    b = reduced[1];
+    if (b.length - 1 < half) {
+      return first;
+    }
+    long[][] division = ModularKernels.divideAndRemainder(a, b, modulus);
+    first = step(division[0], first, modulus);
+    a = b;
+    b = division[1];
+    if (b.length - 1 < half) {
+      return first;
+    }
+    int shift = 2 * half - (a.length - 1);
+    return multiply(halfGcd(high(a, shift), high(b, shift), modulus), first, modulus);
+  }
+
+  /**
+   * Computes the matrix of the steps of Euclid's algorithm until the degree of the second
+   * remainder drops below the given degree.
+   *
+   * @param a       the first polynomial.
+   * @param b       the second polynomial.
+   * @param degree  the degree to reach.
+   * @param modulus the prime.
+   * @return the matrix of the steps.
+   */
+  private static long[][] euclid(long[] a, long[] b, int degree, long modulus) {
+    long[][] matrix = identity();
+    while (b.length - 1 >= degree) {
+      long[][] division = ModularKernels.divideAndRemainder(a, b, modulus);
+      matrix = step(division[0], matrix, modulus);
+      a = b;
+      b = division[1];
+    }
+    return matrix;
+  }
+
+  /**
+   * Returns the identity matrix.
+   *
+   * @return the matrix {1, 0, 0, 1}.
+   */
+  private static long[][] identity() {
+    return new long[][]{{1}, ModularKernels.ZERO, ModularKernels.ZERO, {1}};
+  }
+
+  /**
+   * Drops the lowest coefficients, which divides by x^count and discards the remainder.
+   *
+   * @param a     the polynomial.
+   * @param count the number of coefficients to drop.
+   * @return the high part.
+   */
+  private static long[] high(long[] a, int count) {
+    if (a.length <= count) {
+      return ModularKernels.ZERO;
+    }
+    return Arrays.copyOfRange(a, count, a.length);
+  }
+
+  /**
+   * Multiplies a matrix from the left by the matrix {0, 1, 1, -q} of one division step.
+   *
+   * @param quotient the quotient of the step.
+   * @param matrix   the matrix.
+   * @param modulus  the prime.
+   * @return the product.
+   */
+  private static long[][] step(long[] quotient, long[][] matrix, long modulus) {
+    return new long[][]{matrix[2], matrix[3],
+        ModularKernels.subtract(matrix[0], ModularKernels.multiply(quotient, matrix[2],
+                modulus), modulus),
+        ModularKernels.subtract(matrix[1], ModularKernels.multiply(quotient, matrix[3],
+                modulus), modulus)};
+  }
+
+  /**
+   * Multiplies two matrices.
+   *
+   * @param left    the left factor.
+   * @param right   the right factor.
+   * @param modulus the prime.
+   * @return the product.
+   */
+  private static long[][] multiply(long[][] left, long[][] right, long modulus) {
+    long[][] product = new long[4][];
+    for (int row = 0; row < 2; row++) {
+      for (int column = 0; column < 2; column++) {
+        product[2 * row + column] = ModularKernels.add(
+                ModularKernels.multiply(left[2 * row], right[column], modulus),
+                ModularKernels.multiply(left[2 * row + 1], right[2 + column], modulus),
+                modulus);
+      }
+    }
+    return product;
+  }
+
+  /**
+   * Applies a matrix to a pair of polynomials.
+   *
+   * @param matrix  the matrix.
+   * @param a       the first polynomial.
+   * @param b       the second polynomial.
+   * @param modulus the prime.
+   * @return the pair {m00 a + m01 b, m10 a + m11 b}.
+   */
+  private static long[][] apply(long[][] matrix, long[] a, long[] b, long modulus) {
+    return new long[][]{
+        ModularKernels.add(ModularKernels.multiply(matrix[0], a, modulus),
+                ModularKernels.multiply(matrix[1], b, modulus), modulus),
+        ModularKernels.add(ModularKernels.multiply(matrix[2], a, modulus),
+                ModularKernels.multiply(matrix[3], b, modulus), modulus)};
+  }
+
+  /**
+   * The ImageTask class computes the GCD of the primitive parts modulo one prime, scaled
+   * by the GCD of their leading coefficients, and both cofactors.
+   */
+  private static final class ImageTask extends RecursiveTask<long[][]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long[] a;
+    private final long[] b;
+    private final long scale;
+    private final long prime;
+
+    /**
+     * Constructs a new ImageTask.
+     *
+     * @param a     the first primitive polynomial.
+     * @param b     the second primitive polynomial.
+     * @param scale the GCD of the leading coefficients.
+     * @param prime the prime.
+     */
+    ImageTask(long[] a, long[] b, long scale, long prime) {
+      this.a = a;
+      this.b = b;
+      this.scale = scale;
+      this.prime = prime;
+    }
+
+    /**
+     * Computes the images.
+     *
+     * @return the scaled GCD and the cofactors of a and b modulo the prime, or null if the
+     *         prime divides a leading coefficient.
+     */
+    @Override
+    protected long[][] compute() {
+      long[] reducedA = reduce(a);
+      long[] reducedB = reduce(b);
+      if (reducedA.length != a.length || reducedB.length != b.length) {
+        return null;
+      }
+      long[] gcd = gcdModulo(reducedA, reducedB, prime);
+      return new long[][]{ModularKernels.scale(gcd, scale % prime, prime),
+          ModularKernels.divideAndRemainder(reducedA, gcd, prime)[0],
+          ModularKernels.divideAndRemainder(reducedB, gcd, prime)[0]};
+    }
+
+    /**
+     * Reduces the coefficients modulo the prime.
+     *
+     * @param coefficients the coefficients.
+     * @return the residues, without leading zeros.
+     */
+    private long[] reduce(long[] coefficients) {
+      long[] residues = new long[coefficients.length];
+      for (int i = 0; i < residues.length; i++) {
+        residues[i] = Math.floorMod(coefficients[i], prime);
+      }
+      return ModularKernels.trim(residues, residues.length);
+    }
+  }
+}
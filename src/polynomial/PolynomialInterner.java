@@ -0,0 +1,140 @@
+package polynomial;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The PolynomialInterner class maps equal polynomials to one shared immutable instance, so
+ * that a program creating many structurally identical polynomials keeps only one copy of
+ * each. The canonical instances are found by their fingerprint in a concurrent table and
+ * held through weak references, so the table never keeps a polynomial alive that is not
+ * used anywhere else. Two instances returned by the same interner are equal exactly when
+ * they are the same object, which {@link ImmutablePolynomial#equals(Object)} uses to skip
+ * comparing their terms.
+ */
+public final class PolynomialInterner {
+
+  private final ConcurrentHashMap<Long, Entry[]> table = new ConcurrentHashMap<>();
+  private final ReferenceQueue<ImmutablePolynomial> cleared = new ReferenceQueue<>();
+
+  /**
+   * Constructs a new, empty PolynomialInterner.
+   */
+  public PolynomialInterner() {
+  }
+
+  /**
+   * Returns the canonical instance for the given polynomial. If an equal polynomial has
+   * been interned before and is still in use, that instance is returned, otherwise an
+   * immutable polynomial with the same terms becomes the canonical instance.
+   *
+   * @param polynomial the polynomial to intern.
+   * @return the canonical immutable polynomial equal to the given one.
+   * @throws IllegalArgumentException if the polynomial is null or not one of the
+   *                                  implementations of this package.
+   */
+  public Polynomial intern(Polynomial polynomial) throws IllegalArgumentException {
+    if (polynomial == null) {
+      throw new IllegalArgumentException("Polynomial cannot be null.");
+    }
+    Polynomial frozen = polynomial.freeze();
+    if (!(frozen instanceof ImmutablePolynomial)) {
+      throw new IllegalArgumentException("Unsupported polynomial implementation.");
+    }
+    ImmutablePolynomial candidate = (ImmutablePolynomial) frozen;
+    if (candidate.getInterner() == this) {
+      return candidate;
+    }
+    purge();
+    ImmutablePolynomial[] canonical = new ImmutablePolynomial[1];
+    long fingerprint = candidate.fingerprint();
+    table.compute(fingerprint, (key, entries) -> {
+      int live = 0;
+      if (entries != null) {
+        for (Entry entry : entries) {
+          ImmutablePolynomial existing = entry.get();
+          if (existing == null) {
+            continue;
+          }
+          if (existing.equals(candidate)) {
+            canonical[0] = existing;
+            return entries;
+          }
+          live++;
+        }
+      }
+      Entry[] updated = new Entry[live + 1];
+      int index = 0;
+      if (entries != null) {
+        for (Entry entry : entries) {
+          if (entry.get() != null) {
+            updated[index++] = entry;
+          }
+        }
+      }
+      candidate.setInterner(this);
+      updated[index] = new Entry(candidate, fingerprint, cleared);
+      canonical[0] = candidate;
+      return updated;
+    });
+    return canonical[0];
+  }
+
+  /**
+   * Returns the number of canonical instances that are still in use. Instances that have
+   * just become unreachable may still be counted.
+   *
+   * @return the number of interned polynomials.
+   */
+  public int size() {
+    purge();
+    int count = 0;
+    for (Entry[] entries : table.values()) {
+      for (Entry entry : entries) {
+        if (entry.get() != null) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Removes the entries of canonical instances that have been garbage collected.
+   */
+  private void purge() {
+    Object reference;
+    while ((reference = cleared.poll()) != null) {
+      Entry stale = (Entry) reference;
+      table.computeIfPresent(stale.fingerprint, (key, entries) -> {
+        Entry[] kept = Arrays.stream(entries).filter(entry -> entry != stale)
+                .toArray(Entry[]::new);
+        return kept.length == 0 ? null : kept;
+      });
+    }
+  }
+
+  /**
+   * The Entry class is a weak reference to a canonical instance that remembers the
+   * fingerprint it is stored under, so that it can be removed once it has been cleared.
+   */
+  private static final class Entry extends WeakReference<ImmutablePolynomial> {
+
+    private final long fingerprint;
+
+    /**
+     * Constructs a new Entry for the given canonical instance.
+     *
+     * @param polynomial  the canonical instance.
+     * @param fingerprint the fingerprint of the instance.
+     * @param queue       the queue the entry is put on once it is cleared.
+     */
+    Entry(ImmutablePolynomial polynomial, long fingerprint,
+          ReferenceQueue<ImmutablePolynomial> queue) {
+      super(polynomial, queue);
+      this.fingerprint = fingerprint;
+    }
+  }
+}
@@ -0,0 +1,372 @@
+package polynomial;
+
+import java.util.Arrays;
+
+/**
+ * The PolynomialPower class raises polynomials to non-negative integer powers with binary
+ * exponentiation, which needs about log2(n) squarings and at most as many multiplications
+ * by the base. Dense squarings use the squaring kernels of {@link KaratsubaMultiplier} and
+ * {@link NttMultiplier}, which exploit the symmetry of a square. A single term is raised
+ * directly and a binomial is expanded with the binomial theorem, both in time linear in the
+ * size of the result. Before any other base is raised, the lowest power x^e and the
+ * greatest common step g of its powers are factored out, so that x^e r(x^g) is raised by
+ * raising the shorter r. Sparse bases whose powers are expected to fill most of that range
+ * are raised densely, the others with {@link JohnsonMultiplier}. Coefficients wrap like
+ * those of multiply, so every path gives the same result as multiplying the base by itself
+ * n - 1 times.
+ */
+final class PolynomialPower {
+
+  /**
+   * How many times longer than the bound on its number of terms a reduced power may be
+   * for a sparse base to still be raised densely.
+   */
+  static final int DENSE_RATIO = 8;
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private PolynomialPower() {
+  }
+
+  /**
+   * Raises a dense polynomial to the given power.
+   *
+   * @param base     the base.
+   * @param exponent the exponent, not negative.
+   * @return the power as a SimplePolynomial.
+   * @throws IllegalArgumentException if the exponent is negative or the degree of the
+   *                                  power does not fit in an int.
+   */
+  static SimplePolynomial pow(SimplePolynomial base, int exponent)
+          throws IllegalArgumentException {
+    checkExponent(exponent);
+    int degree = base.getHighestPower();
+    if (exponent == 0) {
+      return new SimplePolynomial(new int[]{1}, 0);
+    }
+    if (degree < 0) {
+      return new SimplePolynomial();
+    }
+    checkDegree(degree, exponent);
+    int terms = base.countTerms();
+    if (terms <= 2) {
+      return powFew(base.toSparse(terms), exponent).toSimple();
+    }
+    int[] coefficients = base.getCoefficientArray();
+    int lowest = 0;
+    while (coefficients[lowest] == 0) {
+      lowest++;
+    }
+    int step = 0;
+    for (int power = lowest + 1; power <= degree && step != 1; power++) {
+      if (coefficients[power] != 0) {
+        step = gcd(step, power - lowest);
+      }
+    }
+    int[] reduced = new int[(degree - lowest) / step + 1];
+    for (int k = 0; k < reduced.length; k++) {
+      reduced[k] = coefficients[lowest + step * k];
+    }
+    int[] power = powDense(reduced, exponent);
+    int resultDegree = degree * exponent;
+    int[] result = power;
+    if (lowest != 0 || step != 1) {
+      result = new int[resultDegree + 1];
+      for (int k = 0; k < power.length; k++) {
+        result[lowest * exponent + step * k] = power[k];
+      }
+    }
+    return new SimplePolynomial(result, resultDegree);
+  }
+
+  /**
+   * Raises a sparse polynomial to the given power.
+   *
+   * @param base     the base.
+   * @param exponent the exponent, not negative.
+   * @return the power as a SparsePolynomial.
+   * @throws IllegalArgumentException if the exponent is negative or the degree of the
+   *                                  power does not fit in an int.
+   */
+  static SparsePolynomial pow(SparsePolynomial base, int exponent)
+          throws IllegalArgumentException {
+    checkExponent(exponent);
+    if (exponent == 0) {
+      return new SparsePolynomial(new int[]{0}, new int[]{1}, 1);
+    }
+    int size = base.getTermCount();
+    if (size == 0) {
+      return new SparsePolynomial();
+    }
+    int[] powers = base.getPowerArray();
+    checkDegree(powers[0], exponent);
+    if (size <= 2 || exponent == 1) {
+      return powFew(base, exponent);
+    }
+    int[] coefficients = base.getCoefficientArray();
+    int lowest = powers[size - 1];
+    int step = 0;
+    for (int i = 0; i < size - 1 && step != 1; i++) {
+      step = gcd(step, powers[i] - lowest);
+    }
+    long length = (long) (powers[0] - lowest) / step * exponent + 1;
+    if (length <= DENSE_RATIO * termBound(size, exponent)) {
+      int[] reduced = new int[(powers[0] - lowest) / step + 1];
+      for (int i = 0; i < size; i++) {
+        reduced[(powers[i] - lowest) / step] = coefficients[i];
+      }
+      int[] power = powDense(reduced, exponent);
+      int count = 0;
+      for (int value : power) {
+        if (value != 0) {
+          count++;
+        }
+      }
+      int[] resultPowers = new int[count];
+      int[] resultCoefficients = new int[count];
+      int index = 0;
+      for (int k = power.length - 1; k >= 0; k--) {
+        if (power[k] != 0) {
+          resultPowers[index] = lowest * exponent + step * k;
+          resultCoefficients[index] = power[k];
+          index++;
+        }
+      }
+      return new SparsePolynomial(resultPowers, resultCoefficients, count);
+    }
+    SparsePolynomial result = base;
+    for (int bit = Integer.highestOneBit(exponent) >>> 1; bit > 0; bit >>>= 1) {
+      result = (SparsePolynomial) result.multiplySparse(result);
+      if ((exponent & bit) != 0) {
+        result = (SparsePolynomial) result.multiplySparse(base);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Bounds the number of terms of the n-th power of a polynomial with the given number of
+   * terms by the number of ways to pick n of them, which is the binomial coefficient
+   * C(n + terms - 1, terms - 1).
+   *
+   * @param terms    the number of terms of the base.
+   * @param exponent the exponent n.
+   * @return the bound, capped at Integer.MAX_VALUE.
+   */
+  private static long termBound(int terms, int exponent) {
+    double bound = 1;
+    for (int i = 1; i < terms && bound < Integer.MAX_VALUE; i++) {
+      bound = bound * (exponent + i) / i;
+    }
+    return (long) Math.min(bound, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Raises dense coefficients to a positive power by left-to-right binary exponentiation.
+   *
+   * @param base     the coefficients of the base, with a non-zero last coefficient.
+   * @param exponent the exponent, at least 1.
+   * @return the coefficients of the power, of length exponent (base.length - 1) + 1.
+   */
+  private static int[] powDense(int[] base, int exponent) {
+    int[] result = base;
+    for (int bit = Integer.highestOneBit(exponent) >>> 1; bit > 0; bit >>>= 1) {
+      result = square(result);
+      if ((exponent & bit) != 0) {
+        result = multiply(result, base);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Checks that an exponent is not negative.
+   *
+   * @param exponent the exponent.
+   * @throws IllegalArgumentException if the exponent is negative.
+   */
+  private static void checkExponent(int exponent) throws IllegalArgumentException {
+    if (exponent < 0) {
+      throw new IllegalArgumentException("Exponent cannot be negative.");
+    }
+  }
+
+  /**
+   * Checks that the degree of a power fits in an int.
+   *
+   * @param degree   the degree of the base.
+   * @param exponent the exponent.
+   * @throws IllegalArgumentException if the degree of the power does not fit in an int.
+   */
+  private static void checkDegree(int degree, int exponent) throws IllegalArgumentException {
+    if ((long) degree * exponent > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Power of the result exceeds the int range.");
+    }
+  }
+
+  /**
+   * Squares dense coefficients with the transform or with Karatsuba's algorithm.
+   *
+   * @param a the coefficients.
+   * @return the coefficients of the square.
+   */
+  private static int[] square(int[] a) {
+    if (NttMultiplier.isWorthwhile(a.length, a.length)) {
+      return NttMultiplier.square(a, a.length);
+    }
+    return KaratsubaMultiplier.square(a, a.length);
+  }
+
+  /**
+   * Multiplies dense coefficients with the transform or with Karatsuba's algorithm.
+   *
+   * @param a the coefficients of the first operand.
+   * @param b the coefficients of the second operand.
+   * @return the coefficients of the product.
+   */
+  private static int[] multiply(int[] a, int[] b) {
+    if (NttMultiplier.isWorthwhile(a.length, b.length)) {
+      return NttMultiplier.multiply(a, a.length, b, b.length);
+    }
+    return KaratsubaMultiplier.multiply(a, a.length, b, b.length);
+  }
+
+  /**
+   * Raises a polynomial with one or two terms, or any polynomial to the first power.
+   *
+   * @param base     the base, with one or two terms unless the exponent is 1.
+   * @param exponent the exponent, at least 1.
+   * @return the power.
+   */
+  private static SparsePolynomial powFew(SparsePolynomial base, int exponent) {
+    int[] powers = base.getPowerArray();
+    int[] coefficients = base.getCoefficientArray();
+    int size = base.getTermCount();
+    if (exponent == 1) {
+      return new SparsePolynomial(Arrays.copyOf(powers, size),
+              Arrays.copyOf(coefficients, size), size);
+    }
+    if (size == 1) {
+      int coefficient = wrappedPower(coefficients[0], exponent);
+      if (coefficient == 0) {
+        return new SparsePolynomial();
+      }
+      return new SparsePolynomial(new int[]{powers[0] * exponent}, new int[]{coefficient}, 1);
+    }
+    return binomial(coefficients[0], powers[0], coefficients[1], powers[1], exponent);
+  }
+
+  /**
+   * Raises an int to a power with wrapping multiplication.
+   *
+   * @param base     the base.
+   * @param exponent the exponent, not negative.
+   * @return the wrapped power.
+   */
+  private static int wrappedPower(int base, int exponent) {
+    int result = 1;
+    while (exponent > 0) {
+      if ((exponent & 1) != 0) {
+        result *= base;
+      }
+      base *= base;
+      exponent >>>= 1;
+    }
+    return result;
+  }
+
+  /**
+   * Expands (a x^p + b x^r)^n with the binomial theorem. The binomial coefficients are
+   * only needed modulo 2^32, where the wrapped int arithmetic lives, so they are kept as
+   * an odd part and a power of two: the odd part of every divisor is invertible modulo
+   * 2^32, and the power of two is tracked separately.
+   *
+   * @param a        the coefficient of the higher term.
+   * @param p        the power of the higher term.
+   * @param b        the coefficient of the lower term.
+   * @param r        the power of the lower term.
+   * @param exponent the exponent n, at least 2.
+   * @return the expansion.
+   */
+  private static SparsePolynomial binomial(int a, int p, int b, int r, int exponent) {
+    int[] bPowers = new int[exponent + 1];
+    bPowers[0] = 1;
+    for (int k = 1; k <= exponent; k++) {
+      bPowers[k] = bPowers[k - 1] * b;
+    }
+    int[] resultPowers = new int[exponent + 1];
+    int[] resultCoefficients = new int[exponent + 1];
+    int oddPart = 1;
+    int twos = 0;
+    int aPower = 1;
+    int count = 0;
+    for (int k = 0; k <= exponent; k++) {
+      if (k > 0) {
+        int numerator = exponent - k + 1;
+        int shift = Integer.numberOfTrailingZeros(numerator);
+        oddPart *= numerator >>> shift;
+        twos += shift;
+        shift = Integer.numberOfTrailingZeros(k);
+        oddPart *= oddInverse(k >>> shift);
+        twos -= shift;
+        aPower *= a;
+      }
+      int binomial = twos >= Integer.SIZE ? 0 : oddPart << twos;
+      int coefficient = binomial * aPower * bPowers[exponent - k];
+      if (coefficient != 0) {
+        resultPowers[count] = p * k + r * (exponent - k);
+        resultCoefficients[count] = coefficient;
+        count++;
+      }
+    }
+    reverse(resultPowers, count);
+    reverse(resultCoefficients, count);
+    return new SparsePolynomial(resultPowers, resultCoefficients, count);
+  }
+
+  /**
+   * Returns the inverse of an odd int modulo 2^32 by Newton's iteration, which doubles the
+   * number of correct low bits with every step.
+   *
+   * @param value the odd value.
+   * @return the inverse modulo 2^32.
+   */
+  private static int oddInverse(int value) {
+    int inverse = value;
+    for (int i = 0; i < 5; i++) {
+      inverse *= 2 - value * inverse;
+    }
+    return inverse;
+  }
+
+  /**
+   * Reverses the first count values of an array in place.
+   *
+   * @param values the array.
+   * @param count  the number of values to reverse.
+   */
+  private static void reverse(int[] values, int count) {
+    for (int i = 0, j = count - 1; i < j; i++, j--) {
+      int swap = values[i];
+      values[i] = values[j];
+      values[j] = swap;
+    }
+  }
+
+  /**
+   * Returns the greatest common divisor of two non-negative ints.
+   *
+   * @param a the first value.
+   * @param b the second value.
+   * @return the greatest common divisor, or the other value if one is 0.
+   */
+  private static int gcd(int a, int b) {
+    while (b != 0) {
+      int t = a % b;
+      a = b;
+      b = t;
+    }
+    return a;
+  }
+}
@@ -0,0 +1,318 @@
+package polynomial;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The Polynomials class reads polynomials back from the textual form written by the
+ * toString method of SimplePolynomial and SparsePolynomial, such as 3x^4-2x^1+7, or 0
+ * for the zero polynomial. The input is scanned once, character by character, and the
+ * coefficients and powers are accumulated directly as ints, so no substrings or boxed
+ * numbers are created. The terms go into a {@link PolynomialBuilder}, which already holds
+ * them in decreasing order and so builds the representation chosen by the current
+ * {@link RepresentationPolicy} without sorting.
+ *
+ * <p>Exactly the grammar toString produces is accepted: terms in strictly decreasing order
+ * of power, a sign before every term but the first, which only has one if it is negative,
+ * non-zero coefficients without leading zeros, and x^ followed by the power for every
+ * power but 0. A coefficient of Integer.MIN_VALUE is written as --2147483648, as toString
+ * writes it. Anything else, including white space, is rejected.
+ */
+public final class Polynomials {
+
+  /**
+   * Private constructor, this class only has static methods.
+   */
+  private Polynomials() {
+  }
+
+  /**
+   * Parses a polynomial from its textual form.
+   *
+   * @param text the text.
+   * @return the polynomial.
+   * @throws IllegalArgumentException if the text is null or not in the toString form.
+   */
+  public static Polynomial parse(CharSequence text) throws IllegalArgumentException {
+    if (text == null) {
+      throw new IllegalArgumentException("Text cannot be null.");
+    }
+    return new CharScanner(text).parse();
+  }
+
+  /**
+   * Parses a polynomial from its textual form encoded in ASCII.
+   *
+   * @param bytes the encoded text.
+   * @return the polynomial.
+   * @throws IllegalArgumentException if the array is null or its text is not in the
+   *                                  toString form.
+   */
+  public static Polynomial parse(byte[] bytes) throws IllegalArgumentException {
+    if (bytes == null) {
+      throw new IllegalArgumentException("Bytes cannot be null.");
+    }
+    return parse(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Parses a polynomial from its textual form encoded in ASCII in part of an array.
+   *
+   * @param bytes  the array.
+   * @param offset the index of the first byte of the text.
+   * @param length the number of bytes of the text.
+   * @return the polynomial.
+   * @throws IllegalArgumentException if the array is null, the range is outside of it or
+   *                                  its text is not in the toString form.
+   */
+  public static Polynomial parse(byte[] bytes, int offset, int length)
+          throws IllegalArgumentException {
+    if (bytes == null) {
+      throw new IllegalArgumentException("Bytes cannot be null.");
+    }
+    if (offset < 0 || length < 0 || offset > bytes.length - length) {
+      throw new IllegalArgumentException("Range is outside of the array.");
+    }
+    return new ByteArrayScanner(bytes, offset, length).parse();
+  }
+
+  /**
+   * Parses a polynomial from its textual form encoded in ASCII between the position and
+   * the limit of a buffer. The position of the buffer is not changed.
+   *
+   * @param buffer the buffer.
+   * @return the polynomial.
+   * @throws IllegalArgumentException if the buffer is null or its text is not in the
+   *                                  toString form.
+   */
+  public static Polynomial parse(ByteBuffer buffer) throws IllegalArgumentException {
+    if (buffer == null) {
+      throw new IllegalArgumentException("Buffer cannot be null.");
+    }
+    return new BufferScanner(buffer).parse();
+  }
+
+  /**
+   * The Scanner class holds the single pass over the characters of the text, which its
+   * subclasses read from the different sources.
+   */
+  private abstract static class Scanner {
+
+    private final int length;
+    private int index;
+
+    /**
+     * Constructor for subclasses.
+     *
+     * @param length the number of characters of the text.
+     */
+    Scanner(int length) {
+      this.length = length;
+    }
+
+    /**
+     * Returns a character of the text.
+     *
+     * @param index the index of the character, from 0.
+     * @return the character.
+     */
+    abstract int charAt(int index);
+
+    /**
+     * Parses the whole text.
+     *
+     * @return the polynomial.
+     * @throws IllegalArgumentException if the text is not in the toString form.
+     */
+    Polynomial parse() throws IllegalArgumentException {
+      if (length == 1 && charAt(0) == '0') {
+        return new PolynomialBuilder(0).build();
+      }
+      PolynomialBuilder builder = new PolynomialBuilder();
+      long previousPower = Long.MAX_VALUE;
+      do {
+        boolean negative = false;
+        if (index < length && charAt(index) == '-') {
+          negative = true;
+          index++;
+        } else if (index > 0) {
+          expect('+');
+        }
+        int coefficient;
+        if (negative && index < length && charAt(index) == '-') {
+          index++;
+          int start = index;
+          if (readNumber() != 1L << 31) {
+            throw error(start, "Only Integer.MIN_VALUE is written with two minus signs.");
+          }
+          coefficient = Integer.MIN_VALUE;
+        } else {
+          int start = index;
+          long magnitude = readNumber();
+          if (magnitude > Integer.MAX_VALUE) {
+            throw error(start, "Coefficient does not fit in an int.");
+          }
+          coefficient = (int) (negative ? -magnitude : magnitude);
+        }
+        int power = 0;
+        if (index < length && charAt(index) == 'x') {
+          index++;
+          expect('^');
+          int start = index;
+          long value = readNumber();
+          if (value > Integer.MAX_VALUE) {
+            throw error(start, "Power does not fit in an int.");
+          }
+          power = (int) value;
+        }
+        if (power >= previousPower) {
+          throw error(index, "Powers must be strictly decreasing.");
+        }
+        previousPower = power;
+        builder.addTerm(coefficient, power);
+      } while (index < length);
+      return builder.build();
+    }
+
+    /**
+     * Reads a positive decimal number without leading zeros.
+     *
+     * @return the number, or a value above 2^31 if it has more digits than an int.
+     * @throws IllegalArgumentException if there is no digit or the first digit is 0.
+     */
+    private long readNumber() throws IllegalArgumentException {
+      if (index >= length || charAt(index) < '1' || charAt(index) > '9') {
+        throw error(index, "Expected a non-zero digit.");
+      }
+      long value = 0;
+      while (index < length) {
+        int c = charAt(index);
+        if (c < '0' || c > '9') {
+          break;
+        }
+        if (value <= 1L << 31) {
+          value = value * 10 + (c - '0');
+        }
+        index++;
+      }
+      return value;
+    }
+
+    /**
+     * Consumes the given character.
+     *
+     * @param expected the character.
+     * @throws IllegalArgumentException if the next character is another one.
+     */
+    private void expect(char expected) throws IllegalArgumentException {
+      if (index >= length || charAt(index) != expected) {
+        throw error(index, "Expected '" + expected + "'.");
+      }
+      index++;
+    }
+
+    /**
+     * Creates the exception for a syntax error.
+     *
+     * @param at      the index of the offending character.
+     * @param message the description of the error.
+     * @return the exception.
+     */
+    private static IllegalArgumentException error(int at, String message) {
+      return new IllegalArgumentException(message + " At index " + at + ".");
+    }
+  }
+
+  /**
+   * The CharScanner class reads the text from a CharSequence.
+   */
+  private static final class CharScanner extends Scanner {
+
+    private final CharSequence text;
+
+    /**
+     * Constructs a new CharScanner.
+     *
+     * @param text the text.
+     */
+    CharScanner(CharSequence text) {
+      super(text.length());
+      this.text = text;
+    }
+
+    /**
+     * Returns a character of the text.
+     *
+     * @param index the index of the character, from 0.
+     * @return the character.
+     */
+    @Override
+    int charAt(int index) {
+      return text.charAt(index);
+    }
+  }
+
+  /**
+   * The ByteArrayScanner class reads the text from part of a byte array.
+   */
+  private static final class ByteArrayScanner extends Scanner {
+
+    private final byte[] bytes;
+    private final int offset;
+
+    /**
+     * Constructs a new ByteArrayScanner.
+     *
+     * @param bytes  the array.
+     * @param offset the index of the first byte of the text.
+     * @param length the number of bytes of the text.
+     */
+    ByteArrayScanner(byte[] bytes, int offset, int length) {
+      super(length);
+      this.bytes = bytes;
+      this.offset = offset;
+    }
+
+    /**
+     * Returns a character of the text.
+     *
+     * @param index the index of the character, from 0.
+     * @return the character.
+     */
+    @Override
+    int charAt(int index) {
+      return bytes[offset + index];
+    }
+  }
+
+  /**
+   * The BufferScanner class reads the text between the position and the limit of a
+   * ByteBuffer with absolute reads.
+   */
+  private static final class BufferScanner extends Scanner {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+
+    /**
+     * Constructs a new BufferScanner.
+     *
+     * @param buffer the buffer.
+     */
+    BufferScanner(ByteBuffer buffer) {
+      super(buffer.remaining());
+      this.buffer = buffer;
+      this.offset = buffer.position();
+    }
+
+    /**
+     * Returns a character of the text.
+     *
+     * @param index the index of the character, from 0.
+     * @return the character.
+     */
+    @Override
+    int charAt(int index) {
+      return buffer.get(offset + index);
+    }
+  }
+}
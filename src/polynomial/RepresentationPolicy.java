@@ -0,0 +1,245 @@
+package polynomial;
+
+/**
+ * The RepresentationPolicy class decides whether the result of an operation is stored as a
+ * dense SimplePolynomial or as a SparsePolynomial. The fixed policy keeps the type chosen by
+ * the operands, which is the default. An adaptive policy looks at the number of non-zero
+ * terms and the degree of every result of add, multiply and derivative, and picks the
+ * representation that needs less memory. A dense polynomial costs one int per power up to
+ * its degree and a sparse one costs two ints per term, so with the default threshold of 0.5
+ * a result is stored densely when at least half of its coefficients are non-zero. Results
+ * of small degree are always stored densely, since both forms are tiny there. Sums and
+ * derivatives are computed straight into the chosen representation, from the shape of the
+ * operands, and the shape of the actual result is checked once more at the end.
+ */
+public final class RepresentationPolicy {
+
+  /**
+   * The default fraction of non-zero coefficients from which adaptive results are dense.
+   */
+  public static final double DEFAULT_DENSITY = 0.5;
+
+  /**
+   * The default degree up to which adaptive results are always dense.
+   */
+  public static final int DEFAULT_DENSE_DEGREE = 16;
+
+  /**
+   * The policy that keeps the representation chosen by the operand types.
+   */
+  public static final RepresentationPolicy FIXED = new RepresentationPolicy(false, 0, 0);
+
+  /**
+   * The adaptive policy with the default thresholds.
+   */
+  public static final RepresentationPolicy ADAPTIVE = new RepresentationPolicy(true,
+          DEFAULT_DENSITY, DEFAULT_DENSE_DEGREE);
+
+  private static volatile RepresentationPolicy current = FIXED;
+
+  private final boolean adaptive;
+  private final double minimumDensity;
+  private final int denseDegree;
+
+  /**
+   * Private constructor that sets the thresholds of the policy.
+   *
+   * @param adaptive       whether results are converted at all.
+   * @param minimumDensity the fraction of non-zero coefficients from which results are dense.
+   * @param denseDegree    the degree up to which results are always dense.
+   */
+  private RepresentationPolicy(boolean adaptive, double minimumDensity, int denseDegree) {
+    this.adaptive = adaptive;
+    this.minimumDensity = minimumDensity;
+    this.denseDegree = denseDegree;
+  }
+
+  /**
+   * Creates an adaptive policy with the given thresholds.
+   *
+   * @param minimumDensity the fraction of non-zero coefficients, in [0, 1], from which
+   *                       results are stored densely.
+   * @param denseDegree    the degree up to which results are always stored densely.
+   * @return the new policy.
+   * @throws IllegalArgumentException if the density is outside [0, 1] or the degree
+   *                                  is negative.
+   */
+  public static RepresentationPolicy adaptive(double minimumDensity, int denseDegree)
+          throws IllegalArgumentException {
+    if (!(minimumDensity >= 0 && minimumDensity <= 1)) {
+      throw new IllegalArgumentException("Density must be between 0 and 1.");
+    }
+    if (denseDegree < 0) {
+      throw new IllegalArgumentException("Degree cannot be negative.");
+    }
+    return new RepresentationPolicy(true, minimumDensity, denseDegree);
+  }
+
+  /**
+   * Returns the policy applied to the results of add, multiply and derivative.
+   *
+   * @return the current policy.
+   */
+  public static RepresentationPolicy getCurrent() {
+    return current;
+  }
+
+  /**
+   * Sets the policy applied to the results of add, multiply and derivative.
+   *
+   * @param policy the new policy.
+   * @throws IllegalArgumentException if the policy is null.
+   */
+  public static void setCurrent(RepresentationPolicy policy) throws IllegalArgumentException {
+    if (policy == null) {
+      throw new IllegalArgumentException("Policy cannot be null.");
+    }
+    current = policy;
+  }
+
+  /**
+   * Checks whether this policy converts results between representations.
+   *
+   * @return true for an adaptive policy, false for the fixed one.
+   */
+  public boolean isAdaptive() {
+    return adaptive;
+  }
+
+  /**
+   * Checks whether a polynomial with the given shape should be stored densely.
+   *
+   * @param termCount the number of non-zero terms.
+   * @param degree    the degree of the polynomial.
+   * @return true if the dense representation is preferred.
+   */
+  public boolean prefersDense(int termCount, int degree) {
+    return degree <= denseDegree || termCount >= minimumDensity * (degree + 1.0);
+  }
+
+  /**
+   * Adds two polynomials under an adaptive policy. The representation of the sum is chosen
+   * before it is computed, from the number of terms and the degree of the operands, which
+   * bound those of the sum, and the sum is built straight into it, so no intermediate
+   * result in the other representation is allocated. Operands that are neither dense nor
+   * sparse int polynomials are added as usual.
+   *
+   * @param first  the first operand, a SimplePolynomial or a SparsePolynomial.
+   * @param second the second operand.
+   * @return the sum.
+   */
+  Polynomial add(AbstractPolynomial first, AbstractPolynomial second) {
+    AbstractPolynomial other = second instanceof ImmutablePolynomial
+            ? ((ImmutablePolynomial) second).getTerms() : second;
+    if (!(other instanceof SimplePolynomial || other instanceof SparsePolynomial)) {
+      return first instanceof SimplePolynomial ? second.addSimple((SimplePolynomial) first)
+              : second.addSparse((SparsePolynomial) first);
+    }
+    int degree = Math.max(first.getDegree(), other.getDegree());
+    long termBound = Math.min((long) first.termCount() + other.termCount(), degree + 1L);
+    boolean dense = prefersDense((int) termBound, degree);
+    if (dense && (first instanceof SparsePolynomial || other instanceof SparsePolynomial)) {
+      int[] sum = new int[degree + 1];
+      addInto(first, sum);
+      addInto(other, sum);
+      return new SimplePolynomial(sum, degree);
+    }
+    if (!dense && first instanceof SimplePolynomial && other instanceof SimplePolynomial) {
+      return sparseSum((SimplePolynomial) first, (SimplePolynomial) other, (int) termBound);
+    }
+    return first instanceof SimplePolynomial ? other.addSimple((SimplePolynomial) first)
+            : other.addSparse((SparsePolynomial) first);
+  }
+
+  /**
+   * Adds the coefficients of a dense or sparse polynomial into a dense array.
+   *
+   * @param polynomial the SimplePolynomial or SparsePolynomial to add.
+   * @param sum        the array, long enough for the degree of the polynomial.
+   */
+  private static void addInto(AbstractPolynomial polynomial, int[] sum) {
+    if (polynomial instanceof SimplePolynomial) {
+      SimplePolynomial simple = (SimplePolynomial) polynomial;
+      int[] coefficients = simple.getCoefficientArray();
+      for (int power = simple.getHighestPower(); power >= 0; power--) {
+        sum[power] += coefficients[power];
+      }
+    } else {
+      SparsePolynomial sparse = (SparsePolynomial) polynomial;
+      int[] powers = sparse.getPowerArray();
+      int[] coefficients = sparse.getCoefficientArray();
+      for (int i = sparse.getTermCount() - 1; i >= 0; i--) {
+        sum[powers[i]] += coefficients[i];
+      }
+    }
+  }
+
+  /**
+   * Adds two dense polynomials into the sparse representation, walking both coefficient
+   * arrays from the highest power down.
+   *
+   * @param first     the first operand.
+   * @param second    the second operand.
+   * @param termBound an upper bound on the number of terms of the sum.
+   * @return the sum as a SparsePolynomial.
+   */
+  private static SparsePolynomial sparseSum(SimplePolynomial first, SimplePolynomial second,
+                                            int termBound) {
+    int[] a = first.getCoefficientArray();
+    int[] b = second.getCoefficientArray();
+    int aDegree = first.getHighestPower();
+    int bDegree = second.getHighestPower();
+    int[] powers = new int[termBound];
+    int[] coefficients = new int[termBound];
+    int count = 0;
+    for (int power = Math.max(aDegree, bDegree); power >= 0; power--) {
+      int coefficient = (power <= aDegree ? a[power] : 0) + (power <= bDegree ? b[power] : 0);
+      if (coefficient != 0) {
+        powers[count] = power;
+        coefficients[count] = coefficient;
+        count++;
+      }
+    }
+    return new SparsePolynomial(powers, coefficients, count);
+  }
+
+  /**
+   * Converts an operation result to the preferred representation. Results of the fixed
+   * policy, and results that already have the preferred representation, are returned as is.
+   *
+   * @param result the result of an operation.
+   * @return the result in the preferred representation.
+   */
+  Polynomial apply(Polynomial result) {
+    if (!adaptive) {
+      return result;
+    }
+    if (result instanceof SimplePolynomial) {
+      SimplePolynomial simple = (SimplePolynomial) result;
+      int termCount = simple.countTerms();
+      if (!prefersDense(termCount, simple.getDegree())) {
+        return simple.toSparse(termCount);
+      }
+    } else if (result instanceof SparsePolynomial) {
+      SparsePolynomial sparse = (SparsePolynomial) result;
+      if (prefersDense(sparse.getTermCount(), sparse.getDegree())) {
+        return sparse.toSimple();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns a description of the thresholds of this policy.
+   *
+   * @return the string representation of the policy.
+   */
+  @Override
+  public String toString() {
+    if (!adaptive) {
+      return "RepresentationPolicy[fixed]";
+    }
+    return "RepresentationPolicy[density=" + minimumDensity + ", denseDegree=" + denseDegree
+            + "]";
+  }
+}
@@ -1,56 +1,79 @@
 package polynomial;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.io.IOException;
+import java.util.Arrays;
 
 /**
- * This is the simple polynomial class with represents a polynomial in the form of array list
- * where polynomial with degree N having N+1 terms. This class has functionalities such as adding
- * a term to the polynomial, adding a polynomial to this polynomial, multiplying a polynomial
- * with this polynomial, derivative, evaluate, get coefficient, string conversion, equality check
- * with different polynomial, comparing with another polynomial.
+ * This is the simple polynomial class with represents a polynomial in the form of a primitive
+ * coefficient array where polynomial with degree N having N+1 terms. This class has
+ * functionalities such as adding a term to the polynomial, adding a polynomial to this
+ * polynomial, multiplying a polynomial with this polynomial, derivative, evaluate, get
+ * coefficient, string conversion, equality check with different polynomial, comparing
+ * with another polynomial.
  */
 public class SimplePolynomial extends AbstractPolynomial {
 
-  private final List<Integer> polynomial;
+  private static final int INITIAL_CAPACITY = 8;
+
+  private int[] coefficients;
+  private int degree;
+  private boolean shared;
 
   /**
    * Private helper method to remove leading zeros from the polynomial representation.
-   * It iterates from the highest degree downwards, removing terms with zero coefficients
-   * to keep the polynomial concise.
+   * It moves the degree downwards past every zero coefficient, so that the slots above
+   * the degree are always zero and can be reused by later terms without clearing.
    */
   private void trimLeadingZeros() {
-    int i = polynomial.size() - 1;
-    while (i >= 0 && polynomial.get(i) == 0) {
-      polynomial.remove(i);
-      i--;
+    while (degree >= 0 && coefficients[degree] == 0) {
+      degree--;
+    }
+  }
+
+  /**
+   * Private helper method to take a private copy of the coefficient array before it is
+   * modified, if the array is shared with a frozen or copied polynomial.
+   */
+  private void unshare() {
+    if (shared) {
+      coefficients = coefficients.clone();
+      shared = false;
     }
   }
 
   /**
-   * Adds two polynomials of type `SimplePolynomial`. This method iterates through
-   * both polynomials' terms and adds the coefficients of corresponding powers.
+   * Private helper method to make sure the coefficient array can hold the given power.
+   * The array grows geometrically so that adding terms in increasing order of power
+   * stays amortized constant time.
+   *
+   * @param power the highest power that must fit in the array.
+   */
+  private void ensureCapacity(int power) {
+    if (power < coefficients.length) {
+      return;
+    }
+    int newLength = (int) Math.min(Integer.MAX_VALUE - 8,
+            Math.max(power + 1L, coefficients.length * 2L));
+    coefficients = Arrays.copyOf(coefficients, newLength);
+  }
+
+  /**
+   * Adds two polynomials of type `SimplePolynomial`. The coefficient arrays of both
+   * polynomials are summed slot by slot into a single array sized for the higher degree,
+   * so the result is produced in one linear pass with one allocation.
    *
    * @param other the other SimplePolynomial to add to this polynomial.
    * @return a new SimplePolynomial representing the sum of the two polynomials.
    */
   @Override
   protected Polynomial addSimple(SimplePolynomial other) {
-    Polynomial additionPolynomial = new SimplePolynomial();
-    for (int thisPower = 0; thisPower <= this.getDegree(); thisPower++) {
-      int thisCoefficient = this.getCoefficient(thisPower);
-      if (thisCoefficient != 0) {
-        additionPolynomial.addTerm(thisCoefficient, thisPower);
-      }
+    int maxDegree = Math.max(this.degree, other.degree);
+    int[] sum = new int[maxDegree + 1];
+    System.arraycopy(this.coefficients, 0, sum, 0, this.degree + 1);
+    for (int power = 0; power <= other.degree; power++) {
+      sum[power] += other.coefficients[power];
     }
-    for (int otherPower = 0; otherPower <= other.getDegree(); otherPower++) {
-      int otherCoefficient = other.getCoefficient(otherPower);
-      if (otherCoefficient != 0) {
-        additionPolynomial.addTerm(otherCoefficient, otherPower);
-      }
-    }
-    return additionPolynomial;
+    return new SimplePolynomial(sum, maxDegree);
   }
 
   /**
@@ -67,32 +90,46 @@ public class SimplePolynomial extends AbstractPolynomial {
   }
 
   /**
-   * Multiplies two `SimplePolynomial` objects by multiplying each term of
-   * this polynomial with every term of the other polynomial. The product of
-   * terms with different powers is added together.
+   * Multiplies two `SimplePolynomial` objects directly on their coefficient arrays.
+   * Short operands use the schoolbook product, longer ones use Karatsuba's algorithm,
+   * see {@link KaratsubaMultiplier}, and very long ones use the number theoretic
+   * transform, see {@link NttMultiplier}. Large products too short for the transform are
+   * split across threads, see {@link ParallelMultiplier}. Under an adaptive {@link RepresentationPolicy}, operands
+   * that are mostly zeros are multiplied term by term in sparse form instead.
    *
    * @param other the other SimplePolynomial to multiply with this polynomial.
    * @return a new SimplePolynomial representing the product of the two polynomials.
    */
   @Override
   protected Polynomial multiplySimple(SimplePolynomial other) {
-    Polynomial multiplyPolynomial = new SimplePolynomial();
-    for (int thisPower = 0; thisPower <= this.getDegree(); thisPower++) {
-      int thisCoefficient = this.getCoefficient(thisPower);
-      if (thisCoefficient == 0) {
-        continue;
-      }
-      for (int otherPower = 0; otherPower <= other.getDegree(); otherPower++) {
-        int otherCoefficient = other.getCoefficient(otherPower);
-        if (otherCoefficient == 0) {
-          continue;
-        }
-        int newCoefficient = thisCoefficient * otherCoefficient;
-        int newPower = thisPower + otherPower;
-        multiplyPolynomial.addTerm(newCoefficient, newPower);
+    if (this.degree < 0 || other.degree < 0) {
+      return new SimplePolynomial();
+    }
+    RepresentationPolicy policy = RepresentationPolicy.getCurrent();
+    if (policy.isAdaptive()) {
+      int thisTerms = this.countTerms();
+      int otherTerms = other.countTerms();
+      if (!policy.prefersDense(thisTerms, this.degree)
+              || !policy.prefersDense(otherTerms, other.degree)) {
+        return JohnsonMultiplier.multiply(this.toSparse(thisTerms), other.toSparse(otherTerms));
       }
     }
-    return multiplyPolynomial;
+    int[] product;
+    int parts = ParallelMultiplier.parts(Math.max(this.degree, other.degree) + 1,
+            (this.degree + 1L) * (other.degree + 1L));
+    if (NttMultiplier.isWorthwhile(this.degree + 1, other.degree + 1)) {
+      // Parts shorter than the NTT threshold would fall back to Karatsuba, which does far
+      // more work in total than a single transform of the full operands.
+      product = NttMultiplier.multiply(this.coefficients, this.degree + 1,
+              other.coefficients, other.degree + 1);
+    } else if (parts > 1) {
+      product = ParallelMultiplier.multiplyDense(this.coefficients, this.degree + 1,
+              other.coefficients, other.degree + 1, parts);
+    } else {
+      product = KaratsubaMultiplier.multiply(this.coefficients, this.degree + 1,
+              other.coefficients, other.degree + 1);
+    }
+    return new SimplePolynomial(product, product.length - 1);
   }
 
   /**
@@ -117,11 +154,11 @@ public class SimplePolynomial extends AbstractPolynomial {
    */
   @Override
   protected boolean compareSimple(SimplePolynomial other) {
-    if (this.polynomial.size() != other.polynomial.size()) {
+    if (this.degree != other.degree) {
       return false;
     }
-    for (int power = 0; power <= this.getDegree(); power++) {
-      if (!Objects.equals(this.polynomial.get(power), other.polynomial.get(power))) {
+    for (int power = 0; power <= this.degree; power++) {
+      if (this.coefficients[power] != other.coefficients[power]) {
         return false;
       }
     }
@@ -158,36 +195,106 @@ public class SimplePolynomial extends AbstractPolynomial {
   }
 
   /**
-   * Generates a unique hash code for this polynomial based on its coefficients and powers.
-   * The hash is computed only for non-zero terms.
+   * Generates the fingerprint of this polynomial from its non-zero terms.
    *
-   * @return the generated hash code.
+   * @return the generated fingerprint.
    */
   @Override
-  protected int generateHash() {
-    int hash = 1;
-    for (int power = this.getDegree(); power >= 0; power--) {
-      Integer coefficient = this.getCoefficient(power);
-      Integer power2 = power;
+  protected long generateFingerprint() {
+    long sum = 0;
+    int count = 0;
+    for (int power = this.degree; power >= 0; power--) {
+      int coefficient = this.coefficients[power];
       if (coefficient != 0) {
-        hash = hash + coefficient.hashCode();
-        hash = hash + power2.hashCode();
+        sum += mixTerm(coefficient, power);
+        count++;
       }
     }
-    return hash;
+    return finishFingerprint(sum, count);
   }
 
   /**
    * Default constructor that initializes a zero polynomial.
-   * It creates an empty list where coefficients of the polynomial will be stored.
+   * It creates an empty array where coefficients of the polynomial will be stored.
    */
   public SimplePolynomial() {
-    polynomial = new ArrayList<>();
+    coefficients = new int[INITIAL_CAPACITY];
+    degree = -1;
+  }
+
+  /**
+   * Constructor that takes ownership of an existing coefficient array, where the
+   * coefficient of power i is stored at index i. Every slot above the given degree
+   * must be zero, and leading zeros at or below it are trimmed.
+   *
+   * @param coefficients the coefficient array to use as storage.
+   * @param degree       the highest power that may have a non-zero coefficient.
+   */
+  SimplePolynomial(int[] coefficients, int degree) {
+    this.coefficients = coefficients;
+    this.degree = degree;
+    trimLeadingZeros();
+  }
+
+  /**
+   * Returns the array backing this polynomial, where the coefficient of power i is stored
+   * at index i. The array is shared, not copied, and must not be modified by the caller.
+   *
+   * @return the backing coefficient array.
+   */
+  int[] getCoefficientArray() {
+    return coefficients;
+  }
+
+  /**
+   * Returns the highest power with a non-zero coefficient, or -1 for the zero polynomial.
+   *
+   * @return the index of the highest non-zero slot of the backing array.
+   */
+  int getHighestPower() {
+    return degree;
+  }
+
+  /**
+   * Counts the powers that have a non-zero coefficient.
+   *
+   * @return the number of non-zero terms of this polynomial.
+   */
+  int countTerms() {
+    int count = 0;
+    for (int power = 0; power <= degree; power++) {
+      if (coefficients[power] != 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Converts this polynomial to the sparse representation.
+   *
+   * @param termCount the number of non-zero terms of this polynomial.
+   * @return a new SparsePolynomial with the same terms.
+   */
+  SparsePolynomial toSparse(int termCount) {
+    int[] sparsePowers = new int[termCount];
+    int[] sparseCoefficients = new int[termCount];
+    int index = 0;
+    for (int power = degree; power >= 0; power--) {
+      if (coefficients[power] != 0) {
+        sparsePowers[index] = power;
+        sparseCoefficients[index] = coefficients[power];
+        index++;
+      }
+    }
+    return new SparsePolynomial(sparsePowers, sparseCoefficients, termCount);
   }
 
   /**
    * Adds another polynomial to this polynomial. The addition is handled depending on the
-   * type of the other polynomial.
+   * type of the other polynomial, and the result is stored as chosen by the current
+   * {@link RepresentationPolicy}. An adaptive policy chooses the representation before the
+   * sum is computed.
    *
    * @param other the other polynomial to be added.
    * @return a new Polynomial representing the sum of both polynomials.
@@ -195,6 +302,10 @@ public class SimplePolynomial extends AbstractPolynomial {
   @Override
   public Polynomial add(Polynomial other) {
     if (other instanceof AbstractPolynomial) {
+      RepresentationPolicy policy = RepresentationPolicy.getCurrent();
+      if (policy.isAdaptive()) {
+        return policy.apply(policy.add(this, (AbstractPolynomial) other));
+      }
       return ((AbstractPolynomial) other).addSimple(this);
     }
     return new SimplePolynomial();
@@ -202,7 +313,8 @@ public class SimplePolynomial extends AbstractPolynomial {
 
   /**
    * Multiplies this polynomial with another polynomial. The multiplication is handled
-   * depending on the type of the other polynomial.
+   * depending on the type of the other polynomial, and the result is stored as chosen by
+   * the current {@link RepresentationPolicy}.
    *
    * @param other the other polynomial to multiply with.
    * @return a new Polynomial representing the product of both polynomials.
@@ -210,29 +322,107 @@ public class SimplePolynomial extends AbstractPolynomial {
   @Override
   public Polynomial multiply(Polynomial other) {
     if (other instanceof AbstractPolynomial) {
-      return ((AbstractPolynomial) other).multiplySimple(this);
+      return RepresentationPolicy.getCurrent().apply(
+              ((AbstractPolynomial) other).multiplySimple(this));
     }
     return new SimplePolynomial();
   }
 
   /**
    * Computes the derivative of this polynomial. Each term's coefficient is multiplied
-   * by its power, and the power is reduced by 1.
+   * by its power, and the power is reduced by 1. The result is stored as chosen by the
+   * current {@link RepresentationPolicy}, and an adaptive policy that prefers the sparse
+   * form for the shape of this polynomial gets the derivative built sparse directly.
    *
    * @return a new Polynomial representing the derivative of this polynomial.
    */
   @Override
   public Polynomial derivative() {
-    Polynomial derivativePolynomial = new SimplePolynomial();
-    for (int power = 1; power < this.polynomial.size(); power++) {
-      if (this.polynomial.get(power) == 0) {
-        continue;
+    if (this.degree < 1) {
+      return new SimplePolynomial();
+    }
+    RepresentationPolicy policy = RepresentationPolicy.getCurrent();
+    if (policy.isAdaptive()) {
+      int termCount = this.countTerms();
+      if (!policy.prefersDense(termCount, this.degree - 1)) {
+        int[] derivativePowers = new int[termCount];
+        int[] derivativeCoefficients = new int[termCount];
+        int count = 0;
+        for (int power = this.degree; power >= 1; power--) {
+          int newCoefficient = this.coefficients[power] * power;
+          if (newCoefficient != 0) {
+            derivativePowers[count] = power - 1;
+            derivativeCoefficients[count] = newCoefficient;
+            count++;
+          }
+        }
+        return policy.apply(
+                new SparsePolynomial(derivativePowers, derivativeCoefficients, count));
       }
-      int newCoefficient = this.polynomial.get(power) * power;
-      int newPower = power - 1;
-      derivativePolynomial.addTerm(newCoefficient, newPower);
     }
-    return derivativePolynomial;
+    int[] derivativeCoefficients = new int[this.degree];
+    for (int power = 1; power <= this.degree; power++) {
+      derivativeCoefficients[power - 1] = this.coefficients[power] * power;
+    }
+    return policy.apply(new SimplePolynomial(derivativeCoefficients, this.degree - 1));
+  }
+
+  /**
+   * Raises this polynomial to a non-negative integer power with {@link PolynomialPower}.
+   * The result is stored as chosen by the current {@link RepresentationPolicy}.
+   *
+   * @param n the exponent.
+   * @return a new Polynomial representing this polynomial raised to the n-th power.
+   * @throws IllegalArgumentException if the exponent is negative or the degree of the
+   *                                  result does not fit in an int.
+   */
+  @Override
+  public Polynomial pow(int n) throws IllegalArgumentException {
+    return RepresentationPolicy.getCurrent().apply(PolynomialPower.pow(this, n));
+  }
+
+  /**
+   * Divides this polynomial by another with remainder using {@link PolynomialDivision}.
+   * The quotient and remainder are stored as chosen by the current
+   * {@link RepresentationPolicy}.
+   *
+   * @param divisor the polynomial to divide by.
+   * @return the quotient at index 0 and the remainder at index 1.
+   * @throws IllegalArgumentException if the divisor is null or zero, or its leading
+   *                                  coefficient is not 1 or -1.
+   */
+  @Override
+  public Polynomial[] divideAndRemainder(Polynomial divisor) throws IllegalArgumentException {
+    return PolynomialDivision.divide(this, divisor);
+  }
+
+  /**
+   * Substitutes another polynomial into this one with {@link PolynomialComposition}. The
+   * result is stored as chosen by the current {@link RepresentationPolicy}.
+   *
+   * @param inner the polynomial substituted for x.
+   * @return a new Polynomial representing this polynomial evaluated at the inner one.
+   * @throws IllegalArgumentException if the inner polynomial is null or the degree of the
+   *                                  result does not fit in an int.
+   */
+  @Override
+  public Polynomial compose(Polynomial inner) throws IllegalArgumentException {
+    return PolynomialComposition.compose(this, inner);
+  }
+
+  /**
+   * Substitutes another polynomial into this one and keeps the powers below the given
+   * length. The result is stored as chosen by the current {@link RepresentationPolicy}.
+   *
+   * @param inner  the polynomial substituted for x.
+   * @param length the number of low powers to keep.
+   * @return a new Polynomial representing the truncated composition.
+   * @throws IllegalArgumentException if the inner polynomial is null or the length is
+   *                                  negative.
+   */
+  @Override
+  public Polynomial compose(Polynomial inner, int length) throws IllegalArgumentException {
+    return PolynomialComposition.composeTruncated(this, inner, length);
   }
 
   /**
@@ -252,73 +442,178 @@ public class SimplePolynomial extends AbstractPolynomial {
     if (coefficient == 0) {
       return;
     }
-    while (power >= polynomial.size()) {
-      polynomial.add(0);
-    }
-    polynomial.set(power, polynomial.get(power) + coefficient);
-    if (polynomial.get(power) == 0) {
+    unshare();
+    invalidateFingerprint();
+    ensureCapacity(power);
+    coefficients[power] += coefficient;
+    if (power > degree) {
+      degree = power;
+    } else if (power == degree && coefficients[power] == 0) {
       trimLeadingZeros();
     }
   }
 
   /**
-   * Returns the degree of the polynomial, which is the highest power with a non-zero
-   * coefficient. If the polynomial is zero, the degree is 0.
+   * Adds all the terms given by two parallel arrays to the polynomial. The storage grows
+   * at most once, to fit the highest power among the new terms. No term is added if any
+   * of the powers is negative.
    *
-   * @return the degree of the polynomial.
+   * @param coefficients the coefficients of the terms to be added.
+   * @param powers       the powers of the terms to be added.
+   * @throws IllegalArgumentException if the arrays differ in length or a power is negative.
+   */
+  public void addTerms(int[] coefficients, int[] powers) throws IllegalArgumentException {
+    PolynomialBuilder.checkTerms(coefficients, powers);
+    int maxPower = -1;
+    for (int i = 0; i < powers.length; i++) {
+      if (coefficients[i] != 0) {
+        maxPower = Math.max(maxPower, powers[i]);
+      }
+    }
+    if (maxPower < 0) {
+      return;
+    }
+    unshare();
+    invalidateFingerprint();
+    ensureCapacity(maxPower);
+    for (int i = 0; i < powers.length; i++) {
+      if (coefficients[i] != 0) {
+        this.coefficients[powers[i]] += coefficients[i];
+      }
+    }
+    this.degree = Math.max(this.degree, maxPower);
+    trimLeadingZeros();
+  }
+
+  /**
+   * Counts the non-zero terms of this polynomial.
+   *
+   * @return the number of non-zero terms.
    */
   @Override
-  public int getDegree() {
-    return Math.max(0, polynomial.size() - 1);
+  protected int termCount() {
+    return countTerms();
   }
 
   /**
-   * Converts the polynomial into a string representation. Each term is represented
-   * in the form of `ax^b`, where `a` is the coefficient and `b` is the power.
+   * Returns a new SimplePolynomial that shares the coefficient array of this one until
+   * it is first modified.
    *
-   * @return the string representation of the polynomial.
+   * @return the copy-on-write copy.
    */
   @Override
-  public String toString() {
-    if (this.polynomial.isEmpty()) {
-      return "0";
-    }
-    StringBuilder stringPolynomial = new StringBuilder();
-    for (int power = this.polynomial.size() - 1; power >= 0; power--) {
-      int coefficient = this.polynomial.get(power);
-      if (coefficient == 0) {
-        continue;
-      }
-      if (coefficient < 0) {
-        stringPolynomial.append("-");
-      } else if (stringPolynomial.length() > 0) {
-        stringPolynomial.append("+");
-      }
-      coefficient = Math.abs(coefficient);
-      if (power == 0) {
-        stringPolynomial.append(coefficient);
-      } else {
-        stringPolynomial.append(coefficient).append("x^").append(power);
+  protected AbstractPolynomial copyOnWrite() {
+    SimplePolynomial copy = new SimplePolynomial(coefficients, degree);
+    copy.shared = true;
+    return copy;
+  }
+
+  /**
+   * Writes the non-zero terms of the polynomial in decreasing order of power.
+   *
+   * @param writer the writer receiving the terms.
+   * @throws IOException if the destination of the writer fails.
+   */
+  @Override
+  protected void writeTerms(TermWriter writer) throws IOException {
+    for (int power = this.degree; power >= 0; power--) {
+      if (this.coefficients[power] != 0) {
+        writer.writeTerm(this.coefficients[power], power);
       }
     }
-    return stringPolynomial.toString();
   }
 
   /**
-   * Evaluates the polynomial at a given value of `x` by calculating the sum of each
-   * term's coefficient multiplied by `x` raised to the power of the term.
+   * Returns an immutable polynomial with the same terms. The coefficient array is shared
+   * with it, and this polynomial copies the array before it is next modified.
+   *
+   * @return the immutable polynomial.
+   */
+  @Override
+  public Polynomial freeze() {
+    shared = true;
+    return new ImmutablePolynomial(copyOnWrite());
+  }
+
+  /**
+   * Returns a new SimplePolynomial with the same terms. The coefficient array is shared
+   * by both until either of them is modified.
+   *
+   * @return the mutable copy.
+   */
+  @Override
+  public Polynomial toMutable() {
+    shared = true;
+    return copyOnWrite();
+  }
+
+  /**
+   * Checks whether this polynomial can change, which it can.
+   *
+   * @return false.
+   */
+  @Override
+  public boolean isImmutable() {
+    return false;
+  }
+
+  /**
+   * Returns the degree of the polynomial, which is the highest power with a non-zero
+   * coefficient. If the polynomial is zero, the degree is 0.
+   *
+   * @return the degree of the polynomial.
+   */
+  @Override
+  public int getDegree() {
+    return Math.max(0, degree);
+  }
+
+  /**
+   * Evaluates the polynomial at a given value of `x` with Horner's scheme, folding the
+   * coefficients from the highest power down with one multiplication and one addition
+   * per power.
    *
    * @param x the value at which the polynomial is to be evaluated.
    * @return the result of the evaluation.
    */
   @Override
   public double evaluate(double x) {
-    double ans = 0;
-    for (int power = 0; power < polynomial.size(); power++) {
-      int coefficient = polynomial.get(power);
-      ans += coefficient * Math.pow(x, power);
-    }
-    return ans;
+    return HornerEvaluator.evaluateDense(coefficients, degree, x);
+  }
+
+  /**
+   * Evaluates the polynomial at the points in the given index range, see
+   * {@link HornerEvaluator}.
+   *
+   * @param xs   the points.
+   * @param out  the array receiving the values, at the same indices as the points.
+   * @param from the index of the first point to evaluate.
+   * @param to   the index after the last point to evaluate.
+   */
+  @Override
+  protected void evaluateRange(double[] xs, double[] out, int from, int to) {
+    HornerEvaluator.evaluateDense(coefficients, degree, xs, out, from, to);
+  }
+
+  /**
+   * Estimates the steps needed to evaluate the polynomial at one point, one per power.
+   *
+   * @return the estimated number of steps per point.
+   */
+  @Override
+  protected long evaluationSteps() {
+    return degree + 1L;
+  }
+
+  /**
+   * Evaluates the polynomial at a given value of `x` with the compensated Horner scheme.
+   *
+   * @param x the value at which the polynomial is to be evaluated.
+   * @return the result of the evaluation and a bound on its error.
+   */
+  @Override
+  public EvaluationResult evaluateCompensated(double x) {
+    return HornerEvaluator.evaluateDenseCompensated(coefficients, degree, x);
   }
 
   /**
@@ -333,10 +628,10 @@ public class SimplePolynomial extends AbstractPolynomial {
     if (power < 0) {
       return 0;
     }
-    if (power >= polynomial.size()) {
+    if (power > degree) {
       return 0;
     }
-    return polynomial.get(power);
+    return coefficients[power];
   }
 
 }
@@ -0,0 +1,426 @@
+package polynomial;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The SparseModularPolynomial class is a polynomial over Z/pZ that stores only its
+ * non-zero terms, in parallel arrays of powers in decreasing order and residues, like
+ * {@link SparsePolynomial} does for int coefficients. Every residue is an int in
+ * [0, modulus), so a power and a residue pack into one non-negative long. Products use
+ * this: the term products of a block of terms are packed, sorted as plain longs and
+ * combined in one pass, which avoids any per-term objects.
+ */
+public class SparseModularPolynomial extends AbstractModularPolynomial {
+
+  /**
+   * The largest number of term products sorted at once.
+   */
+  static final int BLOCK_PRODUCTS = 1 << 20;
+
+  private int[] powers;
+  private int[] coefficients;
+  private int size;
+
+  /**
+   * Constructs the zero polynomial over the given ring.
+   *
+   * @param context the ring of the coefficients.
+   * @throws IllegalArgumentException if the context is null.
+   */
+  public SparseModularPolynomial(ModularContext context) throws IllegalArgumentException {
+    this(context, new int[4], new int[4], 0);
+  }
+
+  /**
+   * Constructor that takes ownership of term arrays whose first size entries hold
+   * non-zero residues in decreasing order of power.
+   *
+   * @param context      the ring of the coefficients.
+   * @param powers       the powers.
+   * @param coefficients the residues.
+   * @param size         the number of terms.
+   */
+  SparseModularPolynomial(ModularContext context, int[] powers, int[] coefficients, int size) {
+    super(context);
+    this.powers = powers;
+    this.coefficients = coefficients;
+    this.size = size;
+  }
+
+  /**
+   * Returns the array of powers. It is shared, not copied, and must not be modified by
+   * the caller.
+   *
+   * @return the powers, in decreasing order in the first getTermCount() slots.
+   */
+  int[] getPowerArray() {
+    return powers;
+  }
+
+  /**
+   * Returns the array of residues. It is shared, not copied, and must not be modified by
+   * the caller.
+   *
+   * @return the residues, parallel to the powers.
+   */
+  int[] getCoefficientArray() {
+    return coefficients;
+  }
+
+  /**
+   * Returns the number of terms.
+   *
+   * @return the number of non-zero terms.
+   */
+  int getTermCount() {
+    return size;
+  }
+
+  /**
+   * Returns this polynomial, which is already sparse.
+   *
+   * @return this polynomial.
+   */
+  @Override
+  SparseModularPolynomial toSparseModular() {
+    return this;
+  }
+
+  /**
+   * Adds a polynomial over the same ring by merging the terms of both.
+   *
+   * @param other the other polynomial, with the same modulus.
+   * @return the sparse sum.
+   */
+  @Override
+  AbstractModularPolynomial addModular(AbstractModularPolynomial other) {
+    SparseModularPolynomial sparse = other.toSparseModular();
+    ModularContext context = getContext();
+    int[] sumPowers = new int[this.size + sparse.size];
+    int[] sumCoefficients = new int[sumPowers.length];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < this.size || j < sparse.size) {
+      int power;
+      long residue;
+      if (j == sparse.size || (i < this.size && this.powers[i] > sparse.powers[j])) {
+        power = this.powers[i];
+        residue = this.coefficients[i++];
+      } else if (i == this.size || sparse.powers[j] > this.powers[i]) {
+        power = sparse.powers[j];
+        residue = sparse.coefficients[j++];
+      } else {
+        power = this.powers[i];
+        residue = context.add(this.coefficients[i++], sparse.coefficients[j++]);
+      }
+      if (residue != 0) {
+        sumPowers[count] = power;
+        sumCoefficients[count] = (int) residue;
+        count++;
+      }
+    }
+    return new SparseModularPolynomial(context, sumPowers, sumCoefficients, count);
+  }
+
+  /**
+   * Multiplies with a polynomial over the same ring. The terms of the shorter operand are
+   * taken in blocks, so that at most BLOCK_PRODUCTS term products are sorted at once, and
+   * the block products are added together.
+   *
+   * @param other the other polynomial, with the same modulus.
+   * @return the sparse product.
+   * @throws IllegalArgumentException if a power of the product does not fit in an int.
+   */
+  @Override
+  AbstractModularPolynomial multiplyModular(AbstractModularPolynomial other)
+          throws IllegalArgumentException {
+    SparseModularPolynomial outer = this;
+    SparseModularPolynomial inner = other.toSparseModular();
+    if (outer.size > inner.size) {
+      SparseModularPolynomial swap = outer;
+      outer = inner;
+      inner = swap;
+    }
+    ModularContext context = getContext();
+    if (outer.size == 0) {
+      return new SparseModularPolynomial(context);
+    }
+    if ((long) outer.powers[0] + inner.powers[0] > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Power of the product is too large.");
+    }
+    int block = Math.max(1, BLOCK_PRODUCTS / inner.size);
+    AbstractModularPolynomial product = null;
+    for (int from = 0; from < outer.size; from += block) {
+      int to = Math.min(outer.size, from + block);
+      long[] keys = new long[(to - from) * inner.size];
+      int n = 0;
+      for (int i = from; i < to; i++) {
+        long residue = outer.coefficients[i];
+        long power = outer.powers[i];
+        for (int j = 0; j < inner.size; j++) {
+          keys[n++] = (power + inner.powers[j]) << 31
+                  | context.multiply(residue, inner.coefficients[j]);
+        }
+      }
+      Arrays.sort(keys);
+      SparseModularPolynomial partial = combine(context, keys);
+      product = product == null ? partial : product.addModular(partial);
+    }
+    return product;
+  }
+
+  /**
+   * Combines sorted packed term products into a polynomial.
+   *
+   * @param context the ring of the coefficients.
+   * @param keys    the packed products, power in the high bits, sorted in increasing order.
+   * @return the polynomial with the like terms added together.
+   */
+  private static SparseModularPolynomial combine(ModularContext context, long[] keys) {
+    int[] productPowers = new int[keys.length];
+    int[] productCoefficients = new int[keys.length];
+    int count = 0;
+    int k = keys.length - 1;
+    while (k >= 0) {
+      int power = (int) (keys[k] >>> 31);
+      long residue = 0;
+      while (k >= 0 && (int) (keys[k] >>> 31) == power) {
+        residue = context.add(residue, keys[k] & Integer.MAX_VALUE);
+        k--;
+      }
+      if (residue != 0) {
+        productPowers[count] = power;
+        productCoefficients[count] = (int) residue;
+        count++;
+      }
+    }
+    return new SparseModularPolynomial(context, productPowers, productCoefficients, count);
+  }
+
+  /**
+   * Returns the constant polynomial 1.
+   *
+   * @return the sparse polynomial 1.
+   */
+  @Override
+  AbstractModularPolynomial one() {
+    return new SparseModularPolynomial(getContext(), new int[]{0}, new int[]{1}, 1);
+  }
+
+  /**
+   * Computes the derivative of this polynomial in the ring.
+   *
+   * @return a new SparseModularPolynomial representing the derivative.
+   */
+  @Override
+  public Polynomial derivative() {
+    ModularContext context = getContext();
+    int[] derivativePowers = new int[size];
+    int[] derivativeCoefficients = new int[size];
+    int count = 0;
+    for (int i = 0; i < size && powers[i] > 0; i++) {
+      long residue = context.multiply(coefficients[i], context.reduce(powers[i]));
+      if (residue != 0) {
+        derivativePowers[count] = powers[i] - 1;
+        derivativeCoefficients[count] = (int) residue;
+        count++;
+      }
+    }
+    return new SparseModularPolynomial(context, derivativePowers, derivativeCoefficients,
+            count);
+  }
+
+  /**
+   * Evaluates the polynomial at a residue of the ring with Horner's scheme, raising the
+   * value to the gap between consecutive powers by repeated squaring.
+   *
+   * @param x the value at which the polynomial is to be evaluated, reduced first.
+   * @return the value of the polynomial, in [0, modulus).
+   */
+  @Override
+  public long evaluateModular(long x) {
+    ModularContext context = getContext();
+    long point = context.reduce(x);
+    long value = 0;
+    for (int i = 0; i < size; i++) {
+      value = context.add(value, coefficients[i]);
+      int gap = i + 1 < size ? powers[i] - powers[i + 1] : powers[i];
+      value = context.multiply(value, context.pow(point, gap));
+    }
+    return value;
+  }
+
+  /**
+   * Adds a term to the polynomial after reducing its coefficient.
+   *
+   * @param coefficient the coefficient of the term to be added.
+   * @param power       the power of the term to be added.
+   * @throws IllegalArgumentException if the power is negative.
+   */
+  @Override
+  public void addTerm(int coefficient, int power) throws IllegalArgumentException {
+    if (power < 0) {
+      throw new IllegalArgumentException("Power cannot be negative.");
+    }
+    ModularContext context = getContext();
+    long residue = context.reduce(coefficient);
+    if (residue == 0) {
+      return;
+    }
+    invalidateFingerprint();
+    int index = indexOf(power);
+    if (index >= 0) {
+      coefficients[index] = (int) context.add(coefficients[index], residue);
+      if (coefficients[index] == 0) {
+        System.arraycopy(powers, index + 1, powers, index, size - index - 1);
+        System.arraycopy(coefficients, index + 1, coefficients, index, size - index - 1);
+        size--;
+      }
+      return;
+    }
+    int insertion = -(index + 1);
+    if (size == powers.length) {
+      int capacity = Math.max(4, size * 2);
+      powers = Arrays.copyOf(powers, capacity);
+      coefficients = Arrays.copyOf(coefficients, capacity);
+    }
+    System.arraycopy(powers, insertion, powers, insertion + 1, size - insertion);
+    System.arraycopy(coefficients, insertion, coefficients, insertion + 1, size - insertion);
+    powers[insertion] = power;
+    coefficients[insertion] = (int) residue;
+    size++;
+  }
+
+  /**
+   * Finds the index of a power with a binary search over the decreasing powers.
+   *
+   * @param power the power to find.
+   * @return the index of the power, or -(insertion point + 1) if it is not present.
+   */
+  private int indexOf(int power) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (powers[middle] == power) {
+        return middle;
+      } else if (powers[middle] > power) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * Returns the degree of the polynomial.
+   *
+   * @return the highest power with a non-zero residue, or 0 for the zero polynomial.
+   */
+  @Override
+  public int getDegree() {
+    return size == 0 ? 0 : powers[0];
+  }
+
+  /**
+   * Evaluates the polynomial at a real value, with the residues as coefficients.
+   *
+   * @param x the value at which the polynomial is to be evaluated.
+   * @return the result of the evaluation.
+   */
+  @Override
+  public double evaluate(double x) {
+    return HornerEvaluator.evaluateSparse(powers, coefficients, size, x);
+  }
+
+  /**
+   * Evaluates the polynomial at a real value with compensated arithmetic, with the
+   * residues as coefficients.
+   *
+   * @param x the value at which the polynomial is to be evaluated.
+   * @return the result of the evaluation and a bound on its error.
+   */
+  @Override
+  public EvaluationResult evaluateCompensated(double x) {
+    return HornerEvaluator.evaluateSparseCompensated(powers, coefficients, size, x);
+  }
+
+  /**
+   * Evaluates the polynomial at the points in the given index range.
+   *
+   * @param xs   the points.
+   * @param out  the array receiving the values, at the same indices as the points.
+   * @param from the index of the first point to evaluate.
+   * @param to   the index after the last point to evaluate.
+   */
+  @Override
+  protected void evaluateRange(double[] xs, double[] out, int from, int to) {
+    HornerEvaluator.evaluateSparse(powers, coefficients, size, xs, out, from, to);
+  }
+
+  /**
+   * Estimates the steps needed to evaluate the polynomial at one point, one per term plus
+   * the squarings needed to bridge the average gap between powers.
+   *
+   * @return the estimated number of steps per point.
+   */
+  @Override
+  protected long evaluationSteps() {
+    if (size == 0) {
+      return 1;
+    }
+    int gap = powers[0] / size + 1;
+    return size * (2L + Integer.SIZE - Integer.numberOfLeadingZeros(gap));
+  }
+
+  /**
+   * Returns the number of terms of this polynomial.
+   *
+   * @return the number of non-zero terms.
+   */
+  @Override
+  protected int termCount() {
+    return size;
+  }
+
+  /**
+   * Returns a mutable copy of this polynomial.
+   *
+   * @return the copy.
+   */
+  @Override
+  protected AbstractPolynomial copyOnWrite() {
+    int capacity = Math.max(size, 4);
+    return new SparseModularPolynomial(getContext(), Arrays.copyOf(powers, capacity),
+            Arrays.copyOf(coefficients, capacity), size);
+  }
+
+  /**
+   * Writes the non-zero terms of the polynomial in decreasing order of power, with the
+   * residues as coefficients.
+   *
+   * @param writer the writer receiving the terms.
+   * @throws IOException if the destination of the writer fails.
+   */
+  @Override
+  protected void writeTerms(TermWriter writer) throws IOException {
+    for (int i = 0; i < size; i++) {
+      writer.writeResidue(coefficients[i], powers[i]);
+    }
+  }
+
+  /**
+   * Returns the residue of the given power.
+   *
+   * @param power the power whose coefficient is sought.
+   * @return the residue, in [0, modulus), or 0 if the power is not present.
+   */
+  @Override
+  public int getCoefficient(int power) {
+    int index = indexOf(power);
+    return index >= 0 ? coefficients[index] : 0;
+  }
+}
@@ -1,6 +1,7 @@
 package polynomial;
 
-import java.util.Objects;
+import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * This is the SparsePolynomial class which represents a polynomial with terms
@@ -8,117 +9,262 @@ import java.util.Objects;
  * adding terms, adding polynomials, multiplying polynomials, calculating the derivative,
  * getting coefficients, evaluating the polynomial at a value, generating a string
  * representation, and checking equality with another polynomial. The polynomial is
- * represented using a linked list, initialized through a separate PolynomialNode class.
+ * represented using two parallel primitive arrays of powers and coefficients, kept sorted
+ * in decreasing order of power, so that the terms are stored contiguously in memory.
  */
 public class SparsePolynomial extends AbstractPolynomial {
 
-  private PolynomialNode head;
+  private static final int INITIAL_CAPACITY = 4;
 
   /**
-   * Adds a SimplePolynomial to this SparsePolynomial. Each term from the simple
-   * polynomial is added to the sparse polynomial by traversing the nodes.
+   * How many times longer than its number of terms a sparse operand may be to still be
+   * converted and multiplied densely by a dense one.
+   */
+  private static final int DENSE_RATIO = 8;
+
+  /**
+   * The longest dense accumulator a product of a sparse and a dense operand is collected in.
+   */
+  private static final int MAX_ACCUMULATOR = Integer.MAX_VALUE - 8;
+
+  private int[] powers;
+  private int[] coefficients;
+  private int size;
+  private boolean shared;
+
+  /**
+   * Private helper method to find the index of the term with the given power. The powers
+   * are sorted in decreasing order, so a binary search is used.
+   *
+   * @param power the power to look for.
+   * @return the index of the term if present, otherwise (-(insertion point) - 1).
+   */
+  private int indexOf(int power) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midPower = powers[mid];
+      if (midPower > power) {
+        low = mid + 1;
+      } else if (midPower < power) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * Private helper method to take private copies of the term arrays before they are
+   * modified, if the arrays are shared with a frozen or copied polynomial.
+   */
+  private void unshare() {
+    if (shared) {
+      powers = powers.clone();
+      coefficients = coefficients.clone();
+      shared = false;
+    }
+  }
+
+  /**
+   * Private helper method to make sure the term arrays can hold one more term.
+   * The arrays grow geometrically so that appending terms stays amortized constant time.
+   */
+  private void ensureCapacity() {
+    if (size < powers.length) {
+      return;
+    }
+    int newLength = Math.max(INITIAL_CAPACITY, powers.length * 2);
+    powers = Arrays.copyOf(powers, newLength);
+    coefficients = Arrays.copyOf(coefficients, newLength);
+  }
+
+  /**
+   * Adds a SimplePolynomial to this SparsePolynomial. The dense coefficients are walked
+   * from the highest power down alongside the sorted sparse terms, so the result is merged
+   * in one linear pass into term arrays sized once for the worst case.
    *
    * @param other the SimplePolynomial to add.
    * @return the resulting polynomial after the addition.
    */
   @Override
   protected Polynomial addSimple(SimplePolynomial other) {
-    Polynomial additionPolynomial = new SparsePolynomial();
-    for (int power = 0; power <= other.getDegree(); power++) {
-      if (other.getCoefficient(power) != 0) {
-        additionPolynomial.addTerm(other.getCoefficient(power), power);
+    int[] dense = other.getCoefficientArray();
+    int power = other.getHighestPower();
+    int nonZero = 0;
+    for (int p = 0; p <= power; p++) {
+      if (dense[p] != 0) {
+        nonZero++;
       }
     }
-    PolynomialNode tempHead = this.head;
-    while (tempHead != null) {
-      additionPolynomial.addTerm(tempHead.getCoefficient(), tempHead.getPower());
-      tempHead = tempHead.getNext();
+    int capacity = this.size + nonZero;
+    int[] sumPowers = new int[capacity];
+    int[] sumCoefficients = new int[capacity];
+    int count = 0;
+    int i = 0;
+    while (i < this.size || power >= 0) {
+      int coefficient;
+      int termPower;
+      if (power < 0 || (i < this.size && this.powers[i] > power)) {
+        termPower = this.powers[i];
+        coefficient = this.coefficients[i++];
+      } else if (i == this.size || this.powers[i] < power) {
+        termPower = power;
+        coefficient = dense[power--];
+      } else {
+        termPower = power;
+        coefficient = dense[power--] + this.coefficients[i++];
+      }
+      if (coefficient != 0) {
+        sumPowers[count] = termPower;
+        sumCoefficients[count] = coefficient;
+        count++;
+      }
     }
-    return additionPolynomial;
+    return new SparsePolynomial(sumPowers, sumCoefficients, count);
   }
 
   /**
-   * Adds two sparse polynomials. It traverses both polynomials and also combines
-   * the terms with matching powers.
+   * Adds two sparse polynomials. Both sorted term arrays are merged with two cursors,
+   * combining the terms with matching powers, so the result is produced in one linear
+   * pass into term arrays sized once for the worst case. The result is always a new
+   * polynomial, even when one of the operands is zero.
    *
    * @param other the SparsePolynomial to add.
    * @return the resulting polynomial after the addition.
    */
   @Override
   protected Polynomial addSparse(SparsePolynomial other) {
-    Polynomial additionPolynomial = new SparsePolynomial();
-    if (this.head == null) {
-      return other;
-    } else if (other.head == null) {
-      return this;
-    } else {
-      PolynomialNode thisPolynomialHead = this.head;
-      while (thisPolynomialHead != null) {
-        additionPolynomial.addTerm(thisPolynomialHead.getCoefficient(),
-                thisPolynomialHead.getPower());
-        thisPolynomialHead = thisPolynomialHead.getNext();
+    int capacity = this.size + other.size;
+    int[] sumPowers = new int[capacity];
+    int[] sumCoefficients = new int[capacity];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < this.size || j < other.size) {
+      int coefficient;
+      int termPower;
+      if (j == other.size || (i < this.size && this.powers[i] > other.powers[j])) {
+        termPower = this.powers[i];
+        coefficient = this.coefficients[i++];
+      } else if (i == this.size || this.powers[i] < other.powers[j]) {
+        termPower = other.powers[j];
+        coefficient = other.coefficients[j++];
+      } else {
+        termPower = this.powers[i];
+        coefficient = this.coefficients[i++] + other.coefficients[j++];
       }
-      PolynomialNode thatPolynomialHead = other.head;
-      while (thatPolynomialHead != null) {
-        additionPolynomial.addTerm(thatPolynomialHead.getCoefficient(),
-                thatPolynomialHead.getPower());
-        thatPolynomialHead = thatPolynomialHead.getNext();
+      if (coefficient != 0) {
+        sumPowers[count] = termPower;
+        sumCoefficients[count] = coefficient;
+        count++;
       }
     }
-    return additionPolynomial;
+    return new SparsePolynomial(sumPowers, sumCoefficients, count);
   }
 
   /**
-   * Multiplies this SparsePolynomial with a SimplePolynomial. Each term of the
-   * simple polynomial is multiplied by each term of the sparse polynomial.
+   * Multiplies this SparsePolynomial with a SimplePolynomial without buffering the term
+   * products. A sparse operand that is at least one in DENSE_RATIO dense is converted and
+   * multiplied with the dense kernels. Otherwise, if the product has no more powers than
+   * there are term products, every term is multiplied into a dense accumulator as long as
+   * the product, and if not, the dense operand is converted and multiplied with Johnson's
+   * algorithm, whose working memory is linear in the number of terms. Under an adaptive
+   * {@link RepresentationPolicy} dense products are returned as they are, and the policy
+   * converts them only if the sparse form is preferred. Large products are split across
+   * threads by the ParallelMultiplier on every path.
    *
    * @param other the SimplePolynomial to multiply.
    * @return the resulting polynomial after the multiplication.
+   * @throws IllegalArgumentException if a power of the product does not fit in an int.
    */
   @Override
   protected Polynomial multiplySimple(SimplePolynomial other) {
-    Polynomial multiplyPolynomial = new SparsePolynomial();
-    PolynomialNode tempHead = this.head;
-    while (tempHead != null) {
-      for (int power = 0; power <= other.getDegree(); power++) {
-        int newCoefficient = other.getCoefficient(power) * tempHead.getCoefficient();
-        int newPower = power + tempHead.getPower();
-        multiplyPolynomial.addTerm(newCoefficient, newPower);
+    int otherDegree = other.getHighestPower();
+    if (this.size == 0 || otherDegree < 0) {
+      return new SparsePolynomial();
+    }
+    boolean adaptive = RepresentationPolicy.getCurrent().isAdaptive();
+    if (this.powers[0] + 1L <= (long) DENSE_RATIO * this.size) {
+      Polynomial product = this.toSimple().multiplySimple(other);
+      return adaptive ? product : toSparse(product);
+    }
+    long length = (long) this.powers[0] + otherDegree + 1;
+    long products = (long) this.size * (otherDegree + 1);
+    if (length <= products && length <= MAX_ACCUMULATOR) {
+      int[] product;
+      int parts = ParallelMultiplier.parts(this.size, products);
+      if (parts > 1) {
+        product = ParallelMultiplier.multiplyMixed(this, other, parts);
+      } else {
+        product = new int[(int) length];
+        accumulate(this.powers, this.coefficients, 0, this.size,
+                other.getCoefficientArray(), otherDegree + 1, product, 0);
       }
-      tempHead = tempHead.getNext();
+      SimplePolynomial simple = new SimplePolynomial(product, product.length - 1);
+      return adaptive ? simple : toSparse(simple);
     }
-    return multiplyPolynomial;
+    return this.multiplySparse(other.toSparse(other.countTerms()));
   }
 
   /**
-   * Multiplies two SparsePolynomials. Each term from one polynomial is multiplied
-   * with every term from the other polynomial.
+   * Multiplies the terms from index from up to index to of a sparse polynomial by every
+   * coefficient of a dense one and adds the products into an accumulator, where the
+   * coefficient of power k is stored at index k - offset.
+   *
+   * @param powers       the powers of the sparse polynomial.
+   * @param coefficients the coefficients of the sparse polynomial.
+   * @param from         the index of the first term to multiply.
+   * @param to           the index after the last term to multiply.
+   * @param dense        the coefficients of the dense polynomial.
+   * @param denseLength  the number of coefficients of the dense polynomial.
+   * @param product      the accumulator.
+   * @param offset       the power stored at index 0 of the accumulator.
+   */
+  static void accumulate(int[] powers, int[] coefficients, int from, int to, int[] dense,
+                         int denseLength, int[] product, int offset) {
+    for (int i = from; i < to; i++) {
+      int coefficient = coefficients[i];
+      int base = powers[i] - offset;
+      for (int k = 0; k < denseLength; k++) {
+        product[base + k] += coefficient * dense[k];
+      }
+    }
+  }
+
+  /**
+   * Private helper method to bring a product computed by the dense kernels back into the
+   * sparse representation.
+   *
+   * @param product the product, a SimplePolynomial or a SparsePolynomial.
+   * @return the product as a SparsePolynomial.
+   */
+  private static SparsePolynomial toSparse(Polynomial product) {
+    if (product instanceof SimplePolynomial) {
+      SimplePolynomial simple = (SimplePolynomial) product;
+      return simple.toSparse(simple.countTerms());
+    }
+    return (SparsePolynomial) product;
+  }
+
+  /**
+   * Multiplies two SparsePolynomials with Johnson's heap algorithm, which emits the
+   * product terms in decreasing order of power directly into the result. Large products
+   * are split across threads by the ParallelMultiplier.
    *
    * @param other the SparsePolynomial to multiply.
    * @return the resulting polynomial after the multiplication.
    */
   @Override
   protected Polynomial multiplySparse(SparsePolynomial other) {
-    Polynomial multiplyPolynomial = new SparsePolynomial();
-    if (this.head == null) {
-      return multiplyPolynomial;
-    } else if (other.head == null) {
-      return multiplyPolynomial;
-    } else {
-      PolynomialNode thisPolynomialHead = this.head;
-      while (thisPolynomialHead != null) {
-        PolynomialNode thatPolynomialHead = other.head;
-        while (thatPolynomialHead != null) {
-          int newCoefficient = thisPolynomialHead.getCoefficient()
-                  * thatPolynomialHead.getCoefficient();
-          int newPower = thatPolynomialHead.getPower() + thisPolynomialHead.getPower();
-          multiplyPolynomial.addTerm(newCoefficient, newPower);
-          thatPolynomialHead = thatPolynomialHead.getNext();
-        }
-        thisPolynomialHead = thisPolynomialHead.getNext();
-      }
+    int parts = ParallelMultiplier.parts(Math.min(this.size, other.size),
+            (long) this.size * other.size);
+    if (parts > 1) {
+      return ParallelMultiplier.multiplySparse(this, other, parts);
     }
-    return multiplyPolynomial;
+    return JohnsonMultiplier.multiply(this, other);
   }
 
   /**
@@ -130,23 +276,23 @@ public class SparsePolynomial extends AbstractPolynomial {
    */
   @Override
   protected boolean compareSimple(SimplePolynomial other) {
-    PolynomialNode tempHead = this.head;
+    int index = 0;
     for (int power = other.getDegree(); power >= 0; power--) {
       int otherCoefficient = other.getCoefficient(power);
       if (otherCoefficient == 0) {
         continue;
       }
-      if (tempHead == null || tempHead.getPower() != power
-              || tempHead.getCoefficient() != otherCoefficient) {
+      if (index == this.size || this.powers[index] != power
+              || this.coefficients[index] != otherCoefficient) {
         return false;
       }
-      tempHead = tempHead.getNext();
+      index++;
     }
-    return tempHead == null;
+    return index == this.size;
   }
 
   /**
-   * Compares two SparsePolynomials by traversing their terms and checking for equality
+   * Compares two SparsePolynomials by scanning their terms and checking for equality
    * of the coefficients and powers.
    *
    * @param other the SparsePolynomial to compare.
@@ -154,17 +300,16 @@ public class SparsePolynomial extends AbstractPolynomial {
    */
   @Override
   protected boolean compareSparse(SparsePolynomial other) {
-    PolynomialNode thisTempHead = this.head;
-    PolynomialNode otherTempHead = other.head;
-    while (thisTempHead != null && otherTempHead != null) {
-      if (thisTempHead.getCoefficient() != otherTempHead.getCoefficient()
-              || thisTempHead.getPower() != otherTempHead.getPower()) {
+    if (this.size != other.size) {
+      return false;
+    }
+    for (int i = 0; i < this.size; i++) {
+      if (this.coefficients[i] != other.coefficients[i]
+              || this.powers[i] != other.powers[i]) {
         return false;
       }
-      thisTempHead = thisTempHead.getNext();
-      otherTempHead = otherTempHead.getNext();
     }
-    return thisTempHead == null && otherTempHead == null;
+    return true;
   }
 
   /**
@@ -183,34 +328,91 @@ public class SparsePolynomial extends AbstractPolynomial {
   }
 
   /**
-   * Generates a hash code for this SparsePolynomial based on its terms, using
-   * a combination of the coefficients and powers.
+   * Generates the fingerprint of this SparsePolynomial from its terms.
    *
-   * @return the generated hash code.
+   * @return the generated fingerprint.
    */
   @Override
-  protected int generateHash() {
-    int hash = 1;
-    PolynomialNode currentNode = this.head;
-    while (currentNode != null) {
-      Integer coefficient = currentNode.getCoefficient();
-      Integer power = currentNode.getPower();
-      hash = hash + coefficient.hashCode();
-      hash = hash + power.hashCode();
-      currentNode = currentNode.getNext();
+  protected long generateFingerprint() {
+    long sum = 0;
+    for (int i = 0; i < this.size; i++) {
+      sum += mixTerm(this.coefficients[i], this.powers[i]);
     }
-    return hash;
+    return finishFingerprint(sum, this.size);
   }
 
   /**
    * Default constructor for SparsePolynomial, initializes an empty polynomial.
    */
   public SparsePolynomial() {
-    this.head = null;
+    this.powers = new int[0];
+    this.coefficients = new int[0];
+    this.size = 0;
+  }
+
+  /**
+   * Constructor that takes ownership of existing term arrays. The powers must be distinct
+   * and sorted in decreasing order, and the first size coefficients must be non-zero.
+   *
+   * @param powers       the powers of the terms.
+   * @param coefficients the coefficients of the terms.
+   * @param size         the number of terms in use.
+   */
+  SparsePolynomial(int[] powers, int[] coefficients, int size) {
+    this.powers = powers;
+    this.coefficients = coefficients;
+    this.size = size;
+  }
+
+  /**
+   * Returns the array backing the powers of this polynomial, sorted in decreasing order.
+   * The array is shared, not copied, and must not be modified by the caller.
+   *
+   * @return the backing power array.
+   */
+  int[] getPowerArray() {
+    return powers;
+  }
+
+  /**
+   * Returns the array backing the coefficients of this polynomial, parallel to the powers.
+   * The array is shared, not copied, and must not be modified by the caller.
+   *
+   * @return the backing coefficient array.
+   */
+  int[] getCoefficientArray() {
+    return coefficients;
+  }
+
+  /**
+   * Returns the number of non-zero terms of this polynomial.
+   *
+   * @return the number of terms in use in the backing arrays.
+   */
+  int getTermCount() {
+    return size;
+  }
+
+  /**
+   * Converts this polynomial to the dense representation.
+   *
+   * @return a new SimplePolynomial with the same terms.
+   */
+  SimplePolynomial toSimple() {
+    if (size == 0) {
+      return new SimplePolynomial();
+    }
+    int[] dense = new int[powers[0] + 1];
+    for (int i = 0; i < size; i++) {
+      dense[powers[i]] = coefficients[i];
+    }
+    return new SimplePolynomial(dense, powers[0]);
   }
 
   /**
-   * Adds another polynomial to this SparsePolynomial.
+   * Adds another polynomial to this SparsePolynomial. The result is stored as chosen by
+   * the current {@link RepresentationPolicy}. An adaptive policy chooses the representation
+   * before the sum is computed.
    *
    * @param other the polynomial to add.
    * @return the resulting polynomial after the addition.
@@ -218,13 +420,18 @@ public class SparsePolynomial extends AbstractPolynomial {
   @Override
   public Polynomial add(Polynomial other) {
     if (other instanceof AbstractPolynomial) {
+      RepresentationPolicy policy = RepresentationPolicy.getCurrent();
+      if (policy.isAdaptive()) {
+        return policy.apply(policy.add(this, (AbstractPolynomial) other));
+      }
       return ((AbstractPolynomial) other).addSparse(this);
     }
     return new SparsePolynomial();
   }
 
   /**
-   * Multiplies another polynomial with this SparsePolynomial.
+   * Multiplies another polynomial with this SparsePolynomial. The result is stored as
+   * chosen by the current {@link RepresentationPolicy}.
    *
    * @param other the polynomial to multiply.
    * @return the resulting polynomial after the multiplication.
@@ -232,37 +439,104 @@ public class SparsePolynomial extends AbstractPolynomial {
   @Override
   public Polynomial multiply(Polynomial other) {
     if (other instanceof AbstractPolynomial) {
-      return ((AbstractPolynomial) other).multiplySparse(this);
+      return RepresentationPolicy.getCurrent().apply(
+              ((AbstractPolynomial) other).multiplySparse(this));
     } else {
       return new SparsePolynomial();
     }
   }
 
   /**
-   * Computes the derivative of this SparsePolynomial by differentiating each term.
+   * Computes the derivative of this SparsePolynomial by differentiating each term. The
+   * result is stored as chosen by the current {@link RepresentationPolicy}, and an adaptive
+   * policy that prefers the dense form for the shape of this polynomial gets the derivative
+   * built dense directly.
    *
    * @return the resulting polynomial after differentiation.
    */
   @Override
   public Polynomial derivative() {
-    Polynomial derivativePolynomial = new SparsePolynomial();
-    if (this.head == null) {
-      return derivativePolynomial;
-    }
-    PolynomialNode tempHead = this.head;
-    while (tempHead != null) {
-      if (tempHead.getPower() > 0) {
-        int newCoefficient = tempHead.getCoefficient() * tempHead.getPower();
-        int newPower = tempHead.getPower() - 1;
+    RepresentationPolicy policy = RepresentationPolicy.getCurrent();
+    if (policy.isAdaptive() && this.size > 0 && this.powers[0] > 0
+            && policy.prefersDense(this.size, this.powers[0] - 1)) {
+      int[] derivativeCoefficients = new int[this.powers[0]];
+      for (int i = 0; i < this.size && this.powers[i] > 0; i++) {
+        derivativeCoefficients[this.powers[i] - 1] = this.coefficients[i] * this.powers[i];
+      }
+      return policy.apply(new SimplePolynomial(derivativeCoefficients, this.powers[0] - 1));
+    }
+    PolynomialBuilder derivativePolynomial = new PolynomialBuilder(this.size);
+    for (int i = 0; i < this.size; i++) {
+      if (this.powers[i] > 0) {
+        int newCoefficient = this.coefficients[i] * this.powers[i];
+        int newPower = this.powers[i] - 1;
         derivativePolynomial.addTerm(newCoefficient, newPower);
       }
-      tempHead = tempHead.getNext();
     }
-    return derivativePolynomial;
+    return policy.apply(derivativePolynomial.buildSparse());
+  }
+
+  /**
+   * Raises this polynomial to a non-negative integer power with {@link PolynomialPower}.
+   * The result is stored as chosen by the current {@link RepresentationPolicy}.
+   *
+   * @param n the exponent.
+   * @return a new Polynomial representing this polynomial raised to the n-th power.
+   * @throws IllegalArgumentException if the exponent is negative or the degree of the
+   *                                  result does not fit in an int.
+   */
+  @Override
+  public Polynomial pow(int n) throws IllegalArgumentException {
+    return RepresentationPolicy.getCurrent().apply(PolynomialPower.pow(this, n));
+  }
+
+  /**
+   * Divides this polynomial by another with remainder using {@link PolynomialDivision}.
+   * The quotient and remainder are stored as chosen by the current
+   * {@link RepresentationPolicy}.
+   *
+   * @param divisor the polynomial to divide by.
+   * @return the quotient at index 0 and the remainder at index 1.
+   * @throws IllegalArgumentException if the divisor is null or zero, or its leading
+   *                                  coefficient is not 1 or -1.
+   */
+  @Override
+  public Polynomial[] divideAndRemainder(Polynomial divisor) throws IllegalArgumentException {
+    return PolynomialDivision.divide(this, divisor);
+  }
+
+  /**
+   * Substitutes another polynomial into this one with {@link PolynomialComposition}. The
+   * result is stored as chosen by the current {@link RepresentationPolicy}.
+   *
+   * @param inner the polynomial substituted for x.
+   * @return a new Polynomial representing this polynomial evaluated at the inner one.
+   * @throws IllegalArgumentException if the inner polynomial is null or the degree of the
+   *                                  result does not fit in an int.
+   */
+  @Override
+  public Polynomial compose(Polynomial inner) throws IllegalArgumentException {
+    return PolynomialComposition.compose(this, inner);
   }
 
   /**
-   * Adds a term to the polynomial with the given coefficient and power.
+   * Substitutes another polynomial into this one and keeps the powers below the given
+   * length. The result is stored as chosen by the current {@link RepresentationPolicy}.
+   *
+   * @param inner  the polynomial substituted for x.
+   * @param length the number of low powers to keep.
+   * @return a new Polynomial representing the truncated composition.
+   * @throws IllegalArgumentException if the inner polynomial is null or the length is
+   *                                  negative.
+   */
+  @Override
+  public Polynomial compose(Polynomial inner, int length) throws IllegalArgumentException {
+    return PolynomialComposition.composeTruncated(this, inner, length);
+  }
+
+  /**
+   * Adds a term to the polynomial with the given coefficient and power. Terms that
+   * arrive in decreasing order of power are appended without moving any other term.
    *
    * @param coefficient the coefficient of the term.
    * @param power       the power of the term.
@@ -276,38 +550,121 @@ public class SparsePolynomial extends AbstractPolynomial {
     if (coefficient == 0) {
       return;
     }
+    unshare();
+    invalidateFingerprint();
+    int index = (size == 0 || powers[size - 1] > power) ? -(size + 1) : indexOf(power);
+    if (index >= 0) {
+      coefficients[index] += coefficient;
+      if (coefficients[index] == 0) {
+        System.arraycopy(powers, index + 1, powers, index, size - index - 1);
+        System.arraycopy(coefficients, index + 1, coefficients, index, size - index - 1);
+        size--;
+      }
+      return;
+    }
+    int insertion = -(index + 1);
+    ensureCapacity();
+    System.arraycopy(powers, insertion, powers, insertion + 1, size - insertion);
+    System.arraycopy(coefficients, insertion, coefficients, insertion + 1, size - insertion);
+    powers[insertion] = power;
+    coefficients[insertion] = coefficient;
+    size++;
+  }
 
-    PolynomialNode newNode = new PolynomialNode(coefficient, power);
+  /**
+   * Adds all the terms given by two parallel arrays to the polynomial. The new terms are
+   * collected together with the existing ones, sorted and combined in a single pass, so
+   * adding n terms costs O(n log n). No term is added if any of the powers is negative.
+   *
+   * @param coefficients the coefficients of the terms to be added.
+   * @param powers       the powers of the terms to be added.
+   * @throws IllegalArgumentException if the arrays differ in length or a power is negative.
+   */
+  public void addTerms(int[] coefficients, int[] powers) throws IllegalArgumentException {
+    PolynomialBuilder.checkTerms(coefficients, powers);
+    PolynomialBuilder builder = new PolynomialBuilder(this.size + powers.length);
+    for (int i = 0; i < this.size; i++) {
+      builder.addTerm(this.coefficients[i], this.powers[i]);
+    }
+    builder.addTerms(coefficients, powers);
+    SparsePolynomial combined = builder.buildSparse();
+    this.powers = combined.powers;
+    this.coefficients = combined.coefficients;
+    this.size = combined.size;
+    this.shared = false;
+    invalidateFingerprint();
+  }
 
-    if (this.head == null || this.head.getPower() < power) {
-      newNode.setNext(this.head);
-      this.head = newNode;
-    } else {
-      PolynomialNode current = this.head;
-      PolynomialNode previous = null;
-      while (current != null && current.getPower() > power) {
-        previous = current;
-        current = current.getNext();
-      }
-      if (current != null && Objects.equals(current.getPower(), power)) {
-        current.setCoefficient(current.getCoefficient() + coefficient);
-
-        if (current.getCoefficient() == 0) {
-          if (previous == null) {
-            this.head = current.getNext();
-          } else {
-            previous.setNext(current.getNext());
-          }
-        }
-      } else {
-        if (previous != null) {
-          previous.setNext(newNode);
-        }
-        newNode.setNext(current);
-      }
+  /**
+   * Returns the number of terms of this polynomial, all of which are non-zero.
+   *
+   * @return the number of non-zero terms.
+   */
+  @Override
+  protected int termCount() {
+    return size;
+  }
+
+  /**
+   * Returns a new SparsePolynomial that shares the term arrays of this one until it is
+   * first modified.
+   *
+   * @return the copy-on-write copy.
+   */
+  @Override
+  protected AbstractPolynomial copyOnWrite() {
+    SparsePolynomial copy = new SparsePolynomial(powers, coefficients, size);
+    copy.shared = true;
+    return copy;
+  }
+
+  /**
+   * Writes the non-zero terms of the polynomial in decreasing order of power.
+   *
+   * @param writer the writer receiving the terms.
+   * @throws IOException if the destination of the writer fails.
+   */
+  @Override
+  protected void writeTerms(TermWriter writer) throws IOException {
+    for (int i = 0; i < this.size; i++) {
+      writer.writeTerm(this.coefficients[i], this.powers[i]);
     }
   }
 
+  /**
+   * Returns an immutable polynomial with the same terms. The term arrays are shared with
+   * it, and this polynomial copies them before it is next modified.
+   *
+   * @return the immutable polynomial.
+   */
+  @Override
+  public Polynomial freeze() {
+    shared = true;
+    return new ImmutablePolynomial(copyOnWrite());
+  }
+
+  /**
+   * Returns a new SparsePolynomial with the same terms. The term arrays are shared by
+   * both until either of them is modified.
+   *
+   * @return the mutable copy.
+   */
+  @Override
+  public Polynomial toMutable() {
+    shared = true;
+    return copyOnWrite();
+  }
+
+  /**
+   * Checks whether this polynomial can change, which it can.
+   *
+   * @return false.
+   */
+  @Override
+  public boolean isImmutable() {
+    return false;
+  }
+
   /**
    * Returns the degree of the polynomial, which is the highest power of the terms.
    *
@@ -315,64 +672,71 @@ public class SparsePolynomial extends AbstractPolynomial {
    */
   @Override
   public int getDegree() {
-    if (this.head == null) {
+    if (this.size == 0) {
       return 0;
     }
-    return this.head.getPower();
+    return this.powers[0];
   }
 
   /**
-   * Returns the string representation of the polynomial, with each term displayed
-   * in decreasing order of power.
+   * Evaluates the polynomial by substituting the given value for the variable. The terms
+   * are folded with Horner's scheme from the highest power down, raising the value to the
+   * gap between consecutive powers by repeated squaring.
    *
-   * @return the string representation of the polynomial.
+   * @param x the value to substitute.
+   * @return the result of the evaluation.
    */
   @Override
-  public String toString() {
-    if (this.head == null) {
-      return "0";
-    }
-    StringBuilder stringPolynomial = new StringBuilder();
-    PolynomialNode tempHead = this.head;
-    while (tempHead != null) {
-      int coefficient = tempHead.getCoefficient();
-      int power = tempHead.getPower();
-      if (coefficient < 0) {
-        stringPolynomial.append("-");
-      } else if (stringPolynomial.length() > 0) {
-        stringPolynomial.append("+");
-      }
-      coefficient = Math.abs(coefficient);
-      if (power == 0) {
-        stringPolynomial.append(coefficient);
-      } else {
-        stringPolynomial.append(coefficient).append("x^").append(power);
-      }
-      tempHead = tempHead.getNext();
-    }
-    return stringPolynomial.toString();
+  public double evaluate(double x) {
+    return HornerEvaluator.evaluateSparse(this.powers, this.coefficients, this.size, x);
   }
 
+  /**
+   * Evaluates the polynomial at the points in the given index range, see
+   * {@link HornerEvaluator}.
+   *
+   * @param xs   the points.
+   * @param out  the array receiving the values, at the same indices as the points.
+   * @param from the index of the first point to evaluate.
+   * @param to   the index after the last point to evaluate.
+   */
+  @Override
+  protected void evaluateRange(double[] xs, double[] out, int from, int to) {
+    HornerEvaluator.evaluateSparse(this.powers, this.coefficients, this.size, xs, out,
+            from, to);
+  }
 
   /**
-   * Evaluates the polynomial by substituting the given value for the variable.
+   * Estimates the steps needed to evaluate the polynomial at one point, one per term plus
+   * the squarings that raise the point to the average gap between terms.
    *
-   * @param x the value to substitute.
-   * @return the result of the evaluation.
+   * @return the estimated number of steps per point.
    */
   @Override
-  public double evaluate(double x) {
-    double ans = 0;
-    PolynomialNode tempHead = this.head;
-    while (tempHead != null) {
-      ans += tempHead.getCoefficient() * Math.pow(x, tempHead.getPower());
-      tempHead = tempHead.getNext();
+  protected long evaluationSteps() {
+    if (this.size == 0) {
+      return 1;
     }
-    return ans;
+    int gap = this.powers[0] / this.size + 1;
+    return this.size * (2L + Integer.SIZE - Integer.numberOfLeadingZeros(gap));
   }
 
   /**
-   * Gets the coefficient of the term with the specified power.
+   * Evaluates the polynomial by substituting the given value for the variable, using the
+   * compensated Horner scheme.
+   *
+   * @param x the value to substitute.
+   * @return the result of the evaluation and a bound on its error.
+   */
+  @Override
+  public EvaluationResult evaluateCompensated(double x) {
+    return HornerEvaluator.evaluateSparseCompensated(this.powers, this.coefficients,
+            this.size, x);
+  }
+
+  /**
+   * Gets the coefficient of the term with the specified power, using a binary search
+   * over the sorted powers.
    *
    * @param power the power of the term.
    * @return the coefficient of the term, or 0 if no such term exists.
@@ -382,17 +746,11 @@ public class SparsePolynomial extends AbstractPolynomial {
     if (power < 0) {
       return 0;
     }
-    PolynomialNode tempHead = this.head;
-    while (tempHead != null) {
-      if (tempHead.getPower() < power) {
-        return 0;
-      }
-      if (Objects.equals(tempHead.getPower(), power)) {
-        return tempHead.getCoefficient();
-      }
-      tempHead = tempHead.getNext();
+    int index = indexOf(power);
+    if (index < 0) {
+      return 0;
     }
-    return 0;
+    return this.coefficients[index];
   }
 
 }
@@ -0,0 +1,197 @@
+package polynomial;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * The TermWriter class streams the textual form of a polynomial term by term. Terms are
+ * formatted digit by digit into a fixed chunk of characters, which is handed to the
+ * Appendable, or encoded as ASCII and written to the channel, whenever it is full, so the
+ * memory needed does not grow with the number of terms. A StringBuilder already holds the
+ * whole text, so it receives every term as soon as it is formatted and the chunk only has
+ * room for one term. The text is the same as the one toString has always returned: int
+ * coefficients as an optional sign followed by the absolute value, residues of modular
+ * polynomials joined by plus signs, x^ and the power for every power but 0, and 0 for a
+ * polynomial without terms.
+ */
+final class TermWriter {
+
+  /**
+   * The number of characters collected before they are written.
+   */
+  static final int CHUNK = 8192;
+
+  /**
+   * The longest text of a single term: two signs, an int, x^ and another int.
+   */
+  private static final int MAX_TERM = 2 + 11 + 2 + 11;
+
+  private final char[] chars;
+  private final StringBuilder builder;
+  private final Appendable out;
+  private final CharBuffer view;
+  private final WritableByteChannel channel;
+  private final ByteBuffer bytes;
+  private int count;
+  private boolean empty = true;
+
+  /**
+   * Constructs a TermWriter that appends to an Appendable, directly if it is a
+   * StringBuilder.
+   *
+   * @param out the destination.
+   */
+  TermWriter(Appendable out) {
+    if (out instanceof StringBuilder) {
+      this.chars = new char[MAX_TERM];
+      this.builder = (StringBuilder) out;
+      this.out = null;
+      this.view = null;
+    } else {
+      this.chars = new char[CHUNK];
+      this.builder = null;
+      this.out = out;
+      this.view = CharBuffer.wrap(chars);
+    }
+    this.channel = null;
+    this.bytes = null;
+  }
+
+  /**
+   * Constructs a TermWriter that writes ASCII bytes to a channel.
+   *
+   * @param channel the destination.
+   */
+  TermWriter(WritableByteChannel channel) {
+    this.chars = new char[CHUNK];
+    this.builder = null;
+    this.out = null;
+    this.view = null;
+    this.channel = channel;
+    this.bytes = ByteBuffer.allocate(CHUNK);
+  }
+
+  /**
+   * Writes a term with an int coefficient, preceded by a minus sign if the coefficient is
+   * negative and by a plus sign if it is positive and not the first term.
+   *
+   * @param coefficient the coefficient, not zero.
+   * @param power       the power.
+   * @throws IOException if the destination fails.
+   */
+  void writeTerm(int coefficient, int power) throws IOException {
+    reserve();
+    if (coefficient < 0) {
+      chars[count++] = '-';
+    } else if (!empty) {
+      chars[count++] = '+';
+    }
+    putInt(Math.abs(coefficient));
+    putPower(power);
+    empty = false;
+  }
+
+  /**
+   * Writes a term with a residue as coefficient, preceded by a plus sign if it is not the
+   * first term.
+   *
+   * @param residue the residue, not zero.
+   * @param power   the power.
+   * @throws IOException if the destination fails.
+   */
+  void writeResidue(int residue, int power) throws IOException {
+    reserve();
+    if (!empty) {
+      chars[count++] = '+';
+    }
+    putInt(residue);
+    putPower(power);
+    empty = false;
+  }
+
+  /**
+   * Writes 0 if no term was written, and writes out the characters still collected.
+   *
+   * @throws IOException if the destination fails.
+   */
+  void finish() throws IOException {
+    if (empty) {
+      chars[count++] = '0';
+    }
+    flush();
+  }
+
+  /**
+   * Makes sure that the longest term fits into the chunk.
+   *
+   * @throws IOException if the destination fails.
+   */
+  private void reserve() throws IOException {
+    if (count > chars.length - MAX_TERM) {
+      flush();
+    }
+  }
+
+  /**
+   * Appends x^ and the power, unless the power is 0.
+   *
+   * @param power the power.
+   */
+  private void putPower(int power) {
+    if (power != 0) {
+      chars[count++] = 'x';
+      chars[count++] = '^';
+      putInt(power);
+    }
+  }
+
+  /**
+   * Appends the decimal digits of an int, like Integer.toString.
+   *
+   * @param value the value.
+   */
+  private void putInt(int value) {
+    long magnitude = value;
+    if (magnitude < 0) {
+      chars[count++] = '-';
+      magnitude = -magnitude;
+    }
+    int digits = 1;
+    for (long bound = 10; bound <= magnitude; bound *= 10) {
+      digits++;
+    }
+    for (int i = count + digits - 1; i >= count; i--) {
+      chars[i] = (char) ('0' + magnitude % 10);
+      magnitude /= 10;
+    }
+    count += digits;
+  }
+
+  /**
+   * Writes out the collected characters.
+   *
+   * @throws IOException if the destination fails.
+   */
+  private void flush() throws IOException {
+    if (count == 0) {
+      return;
+    }
+    if (builder != null) {
+      builder.append(chars, 0, count);
+    } else if (out != null) {
+      out.append(view, 0, count);
+    } else {
+      bytes.clear();
+      for (int i = 0; i < count; i++) {
+        bytes.put((byte) chars[i]);
+      }
+      bytes.flip();
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    }
+    count = 0;
+  }
+}
@@ -1,8 +1,13 @@
 package polynomial;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -1391,4 +1396,458 @@ public abstract class AbstractPolynomialTest {
     double answer = polynomial.multiply(poly2).evaluate(1.2);
     assertEquals(125.9591, answer, 0.0001);
   }
+
+  /**
+   * Adding a zero polynomial returns a new polynomial rather than one of the operands.
+   */
+  @Test
+  public void Test104() {
+    polynomial.addTerm(2, 3);
+    Polynomial zero = returnObject();
+    Polynomial sum = zero.add(polynomial);
+    Polynomial sum2 = polynomial.add(zero);
+    assertTrue(sum != polynomial && sum2 != polynomial);
+    polynomial.addTerm(1, 0);
+    assertEquals("2x^3", sum.toString());
+    assertEquals("2x^3", sum2.toString());
+  }
+
+  /**
+   * Adding polynomials whose terms cancel out, across both types.
+   */
+  @Test
+  public void Test105() {
+    polynomial.addTerm(2, 3);
+    polynomial.addTerm(5, 1);
+    polynomial.addTerm(-1, 0);
+    Polynomial poly2 = returnObjectDiff();
+    poly2.addTerm(-2, 3);
+    poly2.addTerm(4, 2);
+    poly2.addTerm(1, 0);
+    assertEquals("4x^2+5x^1", polynomial.add(poly2).toString());
+    assertEquals("4x^2+5x^1", poly2.add(polynomial).toString());
+    Polynomial poly3 = returnObject();
+    poly3.addTerm(-2, 3);
+    poly3.addTerm(-5, 1);
+    poly3.addTerm(1, 0);
+    assertEquals("0", polynomial.add(poly3).toString());
+    assertEquals(0, polynomial.add(poly3).getDegree());
+  }
+
+  /**
+   * Evaluating at many points at once gives the same values as evaluating one by one.
+   */
+  @Test
+  public void Test106() {
+    polynomial.addTerm(3, 9);
+    polynomial.addTerm(-2, 4);
+    polynomial.addTerm(5, 1);
+    polynomial.addTerm(7, 0);
+    double[] xs = new double[1003];
+    for (int i = 0; i < xs.length; i++) {
+      xs[i] = -2 + i * 0.004;
+    }
+    double[] expected = new double[xs.length];
+    for (int i = 0; i < xs.length; i++) {
+      expected[i] = polynomial.evaluate(xs[i]);
+    }
+    double[] out = new double[xs.length];
+    polynomial.evaluate(xs, out);
+    assertArrayEquals(expected, out, 0);
+    polynomial.evaluate(xs, xs);
+    assertArrayEquals(expected, xs, 0);
+  }
+
+  /**
+   * Evaluating the points of a direct buffer into a direct buffer.
+   */
+  @Test
+  public void Test107() {
+    polynomial.addTerm(1, 2);
+    polynomial.addTerm(-1, 0);
+    DoubleBuffer xs = ByteBuffer.allocateDirect(8 * 5000).asDoubleBuffer();
+    for (int i = 0; i < 5000; i++) {
+      xs.put(i);
+    }
+    xs.flip();
+    DoubleBuffer out = DoubleBuffer.allocate(5001);
+    polynomial.evaluate(xs, out);
+    assertEquals(0, xs.remaining());
+    assertEquals(5000, out.position());
+    assertEquals(-1.0, out.get(0), 0);
+    assertEquals(4999.0 * 4999.0 - 1, out.get(4999), 0);
+  }
+
+  /**
+   * Evaluating a buffer in place, over several chunks, replaces every point by its value
+   * and leaves the buffer at its limit.
+   */
+  @Test
+  public void Test124() {
+    polynomial.addTerm(1, 2);
+    polynomial.addTerm(-1, 0);
+    DoubleBuffer buffer = ByteBuffer.allocateDirect(8 * 5002).asDoubleBuffer();
+    for (int i = 0; i < 5002; i++) {
+      buffer.put(i);
+    }
+    buffer.position(1).limit(5001);
+    polynomial.evaluate(buffer, buffer);
+    assertEquals(5001, buffer.position());
+    assertEquals(0.0, buffer.get(0), 0);
+    for (int i = 1; i < 5001; i++) {
+      assertEquals((double) i * i - 1, buffer.get(i), 0);
+    }
+    assertEquals(5001.0, buffer.limit(5002).get(5001), 0);
+  }
+
+  /**
+   * Evaluating into an output that is too short.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void Test108() {
+    polynomial.addTerm(1, 2);
+    polynomial.evaluate(new double[3], new double[2]);
+  }
+
+  /**
+   * Swapping coefficients and powers gives different fingerprints and hash codes.
+   */
+  @Test
+  public void Test109() {
+    polynomial.addTerm(1, 2);
+    polynomial.addTerm(3, 0);
+    Polynomial swapped = this.returnObjectDiff();
+    swapped.addTerm(3, 2);
+    swapped.addTerm(1, 0);
+    assertNotEquals(polynomial.fingerprint(), swapped.fingerprint());
+    assertNotEquals(polynomial.hashCode(), swapped.hashCode());
+    assertNotEquals(polynomial, swapped);
+  }
+
+  /**
+   * The fingerprint is the same across representations and follows every change.
+   */
+  @Test
+  public void Test110() {
+    Polynomial other = this.returnObjectDiff();
+    long empty = polynomial.fingerprint();
+    assertEquals(empty, other.fingerprint());
+    polynomial.addTerm(5, 7);
+    polynomial.addTerm(-2, 3);
+    long before = polynomial.fingerprint();
+    assertNotEquals(empty, before);
+    other.addTerm(-2, 3);
+    other.addTerm(5, 7);
+    assertEquals(before, other.fingerprint());
+    assertEquals(before, polynomial.freeze().fingerprint());
+    polynomial.addTerm(2, 3);
+    assertNotEquals(before, polynomial.fingerprint());
+    assertNotEquals(polynomial, other);
+    polynomial.addTerm(-2, 3);
+    assertEquals(before, polynomial.fingerprint());
+    assertEquals(polynomial, other);
+  }
+
+  /**
+   * Powers match repeated multiplication, and the zeroth power is 1.
+   */
+  @Test
+  public void Test111() {
+    polynomial.addTerm(3, 4);
+    polynomial.addTerm(-2, 1);
+    polynomial.addTerm(7, 0);
+    Polynomial expected = this.returnObject();
+    expected.addTerm(1, 0);
+    assertEquals("1", polynomial.pow(0).toString());
+    assertEquals(polynomial, polynomial.pow(1));
+    for (int n = 1; n <= 6; n++) {
+      expected = expected.multiply(polynomial);
+      assertEquals(expected, polynomial.pow(n));
+    }
+    assertEquals("0", this.returnObject().pow(5).toString());
+    assertEquals("1", this.returnObject().pow(0).toString());
+  }
+
+  /**
+   * Negative exponents are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void Test112() {
+    polynomial.addTerm(1, 1);
+    polynomial.pow(-1);
+  }
+
+  /**
+   * The quotient times the divisor plus the remainder gives back the dividend, and the
+   * remainder has a lower degree than the divisor.
+   */
+  @Test
+  public void Test113() {
+    polynomial.addTerm(3, 5);
+    polynomial.addTerm(-2, 3);
+    polynomial.addTerm(7, 0);
+    Polynomial divisor = this.returnObject();
+    divisor.addTerm(-1, 2);
+    divisor.addTerm(4, 1);
+    divisor.addTerm(1, 0);
+    Polynomial[] result = polynomial.divideAndRemainder(divisor);
+    assertEquals("-3x^3-12x^2-49x^1-208", result[0].toString());
+    assertEquals("881x^1+215", result[1].toString());
+    assertEquals(polynomial, result[0].multiply(divisor).add(result[1]));
+    Polynomial cubic = this.returnObject();
+    cubic.addTerm(1, 3);
+    cubic.addTerm(-1, 1);
+    result = divisor.divideAndRemainder(cubic);
+    assertEquals("0", result[0].toString());
+    assertEquals(divisor, result[1]);
+  }
+
+  /**
+   * Divisors whose leading coefficient is not 1 or -1 are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void Test114() {
+    polynomial.addTerm(1, 3);
+    Polynomial divisor = this.returnObject();
+    divisor.addTerm(2, 1);
+    polynomial.divideAndRemainder(divisor);
+  }
+
+  /**
+   * Composition matches Horner's scheme over multiply and add, and the truncated
+   * composition keeps its low powers.
+   */
+  @Test
+  public void Test115() {
+    polynomial.addTerm(3, 4);
+    polynomial.addTerm(-2, 1);
+    polynomial.addTerm(7, 0);
+    Polynomial inner = this.returnObject();
+    inner.addTerm(1, 2);
+    inner.addTerm(-1, 1);
+    inner.addTerm(2, 0);
+    Polynomial expected = this.returnObject();
+    for (int power = polynomial.getDegree(); power >= 0; power--) {
+      Polynomial constant = this.returnObject();
+      constant.addTerm(polynomial.getCoefficient(power), 0);
+      expected = expected.multiply(inner).add(constant);
+    }
+    assertEquals(expected, polynomial.compose(inner));
+    Polynomial truncated = polynomial.compose(inner, 3);
+    for (int power = 0; power <= expected.getDegree(); power++) {
+      assertEquals(power < 3 ? expected.getCoefficient(power) : 0,
+              truncated.getCoefficient(power));
+    }
+    assertEquals("3x^8-2x^2+7", polynomial.compose(monomial(1, 2)).toString());
+    assertEquals("48x^4+4x^1+7", polynomial.compose(monomial(-2, 1)).toString());
+    assertEquals("0", this.returnObject().compose(inner).toString());
+  }
+
+  /**
+   * Builds a single term in the class under test.
+   *
+   * @param coefficient the coefficient.
+   * @param power       the power.
+   * @return the polynomial.
+   */
+  private Polynomial monomial(int coefficient, int power) {
+    Polynomial term = this.returnObject();
+    term.addTerm(coefficient, power);
+    return term;
+  }
+
+  /**
+   * Truncated compositions reject negative lengths.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void Test116() {
+    polynomial.addTerm(1, 1);
+    polynomial.compose(polynomial, -1);
+  }
+
+  /**
+   * Products of the two representations match the products computed term by term, for
+   * a nearly dense operand, a spread out one collected in a dense accumulator and one too
+   * spread out for the accumulator, in both operand orders.
+   */
+  @Test
+  public void Test117() {
+    int[][] shapes = {{40, 2}, {30, 10}, {5, 3000}};
+    for (int[] shape : shapes) {
+      Polynomial first = this.returnObject();
+      Polynomial second = this.returnObjectDiff();
+      for (int i = 0; i < shape[0]; i++) {
+        first.addTerm(i % 5 - 2, i * shape[1]);
+        second.addTerm(3 - i % 4, i);
+      }
+      Polynomial expected = this.returnObject();
+      for (int i = 0; i <= first.getDegree(); i += shape[1]) {
+        for (int k = 0; k <= second.getDegree(); k++) {
+          expected.addTerm(first.getCoefficient(i) * second.getCoefficient(k), i + k);
+        }
+      }
+      assertEquals(expected, first.multiply(second));
+      assertEquals(expected, second.multiply(first));
+    }
+  }
+
+  /**
+   * Long division and the Newton reciprocal both give a quotient and remainder that satisfy
+   * the division identity, for divisors of either representation, wrapped coefficients and
+   * leading coefficients of 1 and -1. A divisor with a unit leading coefficient has only
+   * one such quotient and remainder, so both paths agree.
+   */
+  @Test
+  public void Test118() {
+    int[][] degrees = {{40, 7}, {300, 20}, {1000, 300}, {5000, 2500}};
+    for (int[] degree : degrees) {
+      Polynomial dividend = this.returnObject();
+      for (int power = 0; power <= degree[0]; power++) {
+        dividend.addTerm(power * 1234567891 + 17, power);
+      }
+      for (Polynomial divisor : new Polynomial[]{this.returnObject(),
+          this.returnObjectDiff()}) {
+        for (int power = 0; power < degree[1]; power++) {
+          divisor.addTerm(power % 7 - 3 + power * 40503, power);
+        }
+        divisor.addTerm(degree[1] % 2 == 0 ? -1 : 1, degree[1]);
+        Polynomial[] result = dividend.divideAndRemainder(divisor);
+        assertEquals(dividend, result[0].multiply(divisor).add(result[1]));
+        assertTrue(result[1].toString().equals("0")
+                || result[1].getDegree() < divisor.getDegree());
+        assertEquals(dividend.getClass(), result[0].getClass());
+      }
+    }
+  }
+
+  /**
+   * Divide and conquer and Brent-Kung composition match Horner's scheme over multiply and
+   * add, for outer polynomials spanning several levels, inner polynomials of either
+   * representation and wrapped coefficients, and truncations of every length.
+   */
+  @Test
+  public void Test119() {
+    int[][] degrees = {{5, 3}, {40, 7}, {130, 20}};
+    for (int[] degree : degrees) {
+      for (boolean wrapped : new boolean[]{false, true}) {
+        Polynomial outer = this.returnObject();
+        Polynomial inner = this.returnObjectDiff();
+        for (int power = 0; power <= degree[0]; power++) {
+          outer.addTerm(wrapped ? power * 1234567891 + 5 : power % 7 - 3, power);
+        }
+        for (int power = 0; power <= degree[1]; power++) {
+          inner.addTerm(wrapped ? power * 987654321 - 1 : 2 - power % 5, power);
+        }
+        Polynomial expected = this.returnObject();
+        for (int power = outer.getDegree(); power >= 0; power--) {
+          expected = expected.multiply(inner).add(monomial(outer.getCoefficient(power), 0));
+        }
+        assertEquals(expected, outer.compose(inner));
+        for (int length : new int[]{0, 1, 17, 300, 5000}) {
+          Polynomial truncated = outer.compose(inner, length);
+          assertTrue(truncated.getDegree() < Math.max(length, 1));
+          for (int power = 0; power < Math.min(length, expected.getDegree() + 1); power++) {
+            assertEquals(expected.getCoefficient(power), truncated.getCoefficient(power));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * The degree of a full composition must fit in an int.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void Test120() {
+    polynomial.addTerm(1, 100000);
+    Polynomial inner = this.returnObject();
+    inner.addTerm(1, 100000);
+    inner.addTerm(1, 0);
+    polynomial.compose(inner);
+  }
+
+  /**
+   * Planted primitive common factors with non-monic leading coefficients are recovered
+   * exactly, including on the half-GCD path for large degrees. The cofactors f and
+   * f x^k + 1 are coprime, since any common factor divides 1.
+   */
+  @Test
+  public void Test121() {
+    int[][] degrees = {{3, 10, 2}, {20, 40, 10}, {150, 300, 50}};
+    for (int[] degree : degrees) {
+      Polynomial common = this.returnObject();
+      Polynomial cofactor = this.returnObject();
+      common.addTerm(degree[0] % 3 + 2, degree[0]);
+      for (int power = 1; power < degree[0]; power++) {
+        common.addTerm(power % 11 - 5, power);
+      }
+      common.addTerm(1, 0);
+      cofactor.addTerm(3, degree[1]);
+      for (int power = 0; power < degree[1]; power++) {
+        cofactor.addTerm(power % 7 - 3, power);
+      }
+      Polynomial a = common.multiply(cofactor);
+      Polynomial b = common.multiply(
+              cofactor.multiply(monomial(1, degree[2])).add(monomial(1, 0)));
+      assertEquals(common, PolynomialGcd.gcd(a, b));
+      assertEquals(common, PolynomialGcd.gcd(b.multiply(monomial(-1, 0)), a));
+    }
+  }
+
+  /**
+   * The GCD has a positive leading coefficient and includes the common content, a zero
+   * operand gives the other one, and the result keeps the representation of the first
+   * operand.
+   */
+  @Test
+  public void Test122() {
+    Polynomial a = this.returnObject();
+    a.addTerm(6, 2);
+    a.addTerm(6, 0);
+    Polynomial b = this.returnObjectDiff();
+    b.addTerm(4, 1);
+    b.addTerm(4, 0);
+    assertEquals("2", PolynomialGcd.gcd(a, b).toString());
+    a = this.returnObject();
+    a.addTerm(2, 2);
+    a.addTerm(-2, 0);
+    b = this.returnObject();
+    b.addTerm(-4, 1);
+    b.addTerm(4, 0);
+    assertEquals("2x^1-2", PolynomialGcd.gcd(a, b).toString());
+    assertEquals(a.getClass(), PolynomialGcd.gcd(a, b).getClass());
+    assertTrue(PolynomialGcd.gcd(a.freeze(), b).isImmutable());
+    assertEquals("4x^1-4", PolynomialGcd.gcd(this.returnObject(), b).toString());
+    assertEquals("0", PolynomialGcd.gcd(this.returnObject(), this.returnObjectDiff())
+            .toString());
+  }
+
+  /**
+   * Parsing the output of toString gives back an equal polynomial from character, byte
+   * array and buffer sources, including the extreme coefficients.
+   */
+  @Test
+  public void Test123() {
+    for (int terms = 0; terms < 50; terms += 7) {
+      Polynomial original = this.returnObject();
+      for (int i = 0; i < terms; i++) {
+        int coefficient = i % 7 == 0 ? Integer.MIN_VALUE : i % 11 == 0 ? Integer.MAX_VALUE
+                : i * 1234567891;
+        original.addTerm(coefficient, i * 37 % 2000);
+      }
+      String text = original.toString();
+      byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+      assertEquals(original, Polynomials.parse(text));
+      assertEquals(original, Polynomials.parse(new StringBuilder(text)));
+      assertEquals(original, Polynomials.parse(bytes));
+      byte[] padded = new byte[bytes.length + 5];
+      System.arraycopy(bytes, 0, padded, 3, bytes.length);
+      assertEquals(original, Polynomials.parse(padded, 3, bytes.length));
+      ByteBuffer buffer = ByteBuffer.allocateDirect(padded.length).put(padded);
+      buffer.position(3).limit(3 + bytes.length);
+      assertEquals(original, Polynomials.parse(buffer));
+      assertEquals(3, buffer.position());
+      assertEquals(text, Polynomials.parse(text).toString());
+    }
+  }
 }
@@ -0,0 +1,118 @@
+package polynomial;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for ExactPolynomial and its promotion between coefficient tiers.
+ */
+public class ExactPolynomialTest {
+
+  /**
+   * Products of small and of full range coefficients are exact, and results are only
+   * promoted when a coefficient leaves the long range.
+   */
+  @Test
+  public void testMultiplyMatchesReference() {
+    for (boolean large : new boolean[]{false, true}) {
+      long[] first = new long[201];
+      long[] second = new long[301];
+      ExactPolynomial a = ExactPolynomial.of(0, 0);
+      ExactPolynomial b = ExactPolynomial.of(0, 0);
+      for (int power = 0; power < second.length; power++) {
+        long coefficient = large ? (power + 1) * 0x9E3779B97F4A7C15L : power * 37 % 2001 - 1000;
+        if (power < first.length && power % 3 != 1) {
+          first[power] = coefficient;
+          a = a.add(ExactPolynomial.of(coefficient, power));
+        }
+        second[power] = power % 5 == 0 ? -coefficient : coefficient >> 1;
+        b = b.add(ExactPolynomial.of(second[power], power));
+      }
+      BigInteger[] expected = new BigInteger[first.length + second.length - 1];
+      Arrays.fill(expected, BigInteger.ZERO);
+      for (int i = 0; i < first.length; i++) {
+        for (int j = 0; j < second.length; j++) {
+          expected[i + j] = expected[i + j].add(BigInteger.valueOf(first[i])
+                  .multiply(BigInteger.valueOf(second[j])));
+        }
+      }
+      ExactPolynomial product = a.multiply(b);
+      assertEquals(expected.length - 1, product.getDegree());
+      for (int power = 0; power < expected.length; power++) {
+        assertEquals(expected[power], product.getCoefficient(power));
+      }
+      assertEquals(!large, product.fitsInLong());
+      assertEquals(product, b.multiply(a));
+    }
+  }
+
+  /**
+   * Sums that overflow a long are promoted, and cancelling them demotes the result again.
+   */
+  @Test
+  public void testAddPromotesAndDemotes() {
+    ExactPolynomial max = ExactPolynomial.of(Long.MAX_VALUE, 3);
+    ExactPolynomial sum = max.add(max).add(ExactPolynomial.of(1, 0));
+    assertFalse(sum.fitsInLong());
+    assertEquals(BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1), sum.getCoefficient(3));
+    ExactPolynomial back = sum.add(ExactPolynomial.of(-Long.MAX_VALUE, 3));
+    assertTrue(back.fitsInLong());
+    assertEquals(max.add(ExactPolynomial.of(1, 0)), back);
+    assertEquals("9223372036854775807x^3+1", back.toString());
+    assertEquals("0", back.add(back.multiply(ExactPolynomial.of(-1, 0))).toString());
+  }
+
+  /**
+   * Converting from and to the int polynomials keeps the terms, while powers and products
+   * that wrap in int arithmetic are exact here.
+   */
+  @Test
+  public void testConversionAndPow() {
+    for (Polynomial polynomial : new Polynomial[]{new SimplePolynomial(),
+        new SparsePolynomial()}) {
+      polynomial.addTerm(Integer.MAX_VALUE, 2);
+      polynomial.addTerm(-3, 1);
+      polynomial.addTerm(Integer.MIN_VALUE, 0);
+      ExactPolynomial exact = ExactPolynomial.of(polynomial.freeze());
+      assertEquals(polynomial, exact.toPolynomial());
+      assertEquals("2147483647x^2-3x^1-2147483648", exact.toString());
+      ExactPolynomial cube = exact.pow(3);
+      assertFalse(cube.fitsInLong());
+      assertEquals(BigInteger.valueOf(Integer.MAX_VALUE).pow(3), cube.getCoefficient(6));
+      assertEquals(BigInteger.valueOf(Integer.MIN_VALUE).pow(3), cube.getCoefficient(0));
+      assertEquals(exact.multiply(exact).multiply(exact), cube);
+      assertEquals(polynomial.pow(3), ExactPolynomial.of(polynomial.pow(3)).toPolynomial());
+      assertEquals(ExactPolynomial.of(1, 0), exact.pow(0));
+    }
+  }
+
+  /**
+   * Derivatives multiply exactly, promoting when needed.
+   */
+  @Test
+  public void testDerivative() {
+    ExactPolynomial polynomial = ExactPolynomial.of(Long.MAX_VALUE, 5)
+            .add(ExactPolynomial.of(7, 1)).add(ExactPolynomial.of(4, 0));
+    ExactPolynomial derivative = polynomial.derivative();
+    assertEquals(BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(5)),
+            derivative.getCoefficient(4));
+    assertEquals(BigInteger.valueOf(7), derivative.getCoefficient(0));
+    assertEquals(4, derivative.getDegree());
+    assertEquals("35x^4+7", ExactPolynomial.of(7, 5).add(ExactPolynomial.of(7, 1))
+            .derivative().toString());
+  }
+
+  /**
+   * Coefficients outside the int range cannot be converted back.
+   */
+  @Test(expected = ArithmeticException.class)
+  public void testToPolynomialOverflow() {
+    ExactPolynomial.of(1L << 40, 1).toPolynomial();
+  }
+}
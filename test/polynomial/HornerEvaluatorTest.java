@@ -0,0 +1,114 @@
+package polynomial;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for HornerEvaluator.
+ */
+public class HornerEvaluatorTest {
+
+  /**
+   * Computes the exact value of a polynomial at a point.
+   *
+   * @param polynomial the polynomial.
+   * @param x          the point.
+   * @return the exact value.
+   */
+  private BigDecimal exact(Polynomial polynomial, double x) {
+    BigDecimal value = BigDecimal.ZERO;
+    BigDecimal point = new BigDecimal(x);
+    for (int power = polynomial.getDegree(); power >= 0; power--) {
+      value = value.multiply(point).add(BigDecimal.valueOf(polynomial.getCoefficient(power)));
+    }
+    return value;
+  }
+
+  /**
+   * Repeated squaring matches exact small powers.
+   */
+  @Test
+  public void testPower() {
+    assertEquals(1.0, HornerEvaluator.power(5.0, 0), 0);
+    assertEquals(1024.0, HornerEvaluator.power(2.0, 10), 0);
+    assertEquals(-243.0, HornerEvaluator.power(-3.0, 5), 0);
+    assertEquals(0.0, HornerEvaluator.power(0.0, 7), 0);
+  }
+
+  /**
+   * Dense and sparse evaluation agree on the same polynomial.
+   */
+  @Test
+  public void testDenseAndSparseAgree() {
+    Polynomial simple = new SimplePolynomial();
+    Polynomial sparse = new SparsePolynomial();
+    int[] coefficients = {3, -7, 2, 9, -1};
+    int[] powers = {40, 17, 9, 2, 0};
+    for (int i = 0; i < powers.length; i++) {
+      simple.addTerm(coefficients[i], powers[i]);
+      sparse.addTerm(coefficients[i], powers[i]);
+    }
+    for (double x : new double[]{-1.1, -0.5, 0, 0.3, 1, 1.05}) {
+      double expected = exact(simple, x).doubleValue();
+      assertEquals(expected, simple.evaluate(x), 1e-12 * Math.max(1, Math.abs(expected)));
+      assertEquals(expected, sparse.evaluate(x), 1e-12 * Math.max(1, Math.abs(expected)));
+    }
+  }
+
+  /**
+   * The compensated scheme stays accurate near a multiple root, where plain Horner
+   * loses every significant digit, and its error bound holds.
+   */
+  @Test
+  public void testCompensatedNearRoot() {
+    Polynomial simple = new SimplePolynomial();
+    Polynomial sparse = new SparsePolynomial();
+    int[] binomial = {1, -6, 15, -20, 15, -6, 1};
+    for (int power = 0; power < binomial.length; power++) {
+      simple.addTerm(binomial[power], power);
+      sparse.addTerm(binomial[power], power);
+    }
+    double x = 1.0001;
+    BigDecimal expected = exact(simple, x);
+    for (Polynomial polynomial : new Polynomial[]{simple, sparse}) {
+      EvaluationResult result = polynomial.evaluateCompensated(x);
+      BigDecimal error = new BigDecimal(result.getValue()).subtract(expected).abs();
+      assertTrue(error.compareTo(new BigDecimal(result.getErrorBound())) <= 0);
+      assertEquals(1.0, result.getValue() / expected.doubleValue(), 1e-6);
+    }
+  }
+
+  /**
+   * The compensated error bound holds for a sparse polynomial with large gaps.
+   */
+  @Test
+  public void testCompensatedSparseGaps() {
+    Polynomial sparse = new SparsePolynomial();
+    sparse.addTerm(5, 300);
+    sparse.addTerm(-3, 120);
+    sparse.addTerm(7, 1);
+    double x = 0.997;
+    EvaluationResult result = sparse.evaluateCompensated(x);
+    BigDecimal expected = BigDecimal.valueOf(5).multiply(new BigDecimal(x).pow(300))
+            .subtract(BigDecimal.valueOf(3).multiply(new BigDecimal(x).pow(120)))
+            .add(BigDecimal.valueOf(7).multiply(new BigDecimal(x)), MathContext.DECIMAL128);
+    BigDecimal error = new BigDecimal(result.getValue()).subtract(expected).abs();
+    assertTrue(error.compareTo(new BigDecimal(result.getErrorBound())) <= 0);
+  }
+
+  /**
+   * The zero polynomial evaluates to zero without error.
+   */
+  @Test
+  public void testZero() {
+    EvaluationResult result = new SparsePolynomial().evaluateCompensated(3);
+    assertEquals(0.0, result.getValue(), 0);
+    assertEquals(0.0, result.getErrorBound(), 0);
+    assertEquals(0.0, new SimplePolynomial().evaluateCompensated(3).getValue(), 0);
+  }
+}
@@ -0,0 +1,129 @@
+package polynomial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for ImmutablePolynomial and the freeze and toMutable conversions.
+ */
+public class ImmutablePolynomialTest {
+
+  /**
+   * Builds the polynomial 3x^4-2x^1+7 in the given representation.
+   *
+   * @param polynomial an empty polynomial.
+   * @return the polynomial with the terms added.
+   */
+  private Polynomial sample(Polynomial polynomial) {
+    polynomial.addTerm(3, 4);
+    polynomial.addTerm(-2, 1);
+    polynomial.addTerm(7, 0);
+    return polynomial;
+  }
+
+  /**
+   * A frozen polynomial keeps its terms when the original is modified afterwards.
+   */
+  @Test
+  public void testFreezeIsolatesOriginal() {
+    for (Polynomial original : new Polynomial[]{sample(new SimplePolynomial()),
+        sample(new SparsePolynomial())}) {
+      Polynomial frozen = original.freeze();
+      original.addTerm(5, 4);
+      original.addTerm(1, 2);
+      assertTrue(frozen.isImmutable());
+      assertFalse(original.isImmutable());
+      assertEquals("3x^4-2x^1+7", frozen.toString());
+      assertEquals("8x^4+1x^2-2x^1+7", original.toString());
+      assertSame(frozen, frozen.freeze());
+    }
+  }
+
+  /**
+   * Mutable copies are independent of each other and of the immutable polynomial.
+   */
+  @Test
+  public void testToMutableCopiesOnWrite() {
+    for (Polynomial original : new Polynomial[]{sample(new SimplePolynomial()),
+        sample(new SparsePolynomial())}) {
+      Polynomial frozen = original.freeze();
+      Polynomial first = frozen.toMutable();
+      Polynomial second = first.toMutable();
+      first.addTerm(-7, 0);
+      second.addTerm(1, 9);
+      assertEquals("3x^4-2x^1+7", frozen.toString());
+      assertEquals("3x^4-2x^1", first.toString());
+      assertEquals("1x^9+3x^4-2x^1+7", second.toString());
+      assertEquals(original.getClass(), first.getClass());
+    }
+  }
+
+  /**
+   * Immutable polynomials cannot be modified.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testAddTermFails() {
+    sample(new SimplePolynomial()).freeze().addTerm(1, 1);
+  }
+
+  /**
+   * Operations on immutable polynomials give immutable results equal to the mutable ones,
+   * and equality and hashing agree across representations.
+   */
+  @Test
+  public void testOperations() {
+    Polynomial simple = sample(new SimplePolynomial());
+    Polynomial sparse = sample(new SparsePolynomial());
+    Polynomial frozen = simple.freeze();
+    assertEquals(simple, frozen);
+    assertEquals(frozen, sparse);
+    assertEquals(sparse.hashCode(), frozen.hashCode());
+    Polynomial sum = frozen.add(sparse.freeze());
+    assertTrue(sum.isImmutable());
+    assertEquals(simple.add(sparse), sum);
+    assertEquals(simple.multiply(sparse), frozen.multiply(sparse));
+    assertFalse(sparse.multiply(frozen).isImmutable());
+    assertEquals(simple.multiply(sparse), sparse.multiply(frozen));
+    assertEquals(simple.derivative(), frozen.derivative());
+    assertEquals(simple.evaluate(1.5), frozen.evaluate(1.5), 0.0);
+    assertEquals(7, frozen.getCoefficient(0));
+    assertEquals(4, frozen.getDegree());
+  }
+
+  /**
+   * Many threads can read and combine the same immutable polynomial at once.
+   *
+   * @throws Exception if a task fails.
+   */
+  @Test
+  public void testConcurrentReads() throws Exception {
+    Polynomial polynomial = new SparsePolynomial();
+    for (int power = 0; power < 200; power++) {
+      polynomial.addTerm(power % 5 - 2, power * 3);
+    }
+    Polynomial frozen = polynomial.freeze();
+    Polynomial expected = polynomial.multiply(polynomial);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Polynomial>> results = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        results.add(executor.submit(() -> frozen.multiply(frozen)));
+      }
+      for (Future<Polynomial> result : results) {
+        assertEquals(expected, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
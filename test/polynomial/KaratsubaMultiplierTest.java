@@ -0,0 +1,134 @@
+package polynomial;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This is the test class for KaratsubaMultiplier.
+ */
+public class KaratsubaMultiplierTest {
+
+  private final Random random = new Random(42);
+
+  /**
+   * Restores the default cutoff after each test.
+   */
+  @After
+  public void tearDown() {
+    KaratsubaMultiplier.setCutoff(KaratsubaMultiplier.DEFAULT_CUTOFF);
+  }
+
+  /**
+   * Creates an array of random coefficients.
+   *
+   * @param length the number of coefficients.
+   * @return the coefficients.
+   */
+  private int[] randomCoefficients(int length) {
+    int[] coefficients = new int[length];
+    for (int i = 0; i < length; i++) {
+      coefficients[i] = random.nextInt(2001) - 1000;
+    }
+    return coefficients;
+  }
+
+  /**
+   * Computes the reference schoolbook product.
+   *
+   * @param a the first operand.
+   * @param b the second operand.
+   * @return the product.
+   */
+  private int[] schoolbook(int[] a, int[] b) {
+    int[] product = new int[a.length + b.length - 1];
+    KaratsubaMultiplier.schoolbook(a, 0, a.length, b, 0, b.length, product, 0);
+    return product;
+  }
+
+  /**
+   * Karatsuba matches the schoolbook product for balanced and unbalanced operands
+   * across several cutoffs.
+   */
+  @Test
+  public void testMatchesSchoolbook() {
+    int[] lengths = {1, 2, 3, 7, 16, 33, 64, 100, 257};
+    for (int cutoff : new int[]{1, 2, 5, 32}) {
+      for (int aLength : lengths) {
+        for (int bLength : lengths) {
+          int[] a = randomCoefficients(aLength);
+          int[] b = randomCoefficients(bLength);
+          assertArrayEquals(schoolbook(a, b),
+                  KaratsubaMultiplier.multiply(a, aLength, b, bLength, cutoff));
+        }
+      }
+    }
+  }
+
+  /**
+   * Wrapping int arithmetic gives the same result as the schoolbook product.
+   */
+  @Test
+  public void testOverflowMatchesSchoolbook() {
+    int[] a = new int[300];
+    int[] b = new int[300];
+    for (int i = 0; i < 300; i++) {
+      a[i] = random.nextInt();
+      b[i] = random.nextInt();
+    }
+    assertArrayEquals(schoolbook(a, b), KaratsubaMultiplier.multiply(a, 300, b, 300, 4));
+  }
+
+  /**
+   * Squaring matches the schoolbook product of an operand with itself across several
+   * cutoffs, including coefficients that overflow.
+   */
+  @Test
+  public void testSquareMatchesSchoolbook() {
+    for (int cutoff : new int[]{1, 2, 5, 32}) {
+      KaratsubaMultiplier.setCutoff(cutoff);
+      for (int length : new int[]{1, 2, 3, 7, 16, 33, 100, 257}) {
+        int[] a = randomCoefficients(length);
+        if (length % 2 == 1) {
+          for (int i = 0; i < length; i++) {
+            a[i] = random.nextInt();
+          }
+        }
+        assertArrayEquals(schoolbook(a, a), KaratsubaMultiplier.square(a, length));
+      }
+    }
+  }
+
+  /**
+   * The cutoff can be changed and rejects values below 1.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCutoff() {
+    KaratsubaMultiplier.setCutoff(8);
+    assertEquals(8, KaratsubaMultiplier.getCutoff());
+    KaratsubaMultiplier.setCutoff(0);
+  }
+
+  /**
+   * Multiplying two dense polynomials of degree twenty thousand.
+   */
+  @Test(timeout = 3000)
+  public void testLargeDenseProduct() {
+    Polynomial first = new SimplePolynomial();
+    Polynomial second = new SimplePolynomial();
+    for (int i = 0; i <= 20000; i++) {
+      first.addTerm(1, i);
+      second.addTerm(i % 2 == 0 ? 1 : -1, i);
+    }
+    Polynomial product = first.multiply(second);
+    assertEquals(40000, product.getDegree());
+    assertEquals(1, product.getCoefficient(0));
+    assertEquals(0, product.getCoefficient(1));
+    assertEquals(1, product.getCoefficient(20000));
+    assertEquals(1, product.getCoefficient(40000));
+  }
+}
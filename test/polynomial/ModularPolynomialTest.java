@@ -0,0 +1,288 @@
+package polynomial;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for ModularContext, DenseModularPolynomial and
+ * SparseModularPolynomial.
+ */
+public class ModularPolynomialTest {
+
+  private static final ModularContext SMALL = new ModularContext(7);
+  private static final ModularContext LARGE = new ModularContext(2147483647);
+
+  /**
+   * Barrett reduction agrees with the remainder over the whole input range.
+   */
+  @Test
+  public void testContextArithmetic() {
+    for (long modulus : new long[]{2, 3, 998244353, 2147483647, 1000000}) {
+      ModularContext context = new ModularContext(modulus);
+      for (int i = 0; i < 2000; i++) {
+        long value = i * 0x9E3779B97F4A7C15L;
+        value = i < 1000 ? value >>> 2 : value;
+        assertEquals(Math.floorMod(value, modulus), context.reduce(value));
+        long a = context.reduce(value ^ 0x5DEECE66DL * i);
+        long b = context.reduce(Long.MAX_VALUE - i * 1234567890123L);
+        assertEquals(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b))
+                .mod(BigInteger.valueOf(modulus)).longValue(), context.multiply(a, b));
+        assertEquals((a + b) % modulus, context.add(a, b));
+        assertEquals(Math.floorMod(a - b, modulus), context.subtract(a, b));
+      }
+    }
+    assertEquals(1, LARGE.multiply(LARGE.inverse(12345), 12345));
+    assertTrue(LARGE.isPrime());
+    assertEquals(new ModularContext(7), SMALL);
+  }
+
+  /**
+   * Sums, products, derivatives and powers match the exact results reduced afterwards, in
+   * both representations and across them.
+   */
+  @Test
+  public void testOperationsMatchExact() {
+    for (ModularContext context : new ModularContext[]{SMALL, LARGE}) {
+      long modulus = context.getModulus();
+      BigInteger m = BigInteger.valueOf(modulus);
+      for (int degree : new int[]{10, 150}) {
+        Polynomial[] first = {new DenseModularPolynomial(context),
+            new SparseModularPolynomial(context)};
+        Polynomial[] second = {new DenseModularPolynomial(context),
+            new SparseModularPolynomial(context)};
+        ExactPolynomial a = ExactPolynomial.of(0, 0);
+        ExactPolynomial b = ExactPolynomial.of(0, 0);
+        for (int power = 0; power <= degree; power++) {
+          int x = power * 1234567891 + degree;
+          int y = power % 3 == 0 ? 0 : Integer.MIN_VALUE + power * 7919;
+          for (int i = 0; i < 2; i++) {
+            first[i].addTerm(x, power);
+            second[i].addTerm(y, power);
+          }
+          a = a.add(ExactPolynomial.of(x, power));
+          b = b.add(ExactPolynomial.of(y, power));
+        }
+        for (Polynomial x : first) {
+          for (Polynomial y : second) {
+            ExactPolynomial[] expected = {a.add(b), a.multiply(b), a.derivative(), a.pow(3)};
+            Polynomial[] actual = {x.add(y), x.multiply(y), x.derivative(), x.pow(3)};
+            for (int i = 0; i < expected.length; i++) {
+              for (int power = 0; power <= 3 * degree; power++) {
+                assertEquals(expected[i].getCoefficient(power).mod(m).intValue(),
+                        actual[i].getCoefficient(power));
+              }
+            }
+          }
+        }
+        assertEquals(first[0], first[1]);
+        assertEquals(first[0].hashCode(), first[1].hashCode());
+        assertEquals(first[0].multiply(second[0]), first[1].multiply(second[1]));
+      }
+    }
+  }
+
+  /**
+   * Int polynomials are reduced into the ring from either side, and modular polynomials
+   * are never equal to int polynomials or to polynomials over another ring.
+   */
+  @Test
+  public void testMixingWithIntPolynomials() {
+    Polynomial ints = new SimplePolynomial();
+    ints.addTerm(10, 2);
+    ints.addTerm(-1, 0);
+    Polynomial modular = new SparseModularPolynomial(SMALL);
+    modular.addTerm(4, 2);
+    modular.addTerm(1, 1);
+    assertEquals("1x^1+6", ints.add(modular.freeze()).toString());
+    assertEquals(modular.add(ints), ints.add(modular));
+    assertEquals(modular.multiply(ints), new SparsePolynomial().add(ints).multiply(modular));
+    Polynomial same = new SimplePolynomial();
+    same.addTerm(4, 2);
+    same.addTerm(1, 1);
+    assertNotEquals(same, modular);
+    assertNotEquals(modular, same);
+    Polynomial other = new DenseModularPolynomial(new ModularContext(11));
+    other.addTerm(4, 2);
+    other.addTerm(1, 1);
+    assertNotEquals(modular, other);
+    assertEquals(modular.toString(), other.toString());
+  }
+
+  /**
+   * Modular evaluation agrees with evaluating the exact polynomial.
+   */
+  @Test
+  public void testEvaluateModular() {
+    Polynomial[] polynomials = {new DenseModularPolynomial(LARGE),
+        new SparseModularPolynomial(LARGE)};
+    for (int i = 0; i < 30; i++) {
+      for (Polynomial polynomial : polynomials) {
+        polynomial.addTerm(i * -1234567891, i * 37 % 1000);
+      }
+    }
+    BigInteger m = BigInteger.valueOf(LARGE.getModulus());
+    for (long x : new long[]{0, 1, -5, 123456789012L}) {
+      BigInteger point = BigInteger.valueOf(x);
+      BigInteger value = BigInteger.ZERO;
+      for (int power = polynomials[0].getDegree(); power >= 0; power--) {
+        value = value.multiply(point).add(BigInteger.valueOf(
+                polynomials[0].getCoefficient(power))).mod(m);
+      }
+      for (Polynomial polynomial : polynomials) {
+        assertEquals(value.longValue(),
+                ((AbstractModularPolynomial) polynomial).evaluateModular(x));
+      }
+    }
+  }
+
+  /**
+   * Frozen modular polynomials can be interned and stay in their ring.
+   */
+  @Test
+  public void testFreezeAndIntern() {
+    Polynomial modular = new DenseModularPolynomial(SMALL);
+    modular.addTerm(9, 3);
+    Polynomial frozen = modular.freeze();
+    modular.addTerm(1, 0);
+    assertEquals("2x^3", frozen.toString());
+    assertEquals("2x^3+1", modular.toString());
+    PolynomialInterner interner = new PolynomialInterner();
+    Polynomial copy = new SparseModularPolynomial(SMALL);
+    copy.addTerm(2, 3);
+    assertSame(interner.intern(frozen), interner.intern(copy));
+    assertEquals("4x^6", frozen.multiply(frozen).toString());
+  }
+
+  /**
+   * Division with remainder works for any invertible leading coefficient, on both the
+   * long division and the Newton paths, and keeps the representation of the dividend.
+   */
+  @Test
+  public void testDivideAndRemainder() {
+    for (ModularContext context : new ModularContext[]{SMALL, LARGE}) {
+      for (int[] degrees : new int[][]{{30, 8}, {600, 200}}) {
+        Polynomial[] dividends = {new DenseModularPolynomial(context),
+            new SparseModularPolynomial(context)};
+        Polynomial[] divisors = {new DenseModularPolynomial(context),
+            new SparseModularPolynomial(context)};
+        for (int i = 0; i < 2; i++) {
+          for (int power = 0; power <= degrees[0]; power++) {
+            dividends[i].addTerm(power * 1234567891 - 5, power);
+          }
+          for (int power = 0; power <= degrees[1]; power++) {
+            divisors[i].addTerm(power % 4 == 1 ? 0 : power * 987654321 + 2, power);
+          }
+        }
+        for (Polynomial a : dividends) {
+          for (Polynomial b : divisors) {
+            Polynomial[] result = a.divideAndRemainder(b);
+            assertEquals(a, result[0].multiply(b).add(result[1]));
+            assertTrue(result[1].toString().equals("0")
+                    || result[1].getDegree() < b.getDegree());
+            assertEquals(a.getClass(), result[0].getClass());
+          }
+        }
+      }
+    }
+    Polynomial a = new DenseModularPolynomial(new ModularContext(10));
+    a.addTerm(1, 2);
+    Polynomial b = new DenseModularPolynomial(new ModularContext(10));
+    b.addTerm(3, 1);
+    assertEquals("7x^1", a.divideAndRemainder(b)[0].toString());
+  }
+
+  /**
+   * Modular compositions match Horner's scheme in the ring, and int outer polynomials are
+   * brought into the ring of a modular inner polynomial.
+   */
+  @Test
+  public void testCompose() {
+    Polynomial outer = new DenseModularPolynomial(LARGE);
+    Polynomial inner = new SparseModularPolynomial(LARGE);
+    Polynomial ints = new SimplePolynomial();
+    for (int power = 0; power <= 60; power++) {
+      outer.addTerm(power * 1234567891 + 3, power);
+    }
+    for (int power = 0; power <= 20; power++) {
+      ints.addTerm(power * 987654321 + 1, power);
+    }
+    for (int power = 0; power <= 9; power++) {
+      inner.addTerm(power * 55555 - 7, power);
+    }
+    for (Polynomial polynomial : new Polynomial[]{outer, ints}) {
+      Polynomial expected = new DenseModularPolynomial(LARGE);
+      for (int power = polynomial.getDegree(); power >= 0; power--) {
+        Polynomial constant = new SparsePolynomial();
+        constant.addTerm(polynomial.getCoefficient(power), 0);
+        expected = expected.multiply(inner).add(constant);
+      }
+      Polynomial result = polynomial.compose(inner);
+      assertEquals(expected, result);
+      assertTrue(polynomial != outer || result instanceof DenseModularPolynomial);
+      Polynomial truncated = polynomial.compose(inner, 100);
+      for (int power = 0; power <= expected.getDegree(); power++) {
+        assertEquals(power < 100 ? expected.getCoefficient(power) : 0,
+                truncated.getCoefficient(power));
+      }
+    }
+    assertEquals("0", inner.compose(inner, 0).toString());
+  }
+
+  /**
+   * Over Z/pZ the GCD is monic and keeps the representation of the first operand.
+   */
+  @Test
+  public void testGcd() {
+    ModularContext context = new ModularContext(998244353);
+    Polynomial a = new SparseModularPolynomial(context);
+    a.addTerm(2, 2);
+    a.addTerm(-2, 0);
+    Polynomial b = new DenseModularPolynomial(context);
+    b.addTerm(3, 1);
+    b.addTerm(-3, 0);
+    Polynomial gcd = PolynomialGcd.gcd(a, b);
+    assertTrue(gcd instanceof SparseModularPolynomial);
+    assertEquals("1x^1+998244352", gcd.toString());
+    Polynomial ints = new SimplePolynomial();
+    ints.addTerm(1, 2);
+    ints.addTerm(-1, 0);
+    assertEquals(gcd, PolynomialGcd.gcd(b, ints));
+  }
+
+  /**
+   * The modulus of a modular GCD must be prime.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testGcdCompositeModulus() {
+    Polynomial one = new SimplePolynomial();
+    one.addTerm(1, 0);
+    PolynomialGcd.gcd(new DenseModularPolynomial(new ModularContext(10)), one);
+  }
+
+  /**
+   * Divisors whose leading coefficient is not invertible are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testDivisionByNonUnit() {
+    ModularContext context = new ModularContext(10);
+    Polynomial a = new DenseModularPolynomial(context);
+    a.addTerm(1, 2);
+    Polynomial b = new SparseModularPolynomial(context);
+    b.addTerm(4, 1);
+    a.divideAndRemainder(b);
+  }
+
+  /**
+   * Polynomials over different rings cannot be combined.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testDifferentModuli() {
+    new DenseModularPolynomial(SMALL).add(new DenseModularPolynomial(LARGE));
+  }
+}
@@ -0,0 +1,143 @@
+package polynomial;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for MultipointEvaluator and the modular kernels it is built on.
+ */
+public class MultipointEvaluatorTest {
+
+  private final Random random = new Random(11);
+
+  /**
+   * Builds a dense polynomial with random coefficients.
+   *
+   * @param degree the degree.
+   * @param bound  the bound on the absolute value of the coefficients.
+   * @return the polynomial.
+   */
+  private Polynomial randomPolynomial(int degree, int bound) {
+    Polynomial polynomial = new SimplePolynomial();
+    for (int power = 0; power <= degree; power++) {
+      polynomial.addTerm((int) (random.nextLong() % (bound + 1L)), power);
+    }
+    polynomial.addTerm(1, degree + 1);
+    return polynomial;
+  }
+
+  /**
+   * Evaluates a polynomial exactly at a point with BigInteger arithmetic.
+   *
+   * @param polynomial the polynomial.
+   * @param x          the point.
+   * @return the exact value.
+   */
+  private BigInteger reference(Polynomial polynomial, long x) {
+    BigInteger value = BigInteger.ZERO;
+    BigInteger point = BigInteger.valueOf(x);
+    for (int power = polynomial.getDegree(); power >= 0; power--) {
+      value = value.multiply(point).add(BigInteger.valueOf(polynomial.getCoefficient(power)));
+    }
+    return value;
+  }
+
+  /**
+   * Modular values match direct evaluation below and above the leaf size.
+   */
+  @Test
+  public void testModuloMatchesDirect() {
+    long modulus = 1_000_000_007;
+    for (int n : new int[]{0, 1, 5, 33, 200, 1000}) {
+      Polynomial polynomial = randomPolynomial(n, 1000);
+      long[] points = new long[n];
+      for (int i = 0; i < n; i++) {
+        points[i] = random.nextLong();
+      }
+      long[] values = MultipointEvaluator.evaluateModulo(polynomial, points, modulus);
+      for (int i = 0; i < n; i++) {
+        long x = Math.floorMod(points[i], modulus);
+        long expected = 0;
+        for (int power = polynomial.getDegree(); power >= 0; power--) {
+          expected = Math.floorMod(expected * x + polynomial.getCoefficient(power), modulus);
+        }
+        assertEquals(expected, values[i]);
+      }
+    }
+  }
+
+  /**
+   * Exact values match BigInteger evaluation for dense and sparse polynomials.
+   */
+  @Test
+  public void testExactMatchesBigInteger() {
+    Polynomial dense = randomPolynomial(150, Integer.MAX_VALUE - 1);
+    Polynomial sparse = new SparsePolynomial();
+    sparse.addTerm(-5, 400);
+    sparse.addTerm(Integer.MIN_VALUE, 77);
+    sparse.addTerm(3, 0);
+    long[] points = new long[300];
+    for (int i = 0; i < points.length; i++) {
+      points[i] = random.nextInt(20_001) - 10_000;
+    }
+    for (Polynomial polynomial : new Polynomial[]{dense, sparse}) {
+      BigInteger[] values = MultipointEvaluator.evaluateExact(polynomial, points);
+      for (int i = 0; i < points.length; i++) {
+        assertEquals(reference(polynomial, points[i]), values[i]);
+      }
+    }
+  }
+
+  /**
+   * Repeated points and the zero polynomial are handled.
+   */
+  @Test
+  public void testRepeatedPointsAndZero() {
+    long[] points = new long[100];
+    for (int i = 0; i < points.length; i++) {
+      points[i] = i % 3 - 1;
+    }
+    Polynomial polynomial = randomPolynomial(80, 50);
+    BigInteger[] values = MultipointEvaluator.evaluateExact(polynomial, points);
+    for (int i = 0; i < points.length; i++) {
+      assertEquals(reference(polynomial, points[i]), values[i]);
+    }
+    long[] zeros = MultipointEvaluator.evaluateModulo(new SparsePolynomial(), points, 97);
+    assertArrayEquals(new long[points.length], zeros);
+  }
+
+  /**
+   * Division with the Newton reciprocal agrees with long division.
+   */
+  @Test
+  public void testNewtonDivision() {
+    long modulus = 998_244_353;
+    long[] a = new long[700];
+    long[] b = new long[150];
+    for (int i = 0; i < a.length; i++) {
+      a[i] = Math.floorMod(random.nextLong(), modulus);
+    }
+    for (int i = 0; i < b.length; i++) {
+      b[i] = 1 + Math.floorMod(random.nextLong(), modulus - 1);
+    }
+    long[][] result = ModularKernels.divideAndRemainder(a, b, modulus);
+    long[] back = ModularKernels.add(ModularKernels.multiply(result[0], b, modulus), result[1],
+            modulus);
+    assertArrayEquals(a, back);
+    assertTrue(result[1].length < b.length);
+  }
+
+  /**
+   * Moduli out of range are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidModulus() {
+    MultipointEvaluator.evaluateModulo(new SimplePolynomial(), new long[]{1}, 1L << 31);
+  }
+}
@@ -0,0 +1,132 @@
+package polynomial;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for NttMultiplier.
+ */
+public class NttMultiplierTest {
+
+  private final Random random = new Random(7);
+
+  /**
+   * Restores the default threshold after each test.
+   */
+  @After
+  public void tearDown() {
+    NttMultiplier.setThreshold(NttMultiplier.DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Computes the reference schoolbook product.
+   *
+   * @param a the first operand.
+   * @param b the second operand.
+   * @return the product.
+   */
+  private int[] schoolbook(int[] a, int[] b) {
+    int[] product = new int[a.length + b.length - 1];
+    KaratsubaMultiplier.schoolbook(a, 0, a.length, b, 0, b.length, product, 0);
+    return product;
+  }
+
+  /**
+   * The transform matches the schoolbook product for small and full range coefficients.
+   */
+  @Test
+  public void testMatchesSchoolbook() {
+    for (int aLength : new int[]{1, 2, 5, 64, 300}) {
+      for (int bLength : new int[]{1, 3, 64, 129}) {
+        int[] a = new int[aLength];
+        int[] b = new int[bLength];
+        for (int i = 0; i < aLength; i++) {
+          a[i] = aLength % 2 == 0 ? random.nextInt() : random.nextInt(201) - 100;
+        }
+        for (int i = 0; i < bLength; i++) {
+          b[i] = aLength % 2 == 0 ? random.nextInt() : random.nextInt(201) - 100;
+        }
+        assertArrayEquals(schoolbook(a, b), NttMultiplier.multiply(a, aLength, b, bLength));
+      }
+    }
+  }
+
+  /**
+   * Extreme coefficients produce the exact wrapped result.
+   */
+  @Test
+  public void testExtremeCoefficients() {
+    int[] a = new int[1000];
+    int[] b = new int[1000];
+    for (int i = 0; i < 1000; i++) {
+      a[i] = Integer.MIN_VALUE;
+      b[i] = i % 2 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+    }
+    assertArrayEquals(schoolbook(a, b), NttMultiplier.multiply(a, 1000, b, 1000));
+  }
+
+  /**
+   * Squaring matches the schoolbook product of an operand with itself.
+   */
+  @Test
+  public void testSquareMatchesSchoolbook() {
+    for (int length : new int[]{1, 2, 64, 300, 1000}) {
+      int[] a = new int[length];
+      for (int i = 0; i < length; i++) {
+        a[i] = length % 2 == 0 ? random.nextInt() : random.nextInt(201) - 100;
+      }
+      assertArrayEquals(schoolbook(a, a), NttMultiplier.square(a, length));
+    }
+  }
+
+  /**
+   * Products modulo a prime match the reference, for transform primes and other primes.
+   */
+  @Test
+  public void testMultiplyMod() {
+    for (long modulus : new long[]{998244353L, 2147483647L, 1000000007L, 101L}) {
+      long[] a = new long[77];
+      long[] b = new long[50];
+      for (int i = 0; i < a.length; i++) {
+        a[i] = Math.floorMod(random.nextLong(), modulus);
+      }
+      for (int i = 0; i < b.length; i++) {
+        b[i] = Math.floorMod(random.nextLong(), modulus);
+      }
+      long[] expected = new long[a.length + b.length - 1];
+      for (int i = 0; i < a.length; i++) {
+        for (int j = 0; j < b.length; j++) {
+          expected[i + j] = (expected[i + j] + a[i] * b[j] % modulus) % modulus;
+        }
+      }
+      assertArrayEquals(expected, NttMultiplier.multiplyMod(a, a.length, b, b.length, modulus));
+    }
+  }
+
+  /**
+   * Dense polynomials above the threshold are multiplied with the transform.
+   */
+  @Test
+  public void testPolynomialProduct() {
+    NttMultiplier.setThreshold(16);
+    assertTrue(NttMultiplier.isWorthwhile(16, 20));
+    assertFalse(NttMultiplier.isWorthwhile(15, 20));
+    Polynomial first = new SimplePolynomial();
+    Polynomial second = new SimplePolynomial();
+    for (int i = 0; i < 100; i++) {
+      first.addTerm(i + 1, i);
+      second.addTerm(1, i);
+    }
+    Polynomial product = first.multiply(second);
+    assertEquals(198, product.getDegree());
+    assertEquals(5050, product.getCoefficient(99));
+    assertEquals(100, product.getCoefficient(198));
+  }
+}
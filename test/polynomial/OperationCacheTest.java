@@ -0,0 +1,147 @@
+package polynomial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for OperationCache.
+ */
+public class OperationCacheTest {
+
+  /**
+   * Builds a polynomial with the given number of terms.
+   *
+   * @param polynomial an empty polynomial.
+   * @param terms      the number of terms.
+   * @param offset     a value mixed into the coefficients.
+   * @return the polynomial with the terms added.
+   */
+  private Polynomial sample(Polynomial polynomial, int terms, int offset) {
+    for (int power = 0; power < terms; power++) {
+      polynomial.addTerm(power + offset, 2 * power);
+    }
+    return polynomial;
+  }
+
+  /**
+   * Repeated operations on equal operands of either representation are answered from the
+   * cache.
+   */
+  @Test
+  public void testHits() {
+    OperationCache cache = new OperationCache(1000);
+    Polynomial first = sample(new SimplePolynomial(), 5, 1);
+    Polynomial second = sample(new SparsePolynomial(), 4, 2);
+    Polynomial product = cache.multiply(first, second);
+    assertTrue(product.isImmutable());
+    assertEquals(first.multiply(second), product);
+    assertSame(product, cache.multiply(sample(new SparsePolynomial(), 5, 1),
+            sample(new SimplePolynomial(), 4, 2)));
+    assertEquals(first.add(second), cache.add(first, second));
+    assertEquals(first.derivative(), cache.derivative(first));
+    assertSame(cache.derivative(first), cache.derivative(first));
+    assertEquals(3, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(3, cache.size());
+  }
+
+  /**
+   * Changing an operand after an operation neither changes the cached result nor returns
+   * it for the changed operand.
+   */
+  @Test
+  public void testMutationDoesNotPoison() {
+    OperationCache cache = new OperationCache(1000);
+    Polynomial operand = sample(new SparsePolynomial(), 3, 1);
+    Polynomial derivative = cache.derivative(operand);
+    String before = derivative.toString();
+    operand.addTerm(5, 9);
+    assertEquals(before, derivative.toString());
+    assertEquals(operand.derivative(), cache.derivative(operand));
+    assertEquals(2, cache.getMissCount());
+  }
+
+  /**
+   * A hit leaves the operands alone, so a mutable operand keeps its own arrays and can be
+   * changed afterwards without copying them.
+   */
+  @Test
+  public void testLookupDoesNotShareOperands() {
+    OperationCache cache = new OperationCache(1000);
+    Polynomial stored = cache.multiply(sample(new SimplePolynomial(), 4, 1),
+            sample(new SparsePolynomial(), 3, 0));
+    SimplePolynomial operand = (SimplePolynomial) sample(new SimplePolynomial(), 4, 1);
+    int[] coefficients = operand.getCoefficientArray();
+    assertSame(stored, cache.multiply(operand, sample(new SparsePolynomial(), 3, 0)));
+    assertEquals(1, cache.getHitCount());
+    operand.addTerm(1, 0);
+    assertSame(coefficients, operand.getCoefficientArray());
+  }
+
+  /**
+   * The least recently used entries are evicted to stay within the weight.
+   */
+  @Test
+  public void testEviction() {
+    OperationCache cache = new OperationCache(40);
+    Polynomial kept = sample(new SimplePolynomial(), 3, 0);
+    cache.derivative(kept);
+    for (int i = 1; i <= 10; i++) {
+      cache.derivative(kept);
+      cache.derivative(sample(new SimplePolynomial(), 3, i));
+    }
+    assertTrue(cache.getWeight() <= 40);
+    assertTrue(cache.getEvictionCount() > 0);
+    long hits = cache.getHitCount();
+    cache.derivative(kept);
+    assertEquals(hits + 1, cache.getHitCount());
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+  }
+
+  /**
+   * Many threads can share the cache and always get correct results.
+   *
+   * @throws Exception if a task fails.
+   */
+  @Test
+  public void testConcurrentAccess() throws Exception {
+    OperationCache cache = new OperationCache(200);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        int offset = i % 13;
+        results.add(executor.submit(() -> {
+          Polynomial first = sample(new SparsePolynomial(), 6, offset);
+          Polynomial second = sample(new SimplePolynomial(), 4, 1);
+          return cache.multiply(first, second).equals(first.multiply(second));
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+      assertEquals(200, cache.getHitCount() + cache.getMissCount());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * A maximum weight below 1 is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWeight() {
+    new OperationCache(0);
+  }
+}
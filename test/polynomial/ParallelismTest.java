@@ -0,0 +1,248 @@
+package polynomial;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for Parallelism and the parallel operations it controls.
+ */
+public class ParallelismTest {
+
+  private final Random random = new Random(13);
+
+  /**
+   * Restores the default settings after each test.
+   */
+  @After
+  public void tearDown() {
+    Parallelism.setPool(ForkJoinPool.commonPool());
+    Parallelism.setEvaluationThreshold(Parallelism.DEFAULT_EVALUATION_THRESHOLD);
+    Parallelism.setMultiplicationThreshold(Parallelism.DEFAULT_MULTIPLICATION_THRESHOLD);
+  }
+
+  /**
+   * Evaluates a polynomial at the points in the given pool with parallelism forced on.
+   *
+   * @param polynomial the polynomial.
+   * @param xs         the points.
+   * @param threads    the number of threads of the pool.
+   * @return the values.
+   */
+  private double[] evaluateIn(Polynomial polynomial, double[] xs, int threads) {
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      Parallelism.setPool(pool);
+      Parallelism.setEvaluationThreshold(1);
+      double[] out = new double[xs.length];
+      polynomial.evaluate(xs, out);
+      return out;
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Parallel evaluation gives bit-identical values to sequential evaluation for both
+   * representations, whatever the number of threads.
+   */
+  @Test
+  public void testEvaluationIsReproducible() {
+    Polynomial dense = new SimplePolynomial();
+    Polynomial sparse = new SparsePolynomial();
+    for (int power = 0; power < 40; power++) {
+      dense.addTerm(random.nextInt(2001) - 1000, power);
+      sparse.addTerm(random.nextInt(2001) - 1000, power * power * 7);
+    }
+    double[] xs = new double[100_003];
+    for (int i = 0; i < xs.length; i++) {
+      xs[i] = random.nextDouble() * 2.2 - 1.1;
+    }
+    for (Polynomial polynomial : new Polynomial[]{dense, sparse}) {
+      double[] expected = new double[xs.length];
+      for (int i = 0; i < xs.length; i++) {
+        expected[i] = polynomial.evaluate(xs[i]);
+      }
+      for (int threads : new int[]{1, 3, 8}) {
+        assertArrayEquals(expected, evaluateIn(polynomial, xs, threads), 0.0);
+      }
+    }
+  }
+
+  /**
+   * Parallel evaluation handles a single array used for both the points and the values.
+   */
+  @Test
+  public void testEvaluationInPlace() {
+    Polynomial polynomial = new SimplePolynomial();
+    polynomial.addTerm(3, 2);
+    polynomial.addTerm(-1, 0);
+    Parallelism.setEvaluationThreshold(1);
+    double[] xs = new double[50_000];
+    for (int i = 0; i < xs.length; i++) {
+      xs[i] = i;
+    }
+    polynomial.evaluate(xs, xs);
+    for (int i = 0; i < xs.length; i++) {
+      assertEquals(3.0 * i * i - 1, xs[i], 0.0);
+    }
+  }
+
+  /**
+   * Tasks are longer for cheap polynomials and always hold whole blocks.
+   */
+  @Test
+  public void testEvaluationGrain() {
+    int cheap = Parallelism.evaluationGrain(1);
+    int expensive = Parallelism.evaluationGrain(10_000);
+    assertTrue(cheap > expensive);
+    assertEquals(0, cheap % HornerEvaluator.BLOCK);
+    assertEquals(HornerEvaluator.BLOCK, expensive);
+  }
+
+  /**
+   * Multiplies two polynomials in a pool of the given size with parallelism forced on.
+   *
+   * @param first   the first operand.
+   * @param second  the second operand.
+   * @param threads the number of threads of the pool.
+   * @return the product.
+   */
+  private Polynomial multiplyIn(Polynomial first, Polynomial second, int threads) {
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      Parallelism.setPool(pool);
+      Parallelism.setMultiplicationThreshold(1);
+      return first.multiply(second);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Parallel dense products match the sequential ones, including wrapped coefficients.
+   */
+  @Test
+  public void testDenseMultiplication() {
+    Polynomial first = new SimplePolynomial();
+    Polynomial second = new SimplePolynomial();
+    for (int power = 0; power < 1500; power++) {
+      first.addTerm(random.nextInt(), power);
+    }
+    for (int power = 0; power < 700; power++) {
+      second.addTerm(random.nextInt(201) - 100, power);
+    }
+    Polynomial expected = first.multiply(second);
+    for (int threads : new int[]{2, 5}) {
+      assertEquals(expected, multiplyIn(first, second, threads));
+      assertEquals(expected, multiplyIn(second, first, threads));
+    }
+  }
+
+  /**
+   * The GCD computed from prime images in parallel matches the sequential one.
+   */
+  @Test
+  public void testGcd() {
+    Polynomial common = new SimplePolynomial();
+    Polynomial first = new SimplePolynomial();
+    Polynomial second = new SimplePolynomial();
+    for (int power = 0; power < 200; power++) {
+      common.addTerm(random.nextInt(11) - 5, power);
+      first.addTerm(random.nextInt(11) - 5, power);
+      second.addTerm(random.nextInt(11) - 5, power);
+    }
+    first = first.multiply(common);
+    second = second.multiply(common);
+    Polynomial expected = PolynomialGcd.gcd(first, second);
+    for (int threads : new int[]{2, 5}) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      try {
+        Parallelism.setPool(pool);
+        Parallelism.setMultiplicationThreshold(1);
+        assertEquals(expected, PolynomialGcd.gcd(first, second));
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+
+  /**
+   * Parallel sparse products match the sequential ones, including cancelling terms.
+   */
+  @Test
+  public void testSparseMultiplication() {
+    Polynomial first = new SparsePolynomial();
+    Polynomial second = new SparsePolynomial();
+    for (int i = 0; i < 900; i++) {
+      first.addTerm(random.nextInt(21) - 10, random.nextInt(100_000));
+      second.addTerm(random.nextInt(21) - 10, random.nextInt(5_000));
+    }
+    Polynomial expected = first.multiply(second);
+    for (int threads : new int[]{2, 7}) {
+      Polynomial product = multiplyIn(first, second, threads);
+      assertTrue(product instanceof SparsePolynomial);
+      assertEquals(expected, product);
+    }
+  }
+
+  /**
+   * Parallel products of a sparse and a dense polynomial match the sequential ones, for a
+   * nearly dense sparse operand, a spread out one and one of very high degree.
+   */
+  @Test
+  public void testMixedMultiplication() {
+    int[][] shapes = {{1000, 1000}, {900, 20_000}, {300, 10_000_000}};
+    Polynomial dense = new SimplePolynomial();
+    for (int power = 0; power < 400; power++) {
+      dense.addTerm(random.nextInt(21) - 10, power);
+    }
+    Polynomial[] sparse = new Polynomial[shapes.length];
+    Polynomial[] expected = new Polynomial[shapes.length];
+    for (int k = 0; k < shapes.length; k++) {
+      sparse[k] = new SparsePolynomial();
+      for (int i = 0; i < shapes[k][0]; i++) {
+        sparse[k].addTerm(random.nextInt(), random.nextInt(shapes[k][1]));
+      }
+      expected[k] = sparse[k].multiply(dense);
+    }
+    for (int k = 0; k < shapes.length; k++) {
+      for (int threads : new int[]{2, 7}) {
+        Polynomial product = multiplyIn(sparse[k], dense, threads);
+        assertTrue(product instanceof SparsePolynomial);
+        assertEquals(expected[k], product);
+        assertEquals(expected[k], multiplyIn(dense, sparse[k], threads));
+      }
+    }
+  }
+
+  /**
+   * A null pool is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullPool() {
+    Parallelism.setPool(null);
+  }
+
+  /**
+   * A threshold below 1 is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidEvaluationThreshold() {
+    Parallelism.setEvaluationThreshold(0);
+  }
+
+  /**
+   * A multiplication threshold below 1 is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMultiplicationThreshold() {
+    Parallelism.setMultiplicationThreshold(0);
+  }
+}
@@ -0,0 +1,112 @@
+package polynomial;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This is the test class for PolynomialBuilder.
+ */
+public class PolynomialBuilderTest {
+
+  private PolynomialBuilder builder;
+
+  /**
+   * This is the setup case for this test class.
+   */
+  @Before
+  public void setUp() {
+    builder = new PolynomialBuilder();
+  }
+
+  /**
+   * An empty builder builds the zero polynomial in both representations.
+   */
+  @Test
+  public void testEmpty() {
+    assertEquals("0", builder.buildSparse().toString());
+    assertEquals("0", builder.buildSimple().toString());
+  }
+
+  /**
+   * Terms added out of order are sorted and like terms are combined.
+   */
+  @Test
+  public void testUnsortedTerms() {
+    builder.addTerm(2, 1).addTerm(3, 4).addTerm(5, 0).addTerm(-1, 1).addTerm(4, 4);
+    assertEquals("7x^4+1x^1+5", builder.buildSparse().toString());
+    assertEquals("7x^4+1x^1+5", builder.buildSimple().toString());
+  }
+
+  /**
+   * Terms that cancel out do not appear in the built polynomial.
+   */
+  @Test
+  public void testCancellingTerms() {
+    builder.addTerm(3, 5).addTerm(1, 2).addTerm(-3, 5);
+    SparsePolynomial sparse = builder.buildSparse();
+    SimplePolynomial simple = builder.buildSimple();
+    assertEquals("1x^2", sparse.toString());
+    assertEquals(2, simple.getDegree());
+    assertEquals(sparse, simple);
+  }
+
+  /**
+   * Bulk addition of parallel arrays.
+   */
+  @Test
+  public void testAddTerms() {
+    builder.addTerms(new int[]{1, 2, 3}, new int[]{0, 2, 0});
+    assertEquals("2x^2+4", builder.build().toString());
+  }
+
+  /**
+   * Bulk addition rejects arrays of different lengths.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddTermsLengthMismatch() {
+    builder.addTerms(new int[]{1, 2}, new int[]{0});
+  }
+
+  /**
+   * Bulk addition rejects negative powers.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativePower() {
+    builder.addTerm(1, -1);
+  }
+
+  /**
+   * Bulk addition of terms to existing polynomials of both types.
+   */
+  @Test
+  public void testPolynomialAddTerms() {
+    SimplePolynomial simple = new SimplePolynomial();
+    SparsePolynomial sparse = new SparsePolynomial();
+    simple.addTerm(4, 3);
+    sparse.addTerm(4, 3);
+    int[] coefficients = {1, -4, 2, 6};
+    int[] powers = {7, 3, 1, 1};
+    simple.addTerms(coefficients, powers);
+    sparse.addTerms(coefficients, powers);
+    assertEquals("1x^7+8x^1", simple.toString());
+    assertEquals("1x^7+8x^1", sparse.toString());
+  }
+
+  /**
+   * Building a large polynomial from terms in increasing order of power.
+   */
+  @Test(timeout = 1000)
+  public void testLargeBuild() {
+    builder = new PolynomialBuilder(200000);
+    for (int i = 0; i < 100000; i++) {
+      builder.addTerm(1, 2 * i);
+      builder.addTerm(1, 2 * i);
+    }
+    SparsePolynomial sparse = builder.buildSparse();
+    assertEquals(199998, sparse.getDegree());
+    assertEquals(2, sparse.getCoefficient(1000));
+    assertEquals(0, sparse.getCoefficient(1001));
+  }
+}
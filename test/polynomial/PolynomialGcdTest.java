@@ -0,0 +1,69 @@
+package polynomial;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for the half-GCD of PolynomialGcd, which is checked against
+ * Euclid's algorithm modulo a prime.
+ */
+public class PolynomialGcdTest {
+
+  /**
+   * Returns the residues of a polynomial whose coefficients follow a quadratic sequence.
+   *
+   * @param degree  the degree.
+   * @param step    a value mixed into the coefficients.
+   * @param modulus the prime.
+   * @return the residues, with a non-zero leading one.
+   */
+  private static long[] residues(int degree, long step, long modulus) {
+    long[] residues = new long[degree + 1];
+    for (int i = 0; i <= degree; i++) {
+      residues[i] = Math.floorMod((i * (long) i + step) * (2 * i + 1), modulus);
+    }
+    residues[degree] = 1 + Math.floorMod(step, modulus - 1);
+    return residues;
+  }
+
+  /**
+   * Reference monic GCD modulo a prime with Euclid's algorithm.
+   *
+   * @param a       the first polynomial.
+   * @param b       the second polynomial.
+   * @param modulus the prime.
+   * @return the monic GCD.
+   */
+  private static long[] euclid(long[] a, long[] b, long modulus) {
+    while (b.length > 0) {
+      long[] remainder = ModularKernels.divideAndRemainder(a, b, modulus)[1];
+      a = b;
+      b = remainder;
+    }
+    return a.length == 0 ? a
+            : ModularKernels.scale(a, ModularKernels.inverse(a[a.length - 1], modulus), modulus);
+  }
+
+  /**
+   * The half-GCD gives the same GCD as Euclid's algorithm, for primes small enough that
+   * remainder degrees often drop by more than one and for planted common factors.
+   */
+  @Test
+  public void testHalfGcdMatchesEuclid() {
+    for (long modulus : new long[]{7, 13, 998244353}) {
+      for (int[] degrees : new int[][]{{300, 300}, {700, 450}, {1200, 1100}}) {
+        long[] common = residues(degrees[0] / 3, 5, modulus);
+        long[] a = ModularKernels.multiply(common, residues(degrees[0], 11, modulus), modulus);
+        long[] b = ModularKernels.multiply(common, residues(degrees[1], 3, modulus), modulus);
+        long[] expected = euclid(a, b, modulus);
+        assertTrue(expected.length >= common.length);
+        assertArrayEquals(expected, PolynomialGcd.gcdModulo(a, b, modulus));
+        assertArrayEquals(expected, PolynomialGcd.gcdModulo(b, a, modulus));
+        long[] other = residues(degrees[1], 8, modulus);
+        assertArrayEquals(euclid(a, other, modulus), PolynomialGcd.gcdModulo(a, other, modulus));
+      }
+    }
+  }
+}
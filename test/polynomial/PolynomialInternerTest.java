@@ -0,0 +1,124 @@
+package polynomial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for PolynomialInterner.
+ */
+public class PolynomialInternerTest {
+
+  /**
+   * Builds the polynomial coefficient x^power + 1 in the given representation.
+   *
+   * @param polynomial  an empty polynomial.
+   * @param coefficient the leading coefficient.
+   * @param power       the leading power.
+   * @return the polynomial with the terms added.
+   */
+  private Polynomial sample(Polynomial polynomial, int coefficient, int power) {
+    polynomial.addTerm(coefficient, power);
+    polynomial.addTerm(1, 0);
+    return polynomial;
+  }
+
+  /**
+   * Equal polynomials of either representation map to the same immutable instance.
+   */
+  @Test
+  public void testCanonicalInstance() {
+    PolynomialInterner interner = new PolynomialInterner();
+    Polynomial first = interner.intern(sample(new SimplePolynomial(), 3, 5));
+    Polynomial second = interner.intern(sample(new SparsePolynomial(), 3, 5));
+    Polynomial third = interner.intern(sample(new SparsePolynomial(), 4, 5));
+    assertTrue(first.isImmutable());
+    assertSame(first, second);
+    assertSame(first, interner.intern(first));
+    assertNotEquals(first, third);
+    assertEquals(2, interner.size());
+  }
+
+  /**
+   * Canonical instances still compare equal to other polynomials by their terms, and
+   * instances of different interners are independent.
+   */
+  @Test
+  public void testEqualityAcrossInterners() {
+    PolynomialInterner interner = new PolynomialInterner();
+    PolynomialInterner other = new PolynomialInterner();
+    Polynomial mutable = sample(new SimplePolynomial(), 2, 3);
+    Polynomial first = interner.intern(mutable);
+    Polynomial second = other.intern(sample(new SparsePolynomial(), 2, 3));
+    assertNotSame(first, second);
+    assertEquals(first, second);
+    assertEquals(first, mutable);
+    assertEquals(mutable, first);
+    assertEquals(first.hashCode(), second.hashCode());
+  }
+
+  /**
+   * Interned polynomials that are no longer used are dropped from the table.
+   *
+   * @throws InterruptedException if the test is interrupted while waiting.
+   */
+  @Test
+  public void testUnusedInstancesAreReleased() throws InterruptedException {
+    PolynomialInterner interner = new PolynomialInterner();
+    for (int i = 0; i < 1000; i++) {
+      interner.intern(sample(new SparsePolynomial(), i + 1, i));
+    }
+    for (int attempt = 0; attempt < 50 && interner.size() > 0; attempt++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertEquals(0, interner.size());
+  }
+
+  /**
+   * Threads interning equal polynomials at the same time all get the same instance.
+   *
+   * @throws Exception if a task fails.
+   */
+  @Test
+  public void testConcurrentIntern() throws Exception {
+    PolynomialInterner interner = new PolynomialInterner();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Polynomial>> results = new ArrayList<>();
+      for (int i = 0; i < 400; i++) {
+        int power = i % 10;
+        results.add(executor.submit(() -> interner.intern(
+                sample(new SimplePolynomial(), 7, power))));
+      }
+      Polynomial[] canonical = new Polynomial[10];
+      for (int i = 0; i < results.size(); i++) {
+        Polynomial result = results.get(i).get();
+        if (canonical[i % 10] == null) {
+          canonical[i % 10] = result;
+        }
+        assertSame(canonical[i % 10], result);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * A null polynomial is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNull() {
+    new PolynomialInterner().intern(null);
+  }
+}
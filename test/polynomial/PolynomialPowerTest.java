@@ -0,0 +1,122 @@
+package polynomial;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for PolynomialPower, covering the single term, binomial, dense
+ * and sparse binary exponentiation paths against repeated multiplication.
+ */
+public class PolynomialPowerTest {
+
+  /**
+   * Raises a polynomial to a power by repeated multiplication.
+   *
+   * @param base     the base.
+   * @param exponent the exponent.
+   * @return the power.
+   */
+  private Polynomial repeated(Polynomial base, int exponent) {
+    Polynomial result = new SparsePolynomial();
+    result.addTerm(1, 0);
+    for (int i = 0; i < exponent; i++) {
+      result = result.multiply(base);
+    }
+    return result;
+  }
+
+  /**
+   * Builds a polynomial with the given terms in both representations.
+   *
+   * @param coefficients the coefficients.
+   * @param powers       the powers.
+   * @return the SimplePolynomial and the SparsePolynomial.
+   */
+  private Polynomial[] build(int[] coefficients, int[] powers) {
+    Polynomial simple = new SimplePolynomial();
+    Polynomial sparse = new SparsePolynomial();
+    for (int i = 0; i < coefficients.length; i++) {
+      simple.addTerm(coefficients[i], powers[i]);
+      sparse.addTerm(coefficients[i], powers[i]);
+    }
+    return new Polynomial[]{simple, sparse};
+  }
+
+  /**
+   * Checks the power of both representations against repeated multiplication.
+   *
+   * @param coefficients the coefficients of the base.
+   * @param powers       the powers of the base.
+   * @param exponents    the exponents to check.
+   */
+  private void check(int[] coefficients, int[] powers, int... exponents) {
+    for (Polynomial base : build(coefficients, powers)) {
+      for (int exponent : exponents) {
+        Polynomial power = base.pow(exponent);
+        assertEquals(repeated(base, exponent), power);
+        assertEquals(base.getClass(), power.getClass());
+      }
+    }
+  }
+
+  /**
+   * Single terms, binomials and short polynomials with gaps between the powers.
+   */
+  @Test
+  public void testFewTerms() {
+    check(new int[]{-3}, new int[]{5}, 2, 7, 40);
+    check(new int[]{2, -3}, new int[]{4, 1}, 2, 5, 17, 64);
+    check(new int[]{1, 1}, new int[]{1, 0}, 33, 100);
+    check(new int[]{3, -2, 7}, new int[]{4, 1, 0}, 2, 9, 30);
+    check(new int[]{5, 1, -1, 2}, new int[]{12, 6, 3, 0}, 3, 11);
+    check(new int[]{1, 4, -9}, new int[]{20, 12, 4}, 2, 13);
+    check(new int[]{1, 2, 3, 4, 5, 6, 7, 8}, new int[]{7, 6, 5, 4, 3, 2, 1, 0}, 5, 12);
+    check(new int[]{1, 1, 1}, new int[]{5000, 1, 0}, 2, 3);
+  }
+
+  /**
+   * Coefficients that overflow wrap exactly like repeated multiplication.
+   */
+  @Test
+  public void testWrappedCoefficients() {
+    check(new int[]{Integer.MAX_VALUE, -65536}, new int[]{3, 0}, 2, 31, 70);
+    check(new int[]{65536, 65536}, new int[]{1, 0}, 2, 3);
+    check(new int[]{123456789, -987654321, 5}, new int[]{9, 2, 0}, 4, 21);
+    check(new int[]{2, 6, 10}, new int[]{2, 1, 0}, 40);
+  }
+
+  /**
+   * Bases with many terms use binary exponentiation in both representations.
+   */
+  @Test
+  public void testManyTerms() {
+    int[] coefficients = new int[40];
+    int[] powers = new int[40];
+    for (int i = 0; i < 40; i++) {
+      coefficients[i] = i * 1234567891 + 1;
+      powers[i] = i * (i % 3 + 1);
+    }
+    check(coefficients, powers, 2, 3, 6);
+  }
+
+  /**
+   * Immutable bases give immutable powers.
+   */
+  @Test
+  public void testImmutable() {
+    Polynomial base = build(new int[]{1, -1, 1}, new int[]{2, 1, 0})[0];
+    Polynomial power = base.freeze().pow(5);
+    assertTrue(power.isImmutable());
+    assertEquals(repeated(base, 5), power);
+  }
+
+  /**
+   * Powers whose degree exceeds the int range are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testDegreeOverflow() {
+    build(new int[]{1, 1}, new int[]{1 << 20, 0})[1].pow(1 << 12);
+  }
+}
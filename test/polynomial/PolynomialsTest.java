@@ -0,0 +1,57 @@
+package polynomial;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This is the test class for Polynomials, covering the forms toString writes and the
+ * rejection of text toString never writes. Round trips are tested for both representations
+ * in AbstractPolynomialTest.
+ */
+public class PolynomialsTest {
+
+  /**
+   * The zero polynomial and single terms parse to the expected terms.
+   */
+  @Test
+  public void testSimpleForms() {
+    assertEquals("0", Polynomials.parse("0").toString());
+    assertEquals(0, Polynomials.parse("0").getDegree());
+    Polynomial polynomial = Polynomials.parse("3x^4-2x^1+7");
+    assertEquals(3, polynomial.getCoefficient(4));
+    assertEquals(-2, polynomial.getCoefficient(1));
+    assertEquals(7, polynomial.getCoefficient(0));
+    assertEquals(Integer.MIN_VALUE, Polynomials.parse("--2147483648x^3").getCoefficient(3));
+    assertEquals(-1, Polynomials.parse("1x^2147483647-1").getCoefficient(0));
+  }
+
+  /**
+   * Text that toString never writes is rejected.
+   */
+  @Test
+  public void testRejectsOtherText() {
+    String[] invalid = {"", "00", "+3", "3x^4+-2", "3 x^4", "3x^4 ", "x^4", "3x4", "3x^",
+        "3x^0", "3x^01", "03", "0x^1+1", "3x^1+2x^1", "3x^1+2x^2", "2147483648",
+        "-2147483648", "--2147483647", "---1", "3x^2147483648", "1+2", "3x^2+", "3-",
+        "3y^2", "1x^1+0"};
+    for (String text : invalid) {
+      try {
+        Polynomials.parse(text);
+        fail("Accepted " + text);
+      } catch (IllegalArgumentException e) {
+        assertTrue(e.getMessage().contains("index"));
+      }
+    }
+  }
+
+  /**
+   * A null source is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNull() {
+    Polynomials.parse((CharSequence) null);
+  }
+}
@@ -0,0 +1,148 @@
+package polynomial;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for RepresentationPolicy.
+ */
+public class RepresentationPolicyTest {
+
+  /**
+   * Turns on the adaptive policy before each test.
+   */
+  @Before
+  public void setUp() {
+    RepresentationPolicy.setCurrent(RepresentationPolicy.ADAPTIVE);
+  }
+
+  /**
+   * Restores the fixed policy after each test.
+   */
+  @After
+  public void tearDown() {
+    RepresentationPolicy.setCurrent(RepresentationPolicy.FIXED);
+  }
+
+  /**
+   * The fixed policy keeps the representation chosen by the operands.
+   */
+  @Test
+  public void testFixed() {
+    RepresentationPolicy.setCurrent(RepresentationPolicy.FIXED);
+    Polynomial simple = new SimplePolynomial();
+    simple.addTerm(1, 1000000);
+    Polynomial sparse = new SparsePolynomial();
+    sparse.addTerm(1, 1);
+    assertTrue(simple.add(simple) instanceof SimplePolynomial);
+    assertTrue(sparse.add(simple) instanceof SparsePolynomial);
+  }
+
+  /**
+   * Dense results of few terms at a high degree become sparse.
+   */
+  @Test
+  public void testDenseBecomesSparse() {
+    Polynomial simple = new SimplePolynomial();
+    simple.addTerm(3, 1000000);
+    simple.addTerm(2, 5);
+    simple.addTerm(1, 0);
+    Polynomial sum = simple.add(simple);
+    assertTrue(sum instanceof SparsePolynomial);
+    assertEquals("6x^1000000+4x^5+2", sum.toString());
+    assertTrue(simple.derivative() instanceof SparsePolynomial);
+    assertTrue(simple.multiply(simple) instanceof SparsePolynomial);
+  }
+
+  /**
+   * Sparse results whose terms fill most powers become dense.
+   */
+  @Test
+  public void testSparseBecomesDense() {
+    Polynomial sparse = new SparsePolynomial();
+    Polynomial simple = new SimplePolynomial();
+    for (int i = 0; i < 100; i++) {
+      sparse.addTerm(1, i);
+      simple.addTerm(i, i);
+    }
+    Polynomial sum = sparse.add(simple);
+    assertTrue(sum instanceof SimplePolynomial);
+    assertEquals(100, sum.getCoefficient(99));
+    assertTrue(sparse.multiply(simple) instanceof SimplePolynomial);
+    assertTrue(sparse.derivative() instanceof SimplePolynomial);
+  }
+
+  /**
+   * Small results are always dense and thresholds can be configured.
+   */
+  @Test
+  public void testThresholds() {
+    RepresentationPolicy policy = RepresentationPolicy.adaptive(0.25, 4);
+    assertTrue(policy.prefersDense(1, 4));
+    assertFalse(policy.prefersDense(1, 5));
+    assertTrue(policy.prefersDense(25, 99));
+    assertFalse(policy.prefersDense(24, 99));
+    assertFalse(RepresentationPolicy.FIXED.isAdaptive());
+  }
+
+  /**
+   * Thresholds outside their range are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidDensity() {
+    RepresentationPolicy.adaptive(1.5, 0);
+  }
+
+  /**
+   * The builder follows the adaptive policy.
+   */
+  @Test
+  public void testBuilder() {
+    PolynomialBuilder builder = new PolynomialBuilder();
+    builder.addTerm(1, 100000).addTerm(1, 0);
+    assertTrue(builder.build() instanceof SparsePolynomial);
+    assertTrue(new PolynomialBuilder().addTerm(1, 3).build() instanceof SimplePolynomial);
+  }
+
+  /**
+   * Sums and derivatives are built in the preferred representation whatever the types of
+   * the operands, including a sparse term far beyond any dense array that fits in memory.
+   */
+  @Test
+  public void testChosenBeforeComputing() {
+    Polynomial first = new SparsePolynomial();
+    Polynomial second = new SparsePolynomial();
+    Polynomial simple = new SimplePolynomial();
+    for (int i = 0; i < 40; i++) {
+      first.addTerm(1, i);
+      second.addTerm(i, i);
+      simple.addTerm(-1, i);
+    }
+    Polynomial sum = first.add(second);
+    assertTrue(sum instanceof SimplePolynomial);
+    assertEquals(40, sum.getCoefficient(39));
+    assertTrue(second.add(simple.freeze()) instanceof SimplePolynomial);
+    assertEquals("0", first.add(simple).toString());
+    Polynomial far = new SparsePolynomial();
+    far.addTerm(5, 2_000_000_000);
+    sum = simple.add(far);
+    assertTrue(sum instanceof SparsePolynomial);
+    assertEquals(-1, sum.getCoefficient(39));
+    assertEquals(5, sum.getCoefficient(2_000_000_000));
+    Polynomial spread = new SimplePolynomial();
+    spread.addTerm(2, 100000);
+    spread.addTerm(1, 1);
+    sum = spread.add(spread);
+    assertTrue(sum instanceof SparsePolynomial);
+    assertEquals("4x^100000+2x^1", sum.toString());
+    assertEquals("200000x^99999+1", spread.derivative().toString());
+    assertTrue(spread.derivative() instanceof SparsePolynomial);
+    assertTrue(first.derivative() instanceof SimplePolynomial);
+    assertEquals(39, first.derivative().getCoefficient(38));
+  }
+}
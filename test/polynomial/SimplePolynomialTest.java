@@ -89,5 +89,16 @@ public class SimplePolynomialTest extends AbstractPolynomialTest {
     assertEquals(2, simPolynomial.getCoefficient(100000));
   }
 
-
-}
\ No newline at end of file
+  /**
+   * Adding a single term of very high degree and cancelling it back out.
+   */
+  @Test(timeout = 1000)
+  public void test79() {
+    simPolynomial.addTerm(1, 5_000_000);
+    simPolynomial.addTerm(4, 3);
+    assertEquals(5_000_000, simPolynomial.getDegree());
+    simPolynomial.addTerm(-1, 5_000_000);
+    assertEquals(3, simPolynomial.getDegree());
+    assertEquals("4x^3", simPolynomial.toString());
+  }
+}
@@ -55,4 +55,108 @@ public class SparsePolynomialTest extends AbstractPolynomialTest {
     spaPolynomial = spaPolynomial.multiply(poly2);
     assertEquals(6, spaPolynomial.getCoefficient(100000));
   }
-}
\ No newline at end of file
+
+  /**
+   * Looking up coefficients in a sparse polynomial with many scattered terms.
+   */
+  @Test(timeout = 1000)
+  public void test79() {
+    for (int i = 99999; i >= 0; i--) {
+      spaPolynomial.addTerm(i + 1, 3 * i);
+    }
+    assertEquals(299997, spaPolynomial.getDegree());
+    assertEquals(1, spaPolynomial.getCoefficient(0));
+    assertEquals(50001, spaPolynomial.getCoefficient(150000));
+    assertEquals(0, spaPolynomial.getCoefficient(150001));
+    spaPolynomial.addTerm(-100000, 299997);
+    assertEquals(299994, spaPolynomial.getDegree());
+  }
+
+  /**
+   * Multiplying two sparse polynomials with three thousand terms each.
+   */
+  @Test(timeout = 5000)
+  public void test80() {
+    Polynomial poly2 = this.returnObject();
+    for (int i = 2999; i >= 0; i--) {
+      spaPolynomial.addTerm(1, 7 * i);
+      poly2.addTerm(1, 11 * i);
+    }
+    spaPolynomial = spaPolynomial.multiply(poly2);
+    assertEquals(7 * 2999 + 11 * 2999, spaPolynomial.getDegree());
+    assertEquals(1, spaPolynomial.getCoefficient(7 * 2999 + 11 * 2999));
+    assertEquals(2, spaPolynomial.getCoefficient(77));
+    assertEquals(1, spaPolynomial.getCoefficient(0));
+  }
+
+  /**
+   * Multiplying sparse polynomials whose products cancel out.
+   */
+  @Test
+  public void test81() {
+    spaPolynomial.addTerm(1, 1);
+    spaPolynomial.addTerm(1, 0);
+    Polynomial poly2 = this.returnObject();
+    poly2.addTerm(1, 1);
+    poly2.addTerm(-1, 0);
+    assertEquals("1x^2-1", spaPolynomial.multiply(poly2).toString());
+  }
+
+  /**
+   * Multiplying a sparse polynomial with many terms by a long dense one, whose number of
+   * term products does not fit in an int.
+   */
+  @Test(timeout = 10000)
+  public void test82() {
+    Polynomial dense = new SimplePolynomial();
+    for (int i = 0; i < 50000; i++) {
+      spaPolynomial.addTerm(1, 2 * i);
+      dense.addTerm(1, i);
+    }
+    for (Polynomial product : new Polynomial[]{spaPolynomial.multiply(dense),
+        dense.multiply(spaPolynomial)}) {
+      assertEquals(149997, product.getDegree());
+      assertEquals(1, product.getCoefficient(0));
+      assertEquals(1, product.getCoefficient(1));
+      assertEquals(25000, product.getCoefficient(49999));
+      assertEquals(1, product.getCoefficient(149997));
+    }
+  }
+
+  /**
+   * Sparse polynomials of high degree are divided without expanding them.
+   */
+  @Test(timeout = 1000)
+  public void test83() {
+    spaPolynomial.addTerm(1, 1000000000);
+    spaPolynomial.addTerm(-4, 500000000);
+    spaPolynomial.addTerm(9, 3);
+    Polynomial divisor = this.returnObject();
+    divisor.addTerm(1, 250000000);
+    divisor.addTerm(2, 0);
+    Polynomial[] result = spaPolynomial.divideAndRemainder(divisor);
+    assertEquals("1x^750000000-2x^500000000", result[0].toString());
+    assertEquals("9x^3", result[1].toString());
+    assertEquals(spaPolynomial, result[0].multiply(divisor).add(result[1]));
+  }
+
+  /**
+   * Substituting a monomial keeps a sparse polynomial of high degree sparse, and constant
+   * and zero inner polynomials give constants.
+   */
+  @Test(timeout = 1000)
+  public void test84() {
+    spaPolynomial.addTerm(5, 100_000_000);
+    spaPolynomial.addTerm(-1, 3);
+    spaPolynomial.addTerm(2, 0);
+    Polynomial monomial = this.returnObject();
+    monomial.addTerm(-1, 20);
+    assertEquals("5x^2000000000+1x^60+2", spaPolynomial.compose(monomial).toString());
+    assertEquals("1x^60+2", spaPolynomial.compose(monomial, 1_000_000).toString());
+    Polynomial constant = this.returnObjectDiff();
+    constant.addTerm(1, 0);
+    assertEquals("6", spaPolynomial.compose(constant).toString());
+    assertEquals("2", spaPolynomial.compose(this.returnObjectDiff()).toString());
+    assertEquals("2", spaPolynomial.compose(this.returnObjectDiff(), 5).toString());
+  }
+}
@@ -0,0 +1,147 @@
+package polynomial;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the test class for writeTo and the TermWriter behind it, checking that both
+ * destinations receive exactly the text of toString, also across several chunks.
+ */
+public class TermWriterTest {
+
+  /**
+   * Writes a polynomial to an Appendable and to a channel.
+   *
+   * @param polynomial the polynomial.
+   * @return the text written to both, which must be the same.
+   * @throws IOException never.
+   */
+  private static String write(Polynomial polynomial) throws IOException {
+    StringWriter writer = new StringWriter();
+    polynomial.writeTo(writer);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    polynomial.writeTo(Channels.newChannel(bytes));
+    String text = writer.toString();
+    assertEquals(text, new String(bytes.toByteArray(), StandardCharsets.US_ASCII));
+    return text;
+  }
+
+  /**
+   * Small polynomials keep the historical format, including the zero polynomial, a
+   * constant term and the double minus sign of Integer.MIN_VALUE.
+   */
+  @Test
+  public void testFormat() throws IOException {
+    assertEquals("0", write(new SimplePolynomial()));
+    assertEquals("0", write(new SparsePolynomial()));
+    Polynomial simple = new SimplePolynomial();
+    simple.addTerm(3, 4);
+    simple.addTerm(-2, 1);
+    simple.addTerm(7, 0);
+    assertEquals("3x^4-2x^1+7", write(simple));
+    Polynomial sparse = new SparsePolynomial();
+    sparse.addTerm(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    sparse.addTerm(-7, 0);
+    assertEquals("--2147483648x^2147483647-7", write(sparse));
+    assertEquals("-7", write(constant(-7)));
+    assertEquals(sparse.toString(), write(sparse.freeze()));
+  }
+
+  /**
+   * Modular polynomials write their residues joined by plus signs.
+   */
+  @Test
+  public void testModular() throws IOException {
+    ModularContext context = new ModularContext(7);
+    Polynomial dense = new DenseModularPolynomial(context);
+    dense.addTerm(-1, 2);
+    dense.addTerm(3, 0);
+    assertEquals("6x^2+3", write(dense));
+    Polynomial sparse = new SparseModularPolynomial(context);
+    sparse.addTerm(10, 1000);
+    sparse.addTerm(1, 1);
+    assertEquals("3x^1000+1x^1", write(sparse));
+    assertEquals("0", write(new SparseModularPolynomial(context)));
+  }
+
+  /**
+   * Texts much longer than a chunk are written completely and match the text built term
+   * by term, so no term is split or lost at a chunk boundary.
+   */
+  @Test
+  public void testManyChunks() throws IOException {
+    Polynomial simple = new SimplePolynomial();
+    Polynomial sparse = new SparsePolynomial();
+    StringBuilder expected = new StringBuilder();
+    for (int power = 5000; power >= 0; power--) {
+      int coefficient = power % 3 == 0 ? Integer.MIN_VALUE + power : power * 7919;
+      if (coefficient == 0) {
+        continue;
+      }
+      simple.addTerm(coefficient, power);
+      sparse.addTerm(coefficient, power);
+      if (coefficient < 0) {
+        expected.append('-').append(-coefficient);
+      } else {
+        expected.append(expected.length() > 0 ? "+" : "").append(coefficient);
+      }
+      if (power != 0) {
+        expected.append("x^").append(power);
+      }
+    }
+    assertTrue(expected.length() > 4 * TermWriter.CHUNK);
+    assertEquals(expected.toString(), write(simple));
+    assertEquals(expected.toString(), write(sparse));
+    assertEquals(expected.toString(), simple.toString());
+  }
+
+  /**
+   * A StringBuilder receives the terms directly after the text it already holds, and the
+   * same text as a chunked Appendable.
+   */
+  @Test
+  public void testStringBuilder() throws IOException {
+    Polynomial sparse = new SparsePolynomial();
+    for (int power = 3000; power >= 0; power -= 3) {
+      sparse.addTerm(power * -7919, power);
+    }
+    sparse.addTerm(Integer.MIN_VALUE, 0);
+    StringBuilder builder = new StringBuilder("p=");
+    sparse.writeTo(builder);
+    StringBuffer buffer = new StringBuffer("p=");
+    sparse.writeTo(buffer);
+    assertEquals(buffer.toString(), builder.toString());
+    assertEquals("p=" + write(sparse), builder.toString());
+    builder.setLength(0);
+    new SimplePolynomial().writeTo(builder);
+    assertEquals("0", builder.toString());
+  }
+
+  /**
+   * A null Appendable is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullAppendable() throws IOException {
+    new SimplePolynomial().writeTo((Appendable) null);
+  }
+
+  /**
+   * Builds a constant polynomial.
+   *
+   * @param value the constant.
+   * @return the polynomial.
+   */
+  private static Polynomial constant(int value) {
+    Polynomial polynomial = new SparsePolynomial();
+    polynomial.addTerm(value, 0);
+    return polynomial;
+  }
+}